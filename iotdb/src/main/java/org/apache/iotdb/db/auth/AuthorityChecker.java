@@ -46,6 +46,23 @@ public class AuthorityChecker {
   public static boolean check(String username, List<Path> paths, Operator.OperatorType type,
       String targetUser)
       throws AuthException {
+    return check(username, paths, type, targetUser, null);
+  }
+
+  /**
+   * check permission, the decisions of the paths are looked up in and added to the cache.
+   *
+   * @param username username
+   * @param paths paths in List structure
+   * @param type Operator type
+   * @param targetUser target user
+   * @param cache the decisions made for the user, or null if the decisions are not cached
+   * @return if permission-check is passed
+   * @throws AuthException Authentication Exception
+   */
+  public static boolean check(String username, List<Path> paths, Operator.OperatorType type,
+      String targetUser, PrivilegeDecisionCache cache)
+      throws AuthException {
     if (SUPER_USER.equals(username)) {
       return true;
     }
@@ -60,22 +77,24 @@ public class AuthorityChecker {
     }
     if (paths.size() > 0) {
       for (Path path : paths) {
-        if (!checkOnePath(username, path, permission)) {
+        if (!checkOnePath(username, path, permission, cache)) {
           return false;
         }
       }
     } else {
-      return checkOnePath(username, null, permission);
+      return checkOnePath(username, null, permission, cache);
     }
     return true;
   }
 
-  private static boolean checkOnePath(String username, Path path, int permission)
+  private static boolean checkOnePath(String username, Path path, int permission,
+      PrivilegeDecisionCache cache)
       throws AuthException {
     IAuthorizer authorizer = LocalFileAuthorizer.getInstance();
     try {
       String fullPath = path == null ? IoTDBConstant.PATH_ROOT : path.getFullPath();
-      if (authorizer.checkUserPrivileges(username, fullPath, permission)) {
+      if (cache == null ? authorizer.checkUserPrivileges(username, fullPath, permission)
+          : cache.checkUserPrivileges(authorizer, username, fullPath, permission)) {
         return true;
       }
     } catch (AuthException e) {
@@ -125,6 +144,7 @@ public class AuthorityChecker {
       case DELETE:
         return PrivilegeType.DELETE_TIMESERIES.ordinal();
       case INSERT:
+      case BATCHINSERT:
       case LOADDATA:
       case INDEX:
         return PrivilegeType.INSERT_TIMESERIES.ordinal();
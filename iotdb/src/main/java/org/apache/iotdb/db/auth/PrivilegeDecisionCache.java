@@ -0,0 +1,77 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.db.auth;
+
+import java.util.HashMap;
+import java.util.Map;
+import org.apache.iotdb.db.auth.authorizer.IAuthorizer;
+
+/**
+ * The privilege decisions made for the user of a session, so that the same paths are not checked
+ * again by every statement. All the decisions are dropped when the privilege version of the
+ * authorizer changes.
+ */
+public class PrivilegeDecisionCache {
+
+  // the decisions are dropped when there are more than this many of them
+  private static final int MAX_DECISIONS = 4096;
+
+  private long version = -1;
+  // the key is the privilege id and the path
+  private final Map<Integer, Map<String, Boolean>> decisions = new HashMap<>();
+  private int size = 0;
+
+  /**
+   * check if the user has the privilege on the path, the decision is cached if the privileges of
+   * the authorizer do not change during the check.
+   */
+  boolean checkUserPrivileges(IAuthorizer authorizer, String username, String path,
+      int privilegeId) throws AuthException {
+    long currentVersion = authorizer.getPrivilegeVersion();
+    synchronized (this) {
+      if (version != currentVersion) {
+        clear();
+        version = currentVersion;
+      }
+      Map<String, Boolean> pathDecisions = decisions.get(privilegeId);
+      Boolean decision = pathDecisions == null ? null : pathDecisions.get(path);
+      if (decision != null) {
+        return decision;
+      }
+    }
+    boolean decision = authorizer.checkUserPrivileges(username, path, privilegeId);
+    synchronized (this) {
+      if (version == currentVersion) {
+        if (size >= MAX_DECISIONS) {
+          clear();
+        }
+        if (decisions.computeIfAbsent(privilegeId, k -> new HashMap<>()).put(path, decision)
+            == null) {
+          size++;
+        }
+      }
+    }
+    return decision;
+  }
+
+  private void clear() {
+    decisions.clear();
+    size = 0;
+  }
+}
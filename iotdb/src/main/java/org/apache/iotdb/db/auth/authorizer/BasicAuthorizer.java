@@ -18,9 +18,13 @@
  */
 package org.apache.iotdb.db.auth.authorizer;
 
+import java.util.ArrayList;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
 import org.apache.iotdb.db.auth.AuthException;
 import org.apache.iotdb.db.auth.entity.PrivilegeType;
 import org.apache.iotdb.db.auth.entity.Role;
@@ -49,6 +53,10 @@ public abstract class BasicAuthorizer implements IAuthorizer, IService {
 
   private IUserManager userManager;
   private IRoleManager roleManager;
+  // the compiled privileges of the users, the key is the username.
+  private final Map<String, PrivilegeIndex> privilegeIndexes = new ConcurrentHashMap<>();
+  // increased after every change that may affect the privileges of a user.
+  private final AtomicLong privilegeVersion = new AtomicLong();
 
   BasicAuthorizer(IUserManager userManager, IRoleManager roleManager) throws AuthException {
     this.userManager = userManager;
@@ -59,6 +67,8 @@ public abstract class BasicAuthorizer implements IAuthorizer, IService {
   protected void init() throws AuthException {
     userManager.reset();
     roleManager.reset();
+    privilegeIndexes.clear();
+    privilegeVersion.incrementAndGet();
     logger.info("Initialization of Authorizer completes");
   }
 
@@ -78,7 +88,10 @@ public abstract class BasicAuthorizer implements IAuthorizer, IService {
     if (IoTDBConstant.ADMIN_NAME.equals(username)) {
       throw new AuthException("Default administrator cannot be deleted");
     }
-    return userManager.deleteUser(username);
+    boolean success = userManager.deleteUser(username);
+    privilegeIndexes.remove(username);
+    privilegeVersion.incrementAndGet();
+    return success;
   }
 
   @Override
@@ -90,7 +103,9 @@ public abstract class BasicAuthorizer implements IAuthorizer, IService {
     if (!PrivilegeType.isPathRelevant(privilegeId)) {
       path = IoTDBConstant.PATH_ROOT;
     }
-    return userManager.grantPrivilegeToUser(username, path, privilegeId);
+    boolean success = userManager.grantPrivilegeToUser(username, path, privilegeId);
+    privilegeVersion.incrementAndGet();
+    return success;
   }
 
   @Override
@@ -102,12 +117,17 @@ public abstract class BasicAuthorizer implements IAuthorizer, IService {
     if (!PrivilegeType.isPathRelevant(privilegeId)) {
       path = IoTDBConstant.PATH_ROOT;
     }
-    return userManager.revokePrivilegeFromUser(username, path, privilegeId);
+    boolean success = userManager.revokePrivilegeFromUser(username, path, privilegeId);
+    privilegeVersion.incrementAndGet();
+    return success;
   }
 
   @Override
   public boolean createRole(String roleName) throws AuthException {
-    return roleManager.createRole(roleName);
+    boolean success = roleManager.createRole(roleName);
+    // a user may still refer to a deleted role of the same name
+    privilegeVersion.incrementAndGet();
+    return success;
   }
 
   @Override
@@ -127,6 +147,7 @@ public abstract class BasicAuthorizer implements IAuthorizer, IService {
               roleName, user, e);
         }
       }
+      privilegeVersion.incrementAndGet();
     }
     return true;
   }
@@ -137,7 +158,9 @@ public abstract class BasicAuthorizer implements IAuthorizer, IService {
     if (!PrivilegeType.isPathRelevant(privilegeId)) {
       path = IoTDBConstant.PATH_ROOT;
     }
-    return roleManager.grantPrivilegeToRole(roleName, path, privilegeId);
+    boolean success = roleManager.grantPrivilegeToRole(roleName, path, privilegeId);
+    privilegeVersion.incrementAndGet();
+    return success;
   }
 
   @Override
@@ -146,7 +169,9 @@ public abstract class BasicAuthorizer implements IAuthorizer, IService {
     if (!PrivilegeType.isPathRelevant(privilegeId)) {
       path = IoTDBConstant.PATH_ROOT;
     }
-    return roleManager.revokePrivilegeFromRole(roleName, path, privilegeId);
+    boolean success = roleManager.revokePrivilegeFromRole(roleName, path, privilegeId);
+    privilegeVersion.incrementAndGet();
+    return success;
   }
 
   @Override
@@ -157,6 +182,7 @@ public abstract class BasicAuthorizer implements IAuthorizer, IService {
     }
     // the role may be deleted before it ts granted to the user, so a double check is necessary.
     boolean success = userManager.grantRoleToUser(roleName, username);
+    privilegeVersion.incrementAndGet();
     if (success) {
       role = roleManager.getRole(roleName);
       if (role == null) {
@@ -175,7 +201,9 @@ public abstract class BasicAuthorizer implements IAuthorizer, IService {
     if (role == null) {
       throw new AuthException(String.format("No such role : %s", roleName));
     }
-    return userManager.revokeRoleFromUser(roleName, username);
+    boolean success = userManager.revokeRoleFromUser(roleName, username);
+    privilegeVersion.incrementAndGet();
+    return success;
   }
 
   @Override
@@ -210,22 +238,40 @@ public abstract class BasicAuthorizer implements IAuthorizer, IService {
     if (IoTDBConstant.ADMIN_NAME.equals(username)) {
       return true;
     }
+    return getPrivilegeIndex(username).checkPrivilege(path, privilegeId);
+  }
+
+  /**
+   * get the compiled privileges of the user and its roles, the index is built again if the
+   * privileges have changed since it was built.
+   */
+  private PrivilegeIndex getPrivilegeIndex(String username) throws AuthException {
+    // read the version before the privileges, so that a change made while building the index
+    // makes the index stale
+    long version = privilegeVersion.get();
+    PrivilegeIndex index = privilegeIndexes.get(username);
+    if (index != null && index.getVersion() == version) {
+      return index;
+    }
     User user = userManager.getUser(username);
     if (user == null) {
       throw new AuthException(String.format("No such user : %s", username));
     }
-    // get privileges of the user
-    if (user.checkPrivilege(path, privilegeId)) {
-      return true;
-    }
-    // merge the privileges of the roles of the user
+    List<Role> roles = new ArrayList<>();
     for (String roleName : user.getRoleList()) {
       Role role = roleManager.getRole(roleName);
-      if (role.checkPrivilege(path, privilegeId)) {
-        return true;
+      if (role != null) {
+        roles.add(role);
       }
     }
-    return false;
+    index = new PrivilegeIndex(user, roles, version);
+    privilegeIndexes.put(username, index);
+    return index;
+  }
+
+  @Override
+  public long getPrivilegeVersion() {
+    return privilegeVersion.get();
   }
 
   @Override
@@ -220,6 +220,15 @@ public interface IAuthorizer {
    */
   boolean checkUserPrivileges(String username, String path, int privilegeId) throws AuthException;
 
+  /**
+   * Get the version of the privileges, which changes whenever the privileges of a user or a role
+   * may have changed, so that the results of {@link #checkUserPrivileges} can be cached until it
+   * changes.
+   *
+   * @return The current privilege version.
+   */
+  long getPrivilegeVersion();
+
   /**
    * Reset the Authorizer to initiative status.
    */
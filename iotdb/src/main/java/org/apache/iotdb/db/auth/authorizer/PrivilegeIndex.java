@@ -0,0 +1,131 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.db.auth.authorizer;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import org.apache.iotdb.db.auth.entity.PathPrivilege;
+import org.apache.iotdb.db.auth.entity.Role;
+import org.apache.iotdb.db.auth.entity.User;
+import org.apache.iotdb.db.conf.IoTDBConstant;
+
+/**
+ * The privileges of a user and of all its roles compiled into a trie of path nodes, so that
+ * checking whether a privilege covers a path takes one lookup per node of the path instead of a
+ * scan of every privilege list. A privilege granted on a path covers the path and all the paths
+ * under it, the same as {@link org.apache.iotdb.db.utils.AuthUtils#checkPrivilege}.
+ *
+ * <p>The index is immutable, it is built again when the privileges change.
+ */
+public class PrivilegeIndex {
+
+  private final long version;
+  // the privileges granted without a path, as a bit set of privilege ids
+  private int pathFreePrivileges;
+  // the nodes of the paths, the virtual root node is the parent of "root"
+  private final Node root = new Node();
+
+  /**
+   * build the index.
+   *
+   * @param user the user whose privileges are indexed
+   * @param roles the roles of the user
+   * @param version the privilege version of the authorizer when the index is built
+   */
+  public PrivilegeIndex(User user, List<Role> roles, long version) {
+    this.version = version;
+    addPrivileges(user.getPrivilegeList());
+    for (Role role : roles) {
+      addPrivileges(role.getPrivilegeList());
+    }
+  }
+
+  public long getVersion() {
+    return version;
+  }
+
+  /**
+   * check if the privilege is granted on the path or on one of its prefixes.
+   *
+   * @param path series path, null for path-free privileges
+   * @param privilegeId privilege id
+   * @return True if privilege-check passed
+   */
+  public boolean checkPrivilege(String path, int privilegeId) {
+    if (privilegeId < 0 || privilegeId >= Integer.SIZE) {
+      return false;
+    }
+    int mask = 1 << privilegeId;
+    if (path == null) {
+      return (pathFreePrivileges & mask) != 0;
+    }
+    Node node = root;
+    int start = 0;
+    while (true) {
+      int end = path.indexOf(IoTDBConstant.PATH_SEPARATER, start);
+      node = node.children.get(end == -1 ? path.substring(start) : path.substring(start, end));
+      if (node == null) {
+        return false;
+      }
+      if ((node.privileges & mask) != 0) {
+        return true;
+      }
+      if (end == -1) {
+        return false;
+      }
+      start = end + 1;
+    }
+  }
+
+  private void addPrivileges(List<PathPrivilege> privilegeList) {
+    if (privilegeList == null) {
+      return;
+    }
+    for (PathPrivilege pathPrivilege : privilegeList) {
+      int privileges = 0;
+      for (int privilegeId : pathPrivilege.getPrivileges()) {
+        if (privilegeId >= 0 && privilegeId < Integer.SIZE) {
+          privileges |= 1 << privilegeId;
+        }
+      }
+      String path = pathPrivilege.getPath();
+      if (path == null) {
+        pathFreePrivileges |= privileges;
+        continue;
+      }
+      Node node = root;
+      int start = 0;
+      int end;
+      do {
+        end = path.indexOf(IoTDBConstant.PATH_SEPARATER, start);
+        String name = end == -1 ? path.substring(start) : path.substring(start, end);
+        node = node.children.computeIfAbsent(name, k -> new Node());
+        start = end + 1;
+      } while (end != -1);
+      node.privileges |= privileges;
+    }
+  }
+
+  private static class Node {
+
+    private int privileges;
+    private final Map<String, Node> children = new HashMap<>();
+  }
+}
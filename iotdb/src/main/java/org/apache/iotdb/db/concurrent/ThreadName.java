@@ -34,6 +34,9 @@ public enum ThreadName {
   FLUSH_SERVICE("Flush-ServerServiceImpl"),
   WAL_DAEMON("IoTDB-MultiFileLogNodeManager-Sync-Thread"),
   WAL_FORCE_DAEMON("IoTDB-MultiFileLogNodeManager-Force-Thread"),
+  WAL_RECOVER("IoTDB-MultiFileLogNodeManager-Recover-Thread"),
+  QUERY_PREFETCH("IoTDB-Query-Prefetch-Thread"),
+  PARALLEL_READ("IoTDB-Parallel-Read-Thread"),
   INDEX_SERVICE("Index-ServerServiceImpl");
 
   private String name;
@@ -23,6 +23,7 @@ import java.time.ZoneId;
 import java.util.ArrayList;
 import java.util.List;
 import org.apache.iotdb.db.metadata.MManager;
+import org.apache.iotdb.db.writelog.WalFsyncPolicy;
 
 public class IoTDBConfig {
 
@@ -39,6 +40,29 @@ public class IoTDBConfig {
    */
   public int rpcPort = 6667;
 
+  /**
+   * If true, the JDBC server uses a non-blocking TThreadedSelectorServer with framed transport, so
+   * that idle connections do not hold a thread. Otherwise each connection is served by its own
+   * thread of a TThreadPoolServer. Clients must use framed transport in the selector mode.
+   */
+  public boolean rpcSelectorMode = false;
+
+  /**
+   * The number of selector threads accepting and reading the connections in the selector mode.
+   */
+  public int rpcSelectorThreadNum = 2;
+
+  /**
+   * The number of worker threads executing the requests in the selector mode. If it is not
+   * positive, the number of cores * 2 is used.
+   */
+  public int rpcWorkerThreadNum = Runtime.getRuntime().availableProcessors() * 2;
+
+  /**
+   * The maximum size in bytes of a request frame in the selector mode.
+   */
+  public int rpcMaxFrameSize = 64 * 1024 * 1024;
+
   /**
    * Is the write ahead log enable.
    */
@@ -62,6 +86,37 @@ public class IoTDBConfig {
    */
   public long forceWalPeriodInMs = 10;
 
+  /**
+   * If true, concurrent writers append their logs into a shared buffer of each log node, and the
+   * buffer is written to the WAL file with one write (and at most one force) per commit, instead of
+   * taking the log node lock for each log.
+   */
+  public boolean enableWalGroupCommit = false;
+
+  /**
+   * When the group commit WAL forces its file to disk. EVERY_COMMIT: in every commit, a write
+   * returns after its log is on disk. PERIODIC: every force_wal_period_in_ms ms. OS: never
+   * explicitly.
+   */
+  public WalFsyncPolicy walFsyncPolicy = WalFsyncPolicy.PERIODIC;
+
+  /**
+   * The size in byte of each of the two buffers of a group commit log node. It is at least
+   * max_log_entry_size.
+   */
+  public int walBufferSize = 1024 * 1024;
+
+  /**
+   * The number of threads which replay write ahead logs at startup. The logs of different storage
+   * groups are replayed in parallel.
+   */
+  public int walRecoverThreadNum = 1;
+
+  /**
+   * If true, write ahead log files are memory-mapped when they are replayed at startup.
+   */
+  public boolean enableMmapWalReplay = false;
+
   /**
    * Data directory.
    */
@@ -139,6 +194,52 @@ public class IoTDBConfig {
    */
   public int fetchSize = 10000;
 
+  /**
+   * The number of threads reading the next batch of query results while the current batch is sent
+   * to the client. If it is 0, query results are read only when they are fetched.
+   */
+  public int queryPrefetchThreadNum = Runtime.getRuntime().availableProcessors();
+
+  /**
+   * The number of threads shared by all queries to read the series selected by a query in
+   * parallel. If it is 0, the series of a query are read one after another by the query thread.
+   */
+  public int parallelReadThreadNum = Runtime.getRuntime().availableProcessors();
+
+  /**
+   * The maximum number of series of one query read in parallel at the same time.
+   */
+  public int maxParallelReadsPerQuery = 4;
+
+  /**
+   * The maximum number of batches read ahead for each series read in parallel.
+   */
+  public int parallelReadQueueSize = 2;
+
+  /**
+   * The maximum number of bytes taken by the chunks of sealed tsfiles cached for all queries. If it
+   * is 0, the chunks are not cached.
+   */
+  public long chunkCacheSizeInByte = 100 * 1024 * 1024L;
+
+  /**
+   * The maximum number of bytes taken by the file and device metadata of sealed tsfiles cached for
+   * all queries. If it is 0, the metadata is not cached.
+   */
+  public long metadataCacheSizeInByte = 20 * 1024 * 1024L;
+
+  /**
+   * Whether the readers of sealed tsfiles map the files into memory, so that chunks are read
+   * without system calls and copies. On a 32-bit JVM the files are never mapped.
+   */
+  public boolean enableMmapTsFileReader = false;
+
+  /**
+   * The maximum number of query plans cached by their normalized SQL, whose literals in the where
+   * clause are lifted out. If it is 0, the plans are not cached.
+   */
+  public int planCacheSize = 1000;
+
   /**
    * the maximum number of writing instances existing in same time.
    */
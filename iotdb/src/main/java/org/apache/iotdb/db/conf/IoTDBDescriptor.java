@@ -26,6 +26,7 @@ import java.io.InputStream;
 import java.time.ZoneId;
 import java.util.Properties;
 import org.apache.iotdb.db.engine.memcontrol.BasicMemController.ControllerType;
+import org.apache.iotdb.db.writelog.WalFsyncPolicy;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -111,6 +112,17 @@ public class IoTDBDescriptor {
 
       conf.rpcPort = Integer.parseInt(properties.getProperty("rpc_port",
           conf.rpcPort + ""));
+      conf.rpcSelectorMode = Boolean.parseBoolean(properties.getProperty("rpc_selector_mode",
+          conf.rpcSelectorMode + ""));
+      conf.rpcSelectorThreadNum = Integer.parseInt(properties.getProperty(
+          "rpc_selector_thread_num", conf.rpcSelectorThreadNum + ""));
+      conf.rpcWorkerThreadNum = Integer.parseInt(properties.getProperty("rpc_worker_thread_num",
+          conf.rpcWorkerThreadNum + ""));
+      if (conf.rpcWorkerThreadNum <= 0) {
+        conf.rpcWorkerThreadNum = Runtime.getRuntime().availableProcessors() * 2;
+      }
+      conf.rpcMaxFrameSize = Integer.parseInt(properties.getProperty("rpc_max_frame_size",
+          conf.rpcMaxFrameSize + ""));
 
       conf.enableWal = Boolean.parseBoolean(properties.getProperty("enable_wal",
           conf.enableWal + ""));
@@ -124,6 +136,23 @@ public class IoTDBDescriptor {
       conf.forceWalPeriodInMs = Integer
           .parseInt(properties.getProperty("force_wal_period_in_ms",
               conf.forceWalPeriodInMs + ""));
+      conf.enableWalGroupCommit = Boolean
+          .parseBoolean(properties.getProperty("enable_wal_group_commit",
+              conf.enableWalGroupCommit + ""));
+      conf.walFsyncPolicy = WalFsyncPolicy
+          .valueOf(properties.getProperty("wal_fsync_policy", conf.walFsyncPolicy.name())
+              .trim().toUpperCase());
+      conf.walBufferSize = Integer
+          .parseInt(properties.getProperty("wal_buffer_size", conf.walBufferSize + "").trim());
+      conf.walRecoverThreadNum = Integer
+          .parseInt(properties.getProperty("wal_recover_thread_num",
+              conf.walRecoverThreadNum + "").trim());
+      if (conf.walRecoverThreadNum <= 0) {
+        conf.walRecoverThreadNum = Runtime.getRuntime().availableProcessors();
+      }
+      conf.enableMmapWalReplay = Boolean
+          .parseBoolean(properties.getProperty("enable_mmap_wal_replay",
+              conf.enableMmapWalReplay + ""));
 
       conf.dataDir = properties.getProperty("data_dir", conf.dataDir);
       conf.bufferWriteDirs = properties.getProperty("tsfile_dir", conf.default_tsfile_dir)
@@ -147,6 +176,36 @@ public class IoTDBDescriptor {
       conf.fetchSize = Integer.parseInt(properties.getProperty("fetch_size",
           conf.fetchSize + ""));
 
+      conf.queryPrefetchThreadNum = Integer.parseInt(properties
+          .getProperty("query_prefetch_thread_num", conf.queryPrefetchThreadNum + "").trim());
+      if (conf.queryPrefetchThreadNum < 0) {
+        conf.queryPrefetchThreadNum = Runtime.getRuntime().availableProcessors();
+      }
+
+      conf.parallelReadThreadNum = Integer.parseInt(properties
+          .getProperty("parallel_read_thread_num", conf.parallelReadThreadNum + "").trim());
+      if (conf.parallelReadThreadNum < 0) {
+        conf.parallelReadThreadNum = Runtime.getRuntime().availableProcessors();
+      }
+
+      conf.maxParallelReadsPerQuery = Integer.parseInt(properties
+          .getProperty("max_parallel_reads_per_query", conf.maxParallelReadsPerQuery + "").trim());
+
+      conf.parallelReadQueueSize = Integer.parseInt(properties
+          .getProperty("parallel_read_queue_size", conf.parallelReadQueueSize + "").trim());
+
+      conf.chunkCacheSizeInByte = Long.parseLong(properties
+          .getProperty("chunk_cache_size_in_byte", conf.chunkCacheSizeInByte + "").trim());
+
+      conf.metadataCacheSizeInByte = Long.parseLong(properties
+          .getProperty("metadata_cache_size_in_byte", conf.metadataCacheSizeInByte + "").trim());
+
+      conf.enableMmapTsFileReader = Boolean.parseBoolean(properties
+          .getProperty("enable_mmap_tsfile_reader", conf.enableMmapTsFileReader + "").trim());
+
+      conf.planCacheSize = Integer.parseInt(properties
+          .getProperty("plan_cache_size", conf.planCacheSize + "").trim());
+
       conf.periodTimeForFlush = Long.parseLong(
           properties.getProperty("period_time_for_flush_in_second",
               conf.periodTimeForFlush + "").trim());
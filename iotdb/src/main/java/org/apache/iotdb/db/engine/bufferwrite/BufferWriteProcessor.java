@@ -41,6 +41,7 @@ import org.apache.iotdb.db.engine.pool.FlushManager;
 import org.apache.iotdb.db.engine.querycontext.ReadOnlyMemChunk;
 import org.apache.iotdb.db.engine.utils.FlushStatus;
 import org.apache.iotdb.db.exception.BufferWriteProcessorException;
+import org.apache.iotdb.db.qp.physical.crud.BatchInsertPlan;
 import org.apache.iotdb.db.utils.MemUtils;
 import org.apache.iotdb.db.writelog.manager.MultiFileLogNodeManager;
 import org.apache.iotdb.db.writelog.node.WriteLogNode;
@@ -166,11 +167,40 @@ public class BufferWriteProcessor extends Processor {
     BasicMemController.UsageLevel level = BasicMemController.getInstance()
         .reportUse(this, memUsage);
     for (DataPoint dataPoint : tsRecord.dataPointList) {
-      workMemTable.write(tsRecord.deviceId, dataPoint.getMeasurementId(), dataPoint.getType(),
-          tsRecord.time,
-          dataPoint.getValue().toString());
+      workMemTable.write(tsRecord.deviceId, tsRecord.time, dataPoint);
     }
     valueCount++;
+    return checkMemUsage(level, memUsage);
+  }
+
+  /**
+   * write the rows [start, end) of a batch into the memtable column by column. If the memory usage
+   * is beyond the memThreshold, an async flushing operation will be called.
+   *
+   * @param plan batch whose values are already typed
+   * @param start index of the first row to be written
+   * @param end index after the last row to be written
+   * @return false if the memory usage exceeds the dangerous threshold, true otherwise
+   * @throws BufferWriteProcessorException if a flushing operation occurs and failed.
+   */
+  public boolean write(BatchInsertPlan plan, int start, int end)
+      throws BufferWriteProcessorException {
+    long memUsage = MemUtils.getBatchSize(plan, start, end);
+    BasicMemController.UsageLevel level = BasicMemController.getInstance()
+        .reportUse(this, memUsage);
+    String[] measurements = plan.getMeasurements();
+    TSDataType[] dataTypes = plan.getDataTypes();
+    Object[] columns = plan.getColumns();
+    for (int i = 0; i < measurements.length; i++) {
+      workMemTable.write(plan.getDeviceId(), measurements[i], dataTypes[i], plan.getTimes(),
+          columns[i], start, end);
+    }
+    valueCount += end - start;
+    return checkMemUsage(level, memUsage);
+  }
+
+  private boolean checkMemUsage(BasicMemController.UsageLevel level, long memUsage)
+      throws BufferWriteProcessorException {
     String memory;
     switch (level) {
       case SAFE:
@@ -220,7 +250,7 @@ public class BufferWriteProcessor extends Processor {
       TSDataType dataType) {
     flushQueryLock.lock();
     try {
-      MemSeriesLazyMerger memSeriesLazyMerger = new MemSeriesLazyMerger();
+      MemSeriesLazyMerger memSeriesLazyMerger = new MemSeriesLazyMerger(dataType);
       if (isFlush) {
         memSeriesLazyMerger.addMemSeries(flushMemTable.query(deviceId, measurementId, dataType));
       }
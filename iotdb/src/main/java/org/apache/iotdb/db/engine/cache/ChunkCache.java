@@ -0,0 +1,339 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.db.engine.cache;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import org.apache.iotdb.db.conf.IoTDBConfig;
+import org.apache.iotdb.db.conf.IoTDBDescriptor;
+import org.apache.iotdb.db.monitor.IStatistic;
+import org.apache.iotdb.db.monitor.MonitorConstants;
+import org.apache.iotdb.db.monitor.MonitorConstants.ChunkCacheStatConstants;
+import org.apache.iotdb.db.monitor.StatMonitor;
+import org.apache.iotdb.tsfile.file.metadata.ChunkMetaData;
+import org.apache.iotdb.tsfile.read.TsFileSequenceReader;
+import org.apache.iotdb.tsfile.read.common.Chunk;
+import org.apache.iotdb.tsfile.write.record.TSRecord;
+
+/**
+ * This class is used to cache the <code>Chunk</code>s of sealed tsfiles for all queries. A chunk is
+ * identified by its file path and the offset of its header, and the cached chunks take at most
+ * {@link IoTDBConfig#chunkCacheSizeInByte} bytes.
+ *
+ * <p>The eviction is a segmented LRU: a chunk enters the probationary segment when it is loaded
+ * and is promoted to the protected segment when it is hit again, so that one large scan does not
+ * flush the chunks which are read repeatedly. The least recently used chunks of the probationary
+ * segment are evicted first.
+ *
+ * <p>Lookups do not lock, a hit only marks its chunk as accessed. A missing chunk is read once by
+ * the query which finds it missing, the other queries asking for it at the same time wait for the
+ * same future. The segments are only sorted out under a lock when the budget is exceeded.
+ */
+public class ChunkCache implements IStatistic {
+
+  /**
+   * the share of the byte budget which the protected segment can take.
+   */
+  private static final double PROTECTED_RATIO = 0.8;
+
+  private final long capacity;
+  private final long protectedCapacity;
+
+  private final ConcurrentHashMap<ChunkCacheKey, CacheEntry> cache = new ConcurrentHashMap<>();
+  private final AtomicLong usedSize = new AtomicLong();
+  private final ReentrantLock evictionLock = new ReentrantLock();
+
+  private final HashMap<String, AtomicLong> statParamsHashMap = MonitorConstants
+      .initValues(MonitorConstants.CHUNK_CACHE_CONST);
+
+  private ChunkCache() {
+    this(IoTDBDescriptor.getInstance().getConfig().chunkCacheSizeInByte);
+    if (IoTDBDescriptor.getInstance().getConfig().enableStatMonitor) {
+      registStatMetadata();
+      StatMonitor.getInstance().registStatistics(MonitorConstants.STAT_CHUNK_CACHE_NAME, this);
+    }
+  }
+
+  /**
+   * only for test, the instance is not registered to StatMonitor.
+   *
+   * @param capacity -the byte budget, the cache is disabled if it is not positive
+   */
+  ChunkCache(long capacity) {
+    this.capacity = capacity;
+    this.protectedCapacity = (long) (capacity * PROTECTED_RATIO);
+  }
+
+  public static ChunkCache getInstance() {
+    return ChunkCacheHolder.INSTANCE;
+  }
+
+  /**
+   * get the chunk of the given metadata in the given file, read it with the reader if it is not
+   * cached. The returned chunk can be consumed without affecting the cached one.
+   *
+   * @param filePath -path of the sealed tsfile
+   * @param metaData -metadata of the chunk
+   * @param reader -reader of the tsfile
+   */
+  public Chunk get(String filePath, ChunkMetaData metaData, TsFileSequenceReader reader)
+      throws IOException {
+    if (capacity <= 0) {
+      return reader.readMemChunk(metaData);
+    }
+    ChunkCacheKey key = new ChunkCacheKey(filePath, metaData.getOffsetOfChunkHeader());
+    CacheEntry newEntry = new CacheEntry();
+    CacheEntry entry = cache.putIfAbsent(key, newEntry);
+    Chunk chunk;
+    if (entry != null) {
+      statParamsHashMap.get(ChunkCacheStatConstants.HIT_NUM.name()).incrementAndGet();
+      // promote it, the protected segment is trimmed by the next eviction
+      entry.isProtected = true;
+      entry.lastAccessTime = System.nanoTime();
+      chunk = entry.getChunk();
+    } else {
+      statParamsHashMap.get(ChunkCacheStatConstants.MISS_NUM.name()).incrementAndGet();
+      chunk = load(key, newEntry, metaData, reader);
+    }
+    return new Chunk(chunk.getHeader(), chunk.getData().duplicate());
+  }
+
+  private Chunk load(ChunkCacheKey key, CacheEntry newEntry, ChunkMetaData metaData,
+      TsFileSequenceReader reader) throws IOException {
+    Chunk chunk;
+    try {
+      chunk = reader.readMemChunk(metaData);
+    } catch (IOException | RuntimeException e) {
+      cache.remove(key, newEntry);
+      newEntry.future.completeExceptionally(e);
+      throw e;
+    }
+    newEntry.lastAccessTime = System.nanoTime();
+    newEntry.future.complete(chunk);
+
+    long chunkSize = sizeOf(chunk);
+    newEntry.chargedSize.set(chunkSize);
+    usedSize.addAndGet(chunkSize);
+    if (chunkSize > capacity || cache.get(key) != newEntry) {
+      // too large to be cached, or removed while being loaded
+      discard(key, newEntry);
+    }
+    while (usedSize.get() > capacity && evictionLock.tryLock()) {
+      try {
+        evict();
+      } finally {
+        evictionLock.unlock();
+      }
+    }
+    return chunk;
+  }
+
+  private void discard(ChunkCacheKey key, CacheEntry entry) {
+    cache.remove(key, entry);
+    // the size is given back only once, whichever of the loader and the remover comes last
+    usedSize.addAndGet(-entry.chargedSize.getAndSet(0));
+  }
+
+  /**
+   * split the loaded chunks into the two segments by their last accesses, then evict the least
+   * recently used chunks of the probationary segment and, if it is not enough, of the protected
+   * one. It must be called with evictionLock held.
+   */
+  private void evict() {
+    List<Entry<ChunkCacheKey, CacheEntry>> probationSegment = new ArrayList<>();
+    List<Entry<ChunkCacheKey, CacheEntry>> protectedSegment = new ArrayList<>();
+    long protectedSize = 0;
+    for (Entry<ChunkCacheKey, CacheEntry> entry : cache.entrySet()) {
+      long chargedSize = entry.getValue().chargedSize.get();
+      if (chargedSize == 0) {
+        continue;
+      }
+      if (entry.getValue().isProtected) {
+        protectedSegment.add(entry);
+        protectedSize += chargedSize;
+      } else {
+        probationSegment.add(entry);
+      }
+    }
+    Comparator<Entry<ChunkCacheKey, CacheEntry>> lruOrder = Comparator
+        .comparingLong(entry -> entry.getValue().lastAccessTime);
+    probationSegment.sort(lruOrder);
+    protectedSegment.sort(lruOrder);
+
+    // the chunks pushed out of the protected segment get another chance
+    int demotedNum = 0;
+    while (protectedSize > protectedCapacity && protectedSegment.size() - demotedNum > 1) {
+      Entry<ChunkCacheKey, CacheEntry> eldest = protectedSegment.get(demotedNum++);
+      eldest.getValue().isProtected = false;
+      eldest.getValue().lastAccessTime = System.nanoTime();
+      protectedSize -= eldest.getValue().chargedSize.get();
+      probationSegment.add(eldest);
+    }
+
+    List<Entry<ChunkCacheKey, CacheEntry>> evictionOrder = new ArrayList<>(probationSegment);
+    evictionOrder.addAll(protectedSegment.subList(demotedNum, protectedSegment.size()));
+    for (Entry<ChunkCacheKey, CacheEntry> entry : evictionOrder) {
+      if (usedSize.get() <= capacity) {
+        break;
+      }
+      discard(entry.getKey(), entry.getValue());
+      statParamsHashMap.get(ChunkCacheStatConstants.EVICTION_NUM.name()).incrementAndGet();
+    }
+  }
+
+  private static long sizeOf(Chunk chunk) {
+    return (long) chunk.getHeader().getSerializedSize() + chunk.getData().capacity();
+  }
+
+  /**
+   * remove all the chunks of the given file, it must be called when the file is deleted.
+   *
+   * @param filePath -path of the tsfile
+   */
+  public void remove(String filePath) {
+    for (Entry<ChunkCacheKey, CacheEntry> entry : cache.entrySet()) {
+      if (entry.getKey().filePath.equals(filePath)) {
+        discard(entry.getKey(), entry.getValue());
+      }
+    }
+  }
+
+  public void clear() {
+    for (Entry<ChunkCacheKey, CacheEntry> entry : cache.entrySet()) {
+      discard(entry.getKey(), entry.getValue());
+    }
+  }
+
+  /**
+   * the number of bytes taken by the cached chunks.
+   */
+  public long getUsedSize() {
+    return usedSize.get();
+  }
+
+  @Override
+  public Map<String, TSRecord> getAllStatisticsValue() {
+    Map<String, TSRecord> ret = new HashMap<>();
+    ret.put(MonitorConstants.STAT_CHUNK_CACHE_NAME, StatMonitor
+        .convertToTSRecord(statParamsHashMap, MonitorConstants.STAT_CHUNK_CACHE_NAME,
+            System.currentTimeMillis()));
+    return ret;
+  }
+
+  @Override
+  public void registStatMetadata() {
+    Map<String, String> hashMap = new HashMap<>();
+    for (String path : getAllPathForStatistic()) {
+      hashMap.put(path, MonitorConstants.DataType);
+    }
+    StatMonitor.getInstance().registStatStorageGroup(hashMap);
+  }
+
+  @Override
+  public List<String> getAllPathForStatistic() {
+    List<String> list = new ArrayList<>();
+    for (ChunkCacheStatConstants statConstant : ChunkCacheStatConstants.values()) {
+      list.add(MonitorConstants.STAT_CHUNK_CACHE_NAME + MonitorConstants.MONITOR_PATH_SEPERATOR
+          + statConstant.name());
+    }
+    return list;
+  }
+
+  @Override
+  public Map<String, AtomicLong> getStatParamsHashMap() {
+    return statParamsHashMap;
+  }
+
+  private static class CacheEntry {
+
+    private final CompletableFuture<Chunk> future = new CompletableFuture<>();
+    private volatile long lastAccessTime;
+    /**
+     * whether the chunk is hit after it is loaded, i.e. it is in the protected segment.
+     */
+    private volatile boolean isProtected;
+    /**
+     * 0 before the chunk is loaded and after the entry is discarded.
+     */
+    private final AtomicLong chargedSize = new AtomicLong();
+
+    private Chunk getChunk() throws IOException {
+      try {
+        return future.get();
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        throw new IOException(e);
+      } catch (ExecutionException e) {
+        if (e.getCause() instanceof IOException) {
+          throw (IOException) e.getCause();
+        }
+        throw new IOException(e.getCause());
+      }
+    }
+  }
+
+  private static class ChunkCacheKey {
+
+    private final String filePath;
+    private final long offset;
+
+    private ChunkCacheKey(String filePath, long offset) {
+      this.filePath = filePath;
+      this.offset = offset;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      if (this == o) {
+        return true;
+      }
+      if (!(o instanceof ChunkCacheKey)) {
+        return false;
+      }
+      ChunkCacheKey that = (ChunkCacheKey) o;
+      return offset == that.offset && filePath.equals(that.filePath);
+    }
+
+    @Override
+    public int hashCode() {
+      return 31 * filePath.hashCode() + Long.hashCode(offset);
+    }
+  }
+
+  /*
+   * Singleton pattern
+   */
+  private static class ChunkCacheHolder {
+
+    private ChunkCacheHolder() {
+    }
+
+    private static final ChunkCache INSTANCE = new ChunkCache();
+  }
+}
@@ -0,0 +1,392 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.db.engine.cache;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.ToLongFunction;
+import org.apache.iotdb.db.conf.IoTDBConfig;
+import org.apache.iotdb.db.conf.IoTDBDescriptor;
+import org.apache.iotdb.db.monitor.IStatistic;
+import org.apache.iotdb.db.monitor.MonitorConstants;
+import org.apache.iotdb.db.monitor.MonitorConstants.MetadataCacheStatConstants;
+import org.apache.iotdb.db.monitor.StatMonitor;
+import org.apache.iotdb.tsfile.file.metadata.ChunkGroupMetaData;
+import org.apache.iotdb.tsfile.file.metadata.ChunkMetaData;
+import org.apache.iotdb.tsfile.file.metadata.TsDeviceMetadata;
+import org.apache.iotdb.tsfile.file.metadata.TsDeviceMetadataIndex;
+import org.apache.iotdb.tsfile.file.metadata.TsFileMetaData;
+import org.apache.iotdb.tsfile.read.TsFileSequenceReader;
+import org.apache.iotdb.tsfile.read.common.Path;
+import org.apache.iotdb.tsfile.write.record.TSRecord;
+
+/**
+ * This class is used to cache the <code>TsFileMetaData</code> and the
+ * <code>TsDeviceMetadata</code> of sealed tsfiles for all queries. Every entry is charged by its
+ * estimated size in memory and the entries take at most
+ * {@link IoTDBConfig#metadataCacheSizeInByte} bytes.
+ *
+ * <p>Lookups do not lock. A missing entry is loaded once by the query which finds it missing,
+ * the other queries asking for it at the same time wait for the same future. When the budget is
+ * exceeded, the least recently used entries are evicted by one query while the others go on.
+ */
+public class MetadataCache implements IStatistic {
+
+  /**
+   * an eviction removes entries until this share of the budget is used, so that it is not
+   * triggered by every load.
+   */
+  private static final double EVICTION_TARGET_RATIO = 0.9;
+
+  /**
+   * rough sizes in memory of the objects deserialized from the metadata, besides their strings
+   * and serialized bytes.
+   */
+  private static final long OBJECT_OVERHEAD = 64;
+  private static final long DEVICE_INDEX_OVERHEAD = 96;
+  private static final long MEASUREMENT_SCHEMA_OVERHEAD = 160;
+  private static final long CHUNK_METADATA_OVERHEAD = 128;
+
+  private final long capacity;
+  /**
+   * the device id of the key is null for a TsFileMetaData.
+   */
+  private final ConcurrentHashMap<MetadataKey, CacheEntry> cache = new ConcurrentHashMap<>();
+  private final AtomicLong usedSize = new AtomicLong();
+  private final ReentrantLock evictionLock = new ReentrantLock();
+
+  private final HashMap<String, AtomicLong> statParamsHashMap = MonitorConstants
+      .initValues(MonitorConstants.METADATA_CACHE_CONST);
+
+  private MetadataCache() {
+    this(IoTDBDescriptor.getInstance().getConfig().metadataCacheSizeInByte);
+    if (IoTDBDescriptor.getInstance().getConfig().enableStatMonitor) {
+      registStatMetadata();
+      StatMonitor.getInstance().registStatistics(MonitorConstants.STAT_METADATA_CACHE_NAME, this);
+    }
+  }
+
+  /**
+   * only for test, the instance is not registered to StatMonitor.
+   *
+   * @param capacity -the byte budget, the cache is disabled if it is not positive
+   */
+  MetadataCache(long capacity) {
+    this.capacity = capacity;
+  }
+
+  public static MetadataCache getInstance() {
+    return MetadataCacheHolder.INSTANCE;
+  }
+
+  /**
+   * get the TsFileMetaData of the file read by the given reader.
+   *
+   * @param reader -reader of a sealed tsfile
+   */
+  public TsFileMetaData getFileMetaData(TsFileSequenceReader reader) throws IOException {
+    return get(new MetadataKey(reader.getFileName(), null),
+        reader::readFileMetadataWithoutDeviceIndex,
+        MetadataCache::sizeOf);
+  }
+
+  /**
+   * get the TsDeviceMetadata of the given device in the file read by the given reader.
+   *
+   * @param reader -reader of a sealed tsfile
+   * @param deviceId -id of the device
+   * @return null if the file does not contain the device
+   */
+  public TsDeviceMetadata getDeviceMetaData(TsFileSequenceReader reader, String deviceId)
+      throws IOException {
+    TsFileMetaData fileMetaData = getFileMetaData(reader);
+    // a device not in the file is cached as null, so that its index is not searched again
+    return get(new MetadataKey(reader.getFileName(), deviceId), () -> {
+      TsDeviceMetadataIndex index = reader.readDeviceMetadataIndex(fileMetaData, deviceId);
+      return index == null ? null : reader.readTsDeviceMetaData(index);
+    }, MetadataCache::sizeOf);
+  }
+
+  /**
+   * get the ChunkMetaData of the given series in the file read by the given reader, in the order
+   * of the file.
+   *
+   * @param reader -reader of a sealed tsfile
+   * @param path -path of the series
+   */
+  public List<ChunkMetaData> getChunkMetaDataList(TsFileSequenceReader reader, Path path)
+      throws IOException {
+    List<ChunkMetaData> chunkMetaDataList = new ArrayList<>();
+    TsDeviceMetadata deviceMetadata = getDeviceMetaData(reader, path.getDevice());
+    if (deviceMetadata == null) {
+      return chunkMetaDataList;
+    }
+    for (ChunkGroupMetaData chunkGroupMetaData : deviceMetadata.getChunkGroupMetaDataList()) {
+      for (ChunkMetaData chunkMetaData : chunkGroupMetaData.getChunkMetaDataList()) {
+        if (path.getMeasurement().equals(chunkMetaData.getMeasurementUid())) {
+          chunkMetaDataList.add(chunkMetaData);
+        }
+      }
+    }
+    return chunkMetaDataList;
+  }
+
+  private <T> T get(MetadataKey key, MetadataLoader<T> loader, ToLongFunction<T> sizeEstimator)
+      throws IOException {
+    if (capacity <= 0) {
+      return loader.load();
+    }
+    CacheEntry newEntry = new CacheEntry();
+    CacheEntry entry = cache.putIfAbsent(key, newEntry);
+    if (entry != null) {
+      statParamsHashMap.get(MetadataCacheStatConstants.HIT_NUM.name()).incrementAndGet();
+      entry.lastAccessTime = System.nanoTime();
+      return entry.getValue();
+    }
+
+    statParamsHashMap.get(MetadataCacheStatConstants.MISS_NUM.name()).incrementAndGet();
+    T value;
+    try {
+      value = loader.load();
+    } catch (IOException | RuntimeException e) {
+      cache.remove(key, newEntry);
+      newEntry.future.completeExceptionally(e);
+      throw e;
+    }
+    newEntry.lastAccessTime = System.nanoTime();
+    newEntry.future.complete(value);
+
+    long size = sizeEstimator.applyAsLong(value);
+    newEntry.chargedSize.set(size);
+    usedSize.addAndGet(size);
+    if (size > capacity || cache.get(key) != newEntry) {
+      // too large to be cached, or removed while being loaded
+      discard(key, newEntry);
+    } else if (usedSize.get() > capacity) {
+      evict();
+    }
+    return value;
+  }
+
+  private void discard(MetadataKey key, CacheEntry entry) {
+    cache.remove(key, entry);
+    // the size is given back only once, whichever of the loader and the remover comes last
+    usedSize.addAndGet(-entry.chargedSize.getAndSet(0));
+  }
+
+  private void evict() {
+    if (!evictionLock.tryLock()) {
+      return;
+    }
+    try {
+      List<Entry<MetadataKey, CacheEntry>> loadedEntries = new ArrayList<>();
+      for (Entry<MetadataKey, CacheEntry> entry : cache.entrySet()) {
+        if (entry.getValue().chargedSize.get() > 0) {
+          loadedEntries.add(entry);
+        }
+      }
+      loadedEntries.sort(Comparator.comparingLong(entry -> entry.getValue().lastAccessTime));
+      long targetSize = (long) (capacity * EVICTION_TARGET_RATIO);
+      for (Entry<MetadataKey, CacheEntry> entry : loadedEntries) {
+        if (usedSize.get() <= targetSize) {
+          break;
+        }
+        discard(entry.getKey(), entry.getValue());
+        statParamsHashMap.get(MetadataCacheStatConstants.EVICTION_NUM.name()).incrementAndGet();
+      }
+    } finally {
+      evictionLock.unlock();
+    }
+  }
+
+  private static long sizeOf(TsFileMetaData fileMetaData) {
+    long size = OBJECT_OVERHEAD;
+    Iterable<String> deviceIds = fileMetaData.isDeviceIndexLoaded()
+        ? fileMetaData.getDeviceMap().keySet()
+        : Arrays.asList(fileMetaData.getDeviceIndexDirectory());
+    for (String deviceId : deviceIds) {
+      size += DEVICE_INDEX_OVERHEAD + deviceId.length();
+    }
+    for (String measurementId : fileMetaData.getMeasurementSchema().keySet()) {
+      size += MEASUREMENT_SCHEMA_OVERHEAD + measurementId.length();
+    }
+    return size;
+  }
+
+  private static long sizeOf(TsDeviceMetadata deviceMetadata) {
+    long size = OBJECT_OVERHEAD;
+    if (deviceMetadata == null) {
+      return size;
+    }
+    for (ChunkGroupMetaData chunkGroupMetaData : deviceMetadata.getChunkGroupMetaDataList()) {
+      size += OBJECT_OVERHEAD + chunkGroupMetaData.getSerializedSize()
+          + CHUNK_METADATA_OVERHEAD * chunkGroupMetaData.getChunkMetaDataList().size();
+    }
+    return size;
+  }
+
+  /**
+   * remove all the metadata of the given file, it must be called when the file is deleted.
+   *
+   * @param filePath -path of the tsfile
+   */
+  public void remove(String filePath) {
+    for (Entry<MetadataKey, CacheEntry> entry : cache.entrySet()) {
+      if (entry.getKey().filePath.equals(filePath)) {
+        discard(entry.getKey(), entry.getValue());
+      }
+    }
+  }
+
+  public void clear() {
+    for (Entry<MetadataKey, CacheEntry> entry : cache.entrySet()) {
+      discard(entry.getKey(), entry.getValue());
+    }
+  }
+
+  /**
+   * the estimated number of bytes taken by the cached metadata.
+   */
+  public long getUsedSize() {
+    return usedSize.get();
+  }
+
+  @Override
+  public Map<String, TSRecord> getAllStatisticsValue() {
+    Map<String, TSRecord> ret = new HashMap<>();
+    ret.put(MonitorConstants.STAT_METADATA_CACHE_NAME, StatMonitor
+        .convertToTSRecord(getStatParamsHashMap(), MonitorConstants.STAT_METADATA_CACHE_NAME,
+            System.currentTimeMillis()));
+    return ret;
+  }
+
+  @Override
+  public void registStatMetadata() {
+    Map<String, String> hashMap = new HashMap<>();
+    for (String path : getAllPathForStatistic()) {
+      hashMap.put(path, MonitorConstants.DataType);
+    }
+    StatMonitor.getInstance().registStatStorageGroup(hashMap);
+  }
+
+  @Override
+  public List<String> getAllPathForStatistic() {
+    List<String> list = new ArrayList<>();
+    for (MetadataCacheStatConstants statConstant : MetadataCacheStatConstants.values()) {
+      list.add(MonitorConstants.STAT_METADATA_CACHE_NAME + MonitorConstants.MONITOR_PATH_SEPERATOR
+          + statConstant.name());
+    }
+    return list;
+  }
+
+  /**
+   * the hit ratio is updated from the numbers of hits and misses when it is got.
+   */
+  @Override
+  public Map<String, AtomicLong> getStatParamsHashMap() {
+    long hitNum = statParamsHashMap.get(MetadataCacheStatConstants.HIT_NUM.name()).get();
+    long requestNum =
+        hitNum + statParamsHashMap.get(MetadataCacheStatConstants.MISS_NUM.name()).get();
+    statParamsHashMap.get(MetadataCacheStatConstants.HIT_RATIO_IN_PERCENT.name())
+        .set(requestNum == 0 ? 0 : hitNum * 100 / requestNum);
+    return statParamsHashMap;
+  }
+
+  @FunctionalInterface
+  private interface MetadataLoader<T> {
+
+    T load() throws IOException;
+  }
+
+  private static class CacheEntry {
+
+    private final CompletableFuture<Object> future = new CompletableFuture<>();
+    private volatile long lastAccessTime;
+    /**
+     * 0 before the value is loaded and after the entry is discarded.
+     */
+    private final AtomicLong chargedSize = new AtomicLong();
+
+    @SuppressWarnings("unchecked")
+    private <T> T getValue() throws IOException {
+      try {
+        return (T) future.get();
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        throw new IOException(e);
+      } catch (ExecutionException e) {
+        if (e.getCause() instanceof IOException) {
+          throw (IOException) e.getCause();
+        }
+        throw new IOException(e.getCause());
+      }
+    }
+  }
+
+  private static class MetadataKey {
+
+    private final String filePath;
+    private final String deviceId;
+
+    private MetadataKey(String filePath, String deviceId) {
+      this.filePath = filePath;
+      this.deviceId = deviceId;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      if (this == o) {
+        return true;
+      }
+      if (!(o instanceof MetadataKey)) {
+        return false;
+      }
+      MetadataKey that = (MetadataKey) o;
+      return filePath.equals(that.filePath) && Objects.equals(deviceId, that.deviceId);
+    }
+
+    @Override
+    public int hashCode() {
+      return 31 * filePath.hashCode() + Objects.hashCode(deviceId);
+    }
+  }
+
+  /*
+   * Singleton pattern
+   */
+  private static class MetadataCacheHolder {
+
+    private MetadataCacheHolder() {
+    }
+
+    private static final MetadataCache INSTANCE = new MetadataCache();
+  }
+}
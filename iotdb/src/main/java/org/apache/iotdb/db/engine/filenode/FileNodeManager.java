@@ -51,8 +51,8 @@ import org.apache.iotdb.db.metadata.MManager;
 import org.apache.iotdb.db.monitor.IStatistic;
 import org.apache.iotdb.db.monitor.MonitorConstants;
 import org.apache.iotdb.db.monitor.StatMonitor;
+import org.apache.iotdb.db.qp.physical.crud.BatchInsertPlan;
 import org.apache.iotdb.db.qp.physical.crud.DeletePlan;
-import org.apache.iotdb.db.qp.physical.crud.InsertPlan;
 import org.apache.iotdb.db.qp.physical.crud.UpdatePlan;
 import org.apache.iotdb.db.query.control.FileReaderManager;
 import org.apache.iotdb.db.service.IService;
@@ -60,12 +60,12 @@ import org.apache.iotdb.db.service.ServiceType;
 import org.apache.iotdb.db.utils.MemUtils;
 import org.apache.iotdb.db.writelog.manager.MultiFileLogNodeManager;
 import org.apache.iotdb.db.writelog.node.WriteLogNode;
+import org.apache.iotdb.db.writelog.transfer.PhysicalPlanCodec;
 import org.apache.iotdb.tsfile.common.conf.TSFileConfig;
 import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
 import org.apache.iotdb.tsfile.read.common.Path;
 import org.apache.iotdb.tsfile.read.expression.impl.SingleSeriesExpression;
 import org.apache.iotdb.tsfile.write.record.TSRecord;
-import org.apache.iotdb.tsfile.write.record.datapoint.DataPoint;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -123,6 +123,13 @@ public class FileNodeManager implements IStatistic, IService {
             .addAndGet(tsRecord.dataPointList.size());
   }
 
+  private void updateStatHashMapWhenFail(BatchInsertPlan plan, int start, int end) {
+    statParamsHashMap.get(MonitorConstants.FileNodeManagerStatConstants.TOTAL_REQ_FAIL.name())
+            .addAndGet(end - start);
+    statParamsHashMap.get(MonitorConstants.FileNodeManagerStatConstants.TOTAL_POINTS_FAIL.name())
+            .addAndGet((long) (end - start) * plan.getMeasurements().length);
+  }
+
   /**
    * get stats parameter hash map.
    *
@@ -281,34 +288,83 @@ public class FileNodeManager implements IStatistic, IService {
     }
     // Modify the insert
     if (!isMonitor) {
-      fileNodeProcessor.getStatParamsHashMap()
-              .get(MonitorConstants.FileNodeProcessorStatConstants.TOTAL_POINTS_SUCCESS.name())
-              .addAndGet(tsRecord.dataPointList.size());
-      fileNodeProcessor.getStatParamsHashMap()
-              .get(MonitorConstants.FileNodeProcessorStatConstants.TOTAL_REQ_SUCCESS.name())
-              .incrementAndGet();
-      statParamsHashMap.get(MonitorConstants.FileNodeManagerStatConstants.TOTAL_REQ_SUCCESS.name())
-              .incrementAndGet();
-      statParamsHashMap
-              .get(MonitorConstants.FileNodeManagerStatConstants.TOTAL_POINTS_SUCCESS.name())
-              .addAndGet(tsRecord.dataPointList.size());
+      updateStatWhenSuccess(fileNodeProcessor, 1, tsRecord.dataPointList.size());
     }
     return insertType;
   }
 
+  /**
+   * insert a column-organized batch of rows of one device. Unlike calling {@link #insert} for
+   * every row, the filenode processor is only looked up and locked once for the whole batch.
+   *
+   * @param plan rows to be inserted, whose values are already typed
+   * @return the number of inserted rows
+   */
+  public int insertBatch(BatchInsertPlan plan) throws FileNodeManagerException {
+    String deviceId = plan.getDeviceId();
+    long[] times = plan.getTimes();
+    int rowCount = plan.getRowCount();
+    for (int i = 0; i < rowCount; i++) {
+      if (times[i] < 0) {
+        LOGGER.error("The insert time lt 0, device {}, row {}.", deviceId, i);
+        throw new FileNodeManagerException(
+                "The insert time lt 0, the device is " + deviceId + ", the time is " + times[i]);
+      }
+    }
+    long pointCount = (long) rowCount * plan.getMeasurements().length;
+    statParamsHashMap.get(MonitorConstants.FileNodeManagerStatConstants.TOTAL_POINTS.name())
+            .addAndGet(pointCount);
+
+    FileNodeProcessor fileNodeProcessor = getProcessor(deviceId, true);
+    try {
+      // consecutive rows going to the same processor are written column by column as one run
+      int start = 0;
+      while (start < rowCount) {
+        long lastUpdateTime = fileNodeProcessor.getFlushLastUpdateTime(deviceId);
+        boolean isOverflow = times[start] < lastUpdateTime;
+        int end = start + 1;
+        while (end < rowCount && (times[end] < lastUpdateTime) == isOverflow) {
+          end++;
+        }
+        if (isOverflow) {
+          insertOverflow(fileNodeProcessor, plan, start, end);
+        } else {
+          insertBufferWrite(fileNodeProcessor, plan, start, end);
+        }
+        start = end;
+      }
+    } catch (FileNodeProcessorException e) {
+      LOGGER.error(String.format("Encounter an error when closing the buffer write processor %s.",
+              fileNodeProcessor.getProcessorName()), e);
+      throw new FileNodeManagerException(e);
+    } finally {
+      fileNodeProcessor.writeUnlock();
+    }
+    updateStatWhenSuccess(fileNodeProcessor, rowCount, pointCount);
+    return rowCount;
+  }
+
+  private void updateStatWhenSuccess(FileNodeProcessor fileNodeProcessor, long reqCount,
+                                     long pointCount) {
+    fileNodeProcessor.getStatParamsHashMap()
+            .get(MonitorConstants.FileNodeProcessorStatConstants.TOTAL_POINTS_SUCCESS.name())
+            .addAndGet(pointCount);
+    fileNodeProcessor.getStatParamsHashMap()
+            .get(MonitorConstants.FileNodeProcessorStatConstants.TOTAL_REQ_SUCCESS.name())
+            .addAndGet(reqCount);
+    statParamsHashMap.get(MonitorConstants.FileNodeManagerStatConstants.TOTAL_REQ_SUCCESS.name())
+            .addAndGet(reqCount);
+    statParamsHashMap
+            .get(MonitorConstants.FileNodeManagerStatConstants.TOTAL_POINTS_SUCCESS.name())
+            .addAndGet(pointCount);
+  }
+
   private void writeLog(TSRecord tsRecord, boolean isMonitor, WriteLogNode logNode)
           throws FileNodeManagerException {
     try {
       if (IoTDBDescriptor.getInstance().getConfig().enableWal) {
-        List<String> measurementList = new ArrayList<>();
-        List<String> insertValues = new ArrayList<>();
-        for (DataPoint dp : tsRecord.dataPointList) {
-          measurementList.add(dp.getMeasurementId());
-          insertValues.add(dp.getValue().toString());
-        }
-        logNode.write(
-                new InsertPlan(2, tsRecord.deviceId, tsRecord.time, measurementList,
-                        insertValues));
+        // log the typed values, instead of converting them to strings and back
+        logNode.write(new BatchInsertPlan(tsRecord));
       }
     } catch (IOException e) {
       if (!isMonitor) {
@@ -318,6 +374,35 @@ public class FileNodeManager implements IStatistic, IService {
     }
   }
 
+  /**
+   * log the rows [start, end) of a batch, in as few entries as the max log entry size allows.
+   */
+  private void writeLog(BatchInsertPlan plan, int start, int end, WriteLogNode logNode)
+          throws FileNodeManagerException {
+    if (!IoTDBDescriptor.getInstance().getConfig().enableWal) {
+      return;
+    }
+    int maxLogEntrySize = IoTDBDescriptor.getInstance().getConfig().maxLogEntrySize;
+    int headerSize = PhysicalPlanCodec.getBatchInsertHeaderSize(plan);
+    try {
+      int from = start;
+      int entrySize = headerSize;
+      for (int i = start; i < end; i++) {
+        int rowSize = PhysicalPlanCodec.getBatchInsertRowSize(plan, i);
+        if (entrySize + rowSize > maxLogEntrySize && i > from) {
+          logNode.write(plan.subPlan(from, i));
+          from = i;
+          entrySize = headerSize;
+        }
+        entrySize += rowSize;
+      }
+      logNode.write(from == 0 && end == plan.getRowCount() ? plan : plan.subPlan(from, end));
+    } catch (IOException e) {
+      updateStatHashMapWhenFail(plan, start, end);
+      throw new FileNodeManagerException(e);
+    }
+  }
+
   private void checkTimestamp(TSRecord tsRecord) throws FileNodeManagerException {
     if (tsRecord.time < 0) {
       LOGGER.error("The insert time lt 0, {}.", tsRecord);
@@ -364,6 +449,83 @@ public class FileNodeManager implements IStatistic, IService {
     }
   }
 
+  private void insertOverflow(FileNodeProcessor fileNodeProcessor, BatchInsertPlan plan,
+                              int start, int end) throws FileNodeManagerException {
+    String deviceId = plan.getDeviceId();
+    long[] times = plan.getTimes();
+    // get overflow processor
+    OverflowProcessor overflowProcessor;
+    String filenodeName = fileNodeProcessor.getProcessorName();
+    try {
+      overflowProcessor = fileNodeProcessor.getOverflowProcessor(filenodeName);
+    } catch (IOException e) {
+      LOGGER.error("Get the overflow processor failed, the filenode is {}, insert time is {}",
+              filenodeName, times[start]);
+      updateStatHashMapWhenFail(plan, start, end);
+      throw new FileNodeManagerException(e);
+    }
+    // write wal
+    writeLog(plan, start, end, overflowProcessor.getLogNode());
+    // write overflow data
+    try {
+      overflowProcessor.insert(plan, start, end);
+      for (int i = start; i < end; i++) {
+        fileNodeProcessor.changeTypeToChanged(deviceId, times[i]);
+      }
+      fileNodeProcessor.setOverflowed(true);
+    } catch (IOException e) {
+      LOGGER.error("Insert into overflow error, the reason is {}", e);
+      updateStatHashMapWhenFail(plan, start, end);
+      throw new FileNodeManagerException(e);
+    }
+  }
+
+  private void insertBufferWrite(FileNodeProcessor fileNodeProcessor, BatchInsertPlan plan,
+                                 int start, int end)
+          throws FileNodeManagerException, FileNodeProcessorException {
+    String deviceId = plan.getDeviceId();
+    long[] times = plan.getTimes();
+    // get bufferwrite processor
+    BufferWriteProcessor bufferWriteProcessor;
+    String filenodeName = fileNodeProcessor.getProcessorName();
+    try {
+      bufferWriteProcessor = fileNodeProcessor.getBufferWriteProcessor(filenodeName, times[start]);
+    } catch (FileNodeProcessorException e) {
+      LOGGER
+              .error("Get the bufferwrite processor failed, the filenode is {}, insert time is {}",
+                      filenodeName, times[start]);
+      updateStatHashMapWhenFail(plan, start, end);
+      throw new FileNodeManagerException(e);
+    }
+    // Add a new interval file to newfilelist
+    if (bufferWriteProcessor.isNewProcessor()) {
+      bufferWriteProcessor.setNewProcessor(false);
+      try {
+        fileNodeProcessor.addIntervalFileNode(bufferWriteProcessor.getBaseDir(),
+                bufferWriteProcessor.getFileRelativePath());
+      } catch (Exception e) {
+        updateStatHashMapWhenFail(plan, start, end);
+        throw new FileNodeManagerException(e);
+      }
+    }
+    // write wal
+    writeLog(plan, start, end, bufferWriteProcessor.getLogNode());
+    // Write data
+    fileNodeProcessor.setIntervalFileNodeStartTime(deviceId);
+    long maxTime = times[start];
+    for (int i = start + 1; i < end; i++) {
+      maxTime = Math.max(maxTime, times[i]);
+    }
+    fileNodeProcessor.setLastUpdateTime(deviceId, maxTime);
+    try {
+      bufferWriteProcessor.write(plan, start, end);
+    } catch (BufferWriteProcessorException e) {
+      updateStatHashMapWhenFail(plan, start, end);
+      throw new FileNodeManagerException(e);
+    }
+    closeBufferWriteIfFull(fileNodeProcessor, bufferWriteProcessor);
+  }
+
   private void insertBufferWrite(FileNodeProcessor fileNodeProcessor, long timestamp,
                                  boolean isMonitor, TSRecord tsRecord, String deviceId)
           throws FileNodeManagerException, FileNodeProcessorException {
@@ -409,7 +571,12 @@ public class FileNodeManager implements IStatistic, IService {
       }
       throw new FileNodeManagerException(e);
     }
+    closeBufferWriteIfFull(fileNodeProcessor, bufferWriteProcessor);
+  }
 
+  private void closeBufferWriteIfFull(FileNodeProcessor fileNodeProcessor,
+                                      BufferWriteProcessor bufferWriteProcessor)
+          throws FileNodeProcessorException {
     if (bufferWriteProcessor
             .getFileSize() > IoTDBDescriptor.getInstance()
             .getConfig().bufferwriteFileSizeThreshold) {
@@ -417,7 +584,8 @@ public class FileNodeManager implements IStatistic, IService {
         LOGGER.info(
                 "The filenode processor {} will close the bufferwrite processor, "
                         + "because the size[{}] of tsfile {} reaches the threshold {}",
-                filenodeName, MemUtils.bytesCntToStr(bufferWriteProcessor.getFileSize()),
+                fileNodeProcessor.getProcessorName(),
+                MemUtils.bytesCntToStr(bufferWriteProcessor.getFileSize()),
                 bufferWriteProcessor.getFileName(), MemUtils.bytesCntToStr(
                         IoTDBDescriptor.getInstance().getConfig().bufferwriteFileSizeThreshold));
       }
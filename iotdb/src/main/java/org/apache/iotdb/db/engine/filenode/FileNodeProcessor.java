@@ -48,6 +48,8 @@ import org.apache.iotdb.db.engine.bufferwrite.Action;
 import org.apache.iotdb.db.engine.bufferwrite.ActionException;
 import org.apache.iotdb.db.engine.bufferwrite.BufferWriteProcessor;
 import org.apache.iotdb.db.engine.bufferwrite.FileNodeConstants;
+import org.apache.iotdb.db.engine.cache.ChunkCache;
+import org.apache.iotdb.db.engine.cache.MetadataCache;
 import org.apache.iotdb.db.engine.overflow.io.OverflowProcessor;
 import org.apache.iotdb.db.engine.pool.MergeManager;
 import org.apache.iotdb.db.engine.querycontext.GlobalSortedSeriesDataSource;
@@ -1384,7 +1386,13 @@ public class FileNodeProcessor extends Processor implements IStatistic {
         continue;
       }
       for (File file : files) {
-        if (!bufferFiles.contains(file.getPath()) && !file.delete()) {
+        if (bufferFiles.contains(file.getPath())) {
+          continue;
+        }
+        if (file.delete()) {
+          ChunkCache.getInstance().remove(file.getPath());
+          MetadataCache.getInstance().remove(file.getPath());
+        } else {
           LOGGER.warn("Cannot delete BufferWrite file {}", file.getPath());
         }
       }
@@ -20,7 +20,10 @@ package org.apache.iotdb.db.engine.memtable;
 
 import java.util.HashMap;
 import java.util.Map;
+import org.apache.iotdb.tsfile.exception.write.UnSupportedDataTypeException;
 import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
+import org.apache.iotdb.tsfile.utils.Binary;
+import org.apache.iotdb.tsfile.write.record.datapoint.DataPoint;
 
 public abstract class AbstractMemTable implements IMemTable {
 
@@ -46,14 +49,14 @@ public abstract class AbstractMemTable implements IMemTable {
 
   private IWritableMemChunk createIfNotExistAndGet(String deviceId, String measurement,
       TSDataType dataType) {
-    if (!memTableMap.containsKey(deviceId)) {
-      memTableMap.put(deviceId, new HashMap<>());
+    Map<String, IWritableMemChunk> memSeries = memTableMap
+        .computeIfAbsent(deviceId, k -> new HashMap<>());
+    IWritableMemChunk memChunk = memSeries.get(measurement);
+    if (memChunk == null) {
+      memChunk = genMemSeries(dataType);
+      memSeries.put(measurement, memChunk);
     }
-    Map<String, IWritableMemChunk> memSeries = memTableMap.get(deviceId);
-    if (!memSeries.containsKey(measurement)) {
-      memSeries.put(measurement, genMemSeries(dataType));
-    }
-    return memSeries.get(measurement);
+    return memChunk;
   }
 
   protected abstract IWritableMemChunk genMemSeries(TSDataType dataType);
@@ -65,6 +68,80 @@ public abstract class AbstractMemTable implements IMemTable {
     memSeries.write(insertTime, insertValue);
   }
 
+  @Override
+  public void write(String deviceId, long insertTime, DataPoint dataPoint) {
+    IWritableMemChunk memSeries = createIfNotExistAndGet(deviceId, dataPoint.getMeasurementId(),
+        dataPoint.getType());
+    switch (dataPoint.getType()) {
+      case BOOLEAN:
+        memSeries.putBoolean(insertTime, dataPoint.getBoolean());
+        break;
+      case INT32:
+        memSeries.putInt(insertTime, dataPoint.getInteger());
+        break;
+      case INT64:
+        memSeries.putLong(insertTime, dataPoint.getLong());
+        break;
+      case FLOAT:
+        memSeries.putFloat(insertTime, dataPoint.getFloat());
+        break;
+      case DOUBLE:
+        memSeries.putDouble(insertTime, dataPoint.getDouble());
+        break;
+      case TEXT:
+        memSeries.putBinary(insertTime, dataPoint.getBinary());
+        break;
+      default:
+        throw new UnSupportedDataTypeException("Unsupported data type:" + dataPoint.getType());
+    }
+  }
+
+  @Override
+  public void write(String deviceId, String measurement, TSDataType dataType, long[] times,
+      Object column, int start, int end) {
+    IWritableMemChunk memSeries = createIfNotExistAndGet(deviceId, measurement, dataType);
+    switch (dataType) {
+      case BOOLEAN:
+        boolean[] booleans = (boolean[]) column;
+        for (int i = start; i < end; i++) {
+          memSeries.putBoolean(times[i], booleans[i]);
+        }
+        break;
+      case INT32:
+        int[] ints = (int[]) column;
+        for (int i = start; i < end; i++) {
+          memSeries.putInt(times[i], ints[i]);
+        }
+        break;
+      case INT64:
+        long[] longs = (long[]) column;
+        for (int i = start; i < end; i++) {
+          memSeries.putLong(times[i], longs[i]);
+        }
+        break;
+      case FLOAT:
+        float[] floats = (float[]) column;
+        for (int i = start; i < end; i++) {
+          memSeries.putFloat(times[i], floats[i]);
+        }
+        break;
+      case DOUBLE:
+        double[] doubles = (double[]) column;
+        for (int i = start; i < end; i++) {
+          memSeries.putDouble(times[i], doubles[i]);
+        }
+        break;
+      case TEXT:
+        Binary[] binaries = (Binary[]) column;
+        for (int i = start; i < end; i++) {
+          memSeries.putBinary(times[i], binaries[i]);
+        }
+        break;
+      default:
+        throw new UnSupportedDataTypeException("Unsupported data type:" + dataType);
+    }
+  }
+
   @Override
   public int size() {
     int sum = 0;
@@ -78,6 +155,13 @@ public abstract class AbstractMemTable implements IMemTable {
 
   @Override
   public void clear() {
+    // give the arrays of every chunk back to the pool, no query can still be reading them because
+    // ReadOnlyMemChunk copies the data when it is created
+    for (Map<String, IWritableMemChunk> seriesMap : memTableMap.values()) {
+      for (IWritableMemChunk writableMemChunk : seriesMap.values()) {
+        writableMemChunk.reset();
+      }
+    }
     memTableMap.clear();
   }
 
@@ -20,6 +20,7 @@ package org.apache.iotdb.db.engine.memtable;
 
 import java.util.Map;
 import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
+import org.apache.iotdb.tsfile.write.record.datapoint.DataPoint;
 
 /**
  * IMemTable is designed to store data points which are not flushed into TsFile yet. An instance of
@@ -35,6 +36,20 @@ public interface IMemTable {
   void write(String deviceId, String measurement, TSDataType dataType,
       long insertTime, String insertValue);
 
+  /**
+   * write a typed data point, its value is put into the memory chunk without being converted to
+   * and parsed from a string.
+   */
+  void write(String deviceId, long insertTime, DataPoint dataPoint);
+
+  /**
+   * write the values [start, end) of a column, whose type matches dataType (e.g. a long[] for
+   * INT64), so that they are put into the memory chunk one after another without being wrapped in
+   * data points.
+   */
+  void write(String deviceId, String measurement, TSDataType dataType, long[] times,
+      Object column, int start, int end);
+
   int size();
 
   TimeValuePairSorter query(String deviceId, String measurement, TSDataType dataType);
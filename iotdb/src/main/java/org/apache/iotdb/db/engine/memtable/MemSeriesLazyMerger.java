@@ -22,13 +22,16 @@ import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 
-import org.apache.iotdb.db.utils.TimeValuePair;
+import org.apache.iotdb.db.utils.SortedTimeValueArray;
+import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
 
 public class MemSeriesLazyMerger implements TimeValuePairSorter {
 
+  private TSDataType dataType;
   private List<TimeValuePairSorter> memSeriesList;
 
-  public MemSeriesLazyMerger() {
+  public MemSeriesLazyMerger(TSDataType dataType) {
+    this.dataType = dataType;
     memSeriesList = new ArrayList<>();
   }
 
@@ -37,8 +40,8 @@ public class MemSeriesLazyMerger implements TimeValuePairSorter {
    *
    * @param memSerieses Please ensure that the memSerieses are in ascending order by timestamp.
    */
-  public MemSeriesLazyMerger(TimeValuePairSorter... memSerieses) {
-    this();
+  public MemSeriesLazyMerger(TSDataType dataType, TimeValuePairSorter... memSerieses) {
+    this(dataType);
     Collections.addAll(memSeriesList, memSerieses);
   }
 
@@ -51,15 +54,15 @@ public class MemSeriesLazyMerger implements TimeValuePairSorter {
   }
 
   @Override
-  public List<TimeValuePair> getSortedTimeValuePairList() {
+  public SortedTimeValueArray getSortedTimeValueArray() {
     if (memSeriesList.isEmpty()) {
-      return new ArrayList<>();
+      return SortedTimeValueArray.empty(dataType);
     } else {
-      List<TimeValuePair> ret = memSeriesList.get(0).getSortedTimeValuePairList();
-      for (int i = 1; i < memSeriesList.size(); i++) {
-        ret.addAll(memSeriesList.get(i).getSortedTimeValuePairList());
+      List<SortedTimeValueArray> arrays = new ArrayList<>(memSeriesList.size());
+      for (TimeValuePairSorter memSeries : memSeriesList) {
+        arrays.add(memSeries.getSortedTimeValueArray());
       }
-      return ret;
+      return SortedTimeValueArray.concat(dataType, arrays);
     }
   }
 }
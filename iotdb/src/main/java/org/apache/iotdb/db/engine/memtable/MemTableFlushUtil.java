@@ -19,9 +19,8 @@
 package org.apache.iotdb.db.engine.memtable;
 
 import java.io.IOException;
-import java.util.List;
 
-import org.apache.iotdb.db.utils.TimeValuePair;
+import org.apache.iotdb.db.utils.SortedTimeValueArray;
 import org.apache.iotdb.tsfile.common.conf.TSFileConfig;
 import org.apache.iotdb.tsfile.file.footer.ChunkGroupFooter;
 import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
@@ -43,40 +42,44 @@ public class MemTableFlushUtil {
 
   }
 
-  private static void writeOneSeries(List<TimeValuePair> tvPairs, IChunkWriter seriesWriterImpl,
-      TSDataType dataType)
+  private static void writeOneSeries(SortedTimeValueArray tvArray,
+      IChunkWriter seriesWriterImpl, TSDataType dataType)
       throws IOException {
-    for (TimeValuePair timeValuePair : tvPairs) {
-      switch (dataType) {
-        case BOOLEAN:
-            seriesWriterImpl
-                    .write(timeValuePair.getTimestamp(), timeValuePair.getValue().getBoolean());
-          break;
-        case INT32:
-            seriesWriterImpl.write(timeValuePair.getTimestamp(),
-                    timeValuePair.getValue().getInt());
-          break;
-        case INT64:
-            seriesWriterImpl.write(timeValuePair.getTimestamp(),
-                    timeValuePair.getValue().getLong());
-          break;
-        case FLOAT:
-            seriesWriterImpl.write(timeValuePair.getTimestamp(),
-                    timeValuePair.getValue().getFloat());
-          break;
-        case DOUBLE:
-            seriesWriterImpl
-                    .write(timeValuePair.getTimestamp(),
-                            timeValuePair.getValue().getDouble());
-          break;
-        case TEXT:
-            seriesWriterImpl
-                    .write(timeValuePair.getTimestamp(), timeValuePair.getValue().getBinary());
-          break;
-        default:
-          LOGGER.error("don't support data type: {}", dataType);
-          break;
-      }
+    int size = tvArray.size();
+    switch (dataType) {
+      case BOOLEAN:
+        for (int i = 0; i < size; i++) {
+          seriesWriterImpl.write(tvArray.getTimestamp(i), tvArray.getBoolean(i));
+        }
+        break;
+      case INT32:
+        for (int i = 0; i < size; i++) {
+          seriesWriterImpl.write(tvArray.getTimestamp(i), tvArray.getInt(i));
+        }
+        break;
+      case INT64:
+        for (int i = 0; i < size; i++) {
+          seriesWriterImpl.write(tvArray.getTimestamp(i), tvArray.getLong(i));
+        }
+        break;
+      case FLOAT:
+        for (int i = 0; i < size; i++) {
+          seriesWriterImpl.write(tvArray.getTimestamp(i), tvArray.getFloat(i));
+        }
+        break;
+      case DOUBLE:
+        for (int i = 0; i < size; i++) {
+          seriesWriterImpl.write(tvArray.getTimestamp(i), tvArray.getDouble(i));
+        }
+        break;
+      case TEXT:
+        for (int i = 0; i < size; i++) {
+          seriesWriterImpl.write(tvArray.getTimestamp(i), tvArray.getBinary(i));
+        }
+        break;
+      default:
+        LOGGER.error("don't support data type: {}", dataType);
+        break;
     }
   }
 
@@ -96,7 +99,7 @@ public class MemTableFlushUtil {
         MeasurementSchema desc = fileSchema.getMeasurementSchema(measurementId);
         ChunkBuffer chunkBuffer = new ChunkBuffer(desc);
         IChunkWriter seriesWriter = new ChunkWriterImpl(desc, chunkBuffer, PAGE_SIZE_THRESHOLD);
-        writeOneSeries(series.getSortedTimeValuePairList(), seriesWriter,
+        writeOneSeries(series.getSortedTimeValueArray(), seriesWriter,
             desc.getType());
         seriesWriter.writeToFileWriter(tsFileIoWriter);
       }
@@ -21,36 +21,48 @@ package org.apache.iotdb.db.engine.memtable;
 import java.util.Iterator;
 import java.util.List;
 
+import org.apache.iotdb.db.utils.SortedTimeValueArray;
 import org.apache.iotdb.db.utils.TimeValuePair;
 
 @FunctionalInterface
 public interface TimeValuePairSorter {
 
   /**
-   * get the distinct sorted startTime.
+   * get the distinct sorted data in primitive arrays.
+   *
+   * @return a SortedTimeValueArray which contains all distinct points in ascending order by
+   * timestamp.
+   */
+  SortedTimeValueArray getSortedTimeValueArray();
+
+  /**
+   * get the distinct sorted startTime. Notice, by default implementation, calling this method
+   * creates one object for each point, prefer getSortedTimeValueArray().
    *
    * @return a List which contains all distinct {@link TimeValuePair}s in ascending order by
    * timestamp.
    */
-  List<TimeValuePair> getSortedTimeValuePairList();
+  default List<TimeValuePair> getSortedTimeValuePairList() {
+    return getSortedTimeValueArray().toTimeValuePairList();
+  }
 
   /**
    * notice, by default implementation, calling this method will cause calling
-   * getSortedTimeValuePairList().
+   * getSortedTimeValueArray().
    *
    * @return an iterator of data in this class.
    */
   default Iterator<TimeValuePair> getIterator() {
-    return getSortedTimeValuePairList().iterator();
+    return getSortedTimeValueArray().iterator();
   }
 
   /**
    * notice, by default implementation, calling this method will cause calling
-   * getSortedTimeValuePairList().
+   * getSortedTimeValueArray().
    *
    * @return if there is no data in this sorter, return true.
    */
   default boolean isEmpty() {
-    return getSortedTimeValuePairList().isEmpty();
+    return getSortedTimeValueArray().isEmpty();
   }
 }
@@ -18,14 +18,9 @@
  */
 package org.apache.iotdb.db.engine.memtable;
 
-import java.util.ArrayList;
-import java.util.List;
-import java.util.TreeMap;
-
 import org.apache.iotdb.db.utils.PrimitiveArrayList;
 import org.apache.iotdb.db.utils.PrimitiveArrayListFactory;
-import org.apache.iotdb.db.utils.TimeValuePair;
-import org.apache.iotdb.db.utils.TsPrimitiveType;
+import org.apache.iotdb.db.utils.SortedTimeValueArray;
 import org.apache.iotdb.tsfile.exception.write.UnSupportedDataTypeException;
 import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
 import org.apache.iotdb.tsfile.utils.Binary;
@@ -68,50 +63,42 @@ public class WritableMemChunk implements IWritableMemChunk {
 
   @Override
   public void putLong(long t, long v) {
-    list.putTimestamp(t, v);
+    list.putLong(t, v);
   }
 
   @Override
   public void putInt(long t, int v) {
-    list.putTimestamp(t, v);
+    list.putInt(t, v);
   }
 
   @Override
   public void putFloat(long t, float v) {
-    list.putTimestamp(t, v);
+    list.putFloat(t, v);
   }
 
   @Override
   public void putDouble(long t, double v) {
-    list.putTimestamp(t, v);
+    list.putDouble(t, v);
   }
 
   @Override
   public void putBinary(long t, Binary v) {
-    list.putTimestamp(t, v);
+    list.putBinary(t, v);
   }
 
   @Override
   public void putBoolean(long t, boolean v) {
-    list.putTimestamp(t, v);
+    list.putBoolean(t, v);
   }
 
   @Override
-  // TODO: Consider using arrays to sort and remove duplicates
-  public List<TimeValuePair> getSortedTimeValuePairList() {
-    int length = list.size();
-    TreeMap<Long, TsPrimitiveType> treeMap = new TreeMap<>();
-    for (int i = 0; i < length; i++) {
-      treeMap.put(list.getTimestamp(i), TsPrimitiveType.getByType(dataType, list.getValue(i)));
-    }
-    List<TimeValuePair> ret = new ArrayList<>();
-    treeMap.forEach((k, v) -> ret.add(new TimeValuePairInMemTable(k, v)));
-    return ret;
+  public SortedTimeValueArray getSortedTimeValueArray() {
+    return list.getSortedArray();
   }
 
   @Override
   public void reset() {
-    this.list = PrimitiveArrayListFactory.getByDataType(dataType);
+    list.release();
   }
 
   @Override
@@ -48,6 +48,7 @@ import org.apache.iotdb.db.engine.querycontext.OverflowSeriesDataSource;
 import org.apache.iotdb.db.engine.querycontext.ReadOnlyMemChunk;
 import org.apache.iotdb.db.engine.utils.FlushStatus;
 import org.apache.iotdb.db.exception.OverflowProcessorException;
+import org.apache.iotdb.db.qp.physical.crud.BatchInsertPlan;
 import org.apache.iotdb.db.utils.MemUtils;
 import org.apache.iotdb.db.writelog.manager.MultiFileLogNodeManager;
 import org.apache.iotdb.db.writelog.node.WriteLogNode;
@@ -177,8 +178,28 @@ public class OverflowProcessor extends Processor {
     // write data
     workSupport.insert(tsRecord);
     valueCount++;
-    // check flush
-    memUage = memSize.addAndGet(memUage);
+    checkMemThreshold4Flush(memUage);
+  }
+
+  /**
+   * insert the rows [start, end) of a batch column by column.
+   *
+   * @param plan batch whose values are already typed
+   * @param start index of the first row to be inserted
+   * @param end index after the last row to be inserted
+   */
+  public void insert(BatchInsertPlan plan, int start, int end) throws IOException {
+    // memory control
+    long memUage = MemUtils.getBatchSize(plan, start, end);
+    BasicMemController.getInstance().reportUse(this, memUage);
+    // write data
+    workSupport.insert(plan, start, end);
+    valueCount += end - start;
+    checkMemThreshold4Flush(memUage);
+  }
+
+  private void checkMemThreshold4Flush(long addedMemory) throws IOException {
+    long memUage = memSize.addAndGet(addedMemory);
     if (memUage > memThreshold) {
       LOGGER.warn("The usage of memory {} in overflow processor {} reaches the threshold {}",
           MemUtils.bytesCntToStr(memUage), getProcessorName(),
@@ -296,7 +317,7 @@ public class OverflowProcessor extends Processor {
   private TimeValuePairSorter queryOverflowInsertInMemory(String deviceId, String measurementId,
                                                           TSDataType dataType) {
 
-    MemSeriesLazyMerger memSeriesLazyMerger = new MemSeriesLazyMerger();
+    MemSeriesLazyMerger memSeriesLazyMerger = new MemSeriesLazyMerger(dataType);
     if (flushStatus.isFlushing()) {
       memSeriesLazyMerger
               .addMemSeries(
@@ -24,6 +24,7 @@ import java.util.Map;
 import org.apache.iotdb.db.engine.memtable.IMemTable;
 import org.apache.iotdb.db.engine.memtable.PrimitiveMemTable;
 import org.apache.iotdb.db.engine.memtable.TimeValuePairSorter;
+import org.apache.iotdb.db.qp.physical.crud.BatchInsertPlan;
 import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
 import org.apache.iotdb.tsfile.read.common.BatchData;
 import org.apache.iotdb.tsfile.write.record.TSRecord;
@@ -52,9 +53,20 @@ public class OverflowSupport {
 
   public void insert(TSRecord tsRecord) {
     for (DataPoint dataPoint : tsRecord.dataPointList) {
-      memTable.write(tsRecord.deviceId, dataPoint.getMeasurementId(), dataPoint.getType(),
-              tsRecord.time,
-              dataPoint.getValue().toString());
+      memTable.write(tsRecord.deviceId, tsRecord.time, dataPoint);
+    }
+  }
+
+  /**
+   * insert the rows [start, end) of a batch column by column.
+   */
+  public void insert(BatchInsertPlan plan, int start, int end) {
+    String[] measurements = plan.getMeasurements();
+    TSDataType[] dataTypes = plan.getDataTypes();
+    Object[] columns = plan.getColumns();
+    for (int i = 0; i < measurements.length; i++) {
+      memTable.write(plan.getDeviceId(), measurements[i], dataTypes[i], plan.getTimes(),
+          columns[i], start, end);
     }
   }
 
@@ -22,6 +22,7 @@ import java.util.Collections;
 import java.util.Iterator;
 import java.util.List;
 import org.apache.iotdb.db.engine.memtable.TimeValuePairSorter;
+import org.apache.iotdb.db.utils.SortedTimeValueArray;
 import org.apache.iotdb.db.utils.TimeValuePair;
 import org.apache.iotdb.db.utils.TsPrimitiveType;
 import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
@@ -29,30 +30,18 @@ import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
 //TODO: merge ReadOnlyMemChunk and WritableMemChunk and IWritableMemChunk
 public class ReadOnlyMemChunk implements TimeValuePairSorter {
 
-  private boolean initialized;
-
   private TSDataType dataType;
-  private TimeValuePairSorter memSeries;
-  private List<TimeValuePair> sortedTimeValuePairList;
+  private SortedTimeValueArray sortedTimeValueArray;
 
   /**
-   * init by TSDataType and TimeValuePairSorter.
+   * init by TSDataType and TimeValuePairSorter. The data of memSeries is copied at once, because
+   * the arrays of a memtable are given back to the pool when the memtable is cleared after
+   * flushing, so they must not be read after the lock under which this chunk is created is
+   * released.
    */
   public ReadOnlyMemChunk(TSDataType dataType, TimeValuePairSorter memSeries) {
     this.dataType = dataType;
-    this.memSeries = memSeries;
-    this.initialized = false;
-  }
-
-  private void checkInitialized() {
-    if (!initialized) {
-      init();
-    }
-  }
-
-  private void init() {
-    sortedTimeValuePairList = memSeries.getSortedTimeValuePairList();
-    initialized = true;
+    this.sortedTimeValueArray = memSeries.getSortedTimeValueArray();
   }
 
   /**
@@ -66,9 +55,8 @@ public class ReadOnlyMemChunk implements TimeValuePairSorter {
    * only for test now.
    */
   public long getMaxTimestamp() {
-    checkInitialized();
     if (!isEmpty()) {
-      return sortedTimeValuePairList.get(sortedTimeValuePairList.size() - 1).getTimestamp();
+      return sortedTimeValueArray.getTimestamp(sortedTimeValueArray.size() - 1);
     } else {
       return -1;
     }
@@ -78,9 +66,8 @@ public class ReadOnlyMemChunk implements TimeValuePairSorter {
    * only for test now.
    */
   public long getMinTimestamp() {
-    checkInitialized();
     if (!isEmpty()) {
-      return sortedTimeValuePairList.get(0).getTimestamp();
+      return sortedTimeValueArray.getTimestamp(0);
     } else {
       return -1;
     }
@@ -90,9 +77,8 @@ public class ReadOnlyMemChunk implements TimeValuePairSorter {
    * only for test now.
    */
   public TsPrimitiveType getValueAtMaxTime() {
-    checkInitialized();
     if (!isEmpty()) {
-      return sortedTimeValuePairList.get(sortedTimeValuePairList.size() - 1).getValue();
+      return sortedTimeValueArray.getPrimitiveValue(sortedTimeValueArray.size() - 1);
     } else {
       return null;
     }
@@ -102,29 +88,30 @@ public class ReadOnlyMemChunk implements TimeValuePairSorter {
    * only for test now.
    */
   public TsPrimitiveType getValueAtMinTime() {
-    checkInitialized();
     if (!isEmpty()) {
-      return sortedTimeValuePairList.get(0).getValue();
+      return sortedTimeValueArray.getPrimitiveValue(0);
     } else {
       return null;
     }
   }
 
+  @Override
+  public SortedTimeValueArray getSortedTimeValueArray() {
+    return sortedTimeValueArray;
+  }
+
   @Override
   public List<TimeValuePair> getSortedTimeValuePairList() {
-    checkInitialized();
-    return Collections.unmodifiableList(sortedTimeValuePairList);
+    return Collections.unmodifiableList(sortedTimeValueArray.toTimeValuePairList());
   }
 
   @Override
   public Iterator<TimeValuePair> getIterator() {
-    checkInitialized();
-    return sortedTimeValuePairList.iterator();
+    return sortedTimeValueArray.iterator();
   }
 
   @Override
   public boolean isEmpty() {
-    checkInitialized();
-    return sortedTimeValuePairList.size() == 0;
+    return sortedTimeValueArray.isEmpty();
   }
 }
@@ -66,6 +66,8 @@ public class MManager {
 
   private RandomDeleteCache<String, PathCheckRet> checkAndGetDataTypeCache;
   private RandomDeleteCache<String, MNode> mnodecache;
+  // increased by every change of the mTree, so that what is derived from it can be invalidated
+  private volatile long metadataVersion = 0;
 
   private MManager() {
     metadataDirPath = IoTDBDescriptor.getInstance().getConfig().metadataDir;
@@ -116,6 +118,14 @@ public class MManager {
     return MManagerHolder.INSTANCE;
   }
 
+  /**
+   * get the version of the mTree, which changes whenever a timeseries or a storage group is added
+   * or deleted.
+   */
+  public long getMetadataVersion() {
+    return metadataVersion;
+  }
+
   private void init() {
 
     lock.writeLock().lock();
@@ -163,6 +173,7 @@ public class MManager {
     lock.writeLock().lock();
     try {
       this.mgraph = new MGraph(ROOT_NAME);
+      metadataVersion++;
     } finally {
       lock.writeLock().unlock();
     }
@@ -233,6 +244,7 @@ public class MManager {
     lock.writeLock().lock();
     try {
       mgraph.addPathToMTree(path, dataType, encoding, args);
+      metadataVersion++;
       if (writeToLog) {
         initLogStream();
         logWriter.write(
@@ -257,6 +269,7 @@ public class MManager {
       checkAndGetDataTypeCache.clear();
       mnodecache.clear();
       String dataFileName = mgraph.deletePath(path);
+      metadataVersion++;
       if (writeToLog) {
         initLogStream();
         logWriter.write(MetadataOperationType.DELETE_PATH_FROM_MTREE + "," + path);
@@ -279,6 +292,7 @@ public class MManager {
       checkAndGetDataTypeCache.clear();
       mnodecache.clear();
       mgraph.setStorageLevel(path);
+      metadataVersion++;
       if (writeToLog) {
         initLogStream();
         logWriter.write(MetadataOperationType.SET_STORAGE_LEVEL_TO_MTREE + "," + path);
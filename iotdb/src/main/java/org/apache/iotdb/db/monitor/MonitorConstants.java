@@ -26,6 +26,8 @@ public class MonitorConstants {
   public static final String DataType = "INT64";
   public static final String FILENODE_PROCESSOR_CONST = "FILENODE_PROCESSOR_CONST";
   public static final String FILENODE_MANAGER_CONST = "FILENODE_MANAGER_CONST";
+  public static final String CHUNK_CACHE_CONST = "CHUNK_CACHE_CONST";
+  public static final String METADATA_CACHE_CONST = "METADATA_CACHE_CONST";
   public static final String MONITOR_PATH_SEPERATOR = ".";
   public static final String statStorageGroupPrefix = "root.stats";
 
@@ -38,6 +40,14 @@ public class MonitorConstants {
           + MONITOR_PATH_SEPERATOR + fileNodeManagerPath;
   public static final String fileNodePath = "write";
 
+  // statistic for read module
+  public static final String chunkCachePath = "read.chunk_cache";
+  public static final String STAT_CHUNK_CACHE_NAME = statStorageGroupPrefix
+          + MONITOR_PATH_SEPERATOR + chunkCachePath;
+  public static final String metadataCachePath = "read.metadata_cache";
+  public static final String STAT_METADATA_CACHE_NAME = statStorageGroupPrefix
+          + MONITOR_PATH_SEPERATOR + metadataCachePath;
+
   /**
    * function for initing values.
    *
@@ -58,6 +68,16 @@ public class MonitorConstants {
           hashMap.put(statConstant.name(), new AtomicLong(0));
         }
         break;
+      case CHUNK_CACHE_CONST:
+        for (ChunkCacheStatConstants statConstant : ChunkCacheStatConstants.values()) {
+          hashMap.put(statConstant.name(), new AtomicLong(0));
+        }
+        break;
+      case METADATA_CACHE_CONST:
+        for (MetadataCacheStatConstants statConstant : MetadataCacheStatConstants.values()) {
+          hashMap.put(statConstant.name(), new AtomicLong(0));
+        }
+        break;
       default:
         // TODO: throws some errors
         break;
@@ -73,4 +93,12 @@ public class MonitorConstants {
   public enum FileNodeProcessorStatConstants {
     TOTAL_REQ_SUCCESS, TOTAL_REQ_FAIL, TOTAL_POINTS_SUCCESS, TOTAL_POINTS_FAIL,
   }
+
+  public enum ChunkCacheStatConstants {
+    HIT_NUM, MISS_NUM, EVICTION_NUM
+  }
+
+  public enum MetadataCacheStatConstants {
+    HIT_NUM, MISS_NUM, EVICTION_NUM, HIT_RATIO_IN_PERCENT
+  }
 }
@@ -0,0 +1,437 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.db.qp;
+
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import org.apache.iotdb.db.qp.constant.SQLConstant;
+import org.apache.iotdb.db.qp.logical.Operator;
+import org.apache.iotdb.db.qp.logical.crud.BasicFunctionOperator;
+import org.apache.iotdb.db.qp.logical.crud.FilterOperator;
+import org.apache.iotdb.db.qp.logical.crud.QueryOperator;
+import org.apache.iotdb.db.qp.logical.crud.SelectOperator;
+import org.apache.iotdb.tsfile.read.common.Path;
+
+/**
+ * A bounded cache of optimized query operators keyed by normalized SQL, in which the whitespaces
+ * are collapsed and the literals compared in the where clause are lifted out. Queries which only
+ * differ in those literals, e.g., in their time bounds, share one entry and skip parsing, logical
+ * generating and optimizing; only their physical plans are generated one by one.
+ *
+ * <p>An entry is built from the normalized SQL, in which each lifted literal is replaced by a
+ * distinct number. The numbers are then found among the values of the optimized filter, and
+ * replaced by the literals of each query. An entry built from older metadata is rebuilt, as the
+ * paths of the optimized operator depend on the metadata.
+ */
+public class PlanCache {
+
+  /**
+   * the lifted literals are replaced by these numbers in the SQL which an entry is built from.
+   */
+  private static final long SENTINEL_BASE = 8_000_000_000_000_000_000L;
+  private static final String SELECT_PREFIX = "select";
+
+  private final int capacity;
+  /**
+   * in access order, the first entry is the least recently used.
+   */
+  private final LinkedHashMap<String, CachedOperator> cache;
+  private final AtomicLong hitCount = new AtomicLong();
+  private final AtomicLong missCount = new AtomicLong();
+
+  /**
+   * @param capacity -the maximum number of entries, the cache is disabled if it is not positive
+   */
+  public PlanCache(int capacity) {
+    this.capacity = capacity;
+    this.cache = new LinkedHashMap<String, CachedOperator>(16, 0.75f, true) {
+      private static final long serialVersionUID = 2463592018624335792L;
+
+      @Override
+      protected boolean removeEldestEntry(Map.Entry<String, CachedOperator> eldest) {
+        return size() > PlanCache.this.capacity;
+      }
+    };
+  }
+
+  /**
+   * get the optimized operator of the query, the entry is built by the processor if it is not
+   * cached.
+   *
+   * @return an operator which can be modified by the caller, or null if the SQL is not cacheable
+   */
+  QueryOperator get(String sql, ZoneId zoneId, QueryProcessor processor) {
+    if (capacity <= 0 || !sql.trim().regionMatches(true, 0, SELECT_PREFIX, 0,
+        SELECT_PREFIX.length())) {
+      return null;
+    }
+    NormalizedSql normalizedSql = normalize(sql);
+    if (normalizedSql == null) {
+      return null;
+    }
+    String key = zoneId.getId() + ' ' + normalizedSql.template;
+    long metadataVersion = processor.getExecutor().getMetadataVersion();
+    CachedOperator cachedOperator;
+    synchronized (cache) {
+      cachedOperator = cache.get(key);
+    }
+    if (cachedOperator != null && cachedOperator.metadataVersion == metadataVersion) {
+      hitCount.incrementAndGet();
+    } else {
+      missCount.incrementAndGet();
+      cachedOperator = build(normalizedSql, zoneId, processor, metadataVersion);
+      synchronized (cache) {
+        cache.put(key, cachedOperator);
+      }
+    }
+    return cachedOperator.bind(normalizedSql.literals);
+  }
+
+  public long getHitCount() {
+    return hitCount.get();
+  }
+
+  public long getMissCount() {
+    return missCount.get();
+  }
+
+  public int size() {
+    synchronized (cache) {
+      return cache.size();
+    }
+  }
+
+  /**
+   * collapse the whitespaces and lift out the number and string literals which follow a comparison
+   * operator.
+   *
+   * @return null if the SQL can not be normalized, e.g., it calls now(), whose value changes
+   */
+  static NormalizedSql normalize(String sql) {
+    StringBuilder template = new StringBuilder(sql.length());
+    List<String> literals = new ArrayList<>();
+    boolean afterComparison = false;
+    int i = 0;
+    while (i < sql.length()) {
+      char c = sql.charAt(i);
+      if (Character.isWhitespace(c)) {
+        while (i < sql.length() && Character.isWhitespace(sql.charAt(i))) {
+          i++;
+        }
+        if (template.length() > 0 && i < sql.length()) {
+          template.append(' ');
+        }
+        continue;
+      }
+      int end;
+      if (c == '\'' || c == '"') {
+        end = endOfQuoted(sql, i);
+        if (end < 0) {
+          return null;
+        }
+      } else if (afterComparison && Character.isDigit(c)) {
+        end = endOfNumber(sql, i);
+        // e.g., 2017-11-01T00:00:00 is a datetime but not a number
+        if (end < sql.length() && !Character.isWhitespace(sql.charAt(end))
+            && sql.charAt(end) != ')') {
+          end = -1;
+        }
+      } else {
+        end = -1;
+      }
+
+      if (end < 0) {
+        template.append(c);
+        afterComparison = isComparison(c);
+        i++;
+      } else if (afterComparison) {
+        template.append(sentinel(literals.size()));
+        literals.add(sql.substring(i, end));
+        afterComparison = false;
+        i = end;
+      } else {
+        template.append(sql, i, end);
+        i = end;
+      }
+    }
+
+    if (callsNow(template.toString())) {
+      return null;
+    }
+    for (int j = 0; j < literals.size(); j++) {
+      if (sql.contains(sentinel(j))) {
+        return null;
+      }
+    }
+    return new NormalizedSql(template.toString(), literals);
+  }
+
+  /**
+   * whether the SQL calls now(), the value of which is computed when the SQL is parsed.
+   */
+  static boolean callsNow(String sql) {
+    String lowerCase = sql.toLowerCase();
+    return lowerCase.contains(SQLConstant.NOW_FUNC + "(")
+        || lowerCase.contains(SQLConstant.NOW_FUNC + " (");
+  }
+
+  private static boolean isComparison(char c) {
+    return c == '<' || c == '>' || c == '=' || c == '!';
+  }
+
+  /**
+   * @return the index after the closing quote, or -1 if the quote is not closed
+   */
+  private static int endOfQuoted(String sql, int start) {
+    char quote = sql.charAt(start);
+    int i = start + 1;
+    while (i < sql.length()) {
+      char c = sql.charAt(i);
+      if (c == '\\') {
+        i += 2;
+      } else if (c == quote) {
+        return i + 1;
+      } else {
+        i++;
+      }
+    }
+    return -1;
+  }
+
+  /**
+   * @return the index after an unsigned number like 12, 1.5 or 1.5e3
+   */
+  private static int endOfNumber(String sql, int start) {
+    int i = skipDigits(sql, start);
+    if (i + 1 < sql.length() && sql.charAt(i) == '.' && Character.isDigit(sql.charAt(i + 1))) {
+      i = skipDigits(sql, i + 1);
+    }
+    if (i + 1 < sql.length() && (sql.charAt(i) == 'e' || sql.charAt(i) == 'E')) {
+      int exponent = i + 1;
+      if (exponent + 1 < sql.length() && (sql.charAt(exponent) == '+'
+          || sql.charAt(exponent) == '-')) {
+        exponent++;
+      }
+      if (Character.isDigit(sql.charAt(exponent))) {
+        i = skipDigits(sql, exponent);
+      }
+    }
+    return i;
+  }
+
+  private static int skipDigits(String sql, int start) {
+    int i = start;
+    while (i < sql.length() && Character.isDigit(sql.charAt(i))) {
+      i++;
+    }
+    return i;
+  }
+
+  static String sentinel(int literal) {
+    return Long.toString(SENTINEL_BASE + literal);
+  }
+
+  /**
+   * @return the index of the literal which the value stands for, or -1 if it is not a sentinel
+   */
+  private static int literalOf(String value, int literalCount) {
+    if (value == null || value.length() != sentinel(0).length()) {
+      return -1;
+    }
+    try {
+      long literal = Long.parseLong(value) - SENTINEL_BASE;
+      if (literal >= 0 && literal < literalCount && sentinel((int) literal).equals(value)) {
+        return (int) literal;
+      }
+    } catch (NumberFormatException e) {
+      // not a sentinel
+    }
+    return -1;
+  }
+
+  /**
+   * build an entry from the SQL in which each literal has been replaced by its sentinel.
+   */
+  static CachedOperator build(NormalizedSql normalizedSql, ZoneId zoneId,
+      QueryProcessor processor, long metadataVersion) {
+    Operator operator;
+    try {
+      operator = processor.parseSQLToOptimizedOperator(normalizedSql.template, zoneId);
+    } catch (Exception e) {
+      // the SQL is parsed again without the cache and reports the error by itself
+      return new CachedOperator(null, 0, metadataVersion);
+    }
+    if (!(operator instanceof QueryOperator)) {
+      return new CachedOperator(null, 0, metadataVersion);
+    }
+    QueryOperator queryOperator = (QueryOperator) operator;
+    int literalCount = normalizedSql.literals.size();
+    int[] occurrences = new int[literalCount];
+    if (queryOperator.getFilterOperator() != null) {
+      countLiterals(queryOperator.getFilterOperator(), occurrences);
+    }
+    for (int occurrence : occurrences) {
+      // the literal is somewhere else than the values of the filter
+      if (occurrence == 0) {
+        return new CachedOperator(null, 0, metadataVersion);
+      }
+    }
+    return new CachedOperator(queryOperator, literalCount, metadataVersion);
+  }
+
+  private static void countLiterals(FilterOperator filter, int[] occurrences) {
+    if (filter instanceof BasicFunctionOperator) {
+      int literal = literalOf(((BasicFunctionOperator) filter).getValue(), occurrences.length);
+      if (literal >= 0) {
+        occurrences[literal]++;
+      }
+      return;
+    }
+    for (FilterOperator child : filter.getChildren()) {
+      countLiterals(child, occurrences);
+    }
+  }
+
+  static class NormalizedSql {
+
+    final String template;
+    final List<String> literals;
+
+    NormalizedSql(String template, List<String> literals) {
+      this.template = template;
+      this.literals = literals;
+    }
+  }
+
+  /**
+   * an optimized operator whose filter values are sentinels of the lifted literals. A null operator
+   * means that the SQL is not cacheable.
+   */
+  static class CachedOperator {
+
+    private final QueryOperator operator;
+    private final int literalCount;
+    private final long metadataVersion;
+
+    private CachedOperator(QueryOperator operator, int literalCount, long metadataVersion) {
+      this.operator = operator;
+      this.literalCount = literalCount;
+      this.metadataVersion = metadataVersion;
+    }
+
+    boolean isCacheable() {
+      return operator != null;
+    }
+
+    long getMetadataVersion() {
+      return metadataVersion;
+    }
+
+    /**
+     * find the literals which are only compared with the time, a datetime can be bound to them.
+     */
+    boolean[] getTimeLiterals() {
+      boolean[] timeLiterals = new boolean[literalCount];
+      boolean[] valueLiterals = new boolean[literalCount];
+      if (operator != null && operator.getFilterOperator() != null) {
+        findTimeLiterals(operator.getFilterOperator(), timeLiterals, valueLiterals);
+      }
+      for (int i = 0; i < literalCount; i++) {
+        timeLiterals[i] &= !valueLiterals[i];
+      }
+      return timeLiterals;
+    }
+
+    private void findTimeLiterals(FilterOperator filter, boolean[] timeLiterals,
+        boolean[] valueLiterals) {
+      if (filter instanceof BasicFunctionOperator) {
+        BasicFunctionOperator basicOperator = (BasicFunctionOperator) filter;
+        int literal = literalOf(basicOperator.getValue(), literalCount);
+        if (literal >= 0) {
+          Path path = basicOperator.getSinglePath();
+          if (path != null && path.equals(SQLConstant.RESERVED_TIME)) {
+            timeLiterals[literal] = true;
+          } else {
+            valueLiterals[literal] = true;
+          }
+        }
+        return;
+      }
+      for (FilterOperator child : filter.getChildren()) {
+        findTimeLiterals(child, timeLiterals, valueLiterals);
+      }
+    }
+
+    /**
+     * copy the operator with the sentinels replaced by the literals, the cached one is never
+     * modified.
+     */
+    QueryOperator bind(List<String> literals) {
+      if (operator == null || literals.size() != literalCount) {
+        return null;
+      }
+      QueryOperator copy = new QueryOperator(operator.getTokenIntType());
+      SelectOperator select = operator.getSelectOperator();
+      SelectOperator selectCopy = new SelectOperator(select.getTokenIntType());
+      selectCopy.setSuffixPathList(new ArrayList<>(select.getSuffixPaths()));
+      selectCopy.setAggregations(new ArrayList<>(select.getAggregations()));
+      copy.setSelectOperator(selectCopy);
+      copy.setFromOperator(operator.getFromOperator());
+      if (operator.getFilterOperator() != null) {
+        FilterOperator filter = operator.getFilterOperator().clone();
+        bindLiterals(filter, literals);
+        copy.setFilterOperator(filter);
+      }
+      copy.setGroupBy(operator.isGroupBy());
+      copy.setUnit(operator.getUnit());
+      copy.setOrigin(operator.getOrigin());
+      if (operator.getIntervals() != null) {
+        copy.setIntervals(new ArrayList<>(operator.getIntervals()));
+      }
+      copy.setFill(operator.isFill());
+      if (operator.getFillTypes() != null) {
+        copy.setFillTypes(new HashMap<>(operator.getFillTypes()));
+      }
+      if (operator.hasSlimit()) {
+        copy.setSeriesLimit(operator.getSeriesLimit());
+        copy.setSeriesOffset(operator.getSeriesOffset());
+      }
+      return copy;
+    }
+
+    private void bindLiterals(FilterOperator filter, List<String> literals) {
+      if (filter instanceof BasicFunctionOperator) {
+        BasicFunctionOperator basicOperator = (BasicFunctionOperator) filter;
+        int literal = literalOf(basicOperator.getValue(), literalCount);
+        if (literal >= 0) {
+          basicOperator.setValue(literals.get(literal));
+        }
+        return;
+      }
+      for (FilterOperator child : filter.getChildren()) {
+        bindLiterals(child, literals);
+      }
+    }
+  }
+}
@@ -0,0 +1,334 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.db.qp;
+
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import org.apache.iotdb.db.exception.ProcessorException;
+import org.apache.iotdb.db.exception.qp.LogicalOperatorException;
+import org.apache.iotdb.db.exception.qp.QueryProcessorException;
+import org.apache.iotdb.db.qp.PlanCache.CachedOperator;
+import org.apache.iotdb.db.qp.PlanCache.NormalizedSql;
+import org.apache.iotdb.db.qp.logical.crud.QueryOperator;
+import org.apache.iotdb.db.qp.physical.PhysicalPlan;
+import org.apache.iotdb.db.qp.physical.crud.InsertPlan;
+import org.apache.iotdb.db.qp.strategy.LogicalGenerator;
+
+/**
+ * A statement with '?' placeholders which has been parsed once into a plan template. Binding a row
+ * of parameters to it produces a physical plan without going through the SQL parser again.
+ *
+ * <p>Two kinds of statements are kept as templates: insert statements whose placeholders stand
+ * for the timestamp or the values, and queries whose placeholders stand for the values compared
+ * in the where clause, which are bound into the optimized operator the same way as the literals
+ * lifted by {@link PlanCache}. The other statements are completed and parsed by the client one by
+ * one.
+ */
+public abstract class PreparedPlan {
+
+  /**
+   * the placeholders of an insert statement are replaced by these numbers before parsing, so that
+   * they can be found in the parsed plan.
+   */
+  private static final long SENTINEL_BASE = 9_000_000_000_000_000_000L;
+  private static final int NOT_A_PARAMETER = -1;
+  private static final String SELECT_PREFIX = "select";
+
+  private final String statement;
+  private final int parameterCount;
+
+  private PreparedPlan(String statement, int parameterCount) {
+    this.statement = statement;
+    this.parameterCount = parameterCount;
+  }
+
+  /**
+   * parse the statement into a template.
+   *
+   * @return the template, or null if the statement can not be prepared on the server
+   */
+  public static PreparedPlan prepare(QueryProcessor processor, String statement, ZoneId zoneId) {
+    List<String> parts = splitStatement(statement);
+    if (statement.trim().regionMatches(true, 0, SELECT_PREFIX, 0, SELECT_PREFIX.length())) {
+      return PreparedQuery.prepare(processor, statement, parts, zoneId);
+    }
+    return PreparedInsert.prepare(processor, statement, parts, zoneId);
+  }
+
+  /**
+   * bind one row of parameters, each of which is the SQL literal text of its placeholder.
+   */
+  public abstract PhysicalPlan bind(List<String> parameters, ZoneId zoneId)
+      throws QueryProcessorException, ProcessorException;
+
+  /**
+   * whether the statement is a query, which is executed with one row of parameters and opens a
+   * result set.
+   */
+  public abstract boolean isQuery();
+
+  public String getStatement() {
+    return statement;
+  }
+
+  public int getParameterCount() {
+    return parameterCount;
+  }
+
+  void checkParameterCount(List<String> parameters) throws QueryProcessorException {
+    if (parameters.size() != parameterCount) {
+      throw new QueryProcessorException(String
+          .format("Expect %d parameters but get %d", parameterCount, parameters.size()));
+    }
+  }
+
+  private static class PreparedInsert extends PreparedPlan {
+
+    private final InsertPlan template;
+    // the parameter which stands for the timestamp, NOT_A_PARAMETER if the timestamp is fixed.
+    private final int timeParameter;
+    // the parameter which stands for each value, NOT_A_PARAMETER if the value is fixed.
+    private final int[] valueParameters;
+
+    private PreparedInsert(String statement, InsertPlan template, int parameterCount,
+        int timeParameter, int[] valueParameters) {
+      super(statement, parameterCount);
+      this.template = template;
+      this.timeParameter = timeParameter;
+      this.valueParameters = valueParameters;
+    }
+
+    private static PreparedPlan prepare(QueryProcessor processor, String statement,
+        List<String> parts, ZoneId zoneId) {
+      int parameterCount = parts.size() - 1;
+      StringBuilder sql = new StringBuilder(parts.get(0));
+      for (int i = 1; i < parts.size(); i++) {
+        String sentinel = sentinel(i - 1);
+        if (statement.contains(sentinel)) {
+          return null;
+        }
+        sql.append(sentinel).append(parts.get(i));
+      }
+
+      PhysicalPlan plan;
+      try {
+        plan = processor.parseSQLToPhysicalPlan(sql.toString(), zoneId);
+      } catch (Exception e) {
+        // let the completed statements report the error when they are executed
+        return null;
+      }
+      if (!(plan instanceof InsertPlan)) {
+        return null;
+      }
+      InsertPlan insertPlan = (InsertPlan) plan;
+
+      int[] occurrences = new int[parameterCount];
+      int timeParameter = findParameter(Long.toString(insertPlan.getTime()), occurrences);
+      List<String> values = insertPlan.getValues();
+      int[] valueParameters = new int[values.size()];
+      for (int i = 0; i < values.size(); i++) {
+        valueParameters[i] = findParameter(values.get(i), occurrences);
+      }
+      for (int occurrence : occurrences) {
+        // the placeholder is somewhere else, e.g., in a path
+        if (occurrence != 1) {
+          return null;
+        }
+      }
+      return new PreparedInsert(statement, insertPlan, parameterCount, timeParameter,
+          valueParameters);
+    }
+
+    @Override
+    public PhysicalPlan bind(List<String> parameters, ZoneId zoneId)
+        throws QueryProcessorException {
+      checkParameterCount(parameters);
+      long time = template.getTime();
+      if (timeParameter != NOT_A_PARAMETER) {
+        time = parseTime(parameters.get(timeParameter), zoneId);
+      }
+      if (time <= 0) {
+        throw new LogicalOperatorException("For Insert command, time must greater than 0.");
+      }
+      List<String> values = template.getValues();
+      List<String> boundValues = new ArrayList<>(values.size());
+      for (int i = 0; i < values.size(); i++) {
+        boundValues.add(valueParameters[i] == NOT_A_PARAMETER ? values.get(i)
+            : parameters.get(valueParameters[i]));
+      }
+      return new InsertPlan(template.getDeviceId(), time, template.getMeasurements(),
+          boundValues);
+    }
+
+    @Override
+    public boolean isQuery() {
+      return false;
+    }
+  }
+
+  private static class PreparedQuery extends PreparedPlan {
+
+    private final QueryProcessor processor;
+    // the statement with each placeholder replaced by its sentinel of the plan cache
+    private final NormalizedSql sql;
+    private volatile Template template;
+
+    private PreparedQuery(String statement, QueryProcessor processor, NormalizedSql sql,
+        Template template) {
+      super(statement, sql.literals.size());
+      this.processor = processor;
+      this.sql = sql;
+      this.template = template;
+    }
+
+    private static PreparedPlan prepare(QueryProcessor processor, String statement,
+        List<String> parts, ZoneId zoneId) {
+      // a query without placeholders is cached by the plan cache anyway
+      if (parts.size() == 1 || PlanCache.callsNow(statement)) {
+        return null;
+      }
+      StringBuilder sql = new StringBuilder(parts.get(0));
+      List<String> literals = new ArrayList<>();
+      for (int i = 1; i < parts.size(); i++) {
+        String sentinel = PlanCache.sentinel(i - 1);
+        if (statement.contains(sentinel)) {
+          return null;
+        }
+        // a space keeps the sentinel apart from a comparison operator like "<" or "-"
+        sql.append(' ').append(sentinel).append(' ').append(parts.get(i));
+        literals.add(sentinel);
+      }
+      NormalizedSql normalizedSql = new NormalizedSql(sql.toString(),
+          Collections.unmodifiableList(literals));
+      Template template = Template.build(normalizedSql, processor, zoneId);
+      if (template == null) {
+        return null;
+      }
+      return new PreparedQuery(statement, processor, normalizedSql, template);
+    }
+
+    @Override
+    public PhysicalPlan bind(List<String> parameters, ZoneId zoneId)
+        throws QueryProcessorException, ProcessorException {
+      checkParameterCount(parameters);
+      Template current = template;
+      // the paths of the operator depend on the metadata and the datetimes in the statement
+      // depend on the time zone
+      if (current.operator.getMetadataVersion() != processor.getExecutor().getMetadataVersion()
+          || !current.zoneId.equals(zoneId)) {
+        current = Template.build(sql, processor, zoneId);
+        if (current == null) {
+          throw new QueryProcessorException(String
+              .format("The prepared statement %s is no longer valid", getStatement()));
+        }
+        template = current;
+      }
+      List<String> literals = new ArrayList<>(parameters.size());
+      for (int i = 0; i < parameters.size(); i++) {
+        String parameter = parameters.get(i);
+        literals.add(current.timeLiterals[i] ? Long.toString(parseTime(parameter, zoneId))
+            : parameter);
+      }
+      QueryOperator operator = current.operator.bind(literals);
+      return processor.transformToPhysicalPlan(operator);
+    }
+
+    @Override
+    public boolean isQuery() {
+      return true;
+    }
+  }
+
+  /**
+   * the optimized operator of a prepared query, and the parameters which are only compared with
+   * the time.
+   */
+  private static class Template {
+
+    private final CachedOperator operator;
+    private final boolean[] timeLiterals;
+    private final ZoneId zoneId;
+
+    private Template(CachedOperator operator, ZoneId zoneId) {
+      this.operator = operator;
+      this.timeLiterals = operator.getTimeLiterals();
+      this.zoneId = zoneId;
+    }
+
+    /**
+     * @return null if a placeholder is not a value compared in the where clause
+     */
+    private static Template build(NormalizedSql sql, QueryProcessor processor, ZoneId zoneId) {
+      CachedOperator operator = PlanCache.build(sql, zoneId, processor,
+          processor.getExecutor().getMetadataVersion());
+      return operator.isCacheable() ? new Template(operator, zoneId) : null;
+    }
+  }
+
+  private static long parseTime(String text, ZoneId zoneId) throws LogicalOperatorException {
+    try {
+      return Long.parseLong(text);
+    } catch (NumberFormatException e) {
+      return new LogicalGenerator(zoneId).parseTimeFormat(text);
+    }
+  }
+
+  private static String sentinel(int parameter) {
+    return Long.toString(SENTINEL_BASE + parameter);
+  }
+
+  private static int findParameter(String text, int[] occurrences) {
+    for (int i = 0; i < occurrences.length; i++) {
+      if (sentinel(i).equals(text)) {
+        occurrences[i]++;
+        return i;
+      }
+    }
+    return NOT_A_PARAMETER;
+  }
+
+  /**
+   * split the statement at the '?' which are not in a quoted string.
+   */
+  static List<String> splitStatement(String statement) {
+    List<String> parts = new ArrayList<>();
+    char quote = 0;
+    int off = 0;
+    for (int i = 0; i < statement.length(); i++) {
+      char c = statement.charAt(i);
+      if (c == '\\') {
+        // skip the escaped character
+        i++;
+      } else if (quote != 0) {
+        if (c == quote) {
+          quote = 0;
+        }
+      } else if (c == '\'' || c == '"') {
+        quote = c;
+      } else if (c == '?') {
+        parts.add(statement.substring(off, i));
+        off = i + 1;
+      }
+    }
+    parts.add(statement.substring(off));
+    return parts;
+  }
+}
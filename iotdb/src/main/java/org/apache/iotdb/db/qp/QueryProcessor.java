@@ -50,9 +50,18 @@ import org.apache.iotdb.db.sql.parse.ParseUtils;
 public class QueryProcessor {
 
   private QueryProcessExecutor executor;
+  private PlanCache planCache;
 
   public QueryProcessor(QueryProcessExecutor executor) {
+    this(executor, IoTDBDescriptor.getInstance().getConfig().planCacheSize);
+  }
+
+  /**
+   * @param planCacheSize -the maximum number of cached query plans, 0 to disable the cache
+   */
+  public QueryProcessor(QueryProcessExecutor executor, int planCacheSize) {
     this.executor = executor;
+    this.planCache = new PlanCache(planCacheSize);
   }
 
   public QueryProcessExecutor getExecutor() {
@@ -67,13 +76,36 @@ public class QueryProcessor {
 
   public PhysicalPlan parseSQLToPhysicalPlan(String sqlStr, ZoneId zoneId)
       throws QueryProcessorException, ArgsErrorException, ProcessorException {
-    AstNode astNode = parseSQLToAST(sqlStr);
-    Operator operator = parseASTToOperator(astNode, zoneId);
-    operator = logicalOptimize(operator, executor);
+    Operator operator = planCache.get(sqlStr, zoneId, this);
+    if (operator == null) {
+      operator = parseSQLToOptimizedOperator(sqlStr, zoneId);
+    }
+    return transformToPhysicalPlan(operator);
+  }
+
+  /**
+   * generate the physical plan of an optimized operator.
+   */
+  PhysicalPlan transformToPhysicalPlan(Operator operator)
+      throws QueryProcessorException, ProcessorException {
     PhysicalGenerator physicalGenerator = new PhysicalGenerator(executor);
     return physicalGenerator.transformToPhysicalPlan(operator);
   }
 
+  public PlanCache getPlanCache() {
+    return planCache;
+  }
+
+  /**
+   * parse the SQL to a logical operator and optimize it.
+   */
+  Operator parseSQLToOptimizedOperator(String sqlStr, ZoneId zoneId)
+      throws QueryProcessorException, ArgsErrorException {
+    AstNode astNode = parseSQLToAST(sqlStr);
+    Operator operator = parseASTToOperator(astNode, zoneId);
+    return logicalOptimize(operator, executor);
+  }
+
   /**
    * Convert ast tree to Operator which type maybe {@code SFWOperator} or {@code AuthorOperator}
    *
@@ -45,6 +45,7 @@ import org.apache.iotdb.db.qp.logical.sys.AuthorOperator;
 import org.apache.iotdb.db.qp.logical.sys.MetadataOperator;
 import org.apache.iotdb.db.qp.logical.sys.PropertyOperator;
 import org.apache.iotdb.db.qp.physical.PhysicalPlan;
+import org.apache.iotdb.db.qp.physical.crud.BatchInsertPlan;
 import org.apache.iotdb.db.qp.physical.crud.DeletePlan;
 import org.apache.iotdb.db.qp.physical.crud.InsertPlan;
 import org.apache.iotdb.db.qp.physical.crud.UpdatePlan;
@@ -115,6 +116,9 @@ public class OverflowQPExecutor extends QueryProcessExecutor {
         int result = multiInsert(insert.getDeviceId(), insert.getTime(), insert.getMeasurements(),
             insert.getValues());
         return result > 0;
+      case BATCHINSERT:
+        BatchInsertPlan batchInsert = (BatchInsertPlan) plan;
+        return batchInsert(batchInsert) == batchInsert.getRowCount();
       case CREATE_ROLE:
       case DELETE_ROLE:
       case CREATE_USER:
@@ -176,7 +180,17 @@ public class OverflowQPExecutor extends QueryProcessExecutor {
   @Override
   public QueryDataSet aggregate(List<Pair<Path, String>> aggres, IExpression expression)
       throws ProcessorException {
-    throw new ProcessorException("not support");
+    List<Path> paths = new ArrayList<>();
+    List<String> aggregations = new ArrayList<>();
+    for (Pair<Path, String> pair : aggres) {
+      paths.add(pair.left);
+      aggregations.add(pair.right);
+    }
+    try {
+      return queryRouter.aggregate(paths, aggregations, expression);
+    } catch (FileNodeManagerException e) {
+      throw new ProcessorException(e);
+    }
   }
 
   // @Override
@@ -189,7 +203,17 @@ public class OverflowQPExecutor extends QueryProcessExecutor {
   public QueryDataSet groupBy(List<Pair<Path, String>> aggres, IExpression expression, long unit,
       long origin,
       List<Pair<Long, Long>> intervals, int fetchSize) throws ProcessorException {
-    throw new ProcessorException("not support");
+    List<Path> paths = new ArrayList<>();
+    List<String> aggregations = new ArrayList<>();
+    for (Pair<Path, String> pair : aggres) {
+      paths.add(pair.left);
+      aggregations.add(pair.right);
+    }
+    try {
+      return queryRouter.groupBy(paths, aggregations, expression, unit, origin, intervals);
+    } catch (FileNodeManagerException e) {
+      throw new ProcessorException(e);
+    }
   }
 
   @Override
@@ -292,11 +316,49 @@ public class OverflowQPExecutor extends QueryProcessExecutor {
     }
   }
 
+  @Override
+  public int batchInsert(BatchInsertPlan plan) throws ProcessorException {
+    try {
+      String deviceId = plan.getDeviceId();
+      String[] measurements = plan.getMeasurements();
+      TSDataType[] dataTypes = plan.getDataTypes();
+      MNode node = mManager.getNodeByDeviceIdFromCache(deviceId);
+
+      for (int i = 0; i < measurements.length; i++) {
+        if (!node.hasChild(measurements[i])) {
+          throw new ProcessorException(
+              String.format("Current deviceId[%s] does not contains measurement:%s",
+                  deviceId, measurements[i]));
+        }
+        MNode measurementNode = node.getChild(measurements[i]);
+        if (!measurementNode.isLeaf()) {
+          throw new ProcessorException(
+              String.format("Current Path is not leaf node. %s.%s", deviceId, measurements[i]));
+        }
+        TSDataType dataType = measurementNode.getSchema().dataType;
+        if (dataType != dataTypes[i]) {
+          throw new ProcessorException(
+              String.format("The data type of %s.%s is %s, but %s is given.", deviceId,
+                  measurements[i], dataType, dataTypes[i]));
+        }
+      }
+      return fileNodeManager.insertBatch(plan);
+
+    } catch (PathErrorException | FileNodeManagerException e) {
+      throw new ProcessorException(e.getMessage());
+    }
+  }
+
   @Override
   public List<String> getAllPaths(String originPath) throws PathErrorException {
     return MManager.getInstance().getPaths(originPath);
   }
 
+  @Override
+  public long getMetadataVersion() {
+    return MManager.getInstance().getMetadataVersion();
+  }
+
   private boolean operateAuthor(AuthorPlan author) throws ProcessorException {
     AuthorOperator.AuthorType authorType = author.getAuthorType();
     String userName = author.getUserName();
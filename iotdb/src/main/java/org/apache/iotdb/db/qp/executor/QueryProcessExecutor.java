@@ -28,6 +28,9 @@ import org.apache.iotdb.db.exception.PathErrorException;
 import org.apache.iotdb.db.exception.ProcessorException;
 import org.apache.iotdb.db.metadata.MManager;
 import org.apache.iotdb.db.qp.physical.PhysicalPlan;
+import org.apache.iotdb.db.qp.physical.crud.AggregationPlan;
+import org.apache.iotdb.db.qp.physical.crud.BatchInsertPlan;
+import org.apache.iotdb.db.qp.physical.crud.GroupByPlan;
 import org.apache.iotdb.db.qp.physical.crud.QueryPlan;
 import org.apache.iotdb.db.query.executor.EngineQueryRouter;
 import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
@@ -40,14 +43,36 @@ import org.apache.iotdb.tsfile.utils.Pair;
 public abstract class QueryProcessExecutor {
 
   protected ThreadLocal<Integer> fetchSize = new ThreadLocal<>();
-  private EngineQueryRouter queryRouter = new EngineQueryRouter();
+  protected EngineQueryRouter queryRouter = new EngineQueryRouter();
 
   public QueryProcessExecutor() {
   }
 
-  public QueryDataSet processQuery(PhysicalPlan plan) throws IOException, FileNodeManagerException {
+  public QueryDataSet processQuery(PhysicalPlan plan)
+      throws IOException, FileNodeManagerException, ProcessorException {
     QueryPlan queryPlan = (QueryPlan) plan;
 
+    if (queryPlan instanceof AggregationPlan) {
+      List<Pair<Path, String>> aggres = new ArrayList<>();
+      List<Path> paths = queryPlan.getPaths();
+      List<String> aggregations = queryPlan.getAggregations();
+      for (int i = 0; i < paths.size(); i++) {
+        // a single aggregation is applied to all the paths
+        String aggregation = aggregations.size() == 1 ? aggregations.get(0) : aggregations.get(i);
+        aggres.add(new Pair<>(paths.get(i), aggregation));
+      }
+      try {
+        if (queryPlan instanceof GroupByPlan) {
+          GroupByPlan groupByPlan = (GroupByPlan) queryPlan;
+          return groupBy(aggres, groupByPlan.getExpression(), groupByPlan.getUnit(),
+              groupByPlan.getOrigin(), groupByPlan.getIntervals(), getFetchSize());
+        }
+        return aggregate(aggres, queryPlan.getExpression());
+      } catch (PathErrorException e) {
+        throw new ProcessorException(e);
+      }
+    }
+
     QueryExpression queryExpression = QueryExpression.create().setSelectSeries(queryPlan.getPaths())
         .setExpression(queryPlan.getExpression());
 
@@ -174,6 +199,21 @@ public abstract class QueryProcessExecutor {
   public abstract int multiInsert(String deviceId, long insertTime, List<String> measurementList,
       List<String> insertValues) throws ProcessorException;
 
+  /**
+   * execute a column-organized batch insertion of one device.
+   *
+   * @param plan
+   *            the rows to be inserted, with values already in their typed form
+   * @return - the number of inserted rows.
+   */
+  public abstract int batchInsert(BatchInsertPlan plan) throws ProcessorException;
+
   public abstract List<String> getAllPaths(String originPath) throws PathErrorException;
 
+  /**
+   * get the version of the metadata that the paths and types are answered from. It changes
+   * whenever the metadata changes, so that plans derived from older metadata are not reused.
+   */
+  public abstract long getMetadataVersion();
+
 }
@@ -0,0 +1,200 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.db.qp.physical.crud;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import org.apache.iotdb.db.qp.logical.Operator;
+import org.apache.iotdb.db.qp.physical.PhysicalPlan;
+import org.apache.iotdb.tsfile.exception.write.UnSupportedDataTypeException;
+import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
+import org.apache.iotdb.tsfile.read.common.Path;
+import org.apache.iotdb.tsfile.utils.Binary;
+import org.apache.iotdb.tsfile.write.record.TSRecord;
+import org.apache.iotdb.tsfile.write.record.datapoint.BooleanDataPoint;
+import org.apache.iotdb.tsfile.write.record.datapoint.DataPoint;
+import org.apache.iotdb.tsfile.write.record.datapoint.DoubleDataPoint;
+import org.apache.iotdb.tsfile.write.record.datapoint.FloatDataPoint;
+import org.apache.iotdb.tsfile.write.record.datapoint.IntDataPoint;
+import org.apache.iotdb.tsfile.write.record.datapoint.LongDataPoint;
+import org.apache.iotdb.tsfile.write.record.datapoint.StringDataPoint;
+
+/**
+ * A column-organized batch of rows of one device. Values are kept in primitive arrays (one per
+ * measurement) so that they never have to go through their string form.
+ */
+public class BatchInsertPlan extends PhysicalPlan {
+
+  private String deviceId;
+  private String[] measurements;
+  private TSDataType[] dataTypes;
+  private long[] times;
+  /**
+   * columns[i] is a long[], int[], float[], double[], boolean[] or Binary[] according to
+   * dataTypes[i].
+   */
+  private Object[] columns;
+  private int rowCount;
+
+  public BatchInsertPlan(String deviceId, String[] measurements, TSDataType[] dataTypes,
+      long[] times, Object[] columns, int rowCount) {
+    super(false, Operator.OperatorType.BATCHINSERT);
+    this.deviceId = deviceId;
+    this.measurements = measurements;
+    this.dataTypes = dataTypes;
+    this.times = times;
+    this.columns = columns;
+    this.rowCount = rowCount;
+  }
+
+  /**
+   * build a batch of the single row in tsRecord, whose data points are already typed.
+   */
+  public BatchInsertPlan(TSRecord tsRecord) {
+    this(tsRecord.deviceId, new String[tsRecord.dataPointList.size()],
+        new TSDataType[tsRecord.dataPointList.size()], new long[]{tsRecord.time},
+        new Object[tsRecord.dataPointList.size()], 1);
+    for (int i = 0; i < measurements.length; i++) {
+      DataPoint dataPoint = tsRecord.dataPointList.get(i);
+      measurements[i] = dataPoint.getMeasurementId();
+      dataTypes[i] = dataPoint.getType();
+      columns[i] = singleValueColumn(dataPoint);
+    }
+  }
+
+  private static Object singleValueColumn(DataPoint dataPoint) {
+    switch (dataPoint.getType()) {
+      case BOOLEAN:
+        return new boolean[]{dataPoint.getBoolean()};
+      case INT32:
+        return new int[]{dataPoint.getInteger()};
+      case INT64:
+        return new long[]{dataPoint.getLong()};
+      case FLOAT:
+        return new float[]{dataPoint.getFloat()};
+      case DOUBLE:
+        return new double[]{dataPoint.getDouble()};
+      case TEXT:
+        return new Binary[]{dataPoint.getBinary()};
+      default:
+        throw new UnSupportedDataTypeException(
+            String.format("Data type %s is not supported.", dataPoint.getType()));
+    }
+  }
+
+  /**
+   * build the batch of the rows [start, end) of this batch, the columns are copied.
+   */
+  public BatchInsertPlan subPlan(int start, int end) {
+    Object[] subColumns = new Object[columns.length];
+    for (int i = 0; i < columns.length; i++) {
+      subColumns[i] = subColumn(dataTypes[i], columns[i], start, end);
+    }
+    return new BatchInsertPlan(deviceId, measurements, dataTypes,
+        Arrays.copyOfRange(times, start, end), subColumns, end - start);
+  }
+
+  private static Object subColumn(TSDataType dataType, Object column, int start, int end) {
+    switch (dataType) {
+      case BOOLEAN:
+        return Arrays.copyOfRange((boolean[]) column, start, end);
+      case INT32:
+        return Arrays.copyOfRange((int[]) column, start, end);
+      case INT64:
+        return Arrays.copyOfRange((long[]) column, start, end);
+      case FLOAT:
+        return Arrays.copyOfRange((float[]) column, start, end);
+      case DOUBLE:
+        return Arrays.copyOfRange((double[]) column, start, end);
+      case TEXT:
+        return Arrays.copyOfRange((Binary[]) column, start, end);
+      default:
+        throw new UnSupportedDataTypeException(
+            String.format("Data type %s is not supported.", dataType));
+    }
+  }
+
+  @Override
+  public List<Path> getPaths() {
+    List<Path> ret = new ArrayList<>();
+    for (String m : measurements) {
+      ret.add(new Path(deviceId + "." + m));
+    }
+    return ret;
+  }
+
+  /**
+   * build the TSRecord of the given row with typed data points.
+   *
+   * @param row row index, must be less than rowCount
+   */
+  public TSRecord getRecord(int row) {
+    TSRecord record = new TSRecord(times[row], deviceId);
+    for (int i = 0; i < measurements.length; i++) {
+      record.addTuple(getDataPoint(i, row));
+    }
+    return record;
+  }
+
+  private DataPoint getDataPoint(int column, int row) {
+    String measurement = measurements[column];
+    switch (dataTypes[column]) {
+      case BOOLEAN:
+        return new BooleanDataPoint(measurement, ((boolean[]) columns[column])[row]);
+      case INT32:
+        return new IntDataPoint(measurement, ((int[]) columns[column])[row]);
+      case INT64:
+        return new LongDataPoint(measurement, ((long[]) columns[column])[row]);
+      case FLOAT:
+        return new FloatDataPoint(measurement, ((float[]) columns[column])[row]);
+      case DOUBLE:
+        return new DoubleDataPoint(measurement, ((double[]) columns[column])[row]);
+      case TEXT:
+        return new StringDataPoint(measurement, ((Binary[]) columns[column])[row]);
+      default:
+        throw new UnSupportedDataTypeException(
+            String.format("Data type %s is not supported.", dataTypes[column]));
+    }
+  }
+
+  public String getDeviceId() {
+    return deviceId;
+  }
+
+  public String[] getMeasurements() {
+    return measurements;
+  }
+
+  public TSDataType[] getDataTypes() {
+    return dataTypes;
+  }
+
+  public long[] getTimes() {
+    return times;
+  }
+
+  public Object[] getColumns() {
+    return columns;
+  }
+
+  public int getRowCount() {
+    return rowCount;
+  }
+}
@@ -0,0 +1,114 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.db.query.aggregation;
+
+import org.apache.iotdb.db.query.reader.aggregate.SeriesDigest;
+import org.apache.iotdb.tsfile.exception.write.UnSupportedDataTypeException;
+import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
+import org.apache.iotdb.tsfile.read.common.Field;
+import org.apache.iotdb.tsfile.utils.Binary;
+
+/**
+ * An aggregation on one series. The data of the series is given either as the digest of a whole
+ * chunk or page, or point by point, always in ascending order of time.
+ */
+public abstract class AggregateFunction {
+
+  protected String name;
+  protected TSDataType seriesDataType;
+
+  public AggregateFunction(String name, TSDataType seriesDataType) {
+    this.name = name;
+    this.seriesDataType = seriesDataType;
+  }
+
+  public String getName() {
+    return name;
+  }
+
+  /**
+   * data type of the aggregated result.
+   */
+  public abstract TSDataType getResultDataType();
+
+  /**
+   * aggregate all the points of a chunk or page, which are summarized by the digest.
+   */
+  public abstract void calculateValueFromDigest(SeriesDigest digest);
+
+  /**
+   * aggregate one point.
+   *
+   * @param time -timestamp of the point, greater than the ones already aggregated
+   * @param value -value of the point, whose class is decided by the data type of the series
+   */
+  public abstract void calculateValueFromPoint(long time, Object value);
+
+  /**
+   * whether the result can not be changed by the rest data, so that they need not be read.
+   */
+  public boolean isCalculatedOver() {
+    return false;
+  }
+
+  /**
+   * get the result of the data aggregated since the last reset.
+   *
+   * @return the result, or a null field if no data has been aggregated
+   */
+  public abstract Field getResult();
+
+  /**
+   * clear the result, so that another group of data can be aggregated.
+   */
+  public abstract void reset();
+
+  protected static Field createNullField() {
+    Field field = new Field(null);
+    field.setNull();
+    return field;
+  }
+
+  protected static Field createField(TSDataType dataType, Object value) {
+    Field field = new Field(dataType);
+    switch (dataType) {
+      case BOOLEAN:
+        field.setBoolV((Boolean) value);
+        break;
+      case INT32:
+        field.setIntV((Integer) value);
+        break;
+      case INT64:
+        field.setLongV((Long) value);
+        break;
+      case FLOAT:
+        field.setFloatV((Float) value);
+        break;
+      case DOUBLE:
+        field.setDoubleV((Double) value);
+        break;
+      case TEXT:
+        field.setBinaryV((Binary) value);
+        break;
+      default:
+        throw new UnSupportedDataTypeException(String.valueOf(dataType));
+    }
+    return field;
+  }
+}
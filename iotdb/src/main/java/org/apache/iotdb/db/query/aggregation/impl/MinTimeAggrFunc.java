@@ -0,0 +1,68 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.db.query.aggregation.impl;
+
+import org.apache.iotdb.db.query.aggregation.AggregateFunction;
+import org.apache.iotdb.db.query.reader.aggregate.SeriesDigest;
+import org.apache.iotdb.tsfile.common.constant.StatisticConstant;
+import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
+import org.apache.iotdb.tsfile.read.common.Field;
+
+public class MinTimeAggrFunc extends AggregateFunction {
+
+  private Long minTime = null;
+
+  public MinTimeAggrFunc(TSDataType seriesDataType) {
+    super(StatisticConstant.MIN_TIME, seriesDataType);
+  }
+
+  @Override
+  public TSDataType getResultDataType() {
+    return TSDataType.INT64;
+  }
+
+  @Override
+  public void calculateValueFromDigest(SeriesDigest digest) {
+    if (minTime == null) {
+      minTime = digest.getStartTime();
+    }
+  }
+
+  @Override
+  public void calculateValueFromPoint(long time, Object value) {
+    if (minTime == null) {
+      minTime = time;
+    }
+  }
+
+  @Override
+  public boolean isCalculatedOver() {
+    return minTime != null;
+  }
+
+  @Override
+  public Field getResult() {
+    return minTime != null ? createField(TSDataType.INT64, minTime) : createNullField();
+  }
+
+  @Override
+  public void reset() {
+    minTime = null;
+  }
+}
@@ -19,6 +19,7 @@
 package org.apache.iotdb.db.query.control;
 
 import java.io.IOException;
+import java.nio.file.Paths;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ScheduledExecutorService;
@@ -30,6 +31,7 @@ import org.apache.iotdb.db.service.IService;
 import org.apache.iotdb.db.service.ServiceType;
 import org.apache.iotdb.tsfile.read.TsFileSequenceReader;
 import org.apache.iotdb.tsfile.read.UnClosedTsFileReader;
+import org.apache.iotdb.tsfile.read.reader.MmapTsFileInput;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -60,6 +62,11 @@ public class FileReaderManager implements IService {
 
   private ScheduledExecutorService executorService;
 
+  /**
+   * whether sealed files are mapped into memory, see {@link MmapTsFileInput}.
+   */
+  private boolean enableMmap = IoTDBDescriptor.getInstance().getConfig().enableMmapTsFileReader;
+
   private FileReaderManager() {
     fileReaderMap = new ConcurrentHashMap<>();
     referenceMap = new ConcurrentHashMap<>();
@@ -115,8 +122,15 @@ public class FileReaderManager implements IService {
         LOGGER.warn("Query has opened {} files !", fileReaderMap.size());
       }
 
-      TsFileSequenceReader tsFileReader = isUnClosed ? new UnClosedTsFileReader(filePath)
-          : new TsFileSequenceReader(filePath);
+      TsFileSequenceReader tsFileReader;
+      if (isUnClosed) {
+        tsFileReader = new UnClosedTsFileReader(filePath);
+      } else if (enableMmap) {
+        tsFileReader = new TsFileSequenceReader(filePath,
+            MmapTsFileInput.open(Paths.get(filePath)));
+      } else {
+        tsFileReader = new TsFileSequenceReader(filePath);
+      }
 
       fileReaderMap.put(filePath, tsFileReader);
       return tsFileReader;
@@ -88,11 +88,21 @@ public class OpenedFilePathsManager {
     if (jobIdContainer.get() != null) {
       long jobId = jobIdContainer.get();
       jobIdContainer.remove();
+      removeUsedFilesForGivenJob(jobId);
+    }
+  }
 
-      for (String filePath : filePathsMap.get(jobId)) {
-        FileReaderManager.getInstance().decreaseFileReaderReference(filePath);
-      }
-      filePathsMap.remove(jobId);
+  /**
+   * Clear all file paths used by the given job. It can be invoked by any thread, and it does
+   * nothing if the file paths of the job have been cleared.
+   */
+  public void removeUsedFilesForGivenJob(long jobId) {
+    Set<String> filePaths = filePathsMap.remove(jobId);
+    if (filePaths == null) {
+      return;
+    }
+    for (String filePath : filePaths) {
+      FileReaderManager.getInstance().decreaseFileReaderReference(filePath);
     }
   }
 
@@ -140,16 +140,34 @@ public class QueryTokenManager {
     if (jobContainer.get() != null) {
       long jobId = jobContainer.get();
       jobContainer.remove();
+      endQueryForGivenJob(jobId);
+    }
+  }
 
-      for (Map.Entry<String, List<Integer>> entry : queryTokensMap.get(jobId).entrySet()) {
-        for (int token : entry.getValue()) {
-          FileNodeManager.getInstance().endQuery(entry.getKey(), token);
-        }
+  /**
+   * Clear all query tokens created by the given job. Unlike
+   * <code>endQueryForCurrentRequestThread</code>, it can be invoked by any thread, and it does
+   * nothing if the job has been ended.
+   */
+  public void endQueryForGivenJob(long jobId) throws FileNodeManagerException {
+    Map<String, List<Integer>> deviceTokens = queryTokensMap.remove(jobId);
+    if (deviceTokens == null) {
+      return;
+    }
+    for (Map.Entry<String, List<Integer>> entry : deviceTokens.entrySet()) {
+      for (int token : entry.getValue()) {
+        FileNodeManager.getInstance().endQuery(entry.getKey(), token);
       }
-      queryTokensMap.remove(jobId);
     }
   }
 
+  /**
+   * Get the job id of the last query created by current request thread, null if there is none.
+   */
+  public Long getJobIdForCurrentRequestThread() {
+    return jobContainer.get();
+  }
+
   private void getUniquePaths(IExpression expression, Set<String> deviceIdSet) {
     if (expression.getType() == ExpressionType.AND || expression.getType() == ExpressionType.OR) {
       getUniquePaths(((IBinaryExpression) expression).getLeft(), deviceIdSet);
@@ -19,32 +19,40 @@
 package org.apache.iotdb.db.query.dataset;
 
 import java.io.IOException;
-import java.util.HashSet;
 import java.util.List;
-import java.util.PriorityQueue;
-import java.util.Set;
 import org.apache.iotdb.db.query.reader.IReader;
-import org.apache.iotdb.db.utils.TimeValuePair;
-import org.apache.iotdb.db.utils.TsPrimitiveType;
+import org.apache.iotdb.db.query.reader.parallel.ParallelReadScheduler;
 import org.apache.iotdb.tsfile.exception.write.UnSupportedDataTypeException;
 import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
+import org.apache.iotdb.tsfile.read.common.BatchData;
 import org.apache.iotdb.tsfile.read.common.Field;
 import org.apache.iotdb.tsfile.read.common.Path;
+import org.apache.iotdb.tsfile.read.common.RowBatch;
 import org.apache.iotdb.tsfile.read.common.RowRecord;
+import org.apache.iotdb.tsfile.read.common.TimeHeap;
 import org.apache.iotdb.tsfile.read.query.dataset.QueryDataSet;
 
 /**
  * TODO implement this class as TsFile DataSetWithoutTimeGenerator
+ *
+ * <p>The readers are read batch by batch, and the values are copied from the batches into the
+ * fields directly.
  */
 public class EngineDataSetWithoutTimeGenerator extends QueryDataSet {
 
   private List<IReader> readers;
 
-  private TimeValuePair[] cacheTimeValueList;
+  /**
+   * the batch being read of each reader, null if the reader has no more data.
+   */
+  private BatchData[] cachedBatchDataArray;
 
-  private PriorityQueue<Long> timeHeap;
+  private TimeHeap timeHeap;
 
-  private Set<Long> timeSet;
+  /**
+   * null if the readers are not read in parallel.
+   */
+  private ParallelReadScheduler scheduler;
 
   /**
    * constructor of EngineDataSetWithoutTimeGenerator.
@@ -62,17 +70,43 @@ public class EngineDataSetWithoutTimeGenerator extends QueryDataSet {
     initHeap();
   }
 
+  /**
+   * constructor of EngineDataSetWithoutTimeGenerator whose readers are read in parallel.
+   *
+   * @param paths paths in List structure
+   * @param dataTypes time series data type
+   * @param readers readers wrapped by the scheduler
+   * @param scheduler the scheduler reading the readers in parallel
+   * @throws IOException IOException
+   */
+  public EngineDataSetWithoutTimeGenerator(List<Path> paths, List<TSDataType> dataTypes,
+      List<IReader> readers, ParallelReadScheduler scheduler)
+      throws IOException {
+    super(paths, dataTypes);
+    this.readers = readers;
+    this.scheduler = scheduler;
+    initHeap();
+  }
+
+  /**
+   * stop reading the readers in parallel, if they are. It must be invoked before the resources of
+   * the query are released.
+   */
+  public void close() {
+    if (scheduler != null) {
+      scheduler.close();
+    }
+  }
+
   private void initHeap() throws IOException {
-    timeSet = new HashSet<>();
-    timeHeap = new PriorityQueue<>();
-    cacheTimeValueList = new TimeValuePair[readers.size()];
+    timeHeap = new TimeHeap(readers.size());
+    cachedBatchDataArray = new BatchData[readers.size()];
 
     for (int i = 0; i < readers.size(); i++) {
       IReader reader = readers.get(i);
-      if (reader.hasNext()) {
-        TimeValuePair timeValuePair = reader.next();
-        cacheTimeValueList[i] = timeValuePair;
-        timeHeapPut(timeValuePair.getTimestamp());
+      if (reader.hasNextBatch()) {
+        cachedBatchDataArray[i] = reader.nextBatch();
+        timeHeap.add(cachedBatchDataArray[i].currentTime());
       }
     }
   }
@@ -84,70 +118,78 @@ public class EngineDataSetWithoutTimeGenerator extends QueryDataSet {
 
   @Override
   public RowRecord next() throws IOException {
-    long minTime = timeHeapGet();
+    long minTime = timeHeap.poll();
 
     RowRecord record = new RowRecord(minTime);
 
     for (int i = 0; i < readers.size(); i++) {
-      IReader reader = readers.get(i);
-      if (cacheTimeValueList[i] == null) {
+      BatchData batchData = cachedBatchDataArray[i];
+      if (batchData == null || batchData.currentTime() != minTime) {
         record.addField(new Field(null));
-      } else {
-        if (cacheTimeValueList[i].getTimestamp() == minTime) {
-          record.addField(getField(cacheTimeValueList[i].getValue(), dataTypes.get(i)));
-          if (readers.get(i).hasNext()) {
-            cacheTimeValueList[i] = reader.next();
-            timeHeapPut(cacheTimeValueList[i].getTimestamp());
-          }
-        } else {
-          record.addField(new Field(null));
-        }
+        continue;
       }
+
+      record.addField(getField(batchData, dataTypes.get(i)));
+      moveToNextPoint(i);
     }
 
     return record;
   }
 
-  private Field getField(TsPrimitiveType tsPrimitiveType, TSDataType dataType) {
+  @Override
+  public int nextRowBatch(RowBatch rowBatch) throws IOException {
+    rowBatch.reset();
+    while (!rowBatch.isFull() && !timeHeap.isEmpty()) {
+      long minTime = timeHeap.poll();
+      rowBatch.addRow(minTime);
+      for (int i = 0; i < readers.size(); i++) {
+        BatchData batchData = cachedBatchDataArray[i];
+        if (batchData != null && batchData.currentTime() == minTime) {
+          rowBatch.putValue(i, batchData);
+          moveToNextPoint(i);
+        }
+      }
+    }
+    return rowBatch.size();
+  }
+
+  private void moveToNextPoint(int index) throws IOException {
+    BatchData batchData = cachedBatchDataArray[index];
+    batchData.next();
+    if (!batchData.hasNext()) {
+      IReader reader = readers.get(index);
+      batchData = reader.hasNextBatch() ? reader.nextBatch() : null;
+      cachedBatchDataArray[index] = batchData;
+    }
+    if (batchData != null) {
+      timeHeap.add(batchData.currentTime());
+    }
+  }
+
+  private Field getField(BatchData batchData, TSDataType dataType) {
     Field field = new Field(dataType);
     switch (dataType) {
       case INT32:
-        field.setIntV(tsPrimitiveType.getInt());
+        field.setIntV(batchData.getInt());
         break;
       case INT64:
-        field.setLongV(tsPrimitiveType.getLong());
+        field.setLongV(batchData.getLong());
         break;
       case FLOAT:
-        field.setFloatV(tsPrimitiveType.getFloat());
+        field.setFloatV(batchData.getFloat());
         break;
       case DOUBLE:
-        field.setDoubleV(tsPrimitiveType.getDouble());
+        field.setDoubleV(batchData.getDouble());
         break;
       case BOOLEAN:
-        field.setBoolV(tsPrimitiveType.getBoolean());
+        field.setBoolV(batchData.getBoolean());
         break;
       case TEXT:
-        field.setBinaryV(tsPrimitiveType.getBinary());
+        field.setBinaryV(batchData.getBinary());
         break;
       default:
         throw new UnSupportedDataTypeException("UnSupported: " + dataType);
     }
     return field;
   }
-
-  /**
-   * keep heap from storing duplicate time.
-   */
-  private void timeHeapPut(long time) {
-    if (!timeSet.contains(time)) {
-      timeSet.add(time);
-      timeHeap.add(time);
-    }
-  }
-
-  private Long timeHeapGet() {
-    Long t = timeHeap.poll();
-    timeSet.remove(t);
-    return t;
-  }
 }
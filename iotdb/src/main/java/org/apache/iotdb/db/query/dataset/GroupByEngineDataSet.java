@@ -0,0 +1,157 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.db.query.dataset;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import org.apache.iotdb.db.query.aggregation.AggregateFunction;
+import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
+import org.apache.iotdb.tsfile.read.common.Path;
+import org.apache.iotdb.tsfile.read.common.RowRecord;
+import org.apache.iotdb.tsfile.read.query.dataset.QueryDataSet;
+import org.apache.iotdb.tsfile.utils.Pair;
+
+/**
+ * Result of a GROUP BY query. The time axis is divided into windows [origin + k * unit, origin +
+ * (k + 1) * unit), and each window overlapped by the shown intervals makes one row, whose
+ * timestamp is the first time of the window inside the intervals. The rows are calculated one by
+ * one when they are fetched, so that the whole result is never kept in memory.
+ *
+ * <p>The data is read only once: a subclass consumes, window after window, the data whose time is
+ * less than the end of the window. The data outside the intervals must have been filtered out by
+ * the subclass.
+ */
+public abstract class GroupByEngineDataSet extends QueryDataSet {
+
+  private long unit;
+  private long origin;
+  private List<Pair<Long, Long>> intervals;
+  private int intervalIndex = 0;
+  /**
+   * the windows before it have been returned.
+   */
+  private long nextWindowTime = Long.MIN_VALUE;
+
+  private boolean hasCachedWindow = false;
+  private long rowTime;
+  private long windowEndTime;
+
+  protected List<AggregateFunction> functions;
+
+  /**
+   * constructor of GroupByEngineDataSet.
+   *
+   * @param paths -the aggregated series
+   * @param functions -the aggregations, in the order of paths
+   * @param unit -length of a window
+   * @param origin -start time of one of the windows
+   * @param intervals -sorted and disjoint closed time intervals, see {@link #mergeIntervals}
+   */
+  public GroupByEngineDataSet(List<Path> paths, List<AggregateFunction> functions, long unit,
+      long origin, List<Pair<Long, Long>> intervals) {
+    super(paths, getResultDataTypes(functions));
+    this.functions = functions;
+    this.unit = unit;
+    this.origin = origin;
+    this.intervals = intervals;
+  }
+
+  private static List<TSDataType> getResultDataTypes(List<AggregateFunction> functions) {
+    List<TSDataType> dataTypes = new ArrayList<>();
+    for (AggregateFunction function : functions) {
+      dataTypes.add(function.getResultDataType());
+    }
+    return dataTypes;
+  }
+
+  /**
+   * sort the closed time intervals and merge the overlapped or adjacent ones.
+   */
+  public static List<Pair<Long, Long>> mergeIntervals(List<Pair<Long, Long>> intervals) {
+    List<Pair<Long, Long>> sorted = new ArrayList<>(intervals);
+    sorted.sort(Comparator.comparing(interval -> interval.left));
+    List<Pair<Long, Long>> merged = new ArrayList<>();
+    for (Pair<Long, Long> interval : sorted) {
+      if (interval.left > interval.right) {
+        continue;
+      }
+      Pair<Long, Long> last = merged.isEmpty() ? null : merged.get(merged.size() - 1);
+      if (last != null && interval.left - 1 <= last.right) {
+        last.right = Math.max(last.right, interval.right);
+      } else {
+        merged.add(new Pair<>(interval.left, interval.right));
+      }
+    }
+    return merged;
+  }
+
+  @Override
+  public boolean hasNext() {
+    if (hasCachedWindow) {
+      return true;
+    }
+    while (intervalIndex < intervals.size()
+        && intervals.get(intervalIndex).right < nextWindowTime) {
+      intervalIndex++;
+    }
+    if (intervalIndex >= intervals.size()) {
+      return false;
+    }
+
+    rowTime = Math.max(nextWindowTime, intervals.get(intervalIndex).left);
+    long windowStartTime = origin + Math.floorDiv(rowTime - origin, unit) * unit;
+    if (windowStartTime > Long.MAX_VALUE - unit) {
+      // the last window, there is no time after it
+      windowEndTime = Long.MAX_VALUE;
+      intervalIndex = intervals.size();
+    } else {
+      windowEndTime = windowStartTime + unit;
+      nextWindowTime = windowEndTime;
+    }
+    hasCachedWindow = true;
+    return true;
+  }
+
+  @Override
+  public RowRecord next() throws IOException {
+    if (!hasNext()) {
+      return null;
+    }
+    hasCachedWindow = false;
+    for (AggregateFunction function : functions) {
+      function.reset();
+    }
+    calculateWindow(windowEndTime);
+
+    RowRecord record = new RowRecord(rowTime);
+    for (AggregateFunction function : functions) {
+      record.addField(function.getResult());
+    }
+    return record;
+  }
+
+  /**
+   * aggregate the data before the end of the current window with the functions.
+   *
+   * @param windowEndTime -exclusive end time of the window
+   */
+  protected abstract void calculateWindow(long windowEndTime) throws IOException;
+}
@@ -0,0 +1,81 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.db.query.dataset;
+
+import java.io.IOException;
+import java.util.List;
+import org.apache.iotdb.db.query.aggregation.AggregateFunction;
+import org.apache.iotdb.db.query.reader.merge.EngineReaderByTimeStamp;
+import org.apache.iotdb.db.query.timegenerator.EngineTimeGenerator;
+import org.apache.iotdb.db.utils.TsPrimitiveType;
+import org.apache.iotdb.tsfile.read.common.Path;
+import org.apache.iotdb.tsfile.utils.Pair;
+
+/**
+ * GROUP BY with value filter. The timestamps satisfying the filter are generated in order, and the
+ * values of the aggregated series at these timestamps are put into the windows.
+ */
+public class GroupByWithValueFilterDataSet extends GroupByEngineDataSet {
+
+  private EngineTimeGenerator timeGenerator;
+  private List<EngineReaderByTimeStamp> readers;
+  private List<List<AggregateFunction>> functionsOfReaders;
+
+  private boolean hasCachedTime = false;
+  private long cachedTime;
+
+  /**
+   * constructor of GroupByWithValueFilterDataSet.
+   *
+   * @param timeGenerator -generator of the filter, which contains the intervals
+   * @param readers -one reader for each distinct series
+   * @param functionsOfReaders -the functions calculated with the data of each reader
+   */
+  public GroupByWithValueFilterDataSet(List<Path> paths, List<AggregateFunction> functions,
+      long unit, long origin, List<Pair<Long, Long>> intervals, EngineTimeGenerator timeGenerator,
+      List<EngineReaderByTimeStamp> readers, List<List<AggregateFunction>> functionsOfReaders) {
+    super(paths, functions, unit, origin, intervals);
+    this.timeGenerator = timeGenerator;
+    this.readers = readers;
+    this.functionsOfReaders = functionsOfReaders;
+  }
+
+  @Override
+  protected void calculateWindow(long windowEndTime) throws IOException {
+    while (hasCachedTime || timeGenerator.hasNext()) {
+      if (!hasCachedTime) {
+        cachedTime = timeGenerator.next();
+        hasCachedTime = true;
+      }
+      if (cachedTime >= windowEndTime) {
+        return;
+      }
+      hasCachedTime = false;
+      for (int i = 0; i < readers.size(); i++) {
+        TsPrimitiveType value = readers.get(i).getValueInTimestamp(cachedTime);
+        if (value == null) {
+          continue;
+        }
+        for (AggregateFunction function : functionsOfReaders.get(i)) {
+          function.calculateValueFromPoint(cachedTime, value.getValue());
+        }
+      }
+    }
+  }
+}
@@ -0,0 +1,88 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.db.query.dataset;
+
+import java.io.IOException;
+import java.util.List;
+import org.apache.iotdb.db.query.aggregation.AggregateFunction;
+import org.apache.iotdb.db.query.reader.aggregate.SeriesAggregateReader;
+import org.apache.iotdb.db.query.reader.aggregate.SeriesDigest;
+import org.apache.iotdb.tsfile.read.common.Path;
+import org.apache.iotdb.tsfile.utils.Pair;
+
+/**
+ * GROUP BY without value filter. A chunk or page inside a window is aggregated with its
+ * statistics, only the ones crossing the border of two windows are split.
+ */
+public class GroupByWithoutValueFilterDataSet extends GroupByEngineDataSet {
+
+  private List<SeriesAggregateReader> readers;
+  private List<List<AggregateFunction>> functionsOfReaders;
+
+  /**
+   * constructor of GroupByWithoutValueFilterDataSet.
+   *
+   * @param readers -one reader for each distinct series, filtered by the intervals
+   * @param functionsOfReaders -the functions calculated with the data of each reader
+   */
+  public GroupByWithoutValueFilterDataSet(List<Path> paths, List<AggregateFunction> functions,
+      long unit, long origin, List<Pair<Long, Long>> intervals,
+      List<SeriesAggregateReader> readers, List<List<AggregateFunction>> functionsOfReaders) {
+    super(paths, functions, unit, origin, intervals);
+    this.readers = readers;
+    this.functionsOfReaders = functionsOfReaders;
+  }
+
+  @Override
+  protected void calculateWindow(long windowEndTime) throws IOException {
+    for (int i = 0; i < readers.size(); i++) {
+      calculateWindow(readers.get(i), functionsOfReaders.get(i), windowEndTime);
+    }
+  }
+
+  private void calculateWindow(SeriesAggregateReader reader, List<AggregateFunction> functions,
+      long windowEndTime) throws IOException {
+    while (reader.hasNext()) {
+      SeriesDigest digest = reader.currentDigest();
+      if (digest != null) {
+        if (digest.getStartTime() >= windowEndTime) {
+          return;
+        }
+        if (digest.getEndTime() < windowEndTime) {
+          for (AggregateFunction function : functions) {
+            function.calculateValueFromDigest(digest);
+          }
+          reader.skipDigest();
+        } else {
+          reader.splitDigest();
+        }
+      } else {
+        long time = reader.currentTime();
+        if (time >= windowEndTime) {
+          return;
+        }
+        Object value = reader.currentValue();
+        for (AggregateFunction function : functions) {
+          function.calculateValueFromPoint(time, value);
+        }
+        reader.next();
+      }
+    }
+  }
+}
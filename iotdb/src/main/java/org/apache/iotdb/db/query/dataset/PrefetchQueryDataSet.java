@@ -0,0 +1,175 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.db.query.dataset;
+
+import java.io.IOException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import org.apache.iotdb.db.concurrent.IoTDBThreadPoolFactory;
+import org.apache.iotdb.db.concurrent.ThreadName;
+import org.apache.iotdb.db.conf.IoTDBDescriptor;
+import org.apache.iotdb.tsfile.read.common.RowBatch;
+import org.apache.iotdb.tsfile.read.common.RowRecord;
+import org.apache.iotdb.tsfile.read.query.dataset.QueryDataSet;
+
+/**
+ * A QueryDataSet which reads the rows of another QueryDataSet batch by batch in a background
+ * thread. While the current batch is consumed, for example sent to the client, the next batch is
+ * already being read, so that network transmission and disk reads overlap.
+ *
+ * <p>At most one batch is read at a time, so the wrapped QueryDataSet is never accessed
+ * concurrently. The rows are read by nextRowBatch() of the wrapped QueryDataSet into two RowBatches
+ * used in turn.
+ */
+public class PrefetchQueryDataSet extends QueryDataSet {
+
+  private static final long IDLE_THREAD_KEEP_ALIVE_SECONDS = 60;
+
+  private final QueryDataSet dataSet;
+  private final int batchSize;
+  /**
+   * null before the first batch is read.
+   */
+  private RowBatch currentBatch;
+  private int index = 0;
+  /**
+   * null if all rows of dataSet have been read.
+   */
+  private Future<RowBatch> nextBatch;
+  private volatile boolean closed = false;
+
+  /**
+   * the rows are prefetched as soon as the data set is created.
+   *
+   * @param dataSet -the data set to read rows from
+   * @param batchSize -the number of rows read in one batch, usually the fetch size of the client
+   */
+  public PrefetchQueryDataSet(QueryDataSet dataSet, int batchSize) {
+    super(dataSet.getPaths(), dataSet.getDataTypes());
+    this.dataSet = dataSet;
+    this.batchSize = batchSize;
+    this.nextBatch = PrefetchPoolHolder.POOL.submit(() -> readBatch(null));
+  }
+
+  /**
+   * whether prefetching is enabled by the configuration.
+   */
+  public static boolean isEnabled() {
+    return IoTDBDescriptor.getInstance().getConfig().queryPrefetchThreadNum > 0;
+  }
+
+  /**
+   * @param batch -the batch to reuse, null if a new one is created
+   */
+  private RowBatch readBatch(RowBatch batch) throws IOException {
+    // the lock makes close() wait for the reading batch
+    synchronized (dataSet) {
+      if (batch == null) {
+        batch = new RowBatch(dataSet.getDataTypes(), batchSize);
+      }
+      if (closed) {
+        batch.reset();
+      } else {
+        dataSet.nextRowBatch(batch);
+      }
+      return batch;
+    }
+  }
+
+  @Override
+  public boolean hasNext() throws IOException {
+    if (currentBatch != null && index < currentBatch.size()) {
+      return true;
+    }
+    if (nextBatch == null) {
+      return false;
+    }
+    RowBatch consumedBatch = currentBatch;
+    try {
+      currentBatch = nextBatch.get();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IOException(e);
+    } catch (ExecutionException e) {
+      nextBatch = null;
+      throw new IOException(e.getCause());
+    }
+    index = 0;
+    // a batch not full means that there is no more row
+    nextBatch = currentBatch.isFull()
+        ? PrefetchPoolHolder.POOL.submit(() -> readBatch(consumedBatch)) : null;
+    return currentBatch.size() > 0;
+  }
+
+  @Override
+  public RowRecord next() throws IOException {
+    if (!hasNext()) {
+      return null;
+    }
+    return currentBatch.toRowRecord(index++);
+  }
+
+  @Override
+  public int nextRowBatch(RowBatch rowBatch) throws IOException {
+    rowBatch.reset();
+    while (!rowBatch.isFull() && hasNext()) {
+      rowBatch.addRow(currentBatch, index++);
+    }
+    return rowBatch.size();
+  }
+
+  /**
+   * stop prefetching and wait for the batch being read. The resources used by the wrapped data set
+   * can be released after it returns.
+   */
+  public void close() {
+    closed = true;
+    if (nextBatch != null) {
+      nextBatch.cancel(false);
+      nextBatch = null;
+    }
+    synchronized (dataSet) {
+      currentBatch = null;
+    }
+    if (dataSet instanceof EngineDataSetWithoutTimeGenerator) {
+      ((EngineDataSetWithoutTimeGenerator) dataSet).close();
+    }
+  }
+
+  private static class PrefetchPoolHolder {
+
+    private static final ExecutorService POOL = createPool();
+
+    private PrefetchPoolHolder() {
+    }
+
+    private static ExecutorService createPool() {
+      int threadNum = IoTDBDescriptor.getInstance().getConfig().queryPrefetchThreadNum;
+      ThreadPoolExecutor pool = (ThreadPoolExecutor) IoTDBThreadPoolFactory
+          .newFixedThreadPool(Math.max(1, threadNum), ThreadName.QUERY_PREFETCH.getName());
+      // idle threads exit so that the pool never keeps the JVM alive
+      pool.setKeepAliveTime(IDLE_THREAD_KEEP_ALIVE_SECONDS, TimeUnit.SECONDS);
+      pool.allowCoreThreadTimeOut(true);
+      return pool;
+    }
+  }
+}
@@ -0,0 +1,218 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.db.query.executor;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import org.apache.iotdb.db.engine.querycontext.QueryDataSource;
+import org.apache.iotdb.db.exception.FileNodeManagerException;
+import org.apache.iotdb.db.exception.PathErrorException;
+import org.apache.iotdb.db.exception.ProcessorException;
+import org.apache.iotdb.db.metadata.MManager;
+import org.apache.iotdb.db.query.aggregation.AggregateFunction;
+import org.apache.iotdb.db.query.control.QueryDataSourceManager;
+import org.apache.iotdb.db.query.control.QueryTokenManager;
+import org.apache.iotdb.db.query.dataset.AggregateDataSet;
+import org.apache.iotdb.db.query.factory.AggregateFuncFactory;
+import org.apache.iotdb.db.query.factory.SeriesReaderFactory;
+import org.apache.iotdb.db.query.reader.IReader;
+import org.apache.iotdb.db.query.reader.aggregate.SeriesAggregateReader;
+import org.apache.iotdb.db.query.reader.aggregate.SeriesDigest;
+import org.apache.iotdb.db.query.reader.merge.EngineReaderByTimeStamp;
+import org.apache.iotdb.db.query.timegenerator.EngineTimeGenerator;
+import org.apache.iotdb.db.utils.TsPrimitiveType;
+import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
+import org.apache.iotdb.tsfile.read.common.Field;
+import org.apache.iotdb.tsfile.read.common.Path;
+import org.apache.iotdb.tsfile.read.expression.IExpression;
+import org.apache.iotdb.tsfile.read.expression.impl.GlobalTimeExpression;
+import org.apache.iotdb.tsfile.read.filter.basic.Filter;
+import org.apache.iotdb.tsfile.read.query.dataset.QueryDataSet;
+
+/**
+ * IoTDB aggregation executor. The aggregations on the same series are calculated together in one
+ * pass of the series.
+ */
+public class AggregateEngineExecutor {
+
+  protected long jobId;
+  protected List<Path> selectedSeries;
+  protected List<String> aggres;
+  protected IExpression expression;
+
+  /**
+   * constructor of AggregateEngineExecutor.
+   *
+   * @param selectedSeries -the aggregated series, a series may appear more than once
+   * @param aggres -names of the aggregations, in the order of selectedSeries
+   * @param expression -filter of the aggregation, null if all the data is aggregated
+   */
+  AggregateEngineExecutor(long jobId, List<Path> selectedSeries, List<String> aggres,
+      IExpression expression) {
+    this.jobId = jobId;
+    this.selectedSeries = selectedSeries;
+    this.aggres = aggres;
+    this.expression = expression;
+  }
+
+  /**
+   * without filter or with global time filter. The statistics of the chunks and pages inside the
+   * time range and not overlapped by unsequence data are used instead of their points.
+   */
+  public QueryDataSet executeWithoutTimeGenerator()
+      throws FileNodeManagerException, ProcessorException {
+    Filter timeFilter = null;
+    if (expression != null) {
+      timeFilter = ((GlobalTimeExpression) expression).getFilter();
+    }
+
+    QueryTokenManager.getInstance().beginQueryOfGivenQueryPaths(jobId, selectedSeries);
+
+    List<AggregateFunction> functions = createAggregateFunctions();
+    Map<Path, List<AggregateFunction>> functionsOfSeries = groupBySeries(functions);
+
+    for (Map.Entry<Path, List<AggregateFunction>> entry : functionsOfSeries.entrySet()) {
+      QueryDataSource queryDataSource = QueryDataSourceManager
+          .getQueryDataSource(jobId, entry.getKey());
+      try {
+        IReader unSeqMergeReader = SeriesReaderFactory.getInstance()
+            .createUnSeqMergeReader(queryDataSource.getOverflowSeriesDataSource(), timeFilter);
+        SeriesAggregateReader seriesReader = new SeriesAggregateReader(
+            queryDataSource.getSeqDataSource(), unSeqMergeReader, timeFilter);
+        try {
+          aggregate(seriesReader, entry.getValue());
+        } finally {
+          seriesReader.close();
+        }
+      } catch (IOException e) {
+        throw new FileNodeManagerException(e);
+      }
+    }
+
+    return constructDataSet(functions);
+  }
+
+  /**
+   * with value filter. Only the points whose timestamps satisfy the filter are aggregated.
+   */
+  public QueryDataSet executeWithTimeGenerator()
+      throws FileNodeManagerException, ProcessorException {
+
+    QueryTokenManager.getInstance().beginQueryOfGivenQueryPaths(jobId, selectedSeries);
+    QueryTokenManager.getInstance().beginQueryOfGivenExpression(jobId, expression);
+
+    List<AggregateFunction> functions = createAggregateFunctions();
+    Map<Path, List<AggregateFunction>> functionsOfSeries = groupBySeries(functions);
+
+    try {
+      EngineTimeGenerator timestampGenerator = new EngineTimeGenerator(jobId, expression);
+      List<EngineReaderByTimeStamp> readersOfSeries = new ArrayList<>();
+      for (Path path : functionsOfSeries.keySet()) {
+        QueryDataSource queryDataSource = QueryDataSourceManager.getQueryDataSource(jobId, path);
+        readersOfSeries
+            .add(SeriesReaderFactory.getInstance().createSeriesReaderByTimestamp(queryDataSource));
+      }
+      List<List<AggregateFunction>> functionsOfReaders = new ArrayList<>(
+          functionsOfSeries.values());
+
+      while (timestampGenerator.hasNext()) {
+        long time = timestampGenerator.next();
+        for (int i = 0; i < readersOfSeries.size(); i++) {
+          TsPrimitiveType value = readersOfSeries.get(i).getValueInTimestamp(time);
+          if (value == null) {
+            continue;
+          }
+          for (AggregateFunction function : functionsOfReaders.get(i)) {
+            function.calculateValueFromPoint(time, value.getValue());
+          }
+        }
+      }
+    } catch (IOException e) {
+      throw new FileNodeManagerException(e);
+    }
+
+    return constructDataSet(functions);
+  }
+
+  private void aggregate(SeriesAggregateReader seriesReader, List<AggregateFunction> functions)
+      throws IOException {
+    while (!isCalculatedOver(functions) && seriesReader.hasNext()) {
+      SeriesDigest digest = seriesReader.currentDigest();
+      if (digest != null) {
+        for (AggregateFunction function : functions) {
+          function.calculateValueFromDigest(digest);
+        }
+        seriesReader.skipDigest();
+      } else {
+        long time = seriesReader.currentTime();
+        Object value = seriesReader.currentValue();
+        for (AggregateFunction function : functions) {
+          function.calculateValueFromPoint(time, value);
+        }
+        seriesReader.next();
+      }
+    }
+  }
+
+  private boolean isCalculatedOver(List<AggregateFunction> functions) {
+    for (AggregateFunction function : functions) {
+      if (!function.isCalculatedOver()) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  protected List<AggregateFunction> createAggregateFunctions()
+      throws FileNodeManagerException, ProcessorException {
+    List<AggregateFunction> functions = new ArrayList<>();
+    for (int i = 0; i < selectedSeries.size(); i++) {
+      TSDataType dataType;
+      try {
+        dataType = MManager.getInstance().getSeriesType(selectedSeries.get(i).getFullPath());
+      } catch (PathErrorException e) {
+        throw new FileNodeManagerException(e);
+      }
+      functions.add(AggregateFuncFactory.getAggrFuncByName(aggres.get(i), dataType));
+    }
+    return functions;
+  }
+
+  protected Map<Path, List<AggregateFunction>> groupBySeries(List<AggregateFunction> functions) {
+    Map<Path, List<AggregateFunction>> functionsOfSeries = new LinkedHashMap<>();
+    for (int i = 0; i < selectedSeries.size(); i++) {
+      functionsOfSeries.computeIfAbsent(selectedSeries.get(i), k -> new ArrayList<>())
+          .add(functions.get(i));
+    }
+    return functionsOfSeries;
+  }
+
+  private QueryDataSet constructDataSet(List<AggregateFunction> functions) {
+    List<TSDataType> dataTypes = new ArrayList<>();
+    List<Field> fields = new ArrayList<>();
+    for (AggregateFunction function : functions) {
+      dataTypes.add(function.getResultDataType());
+      fields.add(function.getResult());
+    }
+    return new AggregateDataSet(selectedSeries, dataTypes, fields);
+  }
+}
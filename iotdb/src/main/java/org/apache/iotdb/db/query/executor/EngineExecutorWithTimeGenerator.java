@@ -30,9 +30,6 @@ import org.apache.iotdb.db.query.control.QueryTokenManager;
 import org.apache.iotdb.db.query.dataset.EngineDataSetWithTimeGenerator;
 import org.apache.iotdb.db.query.factory.SeriesReaderFactory;
 import org.apache.iotdb.db.query.reader.merge.EngineReaderByTimeStamp;
-import org.apache.iotdb.db.query.reader.merge.PriorityMergeReader;
-import org.apache.iotdb.db.query.reader.merge.PriorityMergeReaderByTimestamp;
-import org.apache.iotdb.db.query.reader.sequence.SequenceDataReader;
 import org.apache.iotdb.db.query.timegenerator.EngineTimeGenerator;
 import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
 import org.apache.iotdb.tsfile.read.common.Path;
@@ -98,20 +95,8 @@ public class EngineExecutorWithTimeGenerator {
     for (Path path : paths) {
 
       QueryDataSource queryDataSource = QueryDataSourceManager.getQueryDataSource(jobId, path);
-
-      PriorityMergeReaderByTimestamp mergeReaderByTimestamp = new PriorityMergeReaderByTimestamp();
-
-      // reader for sequence data
-      SequenceDataReader tsFilesReader = new SequenceDataReader(queryDataSource.getSeqDataSource(),
-          null);
-      mergeReaderByTimestamp.addReaderWithPriority(tsFilesReader, 1);
-
-      // reader for unSequence data
-      PriorityMergeReader unSeqMergeReader = SeriesReaderFactory.getInstance()
-          .createUnSeqMergeReader(queryDataSource.getOverflowSeriesDataSource(), null);
-      mergeReaderByTimestamp.addReaderWithPriority(unSeqMergeReader, 2);
-
-      readersOfSelectedSeries.add(mergeReaderByTimestamp);
+      readersOfSelectedSeries
+          .add(SeriesReaderFactory.getInstance().createSeriesReaderByTimestamp(queryDataSource));
     }
 
     return readersOfSelectedSeries;
@@ -31,6 +31,7 @@ import org.apache.iotdb.db.query.dataset.EngineDataSetWithoutTimeGenerator;
 import org.apache.iotdb.db.query.factory.SeriesReaderFactory;
 import org.apache.iotdb.db.query.reader.IReader;
 import org.apache.iotdb.db.query.reader.merge.PriorityMergeReader;
+import org.apache.iotdb.db.query.reader.parallel.ParallelReadScheduler;
 import org.apache.iotdb.db.query.reader.sequence.SequenceDataReader;
 import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
 import org.apache.iotdb.tsfile.read.common.Path;
@@ -102,12 +103,7 @@ public class EngineExecutorWithoutTimeGenerator {
       readersOfSelectedSeries.add(priorityReader);
     }
 
-    try {
-      return new EngineDataSetWithoutTimeGenerator(queryExpression.getSelectedSeries(), dataTypes,
-          readersOfSelectedSeries);
-    } catch (IOException e) {
-      throw new FileNodeManagerException(e);
-    }
+    return createDataSet(readersOfSelectedSeries, dataTypes);
   }
 
   /**
@@ -158,10 +154,32 @@ public class EngineExecutorWithoutTimeGenerator {
       readersOfSelectedSeries.add(priorityReader);
     }
 
+    return createDataSet(readersOfSelectedSeries, dataTypes);
+  }
+
+  /**
+   * the series are read in parallel if it is enabled and more than one series are selected.
+   */
+  private QueryDataSet createDataSet(List<IReader> readers, List<TSDataType> dataTypes)
+      throws FileNodeManagerException {
+    List<Path> paths = queryExpression.getSelectedSeries();
+    if (!ParallelReadScheduler.isEnabled() || readers.size() <= 1) {
+      try {
+        return new EngineDataSetWithoutTimeGenerator(paths, dataTypes, readers);
+      } catch (IOException e) {
+        throw new FileNodeManagerException(e);
+      }
+    }
+
+    ParallelReadScheduler scheduler = new ParallelReadScheduler();
+    List<IReader> parallelReaders = new ArrayList<>(readers.size());
+    for (IReader reader : readers) {
+      parallelReaders.add(scheduler.wrap(reader));
+    }
     try {
-      return new EngineDataSetWithoutTimeGenerator(queryExpression.getSelectedSeries(), dataTypes,
-          readersOfSelectedSeries);
+      return new EngineDataSetWithoutTimeGenerator(paths, dataTypes, parallelReaders, scheduler);
     } catch (IOException e) {
+      scheduler.close();
       throw new FileNodeManagerException(e);
     }
   }
@@ -21,16 +21,26 @@ package org.apache.iotdb.db.query.executor;
 import static org.apache.iotdb.tsfile.read.expression.ExpressionType.GLOBAL_TIME;
 
 import java.io.IOException;
+import java.util.List;
 import java.util.concurrent.atomic.AtomicLong;
 import org.apache.iotdb.db.exception.FileNodeManagerException;
 import org.apache.iotdb.db.exception.PathErrorException;
+import org.apache.iotdb.db.exception.ProcessorException;
 import org.apache.iotdb.db.query.control.OpenedFilePathsManager;
 import org.apache.iotdb.db.query.control.QueryTokenManager;
+import org.apache.iotdb.db.query.dataset.GroupByEngineDataSet;
 import org.apache.iotdb.tsfile.exception.filter.QueryFilterOptimizationException;
+import org.apache.iotdb.tsfile.read.common.Path;
 import org.apache.iotdb.tsfile.read.expression.IExpression;
 import org.apache.iotdb.tsfile.read.expression.QueryExpression;
+import org.apache.iotdb.tsfile.read.expression.impl.BinaryExpression;
+import org.apache.iotdb.tsfile.read.expression.impl.GlobalTimeExpression;
 import org.apache.iotdb.tsfile.read.expression.util.ExpressionOptimizer;
+import org.apache.iotdb.tsfile.read.filter.TimeFilter;
+import org.apache.iotdb.tsfile.read.filter.basic.Filter;
+import org.apache.iotdb.tsfile.read.filter.factory.FilterFactory;
 import org.apache.iotdb.tsfile.read.query.dataset.QueryDataSet;
+import org.apache.iotdb.tsfile.utils.Pair;
 
 /**
  * Query entrance class of IoTDB query process. All query clause will be transformed to physical
@@ -84,6 +94,86 @@ public class EngineQueryRouter {
     }
   }
 
+  /**
+   * execute aggregation query.
+   *
+   * @param selectedSeries -the aggregated series
+   * @param aggres -names of the aggregations, in the order of selectedSeries
+   * @param expression -filter of the aggregation, null if all the data is aggregated
+   */
+  public QueryDataSet aggregate(List<Path> selectedSeries, List<String> aggres,
+      IExpression expression) throws FileNodeManagerException, ProcessorException {
+
+    long nextJobId = getNextJobId();
+    QueryTokenManager.getInstance().setJobIdForCurrentRequestThread(nextJobId);
+    OpenedFilePathsManager.getInstance().setJobIdForCurrentRequestThread(nextJobId);
+
+    if (expression != null) {
+      try {
+        expression = ExpressionOptimizer.getInstance().optimize(expression, selectedSeries);
+      } catch (QueryFilterOptimizationException e) {
+        throw new FileNodeManagerException(e);
+      }
+      if (expression.getType() != GLOBAL_TIME) {
+        AggregateEngineExecutor engineExecutor = new AggregateEngineExecutor(nextJobId,
+            selectedSeries, aggres, expression);
+        return engineExecutor.executeWithTimeGenerator();
+      }
+    }
+    AggregateEngineExecutor engineExecutor = new AggregateEngineExecutor(nextJobId,
+        selectedSeries, aggres, expression);
+    return engineExecutor.executeWithoutTimeGenerator();
+  }
+
+  /**
+   * execute GROUP BY query.
+   *
+   * @param selectedSeries -the aggregated series
+   * @param aggres -names of the aggregations, in the order of selectedSeries
+   * @param expression -filter of the query, null if there is no WHERE clause
+   * @param unit -length of a window
+   * @param origin -start time of one of the windows
+   * @param intervals -closed time intervals of the shown windows, must not be empty
+   */
+  public QueryDataSet groupBy(List<Path> selectedSeries, List<String> aggres,
+      IExpression expression, long unit, long origin, List<Pair<Long, Long>> intervals)
+      throws FileNodeManagerException, ProcessorException {
+    if (intervals.isEmpty()) {
+      throw new ProcessorException("The time intervals of a GROUP BY query must not be empty");
+    }
+
+    long nextJobId = getNextJobId();
+    QueryTokenManager.getInstance().setJobIdForCurrentRequestThread(nextJobId);
+    OpenedFilePathsManager.getInstance().setJobIdForCurrentRequestThread(nextJobId);
+
+    // the data outside the intervals is filtered out when it is read
+    IExpression intervalExpression = new GlobalTimeExpression(createIntervalFilter(intervals));
+    expression = expression == null ? intervalExpression
+        : BinaryExpression.and(expression, intervalExpression);
+    try {
+      expression = ExpressionOptimizer.getInstance().optimize(expression, selectedSeries);
+    } catch (QueryFilterOptimizationException e) {
+      throw new FileNodeManagerException(e);
+    }
+
+    GroupByEngineExecutor engineExecutor = new GroupByEngineExecutor(nextJobId, selectedSeries,
+        aggres, expression, unit, origin, GroupByEngineDataSet.mergeIntervals(intervals));
+    if (expression.getType() == GLOBAL_TIME) {
+      return engineExecutor.executeWithoutTimeGenerator();
+    }
+    return engineExecutor.executeWithTimeGenerator();
+  }
+
+  private Filter createIntervalFilter(List<Pair<Long, Long>> intervals) {
+    Filter intervalFilter = null;
+    for (Pair<Long, Long> interval : intervals) {
+      Filter filter = FilterFactory
+          .and(TimeFilter.gtEq(interval.left), TimeFilter.ltEq(interval.right));
+      intervalFilter = intervalFilter == null ? filter : FilterFactory.or(intervalFilter, filter);
+    }
+    return intervalFilter;
+  }
+
   private synchronized long getNextJobId() {
     return jobIdGenerator.incrementAndGet();
   }
@@ -0,0 +1,128 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.db.query.executor;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import org.apache.iotdb.db.engine.querycontext.QueryDataSource;
+import org.apache.iotdb.db.exception.FileNodeManagerException;
+import org.apache.iotdb.db.exception.ProcessorException;
+import org.apache.iotdb.db.query.aggregation.AggregateFunction;
+import org.apache.iotdb.db.query.control.QueryDataSourceManager;
+import org.apache.iotdb.db.query.control.QueryTokenManager;
+import org.apache.iotdb.db.query.dataset.GroupByWithValueFilterDataSet;
+import org.apache.iotdb.db.query.dataset.GroupByWithoutValueFilterDataSet;
+import org.apache.iotdb.db.query.factory.SeriesReaderFactory;
+import org.apache.iotdb.db.query.reader.IReader;
+import org.apache.iotdb.db.query.reader.aggregate.SeriesAggregateReader;
+import org.apache.iotdb.db.query.reader.merge.EngineReaderByTimeStamp;
+import org.apache.iotdb.db.query.timegenerator.EngineTimeGenerator;
+import org.apache.iotdb.tsfile.read.common.Path;
+import org.apache.iotdb.tsfile.read.expression.IExpression;
+import org.apache.iotdb.tsfile.read.expression.impl.GlobalTimeExpression;
+import org.apache.iotdb.tsfile.read.filter.basic.Filter;
+import org.apache.iotdb.tsfile.read.query.dataset.QueryDataSet;
+import org.apache.iotdb.tsfile.utils.Pair;
+
+/**
+ * IoTDB GROUP BY executor. The returned data sets calculate the windows one by one while they are
+ * fetched, reading every series only once.
+ */
+public class GroupByEngineExecutor extends AggregateEngineExecutor {
+
+  private long unit;
+  private long origin;
+  private List<Pair<Long, Long>> intervals;
+
+  /**
+   * constructor of GroupByEngineExecutor.
+   *
+   * @param expression -filter of the query, which must contain the intervals
+   * @param unit -length of a window
+   * @param origin -start time of one of the windows
+   * @param intervals -sorted and disjoint closed time intervals
+   */
+  GroupByEngineExecutor(long jobId, List<Path> selectedSeries, List<String> aggres,
+      IExpression expression, long unit, long origin, List<Pair<Long, Long>> intervals) {
+    super(jobId, selectedSeries, aggres, expression);
+    this.unit = unit;
+    this.origin = origin;
+    this.intervals = intervals;
+  }
+
+  /**
+   * with global time filter only.
+   */
+  @Override
+  public QueryDataSet executeWithoutTimeGenerator()
+      throws FileNodeManagerException, ProcessorException {
+    Filter timeFilter = ((GlobalTimeExpression) expression).getFilter();
+
+    QueryTokenManager.getInstance().beginQueryOfGivenQueryPaths(jobId, selectedSeries);
+
+    List<AggregateFunction> functions = createAggregateFunctions();
+    Map<Path, List<AggregateFunction>> functionsOfSeries = groupBySeries(functions);
+
+    List<SeriesAggregateReader> readers = new ArrayList<>();
+    for (Path path : functionsOfSeries.keySet()) {
+      QueryDataSource queryDataSource = QueryDataSourceManager.getQueryDataSource(jobId, path);
+      try {
+        IReader unSeqMergeReader = SeriesReaderFactory.getInstance()
+            .createUnSeqMergeReader(queryDataSource.getOverflowSeriesDataSource(), timeFilter);
+        readers.add(new SeriesAggregateReader(queryDataSource.getSeqDataSource(),
+            unSeqMergeReader, timeFilter));
+      } catch (IOException e) {
+        throw new FileNodeManagerException(e);
+      }
+    }
+
+    return new GroupByWithoutValueFilterDataSet(selectedSeries, functions, unit, origin,
+        intervals, readers, new ArrayList<>(functionsOfSeries.values()));
+  }
+
+  /**
+   * with value filter.
+   */
+  @Override
+  public QueryDataSet executeWithTimeGenerator()
+      throws FileNodeManagerException, ProcessorException {
+
+    QueryTokenManager.getInstance().beginQueryOfGivenQueryPaths(jobId, selectedSeries);
+    QueryTokenManager.getInstance().beginQueryOfGivenExpression(jobId, expression);
+
+    List<AggregateFunction> functions = createAggregateFunctions();
+    Map<Path, List<AggregateFunction>> functionsOfSeries = groupBySeries(functions);
+
+    try {
+      EngineTimeGenerator timestampGenerator = new EngineTimeGenerator(jobId, expression);
+      List<EngineReaderByTimeStamp> readers = new ArrayList<>();
+      for (Path path : functionsOfSeries.keySet()) {
+        QueryDataSource queryDataSource = QueryDataSourceManager.getQueryDataSource(jobId, path);
+        readers
+            .add(SeriesReaderFactory.getInstance().createSeriesReaderByTimestamp(queryDataSource));
+      }
+      return new GroupByWithValueFilterDataSet(selectedSeries, functions, unit, origin,
+          intervals, timestampGenerator, readers, new ArrayList<>(functionsOfSeries.values()));
+    } catch (IOException e) {
+      throw new FileNodeManagerException(e);
+    }
+  }
+}
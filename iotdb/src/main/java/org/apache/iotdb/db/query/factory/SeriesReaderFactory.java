@@ -20,23 +20,29 @@ package org.apache.iotdb.db.query.factory;
 
 import java.io.IOException;
 import java.util.List;
+import org.apache.iotdb.db.engine.cache.CachedChunkLoader;
+import org.apache.iotdb.db.engine.cache.MetadataCache;
 import org.apache.iotdb.db.engine.filenode.IntervalFileNode;
 import org.apache.iotdb.db.engine.querycontext.OverflowInsertFile;
 import org.apache.iotdb.db.engine.querycontext.OverflowSeriesDataSource;
+import org.apache.iotdb.db.engine.querycontext.QueryDataSource;
 import org.apache.iotdb.db.query.control.FileReaderManager;
 import org.apache.iotdb.db.query.reader.IReader;
 import org.apache.iotdb.db.query.reader.mem.MemChunkReaderWithFilter;
 import org.apache.iotdb.db.query.reader.mem.MemChunkReaderWithoutFilter;
+import org.apache.iotdb.db.query.reader.merge.EngineReaderByTimeStamp;
+import org.apache.iotdb.db.query.reader.merge.MergeReaderByTimestamp;
 import org.apache.iotdb.db.query.reader.merge.PriorityMergeReader;
+import org.apache.iotdb.db.query.reader.merge.PriorityMergeReaderByTimestamp;
 import org.apache.iotdb.db.query.reader.sequence.SealedTsFilesReader;
+import org.apache.iotdb.db.query.reader.sequence.SequenceDataReaderByTimestamp;
 import org.apache.iotdb.db.query.reader.unsequence.EngineChunkReader;
 import org.apache.iotdb.tsfile.common.constant.StatisticConstant;
 import org.apache.iotdb.tsfile.file.metadata.ChunkMetaData;
 import org.apache.iotdb.tsfile.read.TsFileSequenceReader;
 import org.apache.iotdb.tsfile.read.common.Chunk;
+import org.apache.iotdb.tsfile.read.controller.ChunkLoader;
 import org.apache.iotdb.tsfile.read.controller.ChunkLoaderImpl;
-import org.apache.iotdb.tsfile.read.controller.MetadataQuerier;
-import org.apache.iotdb.tsfile.read.controller.MetadataQuerierByFileImpl;
 import org.apache.iotdb.tsfile.read.expression.impl.SingleSeriesExpression;
 import org.apache.iotdb.tsfile.read.filter.DigestForFilter;
 import org.apache.iotdb.tsfile.read.filter.basic.Filter;
@@ -123,6 +129,29 @@ public class SeriesReaderFactory {
 
   // TODO createUnSeqMergeReaderByTime a method with filter
 
+  /**
+   * This method is used to create a reader which gets the values of a series by ascending
+   * timestamps, merging the sequence and unsequence data.
+   */
+  public EngineReaderByTimeStamp createSeriesReaderByTimestamp(QueryDataSource queryDataSource)
+      throws IOException {
+
+    MergeReaderByTimestamp mergeReaderByTimestamp = new MergeReaderByTimestamp();
+
+    // reader for sequence data, only the values at the given timestamps are decoded
+    SequenceDataReaderByTimestamp tsFilesReader = new SequenceDataReaderByTimestamp(
+        queryDataSource.getSeqDataSource());
+    mergeReaderByTimestamp.addReaderWithPriority(tsFilesReader, 1);
+
+    // reader for unSequence data
+    PriorityMergeReaderByTimestamp unSeqMergeReader = new PriorityMergeReaderByTimestamp();
+    unSeqMergeReader.addReaderWithPriority(
+        createUnSeqMergeReader(queryDataSource.getOverflowSeriesDataSource(), null), 1);
+    mergeReaderByTimestamp.addReaderWithPriority(unSeqMergeReader, 2);
+
+    return mergeReaderByTimestamp;
+  }
+
   /**
    * This method is used to construct reader for merge process in IoTDB. To merge only one TsFile
    * data and one UnSeqFile data.
@@ -156,10 +185,9 @@ public class SeriesReaderFactory {
       throws IOException {
     TsFileSequenceReader tsFileSequenceReader = FileReaderManager.getInstance()
         .get(filePath, false);
-    ChunkLoaderImpl chunkLoader = new ChunkLoaderImpl(tsFileSequenceReader);
-    MetadataQuerier metadataQuerier = new MetadataQuerierByFileImpl(tsFileSequenceReader);
-    List<ChunkMetaData> metaDataList = metadataQuerier
-        .getChunkMetaDataList(singleSeriesExpression.getSeriesPath());
+    ChunkLoader chunkLoader = new CachedChunkLoader(tsFileSequenceReader);
+    List<ChunkMetaData> metaDataList = MetadataCache.getInstance()
+        .getChunkMetaDataList(tsFileSequenceReader, singleSeriesExpression.getSeriesPath());
 
     FileSeriesReader seriesInTsFileReader = new FileSeriesReaderWithFilter(chunkLoader,
         metaDataList,
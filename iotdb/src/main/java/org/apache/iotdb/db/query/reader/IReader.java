@@ -36,9 +36,30 @@ public interface IReader {
 
   void close() throws IOException;
 
-  boolean hasNextBatch();
+  /**
+   * whether there is another batch of data. A reader is read either point by point with hasNext()
+   * and next(), or batch by batch with hasNextBatch() and nextBatch(), the two ways can not be
+   * mixed.
+   */
+  boolean hasNextBatch() throws IOException;
 
-  BatchData nextBatch();
+  /**
+   * get the next batch after hasNextBatch() returns true. The batch is not empty, its points are in
+   * ascending order of time and none of them has been read.
+   */
+  BatchData nextBatch() throws IOException;
 
+  /**
+   * the batch returned by the last nextBatch().
+   */
   BatchData currentBatch();
+
+  /**
+   * skip the data ending before the given time in the following batches, for example the chunks and
+   * pages whose time ranges end before it, without reading them. The points before the time in the
+   * data not skipped may still be returned. It must not be called between hasNextBatch() and
+   * nextBatch(). By default nothing is skipped.
+   */
+  default void advanceTo(long time) throws IOException {
+  }
 }
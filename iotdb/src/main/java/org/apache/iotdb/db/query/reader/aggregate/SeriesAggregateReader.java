@@ -0,0 +1,379 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.db.query.reader.aggregate;
+
+import java.io.IOException;
+import java.util.Collections;
+import java.util.List;
+import org.apache.iotdb.db.engine.cache.CachedChunkLoader;
+import org.apache.iotdb.db.engine.cache.MetadataCache;
+import org.apache.iotdb.db.engine.filenode.IntervalFileNode;
+import org.apache.iotdb.db.engine.querycontext.GlobalSortedSeriesDataSource;
+import org.apache.iotdb.db.query.control.FileReaderManager;
+import org.apache.iotdb.db.query.reader.IReader;
+import org.apache.iotdb.db.query.reader.mem.MemChunkReaderWithFilter;
+import org.apache.iotdb.db.query.reader.mem.MemChunkReaderWithoutFilter;
+import org.apache.iotdb.db.utils.TimeValuePair;
+import org.apache.iotdb.tsfile.common.constant.StatisticConstant;
+import org.apache.iotdb.tsfile.file.header.PageHeader;
+import org.apache.iotdb.tsfile.file.metadata.ChunkMetaData;
+import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
+import org.apache.iotdb.tsfile.read.TsFileSequenceReader;
+import org.apache.iotdb.tsfile.read.common.BatchData;
+import org.apache.iotdb.tsfile.read.common.Chunk;
+import org.apache.iotdb.tsfile.read.common.Path;
+import org.apache.iotdb.tsfile.read.controller.ChunkLoader;
+import org.apache.iotdb.tsfile.read.controller.ChunkLoaderImpl;
+import org.apache.iotdb.tsfile.read.filter.DigestForFilter;
+import org.apache.iotdb.tsfile.read.filter.basic.Filter;
+import org.apache.iotdb.tsfile.read.reader.chunk.ChunkReader;
+import org.apache.iotdb.tsfile.read.reader.chunk.ChunkReaderWithFilter;
+import org.apache.iotdb.tsfile.read.reader.chunk.ChunkReaderWithoutFilter;
+
+/**
+ * <p>
+ * A reader of one series for aggregation. The sequence data and the unsequence data are merged in
+ * ascending order of time, the unsequence data overriding the sequence data of the same timestamp.
+ * </p>
+ * <p>
+ * When the next data of the series is a whole chunk or page of the sequence data, which is inside
+ * the time filter and is not overlapped by any unsequence data, {@link #currentDigest()} offers
+ * its statistics. The caller either uses them and calls {@link #skipDigest()}, or calls {@link
+ * #splitDigest()} to read the chunk page by page, or the page point by point. Otherwise, the next
+ * data is a single point, which is read by {@link #currentTime()}, {@link #currentValue()} and
+ * {@link #next()}. Hence only the pages at the edges of the time range or overlapped by the
+ * unsequence data are decoded.
+ * </p>
+ */
+public class SeriesAggregateReader {
+
+  private Path seriesPath;
+  private Filter timeFilter;
+
+  private List<IntervalFileNode> sealedTsFiles;
+  private int nextSealedFileIndex = 0;
+  private GlobalSortedSeriesDataSource sequenceSource;
+  private boolean unsealedTsFileUsed = false;
+
+  private ChunkLoader chunkLoader;
+  private List<ChunkMetaData> chunkMetaDataList = Collections.emptyList();
+  private int nextChunkIndex = 0;
+
+  /**
+   * the chunk and the page which are neither used nor decoded yet, at most one of them is not
+   * null.
+   */
+  private ChunkMetaData pendingChunk;
+  private PageHeader pendingPage;
+  private ChunkReader chunkReader;
+  private TSDataType dataType;
+  private SeriesDigest currentDigest;
+
+  /**
+   * decoded points of a page.
+   */
+  private BatchData pageData;
+
+  private boolean memChunkReaderInitialized = false;
+  private IReader memChunkReader;
+  private TimeValuePair memPoint;
+
+  private IReader unSeqReader;
+  private TimeValuePair unSeqPoint;
+
+  /**
+   * constructor of SeriesAggregateReader.
+   *
+   * @param sequenceSource -sequence data of the series
+   * @param unSeqReader -reader of the unsequence data of the series, the time filter should have
+   * been applied
+   * @param timeFilter -time filter, null if all the data is selected
+   */
+  public SeriesAggregateReader(GlobalSortedSeriesDataSource sequenceSource, IReader unSeqReader,
+      Filter timeFilter) throws IOException {
+    this.seriesPath = sequenceSource.getSeriesPath();
+    this.sequenceSource = sequenceSource;
+    this.sealedTsFiles = sequenceSource.hasSealedTsFiles() ? sequenceSource.getSealedTsFiles()
+        : Collections.emptyList();
+    this.timeFilter = timeFilter;
+    this.unSeqReader = unSeqReader;
+    this.unSeqPoint = unSeqReader.hasNext() ? unSeqReader.next() : null;
+  }
+
+  /**
+   * whether there is more data, either a digest or a point.
+   */
+  public boolean hasNext() throws IOException {
+    if (currentDigest != null) {
+      return true;
+    }
+    while (true) {
+      if (hasSequencePoint()) {
+        return true;
+      }
+
+      if (pendingPage != null) {
+        long startTime = pendingPage.getMinTimestamp();
+        if (hasUnSeqPointBefore(startTime)) {
+          return true;
+        }
+        if (canUseDigest(startTime, pendingPage.getMaxTimestamp())) {
+          currentDigest = new SeriesDigest(pendingPage, dataType);
+          return true;
+        }
+        splitPage();
+        continue;
+      }
+
+      if (chunkReader != null && chunkReader.hasNextBatch()) {
+        PageHeader pageHeader = chunkReader.nextPageHeader();
+        if (chunkReader.pageSatisfied(pageHeader)) {
+          pendingPage = pageHeader;
+        } else {
+          chunkReader.skipPageData();
+        }
+        continue;
+      }
+      chunkReader = null;
+
+      if (pendingChunk != null) {
+        long startTime = pendingChunk.getStartTime();
+        if (hasUnSeqPointBefore(startTime)) {
+          return true;
+        }
+        if (!hasDeletedData(pendingChunk) && canUseDigest(startTime, pendingChunk.getEndTime())) {
+          currentDigest = new SeriesDigest(pendingChunk);
+          return true;
+        }
+        splitChunk();
+        continue;
+      }
+
+      if (nextChunk()) {
+        continue;
+      }
+
+      if (!memChunkReaderInitialized) {
+        initMemChunkReader();
+        continue;
+      }
+
+      // all the sequence data has been read
+      return unSeqPoint != null;
+    }
+  }
+
+  /**
+   * get the digest of the next chunk or page.
+   *
+   * @return the digest, or null if the next data is a single point
+   */
+  public SeriesDigest currentDigest() {
+    return currentDigest;
+  }
+
+  /**
+   * the data summarized by the current digest has been used, move to the data after it.
+   */
+  public void skipDigest() {
+    if (pendingPage != null) {
+      chunkReader.skipPageData();
+      pendingPage = null;
+    } else {
+      pendingChunk = null;
+    }
+    currentDigest = null;
+  }
+
+  /**
+   * the current digest can not be used, read its data in smaller pieces, pages for a chunk and
+   * points for a page.
+   */
+  public void splitDigest() throws IOException {
+    if (pendingPage != null) {
+      splitPage();
+    } else {
+      splitChunk();
+    }
+    currentDigest = null;
+  }
+
+  public long currentTime() {
+    return isCurrentPointUnSeq() ? unSeqPoint.getTimestamp() : sequenceTime();
+  }
+
+  public Object currentValue() {
+    if (isCurrentPointUnSeq()) {
+      return unSeqPoint.getValue().getValue();
+    }
+    return pageData != null && pageData.hasNext() ? pageData.currentValue()
+        : memPoint.getValue().getValue();
+  }
+
+  /**
+   * move to the point after the current one.
+   */
+  public void next() throws IOException {
+    if (isCurrentPointUnSeq()) {
+      // the sequence point of the same timestamp is overridden
+      if (hasSequencePoint() && sequenceTime() == unSeqPoint.getTimestamp()) {
+        nextSequencePoint();
+      }
+      unSeqPoint = unSeqReader.hasNext() ? unSeqReader.next() : null;
+    } else {
+      nextSequencePoint();
+    }
+  }
+
+  public void close() throws IOException {
+    unSeqReader.close();
+    if (memChunkReader != null) {
+      memChunkReader.close();
+    }
+  }
+
+  private boolean hasUnSeqPointBefore(long time) {
+    return unSeqPoint != null && unSeqPoint.getTimestamp() < time;
+  }
+
+  /**
+   * the statistics of a chunk still count the deleted points. A max tombstone time of 0 means that
+   * nothing has been deleted.
+   */
+  private boolean hasDeletedData(ChunkMetaData chunkMetaData) {
+    return chunkMetaData.getMaxTombstoneTime() != 0
+        && chunkMetaData.getMaxTombstoneTime() >= chunkMetaData.getStartTime();
+  }
+
+  private boolean canUseDigest(long startTime, long endTime) {
+    return (timeFilter == null || timeFilter.containStartEndTime(startTime, endTime)) && (
+        unSeqPoint == null || unSeqPoint.getTimestamp() > endTime);
+  }
+
+  private boolean isCurrentPointUnSeq() {
+    return unSeqPoint != null && (!hasSequencePoint()
+        || unSeqPoint.getTimestamp() <= sequenceTime());
+  }
+
+  private boolean hasSequencePoint() {
+    return (pageData != null && pageData.hasNext()) || memPoint != null;
+  }
+
+  private long sequenceTime() {
+    return pageData != null && pageData.hasNext() ? pageData.currentTime()
+        : memPoint.getTimestamp();
+  }
+
+  private void nextSequencePoint() throws IOException {
+    if (pageData != null && pageData.hasNext()) {
+      pageData.next();
+    } else {
+      memPoint = memChunkReader.hasNext() ? memChunkReader.next() : null;
+    }
+  }
+
+  private void splitPage() throws IOException {
+    pageData = chunkReader.nextPageData();
+    pendingPage = null;
+  }
+
+  private void splitChunk() throws IOException {
+    Chunk chunk = chunkLoader.getChunk(pendingChunk);
+    chunkReader = timeFilter == null ? new ChunkReaderWithoutFilter(chunk)
+        : new ChunkReaderWithFilter(chunk, timeFilter);
+    chunkReader.setMaxTombstoneTime(pendingChunk.getMaxTombstoneTime());
+    dataType = pendingChunk.getTsDataType();
+    pendingChunk = null;
+  }
+
+  /**
+   * find the next chunk of the sequence data which satisfies the time filter.
+   *
+   * @return false if there is no more chunk in the TsFiles
+   */
+  private boolean nextChunk() throws IOException {
+    while (true) {
+      while (nextChunkIndex < chunkMetaDataList.size()) {
+        ChunkMetaData chunkMetaData = chunkMetaDataList.get(nextChunkIndex++);
+        if (chunkSatisfied(chunkMetaData)) {
+          pendingChunk = chunkMetaData;
+          return true;
+        }
+      }
+
+      if (nextSealedFileIndex < sealedTsFiles.size()) {
+        IntervalFileNode fileNode = sealedTsFiles.get(nextSealedFileIndex++);
+        if (sealedTsFileSatisfied(fileNode)) {
+          TsFileSequenceReader tsFileReader = FileReaderManager.getInstance()
+              .get(fileNode.getFilePath(), false);
+          chunkLoader = new CachedChunkLoader(tsFileReader);
+          setChunkMetaDataList(
+              MetadataCache.getInstance().getChunkMetaDataList(tsFileReader, seriesPath));
+        }
+      } else if (!unsealedTsFileUsed && sequenceSource.hasUnsealedTsFile()) {
+        unsealedTsFileUsed = true;
+        TsFileSequenceReader tsFileReader = FileReaderManager.getInstance()
+            .get(sequenceSource.getUnsealedTsFile().getFilePath(), true);
+        chunkLoader = new ChunkLoaderImpl(tsFileReader);
+        setChunkMetaDataList(sequenceSource.getUnsealedTsFile().getChunkMetaDataList());
+      } else {
+        return false;
+      }
+    }
+  }
+
+  private void setChunkMetaDataList(List<ChunkMetaData> chunkMetaDataList) {
+    this.chunkMetaDataList = chunkMetaDataList;
+    this.nextChunkIndex = 0;
+  }
+
+  private boolean sealedTsFileSatisfied(IntervalFileNode fileNode) {
+    if (timeFilter == null) {
+      return true;
+    }
+    long startTime = fileNode.getStartTime(seriesPath.getDevice());
+    long endTime = fileNode.getEndTime(seriesPath.getDevice());
+    return timeFilter.satisfyStartEndTime(startTime, endTime);
+  }
+
+  private boolean chunkSatisfied(ChunkMetaData chunkMetaData) {
+    if (timeFilter == null) {
+      return true;
+    }
+    DigestForFilter digest = new DigestForFilter(chunkMetaData.getStartTime(),
+        chunkMetaData.getEndTime(),
+        chunkMetaData.getDigest().getStatistics().get(StatisticConstant.MIN_VALUE),
+        chunkMetaData.getDigest().getStatistics().get(StatisticConstant.MAX_VALUE),
+        chunkMetaData.getTsDataType());
+    return timeFilter.satisfy(digest);
+  }
+
+  private void initMemChunkReader() throws IOException {
+    memChunkReaderInitialized = true;
+    if (!sequenceSource.hasRawSeriesChunk()) {
+      return;
+    }
+    if (timeFilter == null) {
+      memChunkReader = new MemChunkReaderWithoutFilter(sequenceSource.getReadableChunk());
+    } else {
+      memChunkReader = new MemChunkReaderWithFilter(sequenceSource.getReadableChunk(), timeFilter);
+    }
+    memPoint = memChunkReader.hasNext() ? memChunkReader.next() : null;
+  }
+}
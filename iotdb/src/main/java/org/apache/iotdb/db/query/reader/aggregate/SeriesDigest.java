@@ -0,0 +1,139 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.db.query.reader.aggregate;
+
+import java.nio.ByteBuffer;
+import java.util.Map;
+import org.apache.iotdb.tsfile.common.constant.StatisticConstant;
+import org.apache.iotdb.tsfile.exception.write.UnSupportedDataTypeException;
+import org.apache.iotdb.tsfile.file.header.PageHeader;
+import org.apache.iotdb.tsfile.file.metadata.ChunkMetaData;
+import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
+import org.apache.iotdb.tsfile.file.metadata.statistics.Statistics;
+import org.apache.iotdb.tsfile.utils.Binary;
+import org.apache.iotdb.tsfile.utils.BytesUtils;
+
+/**
+ * Summary of all the data in a chunk or a page, taken from its statistics, so that an aggregation
+ * can be calculated without decoding the data. The values are decoded only when they are asked
+ * for.
+ */
+public class SeriesDigest {
+
+  private long startTime;
+  private long endTime;
+  private long count;
+  private TSDataType dataType;
+
+  /**
+   * statistics of a page, null for a chunk.
+   */
+  private Statistics<?> statistics;
+
+  /**
+   * statistics of a chunk, null for a page.
+   */
+  private Map<String, ByteBuffer> digest;
+
+  /**
+   * build the summary of a chunk.
+   */
+  public SeriesDigest(ChunkMetaData chunkMetaData) {
+    this.startTime = chunkMetaData.getStartTime();
+    this.endTime = chunkMetaData.getEndTime();
+    this.count = chunkMetaData.getNumOfPoints();
+    this.dataType = chunkMetaData.getTsDataType();
+    this.digest = chunkMetaData.getDigest().getStatistics();
+  }
+
+  /**
+   * build the summary of a page.
+   */
+  public SeriesDigest(PageHeader pageHeader, TSDataType dataType) {
+    this.startTime = pageHeader.getMinTimestamp();
+    this.endTime = pageHeader.getMaxTimestamp();
+    this.count = pageHeader.getNumOfValues();
+    this.dataType = dataType;
+    this.statistics = pageHeader.getStatistics();
+  }
+
+  public long getStartTime() {
+    return startTime;
+  }
+
+  public long getEndTime() {
+    return endTime;
+  }
+
+  public long getCount() {
+    return count;
+  }
+
+  public TSDataType getDataType() {
+    return dataType;
+  }
+
+  public Object getMinValue() {
+    return statistics != null ? statistics.getMin() : decode(StatisticConstant.MIN_VALUE);
+  }
+
+  public Object getMaxValue() {
+    return statistics != null ? statistics.getMax() : decode(StatisticConstant.MAX_VALUE);
+  }
+
+  public Object getFirstValue() {
+    return statistics != null ? statistics.getFirst() : decode(StatisticConstant.FIRST);
+  }
+
+  public Object getLastValue() {
+    return statistics != null ? statistics.getLast() : decode(StatisticConstant.LAST);
+  }
+
+  public double getSum() {
+    return statistics != null ? statistics.getSum()
+        : BytesUtils.bytesToDouble(getBytes(StatisticConstant.SUM));
+  }
+
+  private byte[] getBytes(String name) {
+    ByteBuffer buffer = digest.get(name);
+    byte[] bytes = new byte[buffer.remaining()];
+    buffer.duplicate().get(bytes);
+    return bytes;
+  }
+
+  private Object decode(String name) {
+    byte[] bytes = getBytes(name);
+    switch (dataType) {
+      case BOOLEAN:
+        return BytesUtils.bytesToBool(bytes);
+      case INT32:
+        return BytesUtils.bytesToInt(bytes);
+      case INT64:
+        return BytesUtils.bytesToLong(bytes);
+      case FLOAT:
+        return BytesUtils.bytesToFloat(bytes);
+      case DOUBLE:
+        return BytesUtils.bytesToDouble(bytes);
+      case TEXT:
+        return new Binary(bytes);
+      default:
+        throw new UnSupportedDataTypeException(String.valueOf(dataType));
+    }
+  }
+}
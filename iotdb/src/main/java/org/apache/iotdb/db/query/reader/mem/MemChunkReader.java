@@ -0,0 +1,137 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.db.query.reader.mem;
+
+import org.apache.iotdb.db.engine.memtable.TimeValuePairSorter;
+import org.apache.iotdb.db.query.reader.IReader;
+import org.apache.iotdb.db.utils.SortedTimeValueArray;
+import org.apache.iotdb.db.utils.TimeValuePair;
+import org.apache.iotdb.tsfile.common.conf.TSFileConfig;
+import org.apache.iotdb.tsfile.exception.write.UnSupportedDataTypeException;
+import org.apache.iotdb.tsfile.read.common.BatchData;
+import org.apache.iotdb.tsfile.read.filter.CompiledFilter;
+import org.apache.iotdb.tsfile.read.filter.basic.Filter;
+
+/**
+ * Reader of the data of a series in MemTable. The sorted snapshot of the series is read directly
+ * from its primitive arrays, and batches are filled without creating an object for each point.
+ */
+public class MemChunkReader implements IReader {
+
+  /**
+   * a batch fits in one array of BatchData.
+   */
+  private static final int BATCH_SIZE = TSFileConfig.DYNAMIC_DATA_SIZE;
+
+  private SortedTimeValueArray sortedArray;
+  private int index = 0;
+  private Filter filter;
+  /**
+   * the filter compiled for the data type of the series, null if it cannot be compiled.
+   */
+  private CompiledFilter compiledFilter;
+
+  private boolean hasCachedBatch = false;
+  private BatchData batchData;
+
+  /**
+   * constructor of MemChunkReader.
+   *
+   * @param filter -the points not satisfying it are skipped, null if all points are read
+   */
+  public MemChunkReader(TimeValuePairSorter readableChunk, Filter filter) {
+    this.sortedArray = readableChunk.getSortedTimeValueArray();
+    this.filter = filter;
+    if (filter != null) {
+      this.compiledFilter = CompiledFilter.compile(filter, sortedArray.getDataType());
+    }
+  }
+
+  @Override
+  public boolean hasNext() {
+    while (index < sortedArray.size() && !satisfied(index)) {
+      index++;
+    }
+    return index < sortedArray.size();
+  }
+
+  private boolean satisfied(int i) {
+    if (filter == null) {
+      return true;
+    }
+    if (compiledFilter == null) {
+      return filter.satisfy(sortedArray.getTimestamp(i), sortedArray.getValue(i));
+    }
+    switch (sortedArray.getDataType()) {
+      case INT32:
+        return compiledFilter.satisfy(sortedArray.getTimestamp(i), sortedArray.getInt(i));
+      case INT64:
+        return compiledFilter.satisfy(sortedArray.getTimestamp(i), sortedArray.getLong(i));
+      case FLOAT:
+        return compiledFilter.satisfy(sortedArray.getTimestamp(i), sortedArray.getFloat(i));
+      case DOUBLE:
+        return compiledFilter.satisfy(sortedArray.getTimestamp(i), sortedArray.getDouble(i));
+      default:
+        throw new UnSupportedDataTypeException("DataType: " + sortedArray.getDataType());
+    }
+  }
+
+  @Override
+  public TimeValuePair next() {
+    hasNext();
+    return sortedArray.getTimeValuePair(index++);
+  }
+
+  @Override
+  public void skipCurrentTimeValuePair() {
+    next();
+  }
+
+  @Override
+  public void close() {
+    // Do nothing because mem chunk reader will not open files
+  }
+
+  @Override
+  public boolean hasNextBatch() {
+    if (hasCachedBatch) {
+      return true;
+    }
+    if (!hasNext()) {
+      return false;
+    }
+    batchData = new BatchData(sortedArray.getDataType(), true);
+    while (batchData.length() < BATCH_SIZE && hasNext()) {
+      sortedArray.putToBatchData(index++, batchData);
+    }
+    hasCachedBatch = true;
+    return true;
+  }
+
+  @Override
+  public BatchData nextBatch() {
+    hasCachedBatch = false;
+    return batchData;
+  }
+
+  @Override
+  public BatchData currentBatch() {
+    return batchData;
+  }
+}
@@ -18,53 +18,11 @@
  */
 package org.apache.iotdb.db.query.reader.mem;
 
-import java.util.Iterator;
 import org.apache.iotdb.db.engine.memtable.TimeValuePairSorter;
-import org.apache.iotdb.db.query.reader.IReader;
-import org.apache.iotdb.db.utils.TimeValuePair;
-import org.apache.iotdb.tsfile.read.common.BatchData;
 
-// TODO merge MemChunkReaderWithoutFilter and MemChunkReaderWithFilter to one class
-public class MemChunkReaderWithoutFilter implements IReader {
-
-  private Iterator<TimeValuePair> timeValuePairIterator;
+public class MemChunkReaderWithoutFilter extends MemChunkReader {
 
   public MemChunkReaderWithoutFilter(TimeValuePairSorter readableChunk) {
-    timeValuePairIterator = readableChunk.getIterator();
-  }
-
-  @Override
-  public boolean hasNext() {
-    return timeValuePairIterator.hasNext();
-  }
-
-  @Override
-  public TimeValuePair next() {
-    return timeValuePairIterator.next();
-  }
-
-  @Override
-  public void skipCurrentTimeValuePair() {
-    next();
-  }
-
-  @Override
-  public void close() {
-    // Do nothing because mem chunk reader will not open files
-  }
-
-  @Override
-  public boolean hasNextBatch() {
-    return false;
-  }
-
-  @Override
-  public BatchData nextBatch() {
-    return null;
-  }
-
-  @Override
-  public BatchData currentBatch() {
-    return null;
+    super(readableChunk, null);
   }
 }
@@ -0,0 +1,72 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.db.query.reader.merge;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import org.apache.iotdb.db.query.reader.IReader;
+import org.apache.iotdb.db.utils.TsPrimitiveType;
+
+/**
+ * Gets the value at a timestamp from readers which can get values by timestamp themselves, the
+ * value of the reader with the highest priority is returned. Unlike
+ * {@link PriorityMergeReaderByTimestamp}, the readers are not read point by point, so that they
+ * can skip the data between the given timestamps.
+ *
+ * <p>getValueInTimestamp() can not be mixed with the other ways of reading.
+ */
+public class MergeReaderByTimestamp extends PriorityMergeReader implements
+    EngineReaderByTimeStamp {
+
+  /**
+   * in descending order of priority.
+   */
+  private List<EngineReaderByTimeStamp> readersByTimestamp = new ArrayList<>();
+  private List<Integer> priorities = new ArrayList<>();
+
+  /**
+   * @param reader -it must be an EngineReaderByTimeStamp
+   */
+  @Override
+  public void addReaderWithPriority(IReader reader, int priority) throws IOException {
+    if (!(reader instanceof EngineReaderByTimeStamp)) {
+      throw new IllegalArgumentException(
+          "MergeReaderByTimestamp only merges readers which can get values by timestamp");
+    }
+    super.addReaderWithPriority(reader, priority);
+    int index = 0;
+    while (index < priorities.size() && priorities.get(index) >= priority) {
+      index++;
+    }
+    readersByTimestamp.add(index, (EngineReaderByTimeStamp) reader);
+    priorities.add(index, priority);
+  }
+
+  @Override
+  public TsPrimitiveType getValueInTimestamp(long timestamp) throws IOException {
+    for (EngineReaderByTimeStamp reader : readersByTimestamp) {
+      TsPrimitiveType value = reader.getValueInTimestamp(timestamp);
+      if (value != null) {
+        return value;
+      }
+    }
+    return null;
+  }
+}
@@ -24,6 +24,8 @@ import java.util.List;
 import java.util.PriorityQueue;
 import org.apache.iotdb.db.query.reader.IReader;
 import org.apache.iotdb.db.utils.TimeValuePair;
+import org.apache.iotdb.tsfile.common.conf.TSFileConfig;
+import org.apache.iotdb.tsfile.exception.write.UnSupportedDataTypeException;
 import org.apache.iotdb.tsfile.read.common.BatchData;
 
 /**
@@ -32,34 +34,72 @@ import org.apache.iotdb.tsfile.read.common.BatchData;
  * (1) merge multiple chunk group readers in the unsequence file
  * (2）merge sequence reader, unsequence reader and mem reader
  * </p>
+ *
+ * <p>In batch mode, a batch of a reader which does not overlap the data of the other readers is
+ * returned as it is, only the overlapped data is merged point by point into new batches.
  */
 public class PriorityMergeReader implements IReader {
 
   public static final int LOW_PRIORITY = 1;
   public static final int HIGH_PRIORITY = 2;
 
+  /**
+   * at most this number of points are put into a merged batch.
+   */
+  private static final int MERGED_BATCH_SIZE = TSFileConfig.DYNAMIC_DATA_SIZE;
+
   private List<IReader> readerList = new ArrayList<>();
   private List<Integer> priorityList = new ArrayList<>();
   private PriorityQueue<Element> heap = new PriorityQueue<>();
+  private boolean heapInitialized = false;
 
   /**
-   * The bigger the priority value is, the higher the priority of this reader is
+   * the batch being merged of each reader in batch mode, null if the reader has no more data.
+   */
+  private BatchData[] batches;
+  /**
+   * whether no point of the batch of each reader has been merged.
+   */
+  private boolean[] intactBatches;
+  /**
+   * indexes of the readers which have data, ordered by the current time of their batches.
+   */
+  private PriorityQueue<Integer> batchHeap;
+  private boolean hasCachedBatch = false;
+  private BatchData currentBatch;
+
+  /**
+   * The bigger the priority value is, the higher the priority of this reader is. The readers are
+   * not read until the data of this reader is read.
    */
   public void addReaderWithPriority(IReader reader, int priority) throws IOException {
-    if (reader.hasNext()) {
-      heap.add(new Element(readerList.size(), reader.next(), priority));
-    }
     readerList.add(reader);
     priorityList.add(priority);
   }
 
+  private void initHeap() throws IOException {
+    for (int i = 0; i < readerList.size(); i++) {
+      IReader reader = readerList.get(i);
+      if (reader.hasNext()) {
+        heap.add(new Element(i, reader.next(), priorityList.get(i)));
+      }
+    }
+    heapInitialized = true;
+  }
+
   @Override
-  public boolean hasNext() {
+  public boolean hasNext() throws IOException {
+    if (!heapInitialized) {
+      initHeap();
+    }
     return !heap.isEmpty();
   }
 
   @Override
   public TimeValuePair next() throws IOException {
+    if (!heapInitialized) {
+      initHeap();
+    }
     Element top = heap.peek();
     updateHeap(top);
     return top.timeValuePair;
@@ -91,19 +131,144 @@ public class PriorityMergeReader implements IReader {
   }
 
   @Override
-  public boolean hasNextBatch() {
-    // TODO
-    return false;
+  public boolean hasNextBatch() throws IOException {
+    if (hasCachedBatch) {
+      return true;
+    }
+    if (batchHeap == null) {
+      initBatchHeap();
+    }
+    if (batchHeap.isEmpty()) {
+      return false;
+    }
+
+    int first = batchHeap.poll();
+    if (canPassThrough(first)) {
+      currentBatch = batches[first];
+      fetchBatch(first);
+    } else {
+      batchHeap.add(first);
+      currentBatch = mergeBatch();
+    }
+    hasCachedBatch = true;
+    return true;
   }
 
   @Override
   public BatchData nextBatch() {
-    return null;
+    hasCachedBatch = false;
+    return currentBatch;
   }
 
   @Override
   public BatchData currentBatch() {
-    return null;
+    return currentBatch;
+  }
+
+  /**
+   * the batches already read from the readers are kept, only the following ones are skipped.
+   */
+  @Override
+  public void advanceTo(long time) throws IOException {
+    for (IReader reader : readerList) {
+      reader.advanceTo(time);
+    }
+  }
+
+  private void initBatchHeap() throws IOException {
+    batches = new BatchData[readerList.size()];
+    intactBatches = new boolean[readerList.size()];
+    batchHeap = new PriorityQueue<>(Math.max(1, readerList.size()), (index1, index2) -> {
+      int timeCompare = Long
+          .compare(batches[index1].currentTime(), batches[index2].currentTime());
+      return timeCompare != 0 ? timeCompare
+          : priorityList.get(index2).compareTo(priorityList.get(index1));
+    });
+    for (int i = 0; i < readerList.size(); i++) {
+      fetchBatch(i);
+    }
+  }
+
+  /**
+   * read the next batch of the given reader, and put the reader into the heap if it has one.
+   */
+  private void fetchBatch(int index) throws IOException {
+    IReader reader = readerList.get(index);
+    batches[index] = reader.hasNextBatch() ? reader.nextBatch() : null;
+    intactBatches[index] = true;
+    if (batches[index] != null) {
+      batchHeap.add(index);
+    }
+  }
+
+  /**
+   * whether the batch of the reader, which has been polled from the heap, is intact and ends
+   * before the data of all the other readers.
+   */
+  private boolean canPassThrough(int index) {
+    BatchData batch = batches[index];
+    return intactBatches[index] && (batchHeap.isEmpty()
+        || batch.getTimeByIndex(batch.length() - 1) < batches[batchHeap.peek()].currentTime());
+  }
+
+  private BatchData mergeBatch() throws IOException {
+    BatchData merged = new BatchData(batches[batchHeap.peek()].getDataType(), true);
+    while (!batchHeap.isEmpty() && merged.length() < MERGED_BATCH_SIZE) {
+      int first = batchHeap.poll();
+      if (merged.length() > 0 && canPassThrough(first)) {
+        // leave it to the next call
+        batchHeap.add(first);
+        break;
+      }
+      long time = batches[first].currentTime();
+      putCurrentPoint(batches[first], merged);
+      moveToNextPoint(first);
+      // the points of the same time from the readers of lower priority are overridden
+      while (!batchHeap.isEmpty() && batches[batchHeap.peek()].currentTime() == time) {
+        moveToNextPoint(batchHeap.poll());
+      }
+    }
+    return merged;
+  }
+
+  /**
+   * move the reader, which has been polled from the heap, to its next point.
+   */
+  private void moveToNextPoint(int index) throws IOException {
+    BatchData batch = batches[index];
+    batch.next();
+    intactBatches[index] = false;
+    if (batch.hasNext()) {
+      batchHeap.add(index);
+    } else {
+      fetchBatch(index);
+    }
+  }
+
+  private static void putCurrentPoint(BatchData src, BatchData dest) {
+    dest.putTime(src.currentTime());
+    switch (src.getDataType()) {
+      case BOOLEAN:
+        dest.putBoolean(src.getBoolean());
+        break;
+      case INT32:
+        dest.putInt(src.getInt());
+        break;
+      case INT64:
+        dest.putLong(src.getLong());
+        break;
+      case FLOAT:
+        dest.putFloat(src.getFloat());
+        break;
+      case DOUBLE:
+        dest.putDouble(src.getDouble());
+        break;
+      case TEXT:
+        dest.putBinary(src.getBinary());
+        break;
+      default:
+        throw new UnSupportedDataTypeException(String.valueOf(src.getDataType()));
+    }
   }
 
   protected class Element implements Comparable<Element> {
@@ -0,0 +1,149 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.db.query.reader.parallel;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import org.apache.iotdb.db.concurrent.IoTDBThreadPoolFactory;
+import org.apache.iotdb.db.concurrent.ThreadName;
+import org.apache.iotdb.db.conf.IoTDBConfig;
+import org.apache.iotdb.db.conf.IoTDBDescriptor;
+import org.apache.iotdb.db.query.reader.IReader;
+
+/**
+ * Reads the series of one query in parallel. The batches of each series are read ahead by tasks
+ * running on a thread pool shared by all queries, while the query thread only merges them by time.
+ *
+ * <p>At most maxConcurrency tasks of a query run at the same time, the others wait in the order of
+ * submission, so that a query selecting many series can not occupy the whole pool.
+ */
+public class ParallelReadScheduler {
+
+  private static final long IDLE_THREAD_KEEP_ALIVE_SECONDS = 60;
+
+  private final int maxConcurrency;
+  private final int queueSize;
+  private final List<ParallelSeriesReader> readers = new ArrayList<>();
+
+  /**
+   * the tasks waiting for a running task of this query to finish.
+   */
+  private final Queue<Runnable> pendingTasks = new ArrayDeque<>();
+  private int runningTaskNum = 0;
+
+  /**
+   * the limits are read from the configuration.
+   */
+  public ParallelReadScheduler() {
+    this(IoTDBDescriptor.getInstance().getConfig().maxParallelReadsPerQuery,
+        IoTDBDescriptor.getInstance().getConfig().parallelReadQueueSize);
+  }
+
+  /**
+   * constructor of ParallelReadScheduler.
+   *
+   * @param maxConcurrency -the maximum number of series read at the same time
+   * @param queueSize -the maximum number of batches read ahead for each series
+   */
+  public ParallelReadScheduler(int maxConcurrency, int queueSize) {
+    this.maxConcurrency = Math.max(1, maxConcurrency);
+    this.queueSize = Math.max(1, queueSize);
+  }
+
+  /**
+   * whether the series are read in parallel according to the configuration.
+   */
+  public static boolean isEnabled() {
+    return IoTDBDescriptor.getInstance().getConfig().parallelReadThreadNum > 0;
+  }
+
+  /**
+   * wrap a reader so that its batches are read ahead in parallel with the other readers of this
+   * query. The reader must be read batch by batch only through the returned reader.
+   */
+  public IReader wrap(IReader reader) {
+    ParallelSeriesReader parallelReader = new ParallelSeriesReader(reader, this, queueSize);
+    readers.add(parallelReader);
+    parallelReader.schedule();
+    return parallelReader;
+  }
+
+  void execute(Runnable task) {
+    synchronized (this) {
+      if (runningTaskNum >= maxConcurrency) {
+        pendingTasks.add(task);
+        return;
+      }
+      runningTaskNum++;
+    }
+    ReadPoolHolder.POOL.execute(() -> run(task));
+  }
+
+  private void run(Runnable task) {
+    try {
+      task.run();
+    } finally {
+      Runnable next;
+      synchronized (this) {
+        next = pendingTasks.poll();
+        if (next == null) {
+          runningTaskNum--;
+        }
+      }
+      if (next != null) {
+        // the finished task hands its slot over to the next one
+        ReadPoolHolder.POOL.execute(() -> run(next));
+      }
+    }
+  }
+
+  /**
+   * stop reading ahead and wait for the batches being read. The wrapped readers are not closed, the
+   * files they read are released with the query.
+   */
+  public void close() {
+    for (ParallelSeriesReader reader : readers) {
+      reader.close();
+    }
+  }
+
+  private static class ReadPoolHolder {
+
+    private static final ExecutorService POOL = createPool();
+
+    private ReadPoolHolder() {
+    }
+
+    private static ExecutorService createPool() {
+      IoTDBConfig config = IoTDBDescriptor.getInstance().getConfig();
+      ThreadPoolExecutor pool = (ThreadPoolExecutor) IoTDBThreadPoolFactory
+          .newFixedThreadPool(Math.max(1, config.parallelReadThreadNum),
+              ThreadName.PARALLEL_READ.getName());
+      // idle threads exit so that the pool never keeps the JVM alive
+      pool.setKeepAliveTime(IDLE_THREAD_KEEP_ALIVE_SECONDS, TimeUnit.SECONDS);
+      pool.allowCoreThreadTimeOut(true);
+      return pool;
+    }
+  }
+}
@@ -0,0 +1,191 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.db.query.reader.parallel;
+
+import java.io.IOException;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.apache.iotdb.db.query.reader.IReader;
+import org.apache.iotdb.db.utils.TimeValuePair;
+import org.apache.iotdb.db.utils.TimeValuePairUtils;
+import org.apache.iotdb.tsfile.read.common.BatchData;
+
+/**
+ * A reader whose batches are read ahead from the wrapped reader by the tasks of a
+ * ParallelReadScheduler, at most queueSize batches at a time.
+ *
+ * <p>A task reads batches until the queue is full or the wrapped reader has no more data, it never
+ * blocks a thread of the pool. Taking a batch from the queue schedules a new task if none is
+ * running, so the wrapped reader is never accessed concurrently.
+ */
+public class ParallelSeriesReader implements IReader {
+
+  /**
+   * put into the queue after the last batch.
+   */
+  private static final BatchData END = new BatchData();
+
+  private final IReader reader;
+  private final ParallelReadScheduler scheduler;
+  private final int queueSize;
+
+  /**
+   * one more slot than queueSize is left for END.
+   */
+  private final BlockingQueue<BatchData> queue;
+
+  /**
+   * the number of requests for reading not yet handled by a task, a task is scheduled only when it
+   * grows from 0.
+   */
+  private final AtomicInteger requests = new AtomicInteger();
+  private volatile boolean closed = false;
+
+  /**
+   * accessed only by the tasks, which never run concurrently.
+   */
+  private boolean exhausted = false;
+  private volatile Exception failure;
+
+  // the fields below are accessed only by the query thread
+  private boolean finished = false;
+  private boolean hasCachedBatch = false;
+  private BatchData currentBatch;
+
+  ParallelSeriesReader(IReader reader, ParallelReadScheduler scheduler, int queueSize) {
+    this.reader = reader;
+    this.scheduler = scheduler;
+    this.queueSize = queueSize;
+    this.queue = new ArrayBlockingQueue<>(queueSize + 1);
+  }
+
+  void schedule() {
+    if (requests.getAndIncrement() == 0) {
+      scheduler.execute(this::readBatches);
+    }
+  }
+
+  private void readBatches() {
+    int missed = 1;
+    do {
+      fillQueue();
+      missed = requests.addAndGet(-missed);
+    } while (missed != 0);
+  }
+
+  private void fillQueue() {
+    // the lock makes close() wait for the batch being read
+    synchronized (reader) {
+      try {
+        while (!closed && !exhausted && queue.size() < queueSize) {
+          if (reader.hasNextBatch()) {
+            queue.add(reader.nextBatch());
+          } else {
+            exhausted = true;
+            queue.add(END);
+          }
+        }
+      } catch (Exception e) {
+        failure = e;
+        exhausted = true;
+        queue.add(END);
+      }
+    }
+  }
+
+  @Override
+  public boolean hasNextBatch() throws IOException {
+    if (hasCachedBatch) {
+      return true;
+    }
+    if (finished) {
+      return false;
+    }
+    BatchData batch;
+    try {
+      batch = queue.take();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IOException(e);
+    }
+    if (batch == END) {
+      finished = true;
+      if (failure instanceof IOException) {
+        throw (IOException) failure;
+      } else if (failure != null) {
+        throw new IOException(failure);
+      }
+      return false;
+    }
+    schedule();
+    currentBatch = batch;
+    hasCachedBatch = true;
+    return true;
+  }
+
+  @Override
+  public BatchData nextBatch() {
+    hasCachedBatch = false;
+    return currentBatch;
+  }
+
+  @Override
+  public BatchData currentBatch() {
+    return currentBatch;
+  }
+
+  @Override
+  public boolean hasNext() throws IOException {
+    while (currentBatch == null || !currentBatch.hasNext()) {
+      if (!hasNextBatch()) {
+        return false;
+      }
+      nextBatch();
+    }
+    return true;
+  }
+
+  @Override
+  public TimeValuePair next() throws IOException {
+    TimeValuePair timeValuePair = TimeValuePairUtils.getCurrentTimeValuePair(currentBatch);
+    currentBatch.next();
+    return timeValuePair;
+  }
+
+  @Override
+  public void skipCurrentTimeValuePair() throws IOException {
+    if (hasNext()) {
+      next();
+    }
+  }
+
+  /**
+   * stop reading ahead and wait for the batch being read. The wrapped reader is not closed, it may
+   * share file readers with the other readers of the query.
+   */
+  @Override
+  public void close() {
+    closed = true;
+    synchronized (reader) {
+      queue.clear();
+      queue.add(END);
+    }
+  }
+}
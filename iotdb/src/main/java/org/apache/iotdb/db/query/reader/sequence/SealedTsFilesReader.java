@@ -21,6 +21,8 @@ package org.apache.iotdb.db.query.reader.sequence;
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.List;
+import org.apache.iotdb.db.engine.cache.CachedChunkLoader;
+import org.apache.iotdb.db.engine.cache.MetadataCache;
 import org.apache.iotdb.db.engine.filenode.IntervalFileNode;
 import org.apache.iotdb.db.query.control.FileReaderManager;
 import org.apache.iotdb.db.query.reader.IReader;
@@ -31,8 +33,6 @@ import org.apache.iotdb.tsfile.read.TsFileSequenceReader;
 import org.apache.iotdb.tsfile.read.common.BatchData;
 import org.apache.iotdb.tsfile.read.common.Path;
 import org.apache.iotdb.tsfile.read.controller.ChunkLoader;
-import org.apache.iotdb.tsfile.read.controller.ChunkLoaderImpl;
-import org.apache.iotdb.tsfile.read.controller.MetadataQuerierByFileImpl;
 import org.apache.iotdb.tsfile.read.filter.basic.Filter;
 import org.apache.iotdb.tsfile.read.reader.series.FileSeriesReader;
 import org.apache.iotdb.tsfile.read.reader.series.FileSeriesReaderWithFilter;
@@ -47,6 +47,11 @@ public class SealedTsFilesReader implements IReader {
   private Filter filter;
   private BatchData data;
   private boolean hasCachedData;
+  private boolean hasCachedBatch;
+  /**
+   * the files, chunks and pages ending before this time are skipped.
+   */
+  private long skippedTime = Long.MIN_VALUE;
 
   public SealedTsFilesReader(Path seriesPath, List<IntervalFileNode> sealedTsFiles, Filter filter) {
     this(seriesPath, sealedTsFiles);
@@ -162,9 +167,9 @@ public class SealedTsFilesReader implements IReader {
     TsFileSequenceReader tsFileReader = FileReaderManager.getInstance()
         .get(fileNode.getFilePath(), false);
 
-    MetadataQuerierByFileImpl metadataQuerier = new MetadataQuerierByFileImpl(tsFileReader);
-    List<ChunkMetaData> metaDataList = metadataQuerier.getChunkMetaDataList(seriesPath);
-    ChunkLoader chunkLoader = new ChunkLoaderImpl(tsFileReader);
+    List<ChunkMetaData> metaDataList = MetadataCache.getInstance()
+        .getChunkMetaDataList(tsFileReader, seriesPath);
+    ChunkLoader chunkLoader = new CachedChunkLoader(tsFileReader);
 
     if (filter == null) {
       seriesReader = new FileSeriesReaderWithoutFilter(chunkLoader, metaDataList);
@@ -174,17 +179,48 @@ public class SealedTsFilesReader implements IReader {
   }
 
   @Override
-  public boolean hasNextBatch() {
-    return false;
+  public boolean hasNextBatch() throws IOException {
+    if (hasCachedBatch) {
+      return true;
+    }
+    while (true) {
+      if (seriesReader != null && seriesReader.hasNextBatch()) {
+        data = seriesReader.nextBatch();
+        // notice that, data maybe an empty batch data
+        if (data.hasNext()) {
+          hasCachedBatch = true;
+          return true;
+        }
+        continue;
+      }
+      if (usedIntervalFileIndex >= sealedTsFiles.size()) {
+        return false;
+      }
+      IntervalFileNode fileNode = sealedTsFiles.get(usedIntervalFileIndex++);
+      if (fileNode.getEndTime(seriesPath.getDevice()) >= skippedTime
+          && singleTsFileSatisfied(fileNode)) {
+        initSingleTsFileReader(fileNode);
+        seriesReader.advanceTo(skippedTime);
+      }
+    }
   }
 
   @Override
   public BatchData nextBatch() {
-    return null;
+    hasCachedBatch = false;
+    return data;
   }
 
   @Override
   public BatchData currentBatch() {
-    return null;
+    return data;
+  }
+
+  @Override
+  public void advanceTo(long time) throws IOException {
+    skippedTime = Math.max(skippedTime, time);
+    if (seriesReader != null) {
+      seriesReader.advanceTo(time);
+    }
   }
 }
@@ -0,0 +1,97 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.db.query.reader.sequence;
+
+import java.io.IOException;
+import java.util.List;
+import org.apache.iotdb.db.engine.cache.CachedChunkLoader;
+import org.apache.iotdb.db.engine.cache.MetadataCache;
+import org.apache.iotdb.db.engine.filenode.IntervalFileNode;
+import org.apache.iotdb.db.query.control.FileReaderManager;
+import org.apache.iotdb.db.query.reader.merge.EngineReaderByTimeStamp;
+import org.apache.iotdb.db.utils.TsPrimitiveType;
+import org.apache.iotdb.tsfile.file.metadata.ChunkMetaData;
+import org.apache.iotdb.tsfile.read.TsFileSequenceReader;
+import org.apache.iotdb.tsfile.read.common.Path;
+import org.apache.iotdb.tsfile.read.reader.series.SeriesReaderByTimestamp;
+
+/**
+ * Reader of a series in sealed TsFiles which also gets the values at given timestamps. Only the
+ * pages containing the given timestamps are decoded, and only the values at them are decoded.
+ *
+ * <p>getValueInTimestamp() can not be mixed with the other ways of reading.
+ */
+public class SealedTsFilesReaderByTimestamp extends SealedTsFilesReader implements
+    EngineReaderByTimeStamp {
+
+  private Path seriesPath;
+  private List<IntervalFileNode> sealedTsFiles;
+  private int nextIntervalFileIndex = 0;
+
+  /**
+   * reader of the file which may contain the next given timestamp, null if it is not found.
+   */
+  private SeriesReaderByTimestamp seriesReaderByTimestamp;
+  private long currentFileEndTime;
+
+  public SealedTsFilesReaderByTimestamp(Path seriesPath, List<IntervalFileNode> sealedTsFiles) {
+    super(seriesPath, sealedTsFiles);
+    this.seriesPath = seriesPath;
+    this.sealedTsFiles = sealedTsFiles;
+  }
+
+  @Override
+  public TsPrimitiveType getValueInTimestamp(long timestamp) throws IOException {
+    while (true) {
+      if (seriesReaderByTimestamp == null && !findNextSatisfiedFile(timestamp)) {
+        return null;
+      }
+      Object value = seriesReaderByTimestamp.getValueInTimestamp(timestamp);
+      if (value != null) {
+        return TsPrimitiveType.getByType(seriesReaderByTimestamp.getDataType(), value);
+      }
+      if (timestamp < currentFileEndTime) {
+        return null;
+      }
+      // no larger timestamp is in the file
+      seriesReaderByTimestamp = null;
+    }
+  }
+
+  private boolean findNextSatisfiedFile(long timestamp) throws IOException {
+    while (nextIntervalFileIndex < sealedTsFiles.size()) {
+      IntervalFileNode fileNode = sealedTsFiles.get(nextIntervalFileIndex++);
+      long endTime = fileNode.getEndTime(seriesPath.getDevice());
+      if (endTime < timestamp) {
+        continue;
+      }
+      TsFileSequenceReader tsFileReader = FileReaderManager.getInstance()
+          .get(fileNode.getFilePath(), false);
+      List<ChunkMetaData> metaDataList = MetadataCache.getInstance()
+          .getChunkMetaDataList(tsFileReader, seriesPath);
+      if (!metaDataList.isEmpty()) {
+        seriesReaderByTimestamp = new SeriesReaderByTimestamp(
+            new CachedChunkLoader(tsFileReader), metaDataList);
+        currentFileEndTime = endTime;
+        return true;
+      }
+    }
+    return false;
+  }
+}
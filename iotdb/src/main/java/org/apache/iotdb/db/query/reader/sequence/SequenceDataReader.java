@@ -74,6 +74,16 @@ public class SequenceDataReader implements IReader {
 
   }
 
+  /**
+   * init with the readers of the sealed TsFiles, the unsealed TsFile and the MemTable, which are
+   * read in this order.
+   */
+  protected SequenceDataReader(List<IReader> seriesReaders) {
+    this.seriesReaders = seriesReaders;
+    curReaderInitialized = false;
+    nextSeriesReaderIndex = 0;
+  }
+
   @Override
   public boolean hasNext() throws IOException {
     if (curReaderInitialized && currentSeriesReader.hasNext()) {
@@ -110,18 +120,39 @@ public class SequenceDataReader implements IReader {
   }
 
   @Override
-  public boolean hasNextBatch() {
+  public boolean hasNextBatch() throws IOException {
+    if (curReaderInitialized && currentSeriesReader.hasNextBatch()) {
+      return true;
+    } else {
+      curReaderInitialized = false;
+    }
+
+    while (nextSeriesReaderIndex < seriesReaders.size()) {
+      currentSeriesReader = seriesReaders.get(nextSeriesReaderIndex++);
+      if (currentSeriesReader.hasNextBatch()) {
+        curReaderInitialized = true;
+        return true;
+      }
+    }
     return false;
   }
 
   @Override
-  public BatchData nextBatch() {
-    return null;
+  public BatchData nextBatch() throws IOException {
+    return currentSeriesReader.nextBatch();
   }
 
   @Override
   public BatchData currentBatch() {
-    return null;
+    return currentSeriesReader == null ? null : currentSeriesReader.currentBatch();
+  }
+
+  @Override
+  public void advanceTo(long time) throws IOException {
+    // the readers before the current one have been read out
+    for (int i = Math.max(0, nextSeriesReaderIndex - 1); i < seriesReaders.size(); i++) {
+      seriesReaders.get(i).advanceTo(time);
+    }
   }
 
 }
@@ -0,0 +1,76 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.db.query.reader.sequence;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import org.apache.iotdb.db.engine.querycontext.GlobalSortedSeriesDataSource;
+import org.apache.iotdb.db.query.reader.mem.MemChunkReaderByTimestamp;
+import org.apache.iotdb.db.query.reader.merge.EngineReaderByTimeStamp;
+import org.apache.iotdb.db.utils.TsPrimitiveType;
+
+/**
+ * A reader for sequentially inserted data which also gets the values at given timestamps. The
+ * sealed and unsealed TsFiles are read with lazy value decoding.
+ *
+ * <p>getValueInTimestamp() can not be mixed with the other ways of reading.
+ */
+public class SequenceDataReaderByTimestamp extends SequenceDataReader implements
+    EngineReaderByTimeStamp {
+
+  private List<EngineReaderByTimeStamp> readersByTimestamp;
+
+  public SequenceDataReaderByTimestamp(GlobalSortedSeriesDataSource sources) throws IOException {
+    this(createReaders(sources));
+  }
+
+  private SequenceDataReaderByTimestamp(List<EngineReaderByTimeStamp> readersByTimestamp) {
+    super(new ArrayList<>(readersByTimestamp));
+    this.readersByTimestamp = readersByTimestamp;
+  }
+
+  private static List<EngineReaderByTimeStamp> createReaders(
+      GlobalSortedSeriesDataSource sources) throws IOException {
+    List<EngineReaderByTimeStamp> readers = new ArrayList<>();
+    if (sources.hasSealedTsFiles()) {
+      readers.add(new SealedTsFilesReaderByTimestamp(sources.getSeriesPath(),
+          sources.getSealedTsFiles()));
+    }
+    if (sources.hasUnsealedTsFile()) {
+      readers.add(new UnSealedTsFileReaderByTimestamp(sources.getUnsealedTsFile()));
+    }
+    if (sources.hasRawSeriesChunk()) {
+      readers.add(new MemChunkReaderByTimestamp(sources.getReadableChunk()));
+    }
+    return readers;
+  }
+
+  @Override
+  public TsPrimitiveType getValueInTimestamp(long timestamp) throws IOException {
+    // the time ranges of the readers do not overlap
+    for (EngineReaderByTimeStamp reader : readersByTimestamp) {
+      TsPrimitiveType value = reader.getValueInTimestamp(timestamp);
+      if (value != null) {
+        return value;
+      }
+    }
+    return null;
+  }
+}
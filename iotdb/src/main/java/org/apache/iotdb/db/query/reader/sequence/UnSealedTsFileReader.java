@@ -39,6 +39,7 @@ public class UnSealedTsFileReader implements IReader {
   protected Path seriesPath;
   private FileSeriesReader unSealedReader;
   private BatchData data;
+  private boolean hasCachedBatch = false;
 
   /**
    * Construct funtion for UnSealedTsFileReader.
@@ -96,17 +97,33 @@ public class UnSealedTsFileReader implements IReader {
   }
 
   @Override
-  public boolean hasNextBatch() {
+  public boolean hasNextBatch() throws IOException {
+    if (hasCachedBatch) {
+      return true;
+    }
+    while (unSealedReader.hasNextBatch()) {
+      data = unSealedReader.nextBatch();
+      if (data.hasNext()) {
+        hasCachedBatch = true;
+        return true;
+      }
+    }
     return false;
   }
 
   @Override
   public BatchData nextBatch() {
-    return null;
+    hasCachedBatch = false;
+    return data;
   }
 
   @Override
   public BatchData currentBatch() {
-    return null;
+    return data;
+  }
+
+  @Override
+  public void advanceTo(long time) throws IOException {
+    unSealedReader.advanceTo(time);
   }
 }
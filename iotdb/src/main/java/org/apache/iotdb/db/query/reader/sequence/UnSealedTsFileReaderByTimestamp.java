@@ -0,0 +1,55 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.db.query.reader.sequence;
+
+import java.io.IOException;
+import org.apache.iotdb.db.engine.querycontext.UnsealedTsFile;
+import org.apache.iotdb.db.query.control.FileReaderManager;
+import org.apache.iotdb.db.query.reader.merge.EngineReaderByTimeStamp;
+import org.apache.iotdb.db.utils.TsPrimitiveType;
+import org.apache.iotdb.tsfile.read.TsFileSequenceReader;
+import org.apache.iotdb.tsfile.read.controller.ChunkLoaderImpl;
+import org.apache.iotdb.tsfile.read.reader.series.SeriesReaderByTimestamp;
+
+/**
+ * Reader of a series in the unsealed TsFile which also gets the values at given timestamps, see
+ * {@link SealedTsFilesReaderByTimestamp}.
+ */
+public class UnSealedTsFileReaderByTimestamp extends UnSealedTsFileReader implements
+    EngineReaderByTimeStamp {
+
+  private SeriesReaderByTimestamp unSealedReaderByTimestamp;
+
+  public UnSealedTsFileReaderByTimestamp(UnsealedTsFile unsealedTsFile) throws IOException {
+    super(unsealedTsFile, null);
+    TsFileSequenceReader unClosedTsFileReader = FileReaderManager.getInstance()
+        .get(unsealedTsFile.getFilePath(), true);
+    unSealedReaderByTimestamp = new SeriesReaderByTimestamp(
+        new ChunkLoaderImpl(unClosedTsFileReader), unsealedTsFile.getChunkMetaDataList());
+  }
+
+  @Override
+  public TsPrimitiveType getValueInTimestamp(long timestamp) throws IOException {
+    Object value = unSealedReaderByTimestamp.getValueInTimestamp(timestamp);
+    if (value == null) {
+      return null;
+    }
+    return TsPrimitiveType.getByType(unSealedReaderByTimestamp.getDataType(), value);
+  }
+}
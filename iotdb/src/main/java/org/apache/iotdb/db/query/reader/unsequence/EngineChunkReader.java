@@ -30,6 +30,7 @@ public class EngineChunkReader implements IReader {
 
   private ChunkReader chunkReader;
   private BatchData data;
+  private boolean hasCachedBatch = false;
 
   /**
    * Each EngineChunkReader has a corresponding UnClosedTsFileReader, when EngineChunkReader is
@@ -74,17 +75,33 @@ public class EngineChunkReader implements IReader {
   }
 
   @Override
-  public boolean hasNextBatch() {
+  public boolean hasNextBatch() throws IOException {
+    if (hasCachedBatch) {
+      return true;
+    }
+    while (chunkReader.hasNextBatch()) {
+      data = chunkReader.nextBatch();
+      if (data.hasNext()) {
+        hasCachedBatch = true;
+        return true;
+      }
+    }
     return false;
   }
 
   @Override
   public BatchData nextBatch() {
-    return null;
+    hasCachedBatch = false;
+    return data;
   }
 
   @Override
   public BatchData currentBatch() {
-    return null;
+    return data;
+  }
+
+  @Override
+  public void advanceTo(long time) throws IOException {
+    chunkReader.advanceTo(time);
   }
 }
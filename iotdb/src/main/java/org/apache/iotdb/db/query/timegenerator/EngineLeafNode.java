@@ -30,18 +30,60 @@ public class EngineLeafNode implements Node {
 
   private BatchData data = null;
 
+  private boolean gotData = false;
+
   public EngineLeafNode(IReader reader) {
     this.reader = reader;
   }
 
   @Override
   public boolean hasNext() throws IOException {
-    return reader.hasNext();
+    if (gotData) {
+      data.next();
+      gotData = false;
+    }
+
+    if (data == null || !data.hasNext()) {
+      if (reader.hasNextBatch()) {
+        data = reader.nextBatch();
+      } else {
+        return false;
+      }
+    }
+
+    return true;
   }
 
   @Override
   public long next() throws IOException {
-    return reader.next().getTimestamp();
+    long time = data.currentTime();
+    gotData = true;
+    return time;
+  }
+
+  @Override
+  public boolean advanceTo(long time) throws IOException {
+    if (gotData) {
+      data.next();
+      gotData = false;
+    }
+
+    if (data != null) {
+      data.skipTo(time);
+      if (data.hasNext()) {
+        return true;
+      }
+    }
+
+    reader.advanceTo(time);
+    while (reader.hasNextBatch()) {
+      data = reader.nextBatch();
+      data.skipTo(time);
+      if (data.hasNext()) {
+        return true;
+      }
+    }
+    return false;
   }
 
   /**
@@ -34,7 +34,11 @@ import org.apache.thrift.protocol.TBinaryProtocol;
 import org.apache.thrift.protocol.TBinaryProtocol.Factory;
 import org.apache.thrift.server.TServer;
 import org.apache.thrift.server.TThreadPoolServer;
+import org.apache.thrift.server.TThreadedSelectorServer;
+import org.apache.thrift.transport.TFramedTransport;
+import org.apache.thrift.transport.TNonblockingServerSocket;
 import org.apache.thrift.transport.TServerSocket;
+import org.apache.thrift.transport.TServerTransport;
 import org.apache.thrift.transport.TTransportException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -160,7 +164,7 @@ public class JDBCService implements JDBCServiceMBean, IService {
 
   private class JDBCServiceThread extends Thread {
 
-    private TServerSocket serverTransport;
+    private TServerTransport serverTransport;
     private TServer poolServer;
     private CountDownLatch latch;
 
@@ -174,13 +178,18 @@ public class JDBCService implements JDBCServiceMBean, IService {
     @Override
     public void run() {
       try {
-        serverTransport = new TServerSocket(IoTDBDescriptor.getInstance().getConfig().rpcPort);
-        poolArgs = new TThreadPoolServer.Args(serverTransport);
-        poolArgs.executorService = IoTDBThreadPoolFactory.createJDBCClientThreadPool(poolArgs,
-            ThreadName.JDBC_CLIENT.getName());
-        poolArgs.processor(processor);
-        poolArgs.protocolFactory(protocolFactory);
-        poolServer = new TThreadPoolServer(poolArgs);
+        IoTDBConfig config = IoTDBDescriptor.getInstance().getConfig();
+        if (config.rpcSelectorMode) {
+          poolServer = createSelectorServer(config);
+        } else {
+          serverTransport = new TServerSocket(config.rpcPort);
+          poolArgs = new TThreadPoolServer.Args(serverTransport);
+          poolArgs.executorService = IoTDBThreadPoolFactory.createJDBCClientThreadPool(poolArgs,
+              ThreadName.JDBC_CLIENT.getName());
+          poolArgs.processor(processor);
+          poolArgs.protocolFactory(protocolFactory);
+          poolServer = new TThreadPoolServer(poolArgs);
+        }
         poolServer.setServerEventHandler(new JDBCServiceEventHandler(impl));
         poolServer.serve();
       } catch (TTransportException e) {
@@ -190,12 +199,30 @@ public class JDBCService implements JDBCServiceMBean, IService {
         LOGGER.error("{}: {} exit, because ", IoTDBConstant.GLOBAL_DB_NAME, getID().getName(), e);
       } finally {
         close();
-        LOGGER.info("{}: close TThreadPoolServer and TServerSocket for {}",
+        LOGGER.info("{}: close the rpc server and its server transport for {}",
             IoTDBConstant.GLOBAL_DB_NAME,
             getID().getName());
       }
     }
 
+    /**
+     * create a server whose selector threads read the framed requests of all connections and hand
+     * them to a fixed pool of worker threads, so an idle connection does not hold a thread.
+     */
+    private TServer createSelectorServer(IoTDBConfig config) throws TTransportException {
+      serverTransport = new TNonblockingServerSocket(config.rpcPort);
+      TThreadedSelectorServer.Args selectorArgs = new TThreadedSelectorServer.Args(
+          (TNonblockingServerSocket) serverTransport);
+      selectorArgs.selectorThreads(config.rpcSelectorThreadNum);
+      selectorArgs.executorService(IoTDBThreadPoolFactory.newFixedThreadPool(
+          config.rpcWorkerThreadNum, ThreadName.JDBC_CLIENT.getName()));
+      selectorArgs.processor(processor);
+      selectorArgs.protocolFactory(protocolFactory);
+      selectorArgs.transportFactory(new TFramedTransport.Factory(config.rpcMaxFrameSize));
+      selectorArgs.maxReadBufferBytes = config.rpcMaxFrameSize;
+      return new TThreadedSelectorServer(selectorArgs);
+    }
+
     private synchronized void close() {
       if (poolServer != null) {
         poolServer.stop();
@@ -18,7 +18,6 @@
  */
 package org.apache.iotdb.db.service;
 
-import org.apache.thrift.TException;
 import org.apache.thrift.protocol.TProtocol;
 import org.apache.thrift.server.ServerContext;
 import org.apache.thrift.server.TServerEventHandler;
@@ -37,15 +36,14 @@ public class JDBCServiceEventHandler implements TServerEventHandler {
 
   @Override
   public ServerContext createContext(TProtocol arg0, TProtocol arg1) {
-    // TODO Auto-generated method stub
-    return null;
+    return serviceImpl.createClientContext();
   }
 
   @Override
   public void deleteContext(ServerContext arg0, TProtocol arg1, TProtocol arg2) {
     try {
-      serviceImpl.handleClientExit();
-    } catch (TException e) {
+      serviceImpl.handleClientExit(arg0);
+    } catch (Exception e) {
       LOGGER.error("failed to clear client status", e);
     }
   }
@@ -58,8 +56,7 @@ public class JDBCServiceEventHandler implements TServerEventHandler {
 
   @Override
   public void processContext(ServerContext arg0, TTransport arg1, TTransport arg2) {
-    // TODO Auto-generated method stub
-
+    serviceImpl.setCurrentClient(arg0);
   }
 
 }
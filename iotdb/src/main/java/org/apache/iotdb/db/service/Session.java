@@ -0,0 +1,135 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.db.service;
+
+import java.nio.ByteBuffer;
+import java.time.ZoneId;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import org.apache.iotdb.db.auth.PrivilegeDecisionCache;
+import org.apache.iotdb.db.qp.PreparedPlan;
+import org.apache.iotdb.service.rpc.thrift.TSHandleIdentifier;
+import org.apache.iotdb.service.rpc.thrift.TS_SessionHandle;
+import org.apache.iotdb.tsfile.read.query.dataset.QueryDataSet;
+
+/**
+ * The state of a logged-in client, which lives from openSession until the session is closed or its
+ * connection is lost. It is kept in the session map of {@link TSServiceImpl} instead of the
+ * serving thread, so that the requests of a session can be executed by any worker thread.
+ */
+public class Session {
+
+  private final long sessionId;
+  private final byte[] secret;
+  private final String username;
+  private volatile ZoneId zoneId;
+  // The result sets of the opened queries of the session, the key is the query id.
+  private final Map<Long, QueryDataSet> queryDataSets = new ConcurrentHashMap<>();
+  // The id of the last query of each statement, for clients which fetch results by statement.
+  private final Map<String, Long> statementQueryIds = new ConcurrentHashMap<>();
+  // The prepared statements of the session, the key is the statement id.
+  private final Map<Long, PreparedPlan> preparedPlans = new ConcurrentHashMap<>();
+  private final AtomicLong preparedStatementIdGenerator = new AtomicLong();
+  // The privilege decisions made for the user of the session.
+  private final PrivilegeDecisionCache privilegeDecisionCache = new PrivilegeDecisionCache();
+
+  public Session(long sessionId, byte[] secret, String username, ZoneId zoneId) {
+    this.sessionId = sessionId;
+    this.secret = secret;
+    this.username = username;
+    this.zoneId = zoneId;
+  }
+
+  /**
+   * the handle returned to the client, its guid is the session id and its secret is a random token
+   * that must be presented along with the id.
+   */
+  public TS_SessionHandle toHandle() {
+    ByteBuffer guid = ByteBuffer.allocate(Long.BYTES);
+    guid.putLong(0, sessionId);
+    return new TS_SessionHandle(new TSHandleIdentifier(guid, ByteBuffer.wrap(secret.clone())));
+  }
+
+  /**
+   * get the session id carried by the handle, or null if it is not a handle issued by this server.
+   */
+  public static Long getSessionId(TS_SessionHandle handle) {
+    if (handle == null || handle.getSessionId() == null
+        || handle.getSessionId().bufferForGuid().remaining() != Long.BYTES) {
+      return null;
+    }
+    ByteBuffer guid = handle.getSessionId().bufferForGuid();
+    return guid.getLong(guid.position());
+  }
+
+  /**
+   * check whether the handle carries the secret of this session.
+   */
+  public boolean isAuthenticatedBy(TS_SessionHandle handle) {
+    return handle.getSessionId().bufferForSecret().equals(ByteBuffer.wrap(secret));
+  }
+
+  public long getSessionId() {
+    return sessionId;
+  }
+
+  public String getUsername() {
+    return username;
+  }
+
+  public ZoneId getZoneId() {
+    return zoneId;
+  }
+
+  public void setZoneId(ZoneId zoneId) {
+    this.zoneId = zoneId;
+  }
+
+  public Map<Long, QueryDataSet> getQueryDataSets() {
+    return queryDataSets;
+  }
+
+  public Map<String, Long> getStatementQueryIds() {
+    return statementQueryIds;
+  }
+
+  public PrivilegeDecisionCache getPrivilegeDecisionCache() {
+    return privilegeDecisionCache;
+  }
+
+  /**
+   * keep the prepared statement in the session.
+   *
+   * @return the id of the statement
+   */
+  public long addPreparedPlan(PreparedPlan preparedPlan) {
+    long statementId = preparedStatementIdGenerator.incrementAndGet();
+    preparedPlans.put(statementId, preparedPlan);
+    return statementId;
+  }
+
+  public PreparedPlan getPreparedPlan(long statementId) {
+    return preparedPlans.get(statementId);
+  }
+
+  public PreparedPlan removePreparedPlan(long statementId) {
+    return preparedPlans.remove(statementId);
+  }
+}
@@ -20,13 +20,15 @@ package org.apache.iotdb.db.service;
 
 import java.io.IOException;
 import java.nio.ByteBuffer;
+import java.security.SecureRandom;
 import java.sql.Statement;
 import java.time.ZoneId;
 import java.util.ArrayList;
-import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
 import org.apache.iotdb.db.auth.AuthException;
 import org.apache.iotdb.db.auth.AuthorityChecker;
 import org.apache.iotdb.db.auth.authorizer.IAuthorizer;
@@ -43,23 +45,31 @@ import org.apache.iotdb.db.exception.qp.IllegalASTFormatException;
 import org.apache.iotdb.db.exception.qp.QueryProcessorException;
 import org.apache.iotdb.db.metadata.MManager;
 import org.apache.iotdb.db.metadata.Metadata;
+import org.apache.iotdb.db.qp.PreparedPlan;
 import org.apache.iotdb.db.qp.QueryProcessor;
 import org.apache.iotdb.db.qp.executor.OverflowQPExecutor;
 import org.apache.iotdb.db.qp.logical.Operator;
 import org.apache.iotdb.db.qp.physical.PhysicalPlan;
+import org.apache.iotdb.db.qp.physical.crud.BatchInsertPlan;
 import org.apache.iotdb.db.qp.physical.crud.QueryPlan;
 import org.apache.iotdb.db.qp.physical.sys.AuthorPlan;
 import org.apache.iotdb.db.query.control.OpenedFilePathsManager;
 import org.apache.iotdb.db.query.control.QueryTokenManager;
+import org.apache.iotdb.db.query.dataset.EngineDataSetWithoutTimeGenerator;
+import org.apache.iotdb.db.query.dataset.PrefetchQueryDataSet;
 import org.apache.iotdb.service.rpc.thrift.ServerProperties;
+import org.apache.iotdb.service.rpc.thrift.TSBatchInsertionReq;
 import org.apache.iotdb.service.rpc.thrift.TSCancelOperationReq;
 import org.apache.iotdb.service.rpc.thrift.TSCancelOperationResp;
 import org.apache.iotdb.service.rpc.thrift.TSCloseOperationReq;
 import org.apache.iotdb.service.rpc.thrift.TSCloseOperationResp;
+import org.apache.iotdb.service.rpc.thrift.TSClosePreparedStatementReq;
 import org.apache.iotdb.service.rpc.thrift.TSCloseSessionReq;
 import org.apache.iotdb.service.rpc.thrift.TSCloseSessionResp;
+import org.apache.iotdb.service.rpc.thrift.TSColumnarDataSet;
 import org.apache.iotdb.service.rpc.thrift.TSExecuteBatchStatementReq;
 import org.apache.iotdb.service.rpc.thrift.TSExecuteBatchStatementResp;
+import org.apache.iotdb.service.rpc.thrift.TSExecutePreparedReq;
 import org.apache.iotdb.service.rpc.thrift.TSExecuteStatementReq;
 import org.apache.iotdb.service.rpc.thrift.TSExecuteStatementResp;
 import org.apache.iotdb.service.rpc.thrift.TSFetchMetadataReq;
@@ -72,6 +82,8 @@ import org.apache.iotdb.service.rpc.thrift.TSIService;
 import org.apache.iotdb.service.rpc.thrift.TSOpenSessionReq;
 import org.apache.iotdb.service.rpc.thrift.TSOpenSessionResp;
 import org.apache.iotdb.service.rpc.thrift.TSOperationHandle;
+import org.apache.iotdb.service.rpc.thrift.TSPrepareStatementReq;
+import org.apache.iotdb.service.rpc.thrift.TSPrepareStatementResp;
 import org.apache.iotdb.service.rpc.thrift.TSProtocolVersion;
 import org.apache.iotdb.service.rpc.thrift.TSQueryDataSet;
 import org.apache.iotdb.service.rpc.thrift.TSSetTimeZoneReq;
@@ -79,6 +91,7 @@ import org.apache.iotdb.service.rpc.thrift.TSSetTimeZoneResp;
 import org.apache.iotdb.service.rpc.thrift.TS_SessionHandle;
 import org.apache.iotdb.service.rpc.thrift.TS_Status;
 import org.apache.iotdb.service.rpc.thrift.TS_StatusCode;
+import org.apache.iotdb.tsfile.file.metadata.enums.CompressionType;
 import org.apache.iotdb.tsfile.read.common.Path;
 import org.apache.iotdb.tsfile.read.query.dataset.QueryDataSet;
 import org.apache.thrift.TException;
@@ -96,13 +109,16 @@ public class TSServiceImpl implements TSIService.Iface, ServerContext {
   private static final String INFO_NOT_LOGIN = "{}: Not login.";
   private static final String ERROR_NOT_LOGIN = "Not login";
 
+  private static final int SESSION_SECRET_LENGTH = 16;
+
   private QueryProcessor processor = new QueryProcessor(new OverflowQPExecutor());
-  // Record the username for every rpc connection. Username.get() is null if
-  // login is failed.
-  private ThreadLocal<String> username = new ThreadLocal<>();
-  private ThreadLocal<HashMap<String, PhysicalPlan>> queryStatus = new ThreadLocal<>();
-  private ThreadLocal<HashMap<String, QueryDataSet>> queryRet = new ThreadLocal<>();
-  private ThreadLocal<ZoneId> zoneIds = new ThreadLocal<>();
+  // All the opened sessions, the key is the session id carried by their TS_SessionHandle.
+  private Map<Long, Session> sessions = new ConcurrentHashMap<>();
+  private AtomicLong sessionIdGenerator = new AtomicLong();
+  private SecureRandom secretGenerator = new SecureRandom();
+  // The connection of the request being executed by the current thread. It is set before each
+  // request, so that requests without a session handle use the session opened on their connection.
+  private ThreadLocal<ClientContext> currentClient = new ThreadLocal<>();
   private IoTDBConfig config = IoTDBDescriptor.getInstance().getConfig();
 
   public TSServiceImpl() throws IOException {
@@ -128,21 +144,20 @@ public class TSServiceImpl implements TSIService.Iface, ServerContext {
       status = false;
     }
     TS_Status tsStatus;
+    Session session = null;
     if (status) {
       tsStatus = new TS_Status(TS_StatusCode.SUCCESS_STATUS);
       tsStatus.setErrorMessage("login successfully.");
-      username.set(req.getUsername());
-      zoneIds.set(config.getZoneID());
-      initForOneSession();
+      session = openSession(req.getUsername());
     } else {
       tsStatus = new TS_Status(TS_StatusCode.ERROR_STATUS);
       tsStatus.setErrorMessage("login failed. Username or password is wrong.");
     }
     TSOpenSessionResp resp = new TSOpenSessionResp(tsStatus,
         TSProtocolVersion.TSFILE_SERVICE_PROTOCOL_V1);
-    resp.setSessionHandle(
-        new TS_SessionHandle(new TSHandleIdentifier(ByteBuffer.wrap(req.getUsername().getBytes()),
-            ByteBuffer.wrap(req.getPassword().getBytes()))));
+    if (session != null) {
+      resp.setSessionHandle(session.toHandle());
+    }
     LOGGER.info("{}: Login status: {}. User : {}", IoTDBConstant.GLOBAL_DB_NAME,
         tsStatus.getErrorMessage(),
         req.getUsername());
@@ -150,31 +165,74 @@ public class TSServiceImpl implements TSIService.Iface, ServerContext {
     return resp;
   }
 
-  private void initForOneSession() {
-    queryStatus.set(new HashMap<>());
-    queryRet.set(new HashMap<>());
+  /**
+   * register a new session and bind it to the connection of the current request. A session that
+   * was opened on the connection before is closed.
+   */
+  private Session openSession(String username) {
+    byte[] secret = new byte[SESSION_SECRET_LENGTH];
+    secretGenerator.nextBytes(secret);
+    Session session = new Session(sessionIdGenerator.incrementAndGet(), secret, username,
+        config.getZoneID());
+    sessions.put(session.getSessionId(), session);
+    ClientContext client = currentClient.get();
+    if (client != null) {
+      Session oldSession = client.session;
+      client.session = session;
+      if (oldSession != null) {
+        closeSession(oldSession);
+      }
+    }
+    return session;
+  }
+
+  /**
+   * get the session of a request. It is found by the session handle if the request carries one,
+   * otherwise it is the session opened on the connection of the request.
+   *
+   * @return null if the client has not logged in or the handle is not valid
+   */
+  private Session getSession(TS_SessionHandle handle) {
+    Long sessionId = Session.getSessionId(handle);
+    if (sessionId != null) {
+      Session session = sessions.get(sessionId);
+      return session != null && session.isAuthenticatedBy(handle) ? session : null;
+    }
+    ClientContext client = currentClient.get();
+    return client == null ? null : client.session;
   }
 
   @Override
   public TSCloseSessionResp closeSession(TSCloseSessionReq req) throws TException {
     LOGGER.info("{}: receive close session", IoTDBConstant.GLOBAL_DB_NAME);
     TS_Status tsStatus;
-    if (username.get() == null) {
+    Session session = getSession(req == null ? null : req.getSessionHandle());
+    if (session == null) {
       tsStatus = new TS_Status(TS_StatusCode.ERROR_STATUS);
       tsStatus.setErrorMessage("Has not logged in");
-      if (zoneIds.get() != null) {
-        zoneIds.remove();
-      }
     } else {
       tsStatus = new TS_Status(TS_StatusCode.SUCCESS_STATUS);
-      username.remove();
-      if (zoneIds.get() != null) {
-        zoneIds.remove();
+      ClientContext client = currentClient.get();
+      if (client != null && client.session == session) {
+        client.session = null;
       }
+      closeSession(session);
     }
     return new TSCloseSessionResp(tsStatus);
   }
 
+  /**
+   * remove the session and release all its queries.
+   */
+  private void closeSession(Session session) {
+    sessions.remove(session.getSessionId());
+    try {
+      releaseAllQueries(session);
+    } catch (FileNodeManagerException e) {
+      LOGGER.error("Error in closing the queries of session {}", session.getSessionId(), e);
+    }
+  }
+
   @Override
   public TSCancelOperationResp cancelOperation(TSCancelOperationReq req) throws TException {
     return new TSCancelOperationResp(new TS_Status(TS_StatusCode.SUCCESS_STATUS));
@@ -183,27 +241,51 @@ public class TSServiceImpl implements TSIService.Iface, ServerContext {
   @Override
   public TSCloseOperationResp closeOperation(TSCloseOperationReq req) throws TException {
     LOGGER.info("{}: receive close operation", IoTDBConstant.GLOBAL_DB_NAME);
+    Session session = getSession(req == null ? null : req.getSessionHandle());
+    if (session == null) {
+      return new TSCloseOperationResp(new TS_Status(TS_StatusCode.SUCCESS_STATUS));
+    }
     try {
-      // end query for all the query tokens created by current thread
-      QueryTokenManager.getInstance().endQueryForCurrentRequestThread();
-
-      // remove usage of opened file paths of current thread
-      OpenedFilePathsManager.getInstance().removeUsedFilesForCurrentRequestThread();
-
-      clearAllStatusForCurrentRequest();
+      if (req != null && req.isSetQueryId()) {
+        releaseQuery(session, req.getQueryId());
+      } else {
+        releaseAllQueries(session);
+      }
     } catch (FileNodeManagerException e) {
       LOGGER.error("Error in closeOperation : {}", e.getMessage());
     }
     return new TSCloseOperationResp(new TS_Status(TS_StatusCode.SUCCESS_STATUS));
   }
 
-  private void clearAllStatusForCurrentRequest() {
-    if (this.queryRet.get() != null) {
-      this.queryRet.get().clear();
+  private void releaseAllQueries(Session session) throws FileNodeManagerException {
+    for (Long queryId : new ArrayList<>(session.getQueryDataSets().keySet())) {
+      releaseQuery(session, queryId);
+    }
+    session.getStatementQueryIds().clear();
+  }
+
+  /**
+   * stop reading the results of the query and release the query tokens and the files it holds.
+   * The query id is the job id of the query, so it can be released by job. Queries of other
+   * sessions are not released.
+   */
+  private void releaseQuery(Session session, long queryId) throws FileNodeManagerException {
+    QueryDataSet queryDataSet = session.getQueryDataSets().remove(queryId);
+    if (queryDataSet == null) {
+      return;
     }
-    if (this.queryStatus.get() != null) {
-      this.queryStatus.get().clear();
+    if (queryDataSet instanceof PrefetchQueryDataSet) {
+      ((PrefetchQueryDataSet) queryDataSet).close();
+    } else if (queryDataSet instanceof EngineDataSetWithoutTimeGenerator) {
+      ((EngineDataSetWithoutTimeGenerator) queryDataSet).close();
     }
+    session.getStatementQueryIds().values().remove(queryId);
+    releaseJob(queryId);
+  }
+
+  private void releaseJob(long jobId) throws FileNodeManagerException {
+    QueryTokenManager.getInstance().endQueryForGivenJob(jobId);
+    OpenedFilePathsManager.getInstance().removeUsedFilesForGivenJob(jobId);
   }
 
   private TS_Status getErrorStatus(String message){
@@ -215,7 +297,7 @@ public class TSServiceImpl implements TSIService.Iface, ServerContext {
   @Override
   public TSFetchMetadataResp fetchMetadata(TSFetchMetadataReq req) throws TException {
     TS_Status status;
-    if (!checkLogin()) {
+    if (getSession(req.getSessionHandle()) == null) {
       LOGGER.info(INFO_NOT_LOGIN, IoTDBConstant.GLOBAL_DB_NAME);
       status = getErrorStatus(ERROR_NOT_LOGIN);
       return new TSFetchMetadataResp(status);
@@ -343,11 +425,12 @@ public class TSServiceImpl implements TSIService.Iface, ServerContext {
    * Judge whether the statement is ADMIN COMMAND and if true, executeWithGlobalTimeFilter it.
    *
    * @param statement command
+   * @param session the session executing the statement
    * @return true if the statement is ADMIN COMMAND
    * @throws IOException exception
    */
-  private boolean execAdminCommand(String statement) throws IOException {
-    if (!"root".equals(username.get())) {
+  private boolean execAdminCommand(String statement, Session session) throws IOException {
+    if (!"root".equals(session.getUsername())) {
       return false;
     }
     if (statement == null) {
@@ -380,7 +463,8 @@ public class TSServiceImpl implements TSIService.Iface, ServerContext {
   public TSExecuteBatchStatementResp executeBatchStatement(TSExecuteBatchStatementReq req)
       throws TException {
     try {
-      if (!checkLogin()) {
+      Session session = getSession(req.getSessionHandle());
+      if (session == null) {
         LOGGER.info(INFO_NOT_LOGIN, IoTDBConstant.GLOBAL_DB_NAME);
         return getTSBathExecuteStatementResp(TS_StatusCode.ERROR_STATUS, "Not login", null);
       }
@@ -391,13 +475,14 @@ public class TSServiceImpl implements TSIService.Iface, ServerContext {
 
       for (String statement : statements) {
         try {
-          PhysicalPlan physicalPlan = processor.parseSQLToPhysicalPlan(statement, zoneIds.get());
-          physicalPlan.setProposer(username.get());
+          PhysicalPlan physicalPlan = processor
+              .parseSQLToPhysicalPlan(statement, session.getZoneId());
+          physicalPlan.setProposer(session.getUsername());
           if (physicalPlan.isQuery()) {
             return getTSBathExecuteStatementResp(TS_StatusCode.ERROR_STATUS,
                 "statement is query :" + statement, result);
           }
-          TSExecuteStatementResp resp = executeUpdateStatement(physicalPlan);
+          TSExecuteStatementResp resp = executeUpdateStatement(physicalPlan, session);
           if (resp.getStatus().getStatusCode().equals(TS_StatusCode.SUCCESS_STATUS)) {
             result.add(Statement.SUCCESS_NO_INFO);
           } else {
@@ -427,182 +512,342 @@ public class TSServiceImpl implements TSIService.Iface, ServerContext {
     }
   }
 
+  @Override
+  public TSExecuteBatchStatementResp insertBatch(TSBatchInsertionReq req) throws TException {
+    try {
+      Session session = getSession(req.getSessionHandle());
+      if (session == null) {
+        LOGGER.info(INFO_NOT_LOGIN, IoTDBConstant.GLOBAL_DB_NAME);
+        return getTSBathExecuteStatementResp(TS_StatusCode.ERROR_STATUS, ERROR_NOT_LOGIN, null);
+      }
+      BatchInsertPlan plan = Utils.convertToBatchInsertPlan(req);
+      plan.setProposer(session.getUsername());
+      TSExecuteStatementResp resp = executeUpdateStatement(plan, session);
+      List<Integer> result = new ArrayList<>();
+      int rowResult = resp.getStatus().getStatusCode().equals(TS_StatusCode.SUCCESS_STATUS)
+          ? Statement.SUCCESS_NO_INFO : Statement.EXECUTE_FAILED;
+      for (int i = 0; i < plan.getRowCount(); i++) {
+        result.add(rowResult);
+      }
+      return getTSBathExecuteStatementResp(resp.getStatus().getStatusCode(),
+          resp.getStatus().getErrorMessage(), result);
+    } catch (Exception e) {
+      LOGGER.error("{}: error occurs when inserting batch", IoTDBConstant.GLOBAL_DB_NAME, e);
+      return getTSBathExecuteStatementResp(TS_StatusCode.ERROR_STATUS, e.getMessage(), null);
+    }
+  }
+
+  @Override
+  public TSPrepareStatementResp prepareStatement(TSPrepareStatementReq req) throws TException {
+    Session session = getSession(req.getSessionHandle());
+    if (session == null) {
+      LOGGER.info(INFO_NOT_LOGIN, IoTDBConstant.GLOBAL_DB_NAME);
+      TS_Status status = new TS_Status(TS_StatusCode.ERROR_STATUS);
+      status.setErrorMessage(ERROR_NOT_LOGIN);
+      return new TSPrepareStatementResp(status);
+    }
+    TSPrepareStatementResp resp = new TSPrepareStatementResp(
+        new TS_Status(TS_StatusCode.SUCCESS_STATUS));
+    // a statement which can not be prepared is answered without an id, the client then sends the
+    // completed statements instead
+    PreparedPlan preparedPlan = PreparedPlan
+        .prepare(processor, req.getStatement(), session.getZoneId());
+    if (preparedPlan != null) {
+      resp.setStatementId(session.addPreparedPlan(preparedPlan));
+      resp.setParameterCount(preparedPlan.getParameterCount());
+    }
+    return resp;
+  }
+
+  @Override
+  public TSExecuteBatchStatementResp executePrepared(TSExecutePreparedReq req) throws TException {
+    try {
+      Session session = getSession(req.getSessionHandle());
+      if (session == null) {
+        LOGGER.info(INFO_NOT_LOGIN, IoTDBConstant.GLOBAL_DB_NAME);
+        return getTSBathExecuteStatementResp(TS_StatusCode.ERROR_STATUS, ERROR_NOT_LOGIN, null);
+      }
+      PreparedPlan preparedPlan = session.getPreparedPlan(req.getStatementId());
+      if (preparedPlan == null) {
+        return getTSBathExecuteStatementResp(TS_StatusCode.ERROR_STATUS,
+            "Prepared statement " + req.getStatementId() + " does not exist", null);
+      }
+      if (preparedPlan.isQuery()) {
+        return getTSBathExecuteStatementResp(TS_StatusCode.ERROR_STATUS,
+            "Prepared query " + req.getStatementId() + " can not be executed as a batch", null);
+      }
+      List<Integer> result = new ArrayList<>();
+      boolean isAllSuccessful = true;
+      String batchErrorMessage = "";
+
+      for (List<String> parameters : req.getParameters()) {
+        try {
+          PhysicalPlan physicalPlan = preparedPlan.bind(parameters, session.getZoneId());
+          physicalPlan.setProposer(session.getUsername());
+          TSExecuteStatementResp resp = executeUpdateStatement(physicalPlan, session);
+          if (resp.getStatus().getStatusCode().equals(TS_StatusCode.SUCCESS_STATUS)) {
+            result.add(Statement.SUCCESS_NO_INFO);
+          } else {
+            result.add(Statement.EXECUTE_FAILED);
+            isAllSuccessful = false;
+            batchErrorMessage = resp.getStatus().getErrorMessage();
+          }
+        } catch (Exception e) {
+          result.add(Statement.EXECUTE_FAILED);
+          isAllSuccessful = false;
+          batchErrorMessage = String.format("Fail to bind parameters %s because %s", parameters,
+              e.getMessage());
+        }
+      }
+      if (isAllSuccessful) {
+        return getTSBathExecuteStatementResp(TS_StatusCode.SUCCESS_STATUS,
+            "Execute prepared statement successfully", result);
+      } else {
+        return getTSBathExecuteStatementResp(TS_StatusCode.ERROR_STATUS, batchErrorMessage, result);
+      }
+    } catch (Exception e) {
+      LOGGER.error("{}: error occurs when executing prepared statement",
+          IoTDBConstant.GLOBAL_DB_NAME, e);
+      return getTSBathExecuteStatementResp(TS_StatusCode.ERROR_STATUS, e.getMessage(), null);
+    }
+  }
+
+  @Override
+  public TSExecuteStatementResp executePreparedQuery(TSExecutePreparedReq req) throws TException {
+    Session session = getSession(req.getSessionHandle());
+    try {
+      if (session == null) {
+        LOGGER.info(INFO_NOT_LOGIN, IoTDBConstant.GLOBAL_DB_NAME);
+        return getTSExecuteStatementResp(session, TS_StatusCode.ERROR_STATUS, ERROR_NOT_LOGIN);
+      }
+      PreparedPlan preparedPlan = session.getPreparedPlan(req.getStatementId());
+      if (preparedPlan == null || !preparedPlan.isQuery()) {
+        return getTSExecuteStatementResp(session, TS_StatusCode.ERROR_STATUS,
+            "Prepared query " + req.getStatementId() + " does not exist");
+      }
+      if (req.getParameters().size() != 1) {
+        return getTSExecuteStatementResp(session, TS_StatusCode.ERROR_STATUS,
+            "A prepared query is executed with one row of parameters");
+      }
+      PhysicalPlan plan = preparedPlan.bind(req.getParameters().get(0), session.getZoneId());
+      int fetchSize = req.isSetFetchSize() ? req.getFetchSize() : config.fetchSize;
+      return executeQueryPlan(preparedPlan.getStatement(), plan, fetchSize, session);
+    } catch (Exception e) {
+      LOGGER.error("{}: error occurs when executing prepared query",
+          IoTDBConstant.GLOBAL_DB_NAME, e);
+      return getTSExecuteStatementResp(session, TS_StatusCode.ERROR_STATUS, e.getMessage());
+    }
+  }
+
+  @Override
+  public TSCloseOperationResp closePreparedStatement(TSClosePreparedStatementReq req)
+      throws TException {
+    Session session = getSession(req.getSessionHandle());
+    if (session != null) {
+      session.removePreparedPlan(req.getStatementId());
+    }
+    return new TSCloseOperationResp(new TS_Status(TS_StatusCode.SUCCESS_STATUS));
+  }
+
   @Override
   public TSExecuteStatementResp executeStatement(TSExecuteStatementReq req) throws TException {
+    Session session = getSession(req.getSessionHandle());
     try {
-      if (!checkLogin()) {
+      if (session == null) {
         LOGGER.info("{}: Not login.", IoTDBConstant.GLOBAL_DB_NAME);
-        return getTSExecuteStatementResp(TS_StatusCode.ERROR_STATUS, "Not login");
+        return getTSExecuteStatementResp(session, TS_StatusCode.ERROR_STATUS, "Not login");
       }
       String statement = req.getStatement();
 
       try {
-        if (execAdminCommand(statement)) {
-          return getTSExecuteStatementResp(TS_StatusCode.SUCCESS_STATUS, "ADMIN_COMMAND_SUCCESS");
+        if (execAdminCommand(statement, session)) {
+          return getTSExecuteStatementResp(session, TS_StatusCode.SUCCESS_STATUS,
+              "ADMIN_COMMAND_SUCCESS");
         }
       } catch (Exception e) {
         LOGGER.error("meet error while executing admin command!", e);
-        return getTSExecuteStatementResp(TS_StatusCode.ERROR_STATUS, e.getMessage());
+        return getTSExecuteStatementResp(session, TS_StatusCode.ERROR_STATUS, e.getMessage());
       }
 
       PhysicalPlan physicalPlan;
       try {
-        physicalPlan = processor.parseSQLToPhysicalPlan(statement, zoneIds.get());
-        physicalPlan.setProposer(username.get());
+        physicalPlan = processor.parseSQLToPhysicalPlan(statement, session.getZoneId());
+        physicalPlan.setProposer(session.getUsername());
       } catch (IllegalASTFormatException e) {
         LOGGER.error("meet error while parsing SQL to physical plan.", e);
-        return getTSExecuteStatementResp(TS_StatusCode.ERROR_STATUS,
+        return getTSExecuteStatementResp(session, TS_StatusCode.ERROR_STATUS,
             "Statement format is not right:" + e.getMessage());
       } catch (NullPointerException e) {
         LOGGER.error("meet error while parsing SQL to physical plan.", e);
-        return getTSExecuteStatementResp(TS_StatusCode.ERROR_STATUS, "Statement is not allowed");
+        return getTSExecuteStatementResp(session, TS_StatusCode.ERROR_STATUS,
+            "Statement is not allowed");
       }
       if (physicalPlan.isQuery()) {
         return executeQueryStatement(req);
       } else {
-        return executeUpdateStatement(physicalPlan);
+        return executeUpdateStatement(physicalPlan, session);
       }
     } catch (Exception e) {
       LOGGER.error("meet error while executing statement.", e);
-      return getTSExecuteStatementResp(TS_StatusCode.ERROR_STATUS, e.getMessage());
+      return getTSExecuteStatementResp(session, TS_StatusCode.ERROR_STATUS, e.getMessage());
     }
   }
 
   @Override
   public TSExecuteStatementResp executeQueryStatement(TSExecuteStatementReq req) throws TException {
-
+    Session session = getSession(req.getSessionHandle());
     try {
-      if (!checkLogin()) {
+      if (session == null) {
         LOGGER.info("{}: Not login.", IoTDBConstant.GLOBAL_DB_NAME);
-        return getTSExecuteStatementResp(TS_StatusCode.ERROR_STATUS, "Not login");
+        return getTSExecuteStatementResp(session, TS_StatusCode.ERROR_STATUS, "Not login");
       }
 
       String statement = req.getStatement();
-      PhysicalPlan plan = processor.parseSQLToPhysicalPlan(statement, zoneIds.get());
-      plan.setProposer(username.get());
+      PhysicalPlan plan = processor.parseSQLToPhysicalPlan(statement, session.getZoneId());
+      int fetchSize = req.isSetFetchSize() ? req.getFetchSize() : config.fetchSize;
+      return executeQueryPlan(statement, plan, fetchSize, session);
+    } catch (Exception e) {
+      LOGGER.error("{}: Internal server error: {}", IoTDBConstant.GLOBAL_DB_NAME, e.getMessage());
+      return getTSExecuteStatementResp(session, TS_StatusCode.ERROR_STATUS, e.getMessage());
+    }
+  }
 
-      List<Path> paths;
-      paths = plan.getPaths();
+  /**
+   * check the query and open its result set.
+   *
+   * @param statement the statement which the query is recorded for
+   */
+  private TSExecuteStatementResp executeQueryPlan(String statement, PhysicalPlan plan,
+      int fetchSize, Session session)
+      throws TException, AuthException, IOException, FileNodeManagerException,
+      ProcessorException {
+    plan.setProposer(session.getUsername());
 
-      // check seriesPath exists
-      if (paths.isEmpty()) {
-        return getTSExecuteStatementResp(TS_StatusCode.ERROR_STATUS, "Timeseries does not exist.");
-      }
+    List<Path> paths;
+    paths = plan.getPaths();
 
-      // check file level set
-      try {
-        MManager.getInstance().checkFileLevel(paths);
-      } catch (PathErrorException e) {
-        LOGGER.error("meet error while checking file level.", e);
-        return getTSExecuteStatementResp(TS_StatusCode.ERROR_STATUS, e.getMessage());
-      }
-
-      // check permissions
-      if (!checkAuthorization(paths, plan)) {
-        return getTSExecuteStatementResp(TS_StatusCode.ERROR_STATUS,
-            "No permissions for this query.");
-      }
-
-      TSExecuteStatementResp resp = getTSExecuteStatementResp(TS_StatusCode.SUCCESS_STATUS, "");
-      List<String> columns = new ArrayList<>();
-      // Restore column header of aggregate to func(column_name), only
-      // support single aggregate function for now
-      if (plan instanceof QueryPlan) {
-        switch (plan.getOperatorType()) {
-          case QUERY:
-          case FILL:
-            for (Path p : paths) {
-              columns.add(p.getFullPath());
-            }
-            break;
-          case AGGREGATION:
-          case GROUPBY:
-            List<String> aggregations = plan.getAggregations();
-            if (aggregations.size() != paths.size()) {
-              for (int i = 1; i < paths.size(); i++) {
-                aggregations.add(aggregations.get(0));
-              }
-            }
-            for (int i = 0; i < paths.size(); i++) {
-              columns.add(aggregations.get(i) + "(" + paths.get(i).getFullPath() + ")");
-            }
-            break;
-          default:
-            throw new TException("unsupported query type: " + plan.getOperatorType());
-        }
-      } else {
-        Operator.OperatorType type = plan.getOperatorType();
-        switch (type) {
-          case QUERY:
-          case FILL:
-            for (Path p : paths) {
-              columns.add(p.getFullPath());
-            }
-            break;
-          case AGGREGATION:
-          case GROUPBY:
-            List<String> aggregations = plan.getAggregations();
-            if (aggregations.size() != paths.size()) {
-              for (int i = 1; i < paths.size(); i++) {
-                aggregations.add(aggregations.get(0));
-              }
+    // check seriesPath exists
+    if (paths.isEmpty()) {
+      return getTSExecuteStatementResp(session, TS_StatusCode.ERROR_STATUS,
+          "Timeseries does not exist.");
+    }
+
+    // check file level set
+    try {
+      MManager.getInstance().checkFileLevel(paths);
+    } catch (PathErrorException e) {
+      LOGGER.error("meet error while checking file level.", e);
+      return getTSExecuteStatementResp(session, TS_StatusCode.ERROR_STATUS, e.getMessage());
+    }
+
+    // check permissions
+    if (!checkAuthorization(paths, plan, session)) {
+      return getTSExecuteStatementResp(session, TS_StatusCode.ERROR_STATUS,
+          "No permissions for this query.");
+    }
+
+    TSExecuteStatementResp resp = getTSExecuteStatementResp(session,
+        TS_StatusCode.SUCCESS_STATUS, "");
+    List<String> columns = new ArrayList<>();
+    // Restore column header of aggregate to func(column_name), only
+    // support single aggregate function for now
+    if (plan instanceof QueryPlan) {
+      switch (plan.getOperatorType()) {
+        case QUERY:
+        case FILL:
+          for (Path p : paths) {
+            columns.add(p.getFullPath());
+          }
+          break;
+        case AGGREGATION:
+        case GROUPBY:
+          List<String> aggregations = plan.getAggregations();
+          if (aggregations.size() != paths.size()) {
+            for (int i = 1; i < paths.size(); i++) {
+              aggregations.add(aggregations.get(0));
             }
-            for (int i = 0; i < paths.size(); i++) {
-              columns.add(aggregations.get(i) + "(" + paths.get(i).getFullPath() + ")");
+          }
+          for (int i = 0; i < paths.size(); i++) {
+            columns.add(aggregations.get(i) + "(" + paths.get(i).getFullPath() + ")");
+          }
+          break;
+        default:
+          throw new TException("unsupported query type: " + plan.getOperatorType());
+      }
+    } else {
+      Operator.OperatorType type = plan.getOperatorType();
+      switch (type) {
+        case QUERY:
+        case FILL:
+          for (Path p : paths) {
+            columns.add(p.getFullPath());
+          }
+          break;
+        case AGGREGATION:
+        case GROUPBY:
+          List<String> aggregations = plan.getAggregations();
+          if (aggregations.size() != paths.size()) {
+            for (int i = 1; i < paths.size(); i++) {
+              aggregations.add(aggregations.get(0));
             }
-            break;
-          default:
-            throw new RuntimeException("not support " + type + " in new read process");
-        }
+          }
+          for (int i = 0; i < paths.size(); i++) {
+            columns.add(aggregations.get(i) + "(" + paths.get(i).getFullPath() + ")");
+          }
+          break;
+        default:
+          throw new RuntimeException("not support " + type + " in new read process");
       }
-
-      resp.setOperationType(plan.getOperatorType().toString());
-      TSHandleIdentifier operationId = new TSHandleIdentifier(
-          ByteBuffer.wrap(username.get().getBytes()),
-          ByteBuffer.wrap("PASS".getBytes()));
-      TSOperationHandle operationHandle;
-      resp.setColumns(columns);
-      operationHandle = new TSOperationHandle(operationId, true);
-      resp.setOperationHandle(operationHandle);
-      recordANewQuery(statement, plan);
-      return resp;
-    } catch (Exception e) {
-      LOGGER.error("{}: Internal server error: {}", IoTDBConstant.GLOBAL_DB_NAME, e.getMessage());
-      return getTSExecuteStatementResp(TS_StatusCode.ERROR_STATUS, e.getMessage());
     }
+
+    resp.setOperationType(plan.getOperatorType().toString());
+    resp.setColumns(columns);
+    resp.setOperationHandle(createOperationHandle(session, true));
+    resp.setQueryId(recordANewQuery(statement, plan, fetchSize, session));
+    return resp;
   }
 
   @Override
   public TSFetchResultsResp fetchResults(TSFetchResultsReq req) throws TException {
     try {
-      if (!checkLogin()) {
+      Session session = getSession(req.getSessionHandle());
+      if (session == null) {
         return getTSFetchResultsResp(TS_StatusCode.ERROR_STATUS, "Not login.");
       }
-      String statement = req.getStatement();
-
-      if (!queryStatus.get().containsKey(statement)) {
+      Long queryId = req.isSetQueryId() ? Long.valueOf(req.getQueryId())
+          : session.getStatementQueryIds().get(req.getStatement());
+      QueryDataSet queryDataSet = queryId == null ? null
+          : session.getQueryDataSets().get(queryId);
+      if (queryDataSet == null) {
         return getTSFetchResultsResp(TS_StatusCode.ERROR_STATUS, "Has not executed statement");
       }
 
       int fetchSize = req.getFetch_size();
-      QueryDataSet queryDataSet;
-      if (!queryRet.get().containsKey(statement)) {
-        PhysicalPlan physicalPlan = queryStatus.get().get(statement);
-        processor.getExecutor().setFetchSize(fetchSize);
-        queryDataSet = processor.getExecutor().processQuery(physicalPlan);
-        queryRet.get().put(statement, queryDataSet);
+      TSQueryDataSet result = null;
+      TSColumnarDataSet columnarResult = null;
+      boolean hasResultSet;
+      if (req.isColumnar()) {
+        CompressionType compressionType = req.isSetCompressionType()
+            ? CompressionType.valueOf(req.getCompressionType()) : CompressionType.UNCOMPRESSED;
+        columnarResult = Utils
+            .convertQueryDataSetToColumnar(queryDataSet, fetchSize, compressionType);
+        hasResultSet = columnarResult.getRowCount() > 0;
       } else {
-        queryDataSet = queryRet.get().get(statement);
+        result = Utils.convertQueryDataSetByFetchSize(queryDataSet, fetchSize);
+        hasResultSet = !result.getRecords().isEmpty();
       }
-      TSQueryDataSet result = Utils.convertQueryDataSetByFetchSize(queryDataSet, fetchSize);
-      boolean hasResultSet = !result.getRecords().isEmpty();
-      if (!hasResultSet && queryRet.get() != null) {
-        queryRet.get().remove(statement);
+      if (!hasResultSet) {
+        // all results have been fetched, the query can be released before the client closes it
+        releaseQuery(session, queryId);
       }
       TSFetchResultsResp resp = getTSFetchResultsResp(TS_StatusCode.SUCCESS_STATUS,
           "FetchResult successfully. Has more result: " + hasResultSet);
       resp.setHasResultSet(hasResultSet);
-      resp.setQueryDataSet(result);
+      if (columnarResult != null) {
+        resp.setColumnarDataSet(columnarResult);
+      } else {
+        resp.setQueryDataSet(result);
+      }
       return resp;
     } catch (Exception e) {
       LOGGER.error("{}: Internal server error: {}", IoTDBConstant.GLOBAL_DB_NAME, e.getMessage());
@@ -613,32 +858,33 @@ public class TSServiceImpl implements TSIService.Iface, ServerContext {
   @Override
   public TSExecuteStatementResp executeUpdateStatement(TSExecuteStatementReq req)
       throws TException {
+    Session session = getSession(req.getSessionHandle());
     try {
-      if (!checkLogin()) {
-        return getTSExecuteStatementResp(TS_StatusCode.ERROR_STATUS, "Not login");
+      if (session == null) {
+        return getTSExecuteStatementResp(session, TS_StatusCode.ERROR_STATUS, "Not login");
       }
       String statement = req.getStatement();
-      return executeUpdateStatement(statement);
+      return executeUpdateStatement(statement, session);
     } catch (ProcessorException e) {
       LOGGER.error("meet error while executing update statement.", e);
-      return getTSExecuteStatementResp(TS_StatusCode.ERROR_STATUS, e.getMessage());
+      return getTSExecuteStatementResp(session, TS_StatusCode.ERROR_STATUS, e.getMessage());
     } catch (Exception e) {
       LOGGER.error("{}: server Internal Error: {}", IoTDBConstant.GLOBAL_DB_NAME, e.getMessage());
-      return getTSExecuteStatementResp(TS_StatusCode.ERROR_STATUS, e.getMessage());
+      return getTSExecuteStatementResp(session, TS_StatusCode.ERROR_STATUS, e.getMessage());
     }
   }
 
-  private TSExecuteStatementResp executeUpdateStatement(PhysicalPlan plan) {
+  private TSExecuteStatementResp executeUpdateStatement(PhysicalPlan plan, Session session) {
     List<Path> paths = plan.getPaths();
 
     try {
-      if (!checkAuthorization(paths, plan)) {
-        return getTSExecuteStatementResp(TS_StatusCode.ERROR_STATUS,
+      if (!checkAuthorization(paths, plan, session)) {
+        return getTSExecuteStatementResp(session, TS_StatusCode.ERROR_STATUS,
             "No permissions for this operation " + plan.getOperatorType());
       }
     } catch (AuthException e) {
       LOGGER.error("meet error while checking authorization.", e);
-      return getTSExecuteStatementResp(TS_StatusCode.ERROR_STATUS,
+      return getTSExecuteStatementResp(session, TS_StatusCode.ERROR_STATUS,
           "Uninitialized authorizer " + e.getMessage());
     }
     // TODO
@@ -649,34 +895,27 @@ public class TSServiceImpl implements TSIService.Iface, ServerContext {
       execRet = processor.getExecutor().processNonQuery(plan);
     } catch (ProcessorException e) {
       LOGGER.error("meet error while processing non-query.", e);
-      return getTSExecuteStatementResp(TS_StatusCode.ERROR_STATUS, e.getMessage());
+      return getTSExecuteStatementResp(session, TS_StatusCode.ERROR_STATUS, e.getMessage());
     }
     TS_StatusCode statusCode = execRet ? TS_StatusCode.SUCCESS_STATUS : TS_StatusCode.ERROR_STATUS;
     String msg = execRet ? "Execute successfully" : "Execute statement error.";
-    TSExecuteStatementResp resp = getTSExecuteStatementResp(statusCode, msg);
-    TSHandleIdentifier operationId = new TSHandleIdentifier(
-        ByteBuffer.wrap(username.get().getBytes()),
-        ByteBuffer.wrap("PASS".getBytes()));
-    TSOperationHandle operationHandle;
-    operationHandle = new TSOperationHandle(operationId, false);
-    resp.setOperationHandle(operationHandle);
-    return resp;
+    return getTSExecuteStatementResp(session, statusCode, msg);
   }
 
-  private TSExecuteStatementResp executeUpdateStatement(String statement)
+  private TSExecuteStatementResp executeUpdateStatement(String statement, Session session)
       throws ProcessorException {
 
     PhysicalPlan physicalPlan;
     try {
-      physicalPlan = processor.parseSQLToPhysicalPlan(statement, zoneIds.get());
-      physicalPlan.setProposer(username.get());
+      physicalPlan = processor.parseSQLToPhysicalPlan(statement, session.getZoneId());
+      physicalPlan.setProposer(session.getUsername());
     } catch (QueryProcessorException | ArgsErrorException e) {
       LOGGER.error("meet error while parsing SQL to physical plan!", e);
-      return getTSExecuteStatementResp(TS_StatusCode.ERROR_STATUS, e.getMessage());
+      return getTSExecuteStatementResp(session, TS_StatusCode.ERROR_STATUS, e.getMessage());
     }
 
     if (physicalPlan.isQuery()) {
-      return getTSExecuteStatementResp(TS_StatusCode.ERROR_STATUS,
+      return getTSExecuteStatementResp(session, TS_StatusCode.ERROR_STATUS,
           "Statement is a query statement.");
     }
 
@@ -684,13 +923,13 @@ public class TSServiceImpl implements TSIService.Iface, ServerContext {
     List<Path> paths = physicalPlan.getPaths();
 
     try {
-      if (!checkAuthorization(paths, physicalPlan)) {
-        return getTSExecuteStatementResp(TS_StatusCode.ERROR_STATUS,
+      if (!checkAuthorization(paths, physicalPlan, session)) {
+        return getTSExecuteStatementResp(session, TS_StatusCode.ERROR_STATUS,
             "No permissions for this operation " + physicalPlan.getOperatorType());
       }
     } catch (AuthException e) {
       LOGGER.error("meet error while checking authorization.", e);
-      return getTSExecuteStatementResp(TS_StatusCode.ERROR_STATUS,
+      return getTSExecuteStatementResp(session, TS_StatusCode.ERROR_STATUS,
           "Uninitialized authorizer : " + e.getMessage());
     }
 
@@ -702,58 +941,76 @@ public class TSServiceImpl implements TSIService.Iface, ServerContext {
       execRet = processor.getExecutor().processNonQuery(physicalPlan);
     } catch (ProcessorException e) {
       LOGGER.error("meet error while processing non-query.", e);
-      return getTSExecuteStatementResp(TS_StatusCode.ERROR_STATUS, e.getMessage());
+      return getTSExecuteStatementResp(session, TS_StatusCode.ERROR_STATUS, e.getMessage());
     }
     TS_StatusCode statusCode = execRet ? TS_StatusCode.SUCCESS_STATUS : TS_StatusCode.ERROR_STATUS;
     String msg = execRet ? "Execute successfully" : "Execute statement error.";
-    TSExecuteStatementResp resp = getTSExecuteStatementResp(statusCode, msg);
-    TSHandleIdentifier operationId = new TSHandleIdentifier(
-        ByteBuffer.wrap(username.get().getBytes()),
-        ByteBuffer.wrap(("PASS".getBytes())));
-    TSOperationHandle operationHandle;
-    operationHandle = new TSOperationHandle(operationId, false);
-    resp.setOperationHandle(operationHandle);
-    return resp;
-  }
-
-  private void recordANewQuery(String statement, PhysicalPlan physicalPlan) {
-    queryStatus.get().put(statement, physicalPlan);
-    // refresh current queryRet for statement
-    if (queryRet.get().containsKey(statement)) {
-      queryRet.get().remove(statement);
-    }
+    return getTSExecuteStatementResp(session, statusCode, msg);
   }
 
   /**
-   * Check whether current user has logined.
+   * execute the query and keep its result set until it is fetched out or closed, the rows are read
+   * ahead in batches of fetchSize if prefetching is enabled.
    *
-   * @return true: If logined; false: If not logined
+   * @return the id of the query
    */
-  private boolean checkLogin() {
-    return username.get() != null;
+  private long recordANewQuery(String statement, PhysicalPlan physicalPlan, int fetchSize,
+      Session session) throws IOException, FileNodeManagerException, ProcessorException {
+    processor.getExecutor().setFetchSize(fetchSize);
+    Long lastJobId = QueryTokenManager.getInstance().getJobIdForCurrentRequestThread();
+    QueryDataSet queryDataSet;
+    try {
+      queryDataSet = processor.getExecutor().processQuery(physicalPlan);
+    } catch (Exception e) {
+      // the job is not recorded in any session, so it is released here
+      Long jobId = QueryTokenManager.getInstance().getJobIdForCurrentRequestThread();
+      if (jobId != null && !jobId.equals(lastJobId)) {
+        releaseJob(jobId);
+      }
+      throw e;
+    }
+    // the query is identified by its job id, which owns the query tokens and the opened files. A
+    // pooled worker thread still holds the id of its previous query if no job is registered.
+    Long queryId = QueryTokenManager.getInstance().getJobIdForCurrentRequestThread();
+    if (queryId == null || queryId.equals(lastJobId)) {
+      throw new ProcessorException(
+          String.format("No query job is registered for the statement %s", statement));
+    }
+    if (PrefetchQueryDataSet.isEnabled()) {
+      queryDataSet = new PrefetchQueryDataSet(queryDataSet, fetchSize);
+    }
+    session.getQueryDataSets().put(queryId, queryDataSet);
+    session.getStatementQueryIds().put(statement, queryId);
+    return queryId;
   }
 
-  private boolean checkAuthorization(List<Path> paths, PhysicalPlan plan) throws AuthException {
+  private boolean checkAuthorization(List<Path> paths, PhysicalPlan plan, Session session)
+      throws AuthException {
     String targetUser = null;
     if (plan instanceof AuthorPlan) {
       targetUser = ((AuthorPlan) plan).getUserName();
     }
-    return AuthorityChecker.check(username.get(), paths, plan.getOperatorType(), targetUser);
+    return AuthorityChecker.check(session.getUsername(), paths, plan.getOperatorType(),
+        targetUser, session.getPrivilegeDecisionCache());
   }
 
-  private TSExecuteStatementResp getTSExecuteStatementResp(TS_StatusCode code, String msg) {
+  private TSExecuteStatementResp getTSExecuteStatementResp(Session session, TS_StatusCode code,
+      String msg) {
     TSExecuteStatementResp resp = new TSExecuteStatementResp();
     TS_Status tsStatus = new TS_Status(code);
     tsStatus.setErrorMessage(msg);
     resp.setStatus(tsStatus);
-    TSHandleIdentifier operationId = new TSHandleIdentifier(
-        ByteBuffer.wrap(username.get().getBytes()),
-        ByteBuffer.wrap("PASS".getBytes()));
-    TSOperationHandle operationHandle = new TSOperationHandle(operationId, false);
-    resp.setOperationHandle(operationHandle);
+    resp.setOperationHandle(createOperationHandle(session, false));
     return resp;
   }
 
+  private TSOperationHandle createOperationHandle(Session session, boolean hasResultSet) {
+    byte[] guid = session == null ? new byte[0] : session.getUsername().getBytes();
+    TSHandleIdentifier operationId = new TSHandleIdentifier(ByteBuffer.wrap(guid),
+        ByteBuffer.wrap("PASS".getBytes()));
+    return new TSOperationHandle(operationId, hasResultSet);
+  }
+
   private TSExecuteBatchStatementResp getTSBathExecuteStatementResp(TS_StatusCode code, String msg,
       List<Integer> result) {
     TSExecuteBatchStatementResp resp = new TSExecuteBatchStatementResp();
@@ -772,18 +1029,51 @@ public class TSServiceImpl implements TSIService.Iface, ServerContext {
     return resp;
   }
 
-  public void handleClientExit() throws TException {
-    closeOperation(null);
-    closeSession(null);
+  /**
+   * create the context of a new client connection.
+   */
+  public ServerContext createClientContext() {
+    return new ClientContext();
+  }
+
+  /**
+   * called before each request of a connection by the thread which executes the request.
+   */
+  public void setCurrentClient(ServerContext context) {
+    if (context instanceof ClientContext) {
+      currentClient.set((ClientContext) context);
+    } else {
+      currentClient.remove();
+    }
+  }
+
+  /**
+   * close the session opened on a lost connection, the thread calling it may not be the one which
+   * executed the requests of the connection.
+   */
+  public void handleClientExit(ServerContext context) {
+    if (!(context instanceof ClientContext)) {
+      return;
+    }
+    ClientContext client = (ClientContext) context;
+    Session session = client.session;
+    client.session = null;
+    if (session != null) {
+      closeSession(session);
+    }
   }
 
   @Override
-  public TSGetTimeZoneResp getTimeZone() throws TException {
+  public TSGetTimeZoneResp getTimeZone(TS_SessionHandle sessionHandle) throws TException {
     TS_Status tsStatus = null;
     TSGetTimeZoneResp resp = null;
     try {
+      Session session = getSession(sessionHandle);
+      if (session == null) {
+        return new TSGetTimeZoneResp(getErrorStatus(ERROR_NOT_LOGIN), "Unknown time zone");
+      }
       tsStatus = new TS_Status(TS_StatusCode.SUCCESS_STATUS);
-      resp = new TSGetTimeZoneResp(tsStatus, zoneIds.get().toString());
+      resp = new TSGetTimeZoneResp(tsStatus, session.getZoneId().toString());
     } catch (Exception e) {
       LOGGER.error("meet error while generating time zone.", e);
       tsStatus = new TS_Status(TS_StatusCode.ERROR_STATUS);
@@ -797,8 +1087,12 @@ public class TSServiceImpl implements TSIService.Iface, ServerContext {
   public TSSetTimeZoneResp setTimeZone(TSSetTimeZoneReq req) throws TException {
     TS_Status tsStatus = null;
     try {
+      Session session = getSession(req.getSessionHandle());
+      if (session == null) {
+        return new TSSetTimeZoneResp(getErrorStatus(ERROR_NOT_LOGIN));
+      }
       String timeZoneID = req.getTimeZone();
-      zoneIds.set(ZoneId.of(timeZoneID));
+      session.setZoneId(ZoneId.of(timeZoneID));
       tsStatus = new TS_Status(TS_StatusCode.SUCCESS_STATUS);
     } catch (Exception e) {
       LOGGER.error("meet error while setting time zone.", e);
@@ -817,4 +1111,12 @@ public class TSServiceImpl implements TSIService.Iface, ServerContext {
     properties.getSupportedTimeAggregationOperations().add(IoTDBConstant.MIN_TIME);
     return properties;
   }
+
+  /**
+   * The context of a client connection, which remembers the session opened on it.
+   */
+  private static class ClientContext implements ServerContext {
+
+    private volatile Session session;
+  }
 }
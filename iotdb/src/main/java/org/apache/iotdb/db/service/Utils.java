@@ -14,27 +14,43 @@
  */
 package org.apache.iotdb.db.service;
 
+import java.io.DataOutputStream;
 import java.io.IOException;
 import java.nio.ByteBuffer;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import org.apache.iotdb.db.metadata.ColumnSchema;
+import org.apache.iotdb.db.qp.physical.crud.BatchInsertPlan;
+import org.apache.iotdb.service.rpc.thrift.TSBatchInsertionReq;
+import org.apache.iotdb.service.rpc.thrift.TSColumnarDataSet;
 import org.apache.iotdb.service.rpc.thrift.TSColumnSchema;
 import org.apache.iotdb.service.rpc.thrift.TSDataValue;
 import org.apache.iotdb.service.rpc.thrift.TSQueryDataSet;
 import org.apache.iotdb.service.rpc.thrift.TSRowRecord;
+import org.apache.iotdb.tsfile.compress.Compressor;
 import org.apache.iotdb.tsfile.exception.write.UnSupportedDataTypeException;
+import org.apache.iotdb.tsfile.file.metadata.enums.CompressionType;
+import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
 import org.apache.iotdb.tsfile.read.common.Field;
+import org.apache.iotdb.tsfile.read.common.RowBatch;
 import org.apache.iotdb.tsfile.read.common.RowRecord;
 import org.apache.iotdb.tsfile.read.query.dataset.QueryDataSet;
+import org.apache.iotdb.tsfile.utils.Binary;
+import org.apache.iotdb.tsfile.utils.PublicBAOS;
 
 /**
  * TimeValuePairUtils to convert between thrift format and TsFile format.
  */
 public class Utils {
 
+  /**
+   * the maximum number of rows read from a query data set at a time when it is converted.
+   */
+  private static final int ROW_BATCH_CAPACITY = 4096;
+
   private Utils(){}
 
   /**
@@ -96,6 +112,125 @@ public class Utils {
     return tsQueryDataSet;
   }
 
+  /**
+   * convert at most fetchSize rows of the query data set into a column-organized data set, which
+   * avoids creating thrift objects for each row and each value.
+   *
+   * @param queryDataSet -query dataset
+   * @param fetchSize -fetch size
+   * @param compressionType -compression type of the buffers, UNCOMPRESSED or SNAPPY
+   * @return -columnar dataset
+   */
+  public static TSColumnarDataSet convertQueryDataSetToColumnar(QueryDataSet queryDataSet,
+      int fetchSize, CompressionType compressionType) throws IOException {
+    Compressor compressor = Compressor.getCompressor(compressionType);
+    List<TSDataType> dataTypes = queryDataSet.getDataTypes();
+    int columnNum = dataTypes.size();
+    PublicBAOS timeBuffer = new PublicBAOS();
+    DataOutputStream timeStream = new DataOutputStream(timeBuffer);
+    // the type of a column is sent only if it has a value
+    boolean[] hasValues = new boolean[columnNum];
+    // the bitmaps of all columns grow together, so that each covers every row read so far
+    int bitmapCapacity = Math.min(fetchSize, 1024) / Byte.SIZE + 1;
+    byte[][] bitmaps = new byte[columnNum][bitmapCapacity];
+    PublicBAOS[] valueBuffers = new PublicBAOS[columnNum];
+    DataOutputStream[] valueStreams = new DataOutputStream[columnNum];
+    for (int i = 0; i < columnNum; i++) {
+      valueBuffers[i] = new PublicBAOS();
+      valueStreams[i] = new DataOutputStream(valueBuffers[i]);
+    }
+
+    RowBatch rowBatch = new RowBatch(dataTypes, Math.min(fetchSize, ROW_BATCH_CAPACITY));
+    int rowCount = 0;
+    while (rowCount < fetchSize) {
+      if (fetchSize - rowCount < rowBatch.capacity()) {
+        rowBatch = new RowBatch(dataTypes, fetchSize - rowCount);
+      }
+      int batchSize = queryDataSet.nextRowBatch(rowBatch);
+      for (int row = 0; row < batchSize; row++, rowCount++) {
+        timeStream.writeLong(rowBatch.getTime(row));
+        int byteIndex = rowCount / Byte.SIZE;
+        if (byteIndex >= bitmapCapacity) {
+          bitmapCapacity *= 2;
+          for (int i = 0; i < columnNum; i++) {
+            bitmaps[i] = Arrays.copyOf(bitmaps[i], bitmapCapacity);
+          }
+        }
+        for (int i = 0; i < columnNum; i++) {
+          if (rowBatch.isNull(i, row)) {
+            continue;
+          }
+          hasValues[i] = true;
+          bitmaps[i][byteIndex] |= 0x80 >>> (rowCount % Byte.SIZE);
+          writeValue(rowBatch, i, row, valueStreams[i]);
+        }
+      }
+      if (!rowBatch.isFull()) {
+        break;
+      }
+    }
+    if (rowCount == 0) {
+      columnNum = 0;
+    }
+
+    TSColumnarDataSet dataSet = new TSColumnarDataSet();
+    dataSet.setRowCount(rowCount);
+    dataSet.setTimestamps(toBuffer(timeBuffer.getBuf(), timeBuffer.size(), compressor));
+    dataSet.setTypes(new ArrayList<>(columnNum));
+    dataSet.setBitmaps(new ArrayList<>(columnNum));
+    dataSet.setValues(new ArrayList<>(columnNum));
+    int bitmapSize = (rowCount + Byte.SIZE - 1) / Byte.SIZE;
+    for (int i = 0; i < columnNum; i++) {
+      dataSet.addToTypes(hasValues[i] ? (int) dataTypes.get(i).serialize() : -1);
+      dataSet.addToBitmaps(toBuffer(bitmaps[i], bitmapSize, compressor));
+      dataSet.addToValues(toBuffer(valueBuffers[i].getBuf(), valueBuffers[i].size(), compressor));
+    }
+    if (compressionType != CompressionType.UNCOMPRESSED) {
+      dataSet.setCompressionType(compressionType.toString());
+    }
+    return dataSet;
+  }
+
+  private static void writeValue(RowBatch rowBatch, int column, int row,
+      DataOutputStream stream) throws IOException {
+    switch (rowBatch.getDataType(column)) {
+      case BOOLEAN:
+        stream.writeBoolean(rowBatch.getBoolean(column, row));
+        break;
+      case INT32:
+        stream.writeInt(rowBatch.getInt(column, row));
+        break;
+      case INT64:
+        stream.writeLong(rowBatch.getLong(column, row));
+        break;
+      case FLOAT:
+        stream.writeFloat(rowBatch.getFloat(column, row));
+        break;
+      case DOUBLE:
+        stream.writeDouble(rowBatch.getDouble(column, row));
+        break;
+      case TEXT:
+        byte[] bytes = rowBatch.getBinary(column, row).getValues();
+        stream.writeInt(bytes.length);
+        stream.write(bytes);
+        break;
+      default:
+        throw new UnSupportedDataTypeException(String.format(
+            "data type %s is not supported when convert data at server",
+            rowBatch.getDataType(column)));
+    }
+  }
+
+  private static ByteBuffer toBuffer(byte[] bytes, int length, Compressor compressor)
+      throws IOException {
+    if (compressor.getType() == CompressionType.UNCOMPRESSED) {
+      return ByteBuffer.wrap(bytes, 0, length);
+    }
+    byte[] compressed = new byte[compressor.getMaxBytesForCompression(length)];
+    int compressedLength = compressor.compress(bytes, 0, length, compressed);
+    return ByteBuffer.wrap(compressed, 0, compressedLength);
+  }
+
   /**
    * convert to tsRecord.
    *
@@ -141,4 +276,107 @@ public class Utils {
     }
     return tsRowRecord;
   }
+
+  /**
+   * convert a thrift batch insertion request to a BatchInsertPlan, decoding the column buffers
+   * directly into primitive arrays.
+   *
+   * @param req -batch insertion request
+   * @throws IllegalArgumentException if a buffer does not hold exactly the given number of rows
+   */
+  public static BatchInsertPlan convertToBatchInsertPlan(TSBatchInsertionReq req) {
+    int size = req.getSize();
+    int columnNum = req.getMeasurementsSize();
+    if (req.getTypesSize() != columnNum || req.getValuesSize() != columnNum) {
+      throw new IllegalArgumentException(String.format(
+          "%d measurements are given, but there are %d data types and %d value columns",
+          columnNum, req.getTypesSize(), req.getValuesSize()));
+    }
+    if (size < 0) {
+      throw new IllegalArgumentException("The number of rows " + size + " is negative");
+    }
+
+    long[] times = new long[size];
+    ByteBuffer timeBuffer = req.bufferForTimestamps();
+    checkColumnLength("timestamps", timeBuffer, (long) size * 8);
+    for (int i = 0; i < size; i++) {
+      times[i] = timeBuffer.getLong();
+    }
+
+    String[] measurements = req.getMeasurements().toArray(new String[columnNum]);
+    TSDataType[] dataTypes = new TSDataType[columnNum];
+    Object[] columns = new Object[columnNum];
+    for (int i = 0; i < columnNum; i++) {
+      dataTypes[i] = TSDataType.deserialize(req.getTypes().get(i).shortValue());
+      columns[i] = readColumn(measurements[i], dataTypes[i], req.getValues().get(i).duplicate(),
+          size);
+    }
+    return new BatchInsertPlan(req.getDeviceId(), measurements, dataTypes, times, columns, size);
+  }
+
+  private static void checkColumnLength(String column, ByteBuffer buffer, long length) {
+    if (buffer.remaining() != length) {
+      throw new IllegalArgumentException(String.format(
+          "The buffer of %s has %d bytes, but %d bytes are expected", column,
+          buffer.remaining(), length));
+    }
+  }
+
+  private static Object readColumn(String measurement, TSDataType dataType, ByteBuffer buffer,
+      int size) {
+    switch (dataType) {
+      case BOOLEAN:
+        checkColumnLength(measurement, buffer, size);
+        boolean[] boolValues = new boolean[size];
+        for (int i = 0; i < size; i++) {
+          boolValues[i] = buffer.get() != 0;
+        }
+        return boolValues;
+      case INT32:
+        checkColumnLength(measurement, buffer, (long) size * 4);
+        int[] intValues = new int[size];
+        for (int i = 0; i < size; i++) {
+          intValues[i] = buffer.getInt();
+        }
+        return intValues;
+      case INT64:
+        checkColumnLength(measurement, buffer, (long) size * 8);
+        long[] longValues = new long[size];
+        for (int i = 0; i < size; i++) {
+          longValues[i] = buffer.getLong();
+        }
+        return longValues;
+      case FLOAT:
+        checkColumnLength(measurement, buffer, (long) size * 4);
+        float[] floatValues = new float[size];
+        for (int i = 0; i < size; i++) {
+          floatValues[i] = buffer.getFloat();
+        }
+        return floatValues;
+      case DOUBLE:
+        checkColumnLength(measurement, buffer, (long) size * 8);
+        double[] doubleValues = new double[size];
+        for (int i = 0; i < size; i++) {
+          doubleValues[i] = buffer.getDouble();
+        }
+        return doubleValues;
+      case TEXT:
+        Binary[] binaryValues = new Binary[size];
+        for (int i = 0; i < size; i++) {
+          int length = buffer.remaining() >= 4 ? buffer.getInt() : -1;
+          if (length < 0 || length > buffer.remaining()) {
+            throw new IllegalArgumentException(String.format(
+                "The buffer of %s is malformed at row %d", measurement, i));
+          }
+          byte[] bytes = new byte[length];
+          buffer.get(bytes);
+          binaryValues[i] = new Binary(bytes);
+        }
+        checkColumnLength(measurement, buffer, 0);
+        return binaryValues;
+      default:
+        throw new UnSupportedDataTypeException(String.format(
+            "data type %s is not supported when convert data at server", dataType));
+    }
+  }
 }
@@ -19,6 +19,8 @@
 package org.apache.iotdb.db.utils;
 
 import org.apache.iotdb.db.conf.IoTDBConstant;
+import org.apache.iotdb.db.qp.physical.crud.BatchInsertPlan;
+import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
 import org.apache.iotdb.tsfile.utils.Binary;
 import org.apache.iotdb.tsfile.write.record.TSRecord;
 import org.apache.iotdb.tsfile.write.record.datapoint.BooleanDataPoint;
@@ -51,8 +53,35 @@ public class MemUtils {
     return memSize;
   }
 
+  /**
+   * function for getting the size of the rows [start, end) of a batch.
+   */
+  public static long getBatchSize(BatchInsertPlan plan, int start, int end) {
+    long memSize = 0;
+    TSDataType[] dataTypes = plan.getDataTypes();
+    Object[] columns = plan.getColumns();
+    for (int i = 0; i < dataTypes.length; i++) {
+      if (dataTypes[i] == TSDataType.TEXT) {
+        Binary[] values = (Binary[]) columns[i];
+        for (int row = start; row < end; row++) {
+          memSize += 8L + values[row].getLength() * 2;
+        }
+      } else {
+        memSize += getPointSize(dataTypes[i]) * (end - start);
+      }
+    }
+    return memSize;
+  }
+
   private static long getPointSize(DataPoint dataPoint) {
-    switch (dataPoint.getType()) {
+    if (dataPoint.getType() == TSDataType.TEXT) {
+      return 8L + dataPoint.getBinary().getLength() * 2;
+    }
+    return getPointSize(dataPoint.getType());
+  }
+
+  private static long getPointSize(TSDataType dataType) {
+    switch (dataType) {
       case INT32:
         return 8L + 4L;
       case INT64:
@@ -63,8 +92,6 @@ public class MemUtils {
         return 8L + 8L;
       case BOOLEAN:
         return 8L + 1L;
-      case TEXT:
-        return 8L + dataPoint.getValue().toString().length() * 2;
       default:
         return 8L + 8L;
     }
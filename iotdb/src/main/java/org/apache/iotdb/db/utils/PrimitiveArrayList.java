@@ -18,117 +18,418 @@
  */
 package org.apache.iotdb.db.utils;
 
-import java.lang.reflect.Array;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
+import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
+import org.apache.iotdb.tsfile.utils.Binary;
 
-public class PrimitiveArrayList {
-
-  private static final int MAX_SIZE_OF_ONE_ARRAY = 512;
-  private static final int INITIAL_SIZE = 1;
-
-  private Class clazz;
-  private List<Object> values;
-  private List<long[]> timestamps;
-
-  private int length; // Total size of all objects of current ArrayList
-  private int currentIndex; // current index of array
-  private int currentArrayIndex; // current index of element in current array
-  private int currentArraySize; // size of current array
-
-  public PrimitiveArrayList(Class clazz) {
-    this.clazz = clazz;
-    values = new ArrayList<>();
-    timestamps = new ArrayList<>();
-    values.add(Array.newInstance(clazz, INITIAL_SIZE));
-    timestamps.add(new long[INITIAL_SIZE]);
-    length = 0;
-
-    currentIndex = 0;
-    currentArraySize = INITIAL_SIZE;
-    currentArrayIndex = -1;
-  }
-
-  private void capacity(int aimSize) {
-    if (currentArraySize < aimSize) {
-      if (currentArraySize < MAX_SIZE_OF_ONE_ARRAY) {
-        // expand current Array
-        int newCapacity = Math.min(MAX_SIZE_OF_ONE_ARRAY, currentArraySize * 2);
-        values.set(currentIndex,
-            expandArray(values.get(currentIndex), currentArraySize, newCapacity));
-        timestamps.set(currentIndex,
-            (long[]) expandArray(timestamps.get(currentIndex), currentArraySize, newCapacity));
-        currentArraySize = newCapacity;
-      } else {
-        // add a new Array to the list
-        values.add(Array.newInstance(clazz, INITIAL_SIZE));
+/**
+ * An append-only list of (timestamp, value) pairs of one data type. Timestamps and values are
+ * stored in primitive arrays, so neither appending nor reading boxes a value. The first block
+ * starts small and grows by doubling up to {@link PrimitiveArrayPool#ARRAY_SIZE}, so that a sparse
+ * series does not hold two full blocks. The following blocks are fixed-size arrays taken from the
+ * {@link PrimitiveArrayPool} and are never copied. Each data type has its own subclass, which only
+ * overrides the put/get methods of that type.
+ */
+public abstract class PrimitiveArrayList {
+
+  protected static final int ARRAY_SIZE = PrimitiveArrayPool.ARRAY_SIZE;
+  protected static final PrimitiveArrayPool POOL = PrimitiveArrayPool.getInstance();
+
+  /**
+   * initial capacity of the first block.
+   */
+  private static final int INITIAL_SIZE = 16;
+
+  protected final TSDataType dataType;
+  protected List<long[]> timestamps;
+  protected List<Object> values;
+
+  /**
+   * lists shorter than this are sorted by insertion sort.
+   */
+  private static final int INSERTION_SORT_THRESHOLD = 32;
+
+  private int size;
+  /**
+   * true if every timestamp is larger than the one put before it, i.e. the list is already sorted
+   * and has no duplicated timestamp.
+   */
+  private boolean ordered;
+  private long maxTime;
+
+  protected PrimitiveArrayList(TSDataType dataType) {
+    this.dataType = dataType;
+    this.timestamps = new ArrayList<>();
+    this.values = new ArrayList<>();
+    this.size = 0;
+    this.ordered = true;
+  }
+
+  /**
+   * grow the first block or get a new array from the pool if the last one is full, and return the
+   * index of the next element in it.
+   */
+  protected int nextIndexInArray() {
+    int index = size % ARRAY_SIZE;
+    if (size < ARRAY_SIZE) {
+      if (timestamps.isEmpty()) {
         timestamps.add(new long[INITIAL_SIZE]);
-        currentIndex++;
-        currentArraySize = INITIAL_SIZE;
-        currentArrayIndex = -1;
+        values.add(PrimitiveArrayPool.createArray(dataType, INITIAL_SIZE));
+      } else if (index == timestamps.get(0).length) {
+        int newLength = Math.min(index * 2, ARRAY_SIZE);
+        timestamps.set(0, Arrays.copyOf(timestamps.get(0), newLength));
+        Object newValues = PrimitiveArrayPool.createArray(dataType, newLength);
+        System.arraycopy(values.get(0), 0, newValues, 0, index);
+        values.set(0, newValues);
       }
+    } else if (index == 0) {
+      timestamps.add(POOL.getTimestampList());
+      values.add(POOL.getPrimitiveDataListByType(dataType));
     }
+    return index;
   }
 
-  private Object expandArray(Object array, int preLentgh, int aimLength) {
-    Class arrayClass = array.getClass().getComponentType();
-    Object newArray = Array.newInstance(arrayClass, aimLength);
-    System.arraycopy(array, 0, newArray, 0, preLentgh);
-    return newArray;
+  protected void appendTimestamp(int indexInArray, long timestamp) {
+    timestamps.get(timestamps.size() - 1)[indexInArray] = timestamp;
+    if (size > 0 && timestamp <= maxTime) {
+      ordered = false;
+    } else {
+      maxTime = timestamp;
+    }
+    size++;
   }
 
-  public void putTimestamp(long timestamp, Object value) {
-    capacity(currentArrayIndex + 1 + 1);
-    currentArrayIndex++;
-    timestamps.get(currentIndex)[currentArrayIndex] = timestamp;
-    Array.set(values.get(currentIndex), currentArrayIndex, value);
-    length++;
+  protected Object lastValueArray() {
+    return values.get(values.size() - 1);
+  }
+
+  protected Object valueArrayOf(int index) {
+    checkIndex(index);
+    return values.get(index / ARRAY_SIZE);
   }
 
   public long getTimestamp(int index) {
     checkIndex(index);
-    return timestamps.get(index / MAX_SIZE_OF_ONE_ARRAY)[index % MAX_SIZE_OF_ONE_ARRAY];
+    return timestamps.get(index / ARRAY_SIZE)[index % ARRAY_SIZE];
   }
 
+  public void putBoolean(long timestamp, boolean value) {
+    throw new UnsupportedOperationException("putBoolean() is not supported for " + dataType);
+  }
+
+  public void putInt(long timestamp, int value) {
+    throw new UnsupportedOperationException("putInt() is not supported for " + dataType);
+  }
+
+  public void putLong(long timestamp, long value) {
+    throw new UnsupportedOperationException("putLong() is not supported for " + dataType);
+  }
+
+  public void putFloat(long timestamp, float value) {
+    throw new UnsupportedOperationException("putFloat() is not supported for " + dataType);
+  }
+
+  public void putDouble(long timestamp, double value) {
+    throw new UnsupportedOperationException("putDouble() is not supported for " + dataType);
+  }
+
+  public void putBinary(long timestamp, Binary value) {
+    throw new UnsupportedOperationException("putBinary() is not supported for " + dataType);
+  }
+
+  public boolean getBoolean(int index) {
+    throw new UnsupportedOperationException("getBoolean() is not supported for " + dataType);
+  }
+
+  public int getInt(int index) {
+    throw new UnsupportedOperationException("getInt() is not supported for " + dataType);
+  }
+
+  public long getLong(int index) {
+    throw new UnsupportedOperationException("getLong() is not supported for " + dataType);
+  }
+
+  public float getFloat(int index) {
+    throw new UnsupportedOperationException("getFloat() is not supported for " + dataType);
+  }
+
+  public double getDouble(int index) {
+    throw new UnsupportedOperationException("getDouble() is not supported for " + dataType);
+  }
+
+  public Binary getBinary(int index) {
+    throw new UnsupportedOperationException("getBinary() is not supported for " + dataType);
+  }
+
+  /**
+   * get the value at the given index wrapped in a TsPrimitiveType of the data type of this list.
+   */
+  public abstract TsPrimitiveType getPrimitiveValue(int index);
+
+  /**
+   * get the value at the given index in its boxed form. Prefer the typed getters in hot paths.
+   */
   public Object getValue(int index) {
-    checkIndex(index);
-    return Array.get(values.get(index / MAX_SIZE_OF_ONE_ARRAY), index % MAX_SIZE_OF_ONE_ARRAY);
+    return getPrimitiveValue(index).getValue();
   }
 
   private void checkIndex(int index) {
     if (index < 0) {
       throw new NegativeArraySizeException("negetive array index:" + index);
     }
-    if (index >= length) {
+    if (index >= size) {
       throw new ArrayIndexOutOfBoundsException("index: " + index);
     }
   }
 
   public int size() {
-    return length;
+    return size;
   }
 
-  @Override
-  public PrimitiveArrayList clone() {
-    PrimitiveArrayList cloneList = new PrimitiveArrayList(clazz);
-    cloneList.values.clear();
-    cloneList.timestamps.clear();
-    for (Object valueArray : values) {
-      cloneList.values.add(cloneArray(valueArray, clazz));
+  public TSDataType getDataType() {
+    return dataType;
+  }
+
+  /**
+   * give all arrays back to the pool and make this list empty. The caller must make sure that no
+   * one reads this list any more.
+   */
+  public void release() {
+    for (int i = 0; i < timestamps.size(); i++) {
+      // a first block which has not grown to the full size is left to GC
+      if (timestamps.get(i).length == ARRAY_SIZE) {
+        POOL.releaseTimestampList(timestamps.get(i));
+        POOL.release(dataType, values.get(i));
+      }
     }
-    for (Object timestampArray : timestamps) {
-      cloneList.timestamps.add((long[]) cloneArray(timestampArray, long.class));
+    timestamps.clear();
+    values.clear();
+    size = 0;
+    ordered = true;
+  }
+
+  /**
+   * copy the content of this list into a SortedTimeValueArray. When points were put in ascending
+   * order of time, which is the usual case, the arrays are only copied. Otherwise the copied
+   * timestamps are sorted in place and, for each duplicated timestamp, only the value put last is
+   * kept.
+   */
+  public SortedTimeValueArray getSortedArray() {
+    int length = size;
+    long[] sortedTimes = new long[length];
+    Object sortedValues = SortedTimeValueArray.createValueArray(dataType, length);
+    for (int i = 0, pos = 0; pos < length; i++, pos += ARRAY_SIZE) {
+      int copyLength = Math.min(ARRAY_SIZE, length - pos);
+      System.arraycopy(timestamps.get(i), 0, sortedTimes, pos, copyLength);
+      System.arraycopy(values.get(i), 0, sortedValues, pos, copyLength);
+    }
+    if (ordered) {
+      return new SortedTimeValueArray(dataType, sortedTimes, sortedValues, length);
+    }
+
+    int[] indices = new int[length];
+    for (int i = 0; i < length; i++) {
+      indices[i] = i;
+    }
+    mergeSort(sortedTimes, indices, new long[length], new int[length], 0, length);
+    // the sort is stable, so the last one of several points with the same time was put last
+    int count = 0;
+    for (int i = 0; i < length; i++) {
+      if (i + 1 < length && sortedTimes[i] == sortedTimes[i + 1]) {
+        continue;
+      }
+      sortedTimes[count] = sortedTimes[i];
+      indices[count] = indices[i];
+      count++;
+    }
+    return new SortedTimeValueArray(dataType, sortedTimes,
+        SortedTimeValueArray.gatherValues(dataType, sortedValues, indices, count), count);
+  }
+
+  /**
+   * stable sort of times[from, to) in ascending order, moving indices along with times.
+   */
+  private static void mergeSort(long[] times, int[] indices, long[] tmpTimes, int[] tmpIndices,
+      int from, int to) {
+    if (to - from <= INSERTION_SORT_THRESHOLD) {
+      for (int i = from + 1; i < to; i++) {
+        long time = times[i];
+        int index = indices[i];
+        int j = i - 1;
+        while (j >= from && times[j] > time) {
+          times[j + 1] = times[j];
+          indices[j + 1] = indices[j];
+          j--;
+        }
+        times[j + 1] = time;
+        indices[j + 1] = index;
+      }
+      return;
+    }
+    int mid = (from + to) >>> 1;
+    mergeSort(times, indices, tmpTimes, tmpIndices, from, mid);
+    mergeSort(times, indices, tmpTimes, tmpIndices, mid, to);
+    if (times[mid - 1] <= times[mid]) {
+      return;
+    }
+    System.arraycopy(times, from, tmpTimes, from, to - from);
+    System.arraycopy(indices, from, tmpIndices, from, to - from);
+    int left = from;
+    int right = mid;
+    for (int i = from; i < to; i++) {
+      if (right >= to || (left < mid && tmpTimes[left] <= tmpTimes[right])) {
+        times[i] = tmpTimes[left];
+        indices[i] = tmpIndices[left++];
+      } else {
+        times[i] = tmpTimes[right];
+        indices[i] = tmpIndices[right++];
+      }
     }
-    cloneList.length = length;
-    cloneList.currentIndex = currentIndex;
-    cloneList.currentArrayIndex = currentArrayIndex;
-    cloneList.currentArraySize = currentArraySize;
-    return cloneList;
   }
 
-  private Object cloneArray(Object array, Class clazz) {
-    Object cloneArray = Array.newInstance(clazz, Array.getLength(array));
-    System.arraycopy(array, 0, cloneArray, 0, Array.getLength(array));
-    return cloneArray;
+  public static class BooleanArrayList extends PrimitiveArrayList {
+
+    public BooleanArrayList() {
+      super(TSDataType.BOOLEAN);
+    }
+
+    @Override
+    public void putBoolean(long timestamp, boolean value) {
+      int index = nextIndexInArray();
+      ((boolean[]) lastValueArray())[index] = value;
+      appendTimestamp(index, timestamp);
+    }
+
+    @Override
+    public boolean getBoolean(int index) {
+      return ((boolean[]) valueArrayOf(index))[index % ARRAY_SIZE];
+    }
+
+    @Override
+    public TsPrimitiveType getPrimitiveValue(int index) {
+      return new TsPrimitiveType.TsBoolean(getBoolean(index));
+    }
+  }
+
+  public static class IntArrayList extends PrimitiveArrayList {
+
+    public IntArrayList() {
+      super(TSDataType.INT32);
+    }
+
+    @Override
+    public void putInt(long timestamp, int value) {
+      int index = nextIndexInArray();
+      ((int[]) lastValueArray())[index] = value;
+      appendTimestamp(index, timestamp);
+    }
+
+    @Override
+    public int getInt(int index) {
+      return ((int[]) valueArrayOf(index))[index % ARRAY_SIZE];
+    }
+
+    @Override
+    public TsPrimitiveType getPrimitiveValue(int index) {
+      return new TsPrimitiveType.TsInt(getInt(index));
+    }
+  }
+
+  public static class LongArrayList extends PrimitiveArrayList {
+
+    public LongArrayList() {
+      super(TSDataType.INT64);
+    }
+
+    @Override
+    public void putLong(long timestamp, long value) {
+      int index = nextIndexInArray();
+      ((long[]) lastValueArray())[index] = value;
+      appendTimestamp(index, timestamp);
+    }
+
+    @Override
+    public long getLong(int index) {
+      return ((long[]) valueArrayOf(index))[index % ARRAY_SIZE];
+    }
+
+    @Override
+    public TsPrimitiveType getPrimitiveValue(int index) {
+      return new TsPrimitiveType.TsLong(getLong(index));
+    }
+  }
+
+  public static class FloatArrayList extends PrimitiveArrayList {
+
+    public FloatArrayList() {
+      super(TSDataType.FLOAT);
+    }
+
+    @Override
+    public void putFloat(long timestamp, float value) {
+      int index = nextIndexInArray();
+      ((float[]) lastValueArray())[index] = value;
+      appendTimestamp(index, timestamp);
+    }
+
+    @Override
+    public float getFloat(int index) {
+      return ((float[]) valueArrayOf(index))[index % ARRAY_SIZE];
+    }
+
+    @Override
+    public TsPrimitiveType getPrimitiveValue(int index) {
+      return new TsPrimitiveType.TsFloat(getFloat(index));
+    }
+  }
+
+  public static class DoubleArrayList extends PrimitiveArrayList {
+
+    public DoubleArrayList() {
+      super(TSDataType.DOUBLE);
+    }
+
+    @Override
+    public void putDouble(long timestamp, double value) {
+      int index = nextIndexInArray();
+      ((double[]) lastValueArray())[index] = value;
+      appendTimestamp(index, timestamp);
+    }
+
+    @Override
+    public double getDouble(int index) {
+      return ((double[]) valueArrayOf(index))[index % ARRAY_SIZE];
+    }
+
+    @Override
+    public TsPrimitiveType getPrimitiveValue(int index) {
+      return new TsPrimitiveType.TsDouble(getDouble(index));
+    }
+  }
+
+  public static class BinaryArrayList extends PrimitiveArrayList {
+
+    public BinaryArrayList() {
+      super(TSDataType.TEXT);
+    }
+
+    @Override
+    public void putBinary(long timestamp, Binary value) {
+      int index = nextIndexInArray();
+      ((Binary[]) lastValueArray())[index] = value;
+      appendTimestamp(index, timestamp);
+    }
+
+    @Override
+    public Binary getBinary(int index) {
+      return ((Binary[]) valueArrayOf(index))[index % ARRAY_SIZE];
+    }
+
+    @Override
+    public TsPrimitiveType getPrimitiveValue(int index) {
+      return new TsPrimitiveType.TsBinary(getBinary(index));
+    }
   }
 }
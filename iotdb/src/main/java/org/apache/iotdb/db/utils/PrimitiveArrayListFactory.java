@@ -20,7 +20,6 @@ package org.apache.iotdb.db.utils;
 
 import org.apache.iotdb.tsfile.exception.write.UnSupportedDataTypeException;
 import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
-import org.apache.iotdb.tsfile.utils.Binary;
 
 public class PrimitiveArrayListFactory {
 
@@ -29,17 +28,17 @@ public class PrimitiveArrayListFactory {
   public static PrimitiveArrayList getByDataType(TSDataType dataType) {
     switch (dataType) {
       case BOOLEAN:
-        return new PrimitiveArrayList(boolean.class);
+        return new PrimitiveArrayList.BooleanArrayList();
       case INT32:
-        return new PrimitiveArrayList(int.class);
+        return new PrimitiveArrayList.IntArrayList();
       case INT64:
-        return new PrimitiveArrayList(long.class);
+        return new PrimitiveArrayList.LongArrayList();
       case FLOAT:
-        return new PrimitiveArrayList(float.class);
+        return new PrimitiveArrayList.FloatArrayList();
       case DOUBLE:
-        return new PrimitiveArrayList(double.class);
+        return new PrimitiveArrayList.DoubleArrayList();
       case TEXT:
-        return new PrimitiveArrayList(Binary.class);
+        return new PrimitiveArrayList.BinaryArrayList();
       default:
         throw new UnSupportedDataTypeException("DataType: " + dataType);
     }
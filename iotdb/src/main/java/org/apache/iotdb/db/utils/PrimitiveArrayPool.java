@@ -0,0 +1,126 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.db.utils;
+
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.Map;
+import org.apache.iotdb.tsfile.exception.write.UnSupportedDataTypeException;
+import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
+import org.apache.iotdb.tsfile.utils.Binary;
+
+/**
+ * Pool of fixed-size primitive arrays shared by all memtables. A {@link PrimitiveArrayList} takes
+ * its blocks from here and gives them back when the memtable is cleared after flushing, so that a
+ * steady ingestion does not keep allocating and collecting arrays.
+ */
+public class PrimitiveArrayPool {
+
+  /**
+   * number of elements of every array in the pool.
+   */
+  public static final int ARRAY_SIZE = 512;
+
+  /**
+   * at most this number of idle arrays of each data type are kept, the others are left to GC.
+   */
+  private static final int MAX_IDLE_ARRAYS_PER_TYPE = 4096;
+
+  private final Map<TSDataType, ArrayDeque<Object>> idleArrays = new EnumMap<>(TSDataType.class);
+
+  private PrimitiveArrayPool() {
+    for (TSDataType dataType : TSDataType.values()) {
+      idleArrays.put(dataType, new ArrayDeque<>());
+    }
+  }
+
+  public static PrimitiveArrayPool getInstance() {
+    return PrimitiveArrayPoolHolder.INSTANCE;
+  }
+
+  /**
+   * get an array of ARRAY_SIZE elements of the given data type. The content of a reused array is
+   * not cleared.
+   */
+  public Object getPrimitiveDataListByType(TSDataType dataType) {
+    ArrayDeque<Object> arrays = idleArrays.get(dataType);
+    synchronized (arrays) {
+      Object array = arrays.poll();
+      if (array != null) {
+        return array;
+      }
+    }
+    return createArray(dataType, ARRAY_SIZE);
+  }
+
+  /**
+   * timestamps are stored in arrays of long, they share the pool of INT64.
+   */
+  public long[] getTimestampList() {
+    return (long[]) getPrimitiveDataListByType(TSDataType.INT64);
+  }
+
+  /**
+   * give an array got from {@link #getPrimitiveDataListByType} back to the pool.
+   */
+  public void release(TSDataType dataType, Object array) {
+    if (dataType == TSDataType.TEXT) {
+      // do not keep the binaries reachable
+      Arrays.fill((Binary[]) array, null);
+    }
+    ArrayDeque<Object> arrays = idleArrays.get(dataType);
+    synchronized (arrays) {
+      if (arrays.size() < MAX_IDLE_ARRAYS_PER_TYPE) {
+        arrays.push(array);
+      }
+    }
+  }
+
+  public void releaseTimestampList(long[] array) {
+    release(TSDataType.INT64, array);
+  }
+
+  static Object createArray(TSDataType dataType, int length) {
+    switch (dataType) {
+      case BOOLEAN:
+        return new boolean[length];
+      case INT32:
+        return new int[length];
+      case INT64:
+        return new long[length];
+      case FLOAT:
+        return new float[length];
+      case DOUBLE:
+        return new double[length];
+      case TEXT:
+        return new Binary[length];
+      default:
+        throw new UnSupportedDataTypeException("DataType: " + dataType);
+    }
+  }
+
+  private static class PrimitiveArrayPoolHolder {
+
+    private static final PrimitiveArrayPool INSTANCE = new PrimitiveArrayPool();
+
+    private PrimitiveArrayPoolHolder() {
+    }
+  }
+}
@@ -0,0 +1,303 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.db.utils;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import org.apache.iotdb.tsfile.exception.write.UnSupportedDataTypeException;
+import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
+import org.apache.iotdb.tsfile.read.common.BatchData;
+import org.apache.iotdb.tsfile.utils.Binary;
+
+/**
+ * A read-only snapshot of a series in memory, sorted by timestamp and without duplicated
+ * timestamps. Timestamps and values are kept in two primitive arrays, so that it can be iterated
+ * with the typed getters without creating an object for each point.
+ */
+public class SortedTimeValueArray {
+
+  private final TSDataType dataType;
+  private final long[] times;
+  /**
+   * a boolean[], int[], long[], float[], double[] or Binary[] according to dataType.
+   */
+  private final Object values;
+  private final int size;
+
+  public SortedTimeValueArray(TSDataType dataType, long[] times, Object values, int size) {
+    this.dataType = dataType;
+    this.times = times;
+    this.values = values;
+    this.size = size;
+  }
+
+  public static SortedTimeValueArray empty(TSDataType dataType) {
+    return new SortedTimeValueArray(dataType, new long[0], createValueArray(dataType, 0), 0);
+  }
+
+  /**
+   * concatenate the given arrays into one. The caller must make sure that the timestamps of each
+   * array are larger than any timestamp of the arrays before it.
+   */
+  public static SortedTimeValueArray concat(TSDataType dataType,
+      List<SortedTimeValueArray> arrays) {
+    if (arrays.size() == 1) {
+      return arrays.get(0);
+    }
+    int totalSize = 0;
+    for (SortedTimeValueArray array : arrays) {
+      totalSize += array.size;
+    }
+    long[] times = new long[totalSize];
+    Object values = createValueArray(dataType, totalSize);
+    int pos = 0;
+    for (SortedTimeValueArray array : arrays) {
+      System.arraycopy(array.times, 0, times, pos, array.size);
+      System.arraycopy(array.values, 0, values, pos, array.size);
+      pos += array.size;
+    }
+    return new SortedTimeValueArray(dataType, times, values, totalSize);
+  }
+
+  /**
+   * create an array of the given length to hold values of the given data type.
+   */
+  public static Object createValueArray(TSDataType dataType, int length) {
+    switch (dataType) {
+      case BOOLEAN:
+        return new boolean[length];
+      case INT32:
+        return new int[length];
+      case INT64:
+        return new long[length];
+      case FLOAT:
+        return new float[length];
+      case DOUBLE:
+        return new double[length];
+      case TEXT:
+        return new Binary[length];
+      default:
+        throw new UnSupportedDataTypeException("DataType: " + dataType);
+    }
+  }
+
+  /**
+   * create a new value array whose i-th element is src[indices[i]], for i in [0, count).
+   */
+  public static Object gatherValues(TSDataType dataType, Object src, int[] indices, int count) {
+    Object dest = createValueArray(dataType, count);
+    switch (dataType) {
+      case BOOLEAN:
+        for (int i = 0; i < count; i++) {
+          ((boolean[]) dest)[i] = ((boolean[]) src)[indices[i]];
+        }
+        break;
+      case INT32:
+        for (int i = 0; i < count; i++) {
+          ((int[]) dest)[i] = ((int[]) src)[indices[i]];
+        }
+        break;
+      case INT64:
+        for (int i = 0; i < count; i++) {
+          ((long[]) dest)[i] = ((long[]) src)[indices[i]];
+        }
+        break;
+      case FLOAT:
+        for (int i = 0; i < count; i++) {
+          ((float[]) dest)[i] = ((float[]) src)[indices[i]];
+        }
+        break;
+      case DOUBLE:
+        for (int i = 0; i < count; i++) {
+          ((double[]) dest)[i] = ((double[]) src)[indices[i]];
+        }
+        break;
+      case TEXT:
+        for (int i = 0; i < count; i++) {
+          ((Binary[]) dest)[i] = ((Binary[]) src)[indices[i]];
+        }
+        break;
+      default:
+        throw new UnSupportedDataTypeException("DataType: " + dataType);
+    }
+    return dest;
+  }
+
+  public TSDataType getDataType() {
+    return dataType;
+  }
+
+  public int size() {
+    return size;
+  }
+
+  public boolean isEmpty() {
+    return size == 0;
+  }
+
+  public long getTimestamp(int index) {
+    checkIndex(index);
+    return times[index];
+  }
+
+  public boolean getBoolean(int index) {
+    checkIndex(index);
+    return ((boolean[]) values)[index];
+  }
+
+  public int getInt(int index) {
+    checkIndex(index);
+    return ((int[]) values)[index];
+  }
+
+  public long getLong(int index) {
+    checkIndex(index);
+    return ((long[]) values)[index];
+  }
+
+  public float getFloat(int index) {
+    checkIndex(index);
+    return ((float[]) values)[index];
+  }
+
+  public double getDouble(int index) {
+    checkIndex(index);
+    return ((double[]) values)[index];
+  }
+
+  public Binary getBinary(int index) {
+    checkIndex(index);
+    return ((Binary[]) values)[index];
+  }
+
+  /**
+   * get the value at the given index wrapped in a TsPrimitiveType.
+   */
+  public TsPrimitiveType getPrimitiveValue(int index) {
+    switch (dataType) {
+      case BOOLEAN:
+        return new TsPrimitiveType.TsBoolean(getBoolean(index));
+      case INT32:
+        return new TsPrimitiveType.TsInt(getInt(index));
+      case INT64:
+        return new TsPrimitiveType.TsLong(getLong(index));
+      case FLOAT:
+        return new TsPrimitiveType.TsFloat(getFloat(index));
+      case DOUBLE:
+        return new TsPrimitiveType.TsDouble(getDouble(index));
+      case TEXT:
+        return new TsPrimitiveType.TsBinary(getBinary(index));
+      default:
+        throw new UnSupportedDataTypeException("DataType: " + dataType);
+    }
+  }
+
+  /**
+   * get the value at the given index as a boxed object.
+   */
+  public Object getValue(int index) {
+    switch (dataType) {
+      case BOOLEAN:
+        return getBoolean(index);
+      case INT32:
+        return getInt(index);
+      case INT64:
+        return getLong(index);
+      case FLOAT:
+        return getFloat(index);
+      case DOUBLE:
+        return getDouble(index);
+      case TEXT:
+        return getBinary(index);
+      default:
+        throw new UnSupportedDataTypeException("DataType: " + dataType);
+    }
+  }
+
+  /**
+   * append the point at the given index to the batch data, whose data type must be the same.
+   */
+  public void putToBatchData(int index, BatchData batchData) {
+    batchData.putTime(getTimestamp(index));
+    switch (dataType) {
+      case BOOLEAN:
+        batchData.putBoolean(getBoolean(index));
+        break;
+      case INT32:
+        batchData.putInt(getInt(index));
+        break;
+      case INT64:
+        batchData.putLong(getLong(index));
+        break;
+      case FLOAT:
+        batchData.putFloat(getFloat(index));
+        break;
+      case DOUBLE:
+        batchData.putDouble(getDouble(index));
+        break;
+      case TEXT:
+        batchData.putBinary(getBinary(index));
+        break;
+      default:
+        throw new UnSupportedDataTypeException("DataType: " + dataType);
+    }
+  }
+
+  public TimeValuePair getTimeValuePair(int index) {
+    return new TimeValuePair(getTimestamp(index), getPrimitiveValue(index));
+  }
+
+  /**
+   * the returned iterator creates a TimeValuePair only when next() is called.
+   */
+  public Iterator<TimeValuePair> iterator() {
+    return new Iterator<TimeValuePair>() {
+      private int index = 0;
+
+      @Override
+      public boolean hasNext() {
+        return index < size;
+      }
+
+      @Override
+      public TimeValuePair next() {
+        if (!hasNext()) {
+          throw new NoSuchElementException();
+        }
+        return getTimeValuePair(index++);
+      }
+    };
+  }
+
+  public List<TimeValuePair> toTimeValuePairList() {
+    List<TimeValuePair> ret = new ArrayList<>(size);
+    for (int i = 0; i < size; i++) {
+      ret.add(getTimeValuePair(i));
+    }
+    return ret;
+  }
+
+  private void checkIndex(int index) {
+    if (index >= size) {
+      throw new ArrayIndexOutOfBoundsException("index: " + index);
+    }
+  }
+}
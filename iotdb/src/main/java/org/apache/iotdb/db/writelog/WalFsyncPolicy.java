@@ -0,0 +1,37 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.db.writelog;
+
+/**
+ * When the group commit write ahead log forces its file to be written to disk.
+ */
+public enum WalFsyncPolicy {
+  /**
+   * force the log file in every commit, a write returns only after its log is on disk.
+   */
+  EVERY_COMMIT,
+  /**
+   * force the log file every force_wal_period_in_ms ms.
+   */
+  PERIODIC,
+  /**
+   * never force the log file explicitly, leave it to the operating system.
+   */
+  OS
+}
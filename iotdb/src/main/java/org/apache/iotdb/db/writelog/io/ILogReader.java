@@ -28,4 +28,9 @@ public interface ILogReader extends Iterator<PhysicalPlan> {
   void open(File file) throws FileNotFoundException;
 
   void close();
+
+  /**
+   * get the number of bytes of the current file that have been read.
+   */
+  long getPosition();
 }
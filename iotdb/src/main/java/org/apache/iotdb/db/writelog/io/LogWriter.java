@@ -42,10 +42,7 @@ public class LogWriter implements ILogWriter {
 
   @Override
   public void write(List<byte[]> logCache) throws IOException {
-    if (outputStream == null) {
-      fileOutputStream = new FileOutputStream(logFile, true);
-      outputStream = fileOutputStream.getChannel();
-    }
+    open();
     int totalSize = 0;
     for (byte[] bytes : logCache) {
       totalSize += 4 + 8 + bytes.length;
@@ -65,6 +62,21 @@ public class LogWriter implements ILogWriter {
     }
   }
 
+  @Override
+  public void write(ByteBuffer logBuffer) throws IOException {
+    open();
+    while (logBuffer.hasRemaining()) {
+      outputStream.write(logBuffer);
+    }
+  }
+
+  private void open() throws IOException {
+    if (outputStream == null) {
+      fileOutputStream = new FileOutputStream(logFile, true);
+      outputStream = fileOutputStream.getChannel();
+    }
+  }
+
   @Override
   public void force() throws IOException {
     if (outputStream != null) {
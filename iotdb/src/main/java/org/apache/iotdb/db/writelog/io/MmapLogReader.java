@@ -0,0 +1,177 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.db.writelog.io;
+
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.util.NoSuchElementException;
+import java.util.zip.CRC32;
+import org.apache.iotdb.db.qp.physical.PhysicalPlan;
+import org.apache.iotdb.db.utils.CommonUtils;
+import org.apache.iotdb.db.writelog.transfer.PhysicalPlanLogTransfer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * A log reader which maps the log file into memory window by window, instead of issuing a few
+ * small reads for every log like {@link RAFLogReader}. It reads the same format and stops at the
+ * same place (the end of the file, a truncated log or a log with a wrong checksum).
+ */
+public class MmapLogReader implements ILogReader {
+
+  private static final Logger logger = LoggerFactory.getLogger(MmapLogReader.class);
+  /**
+   * size of the int log size and the long checksum before each log.
+   */
+  private static final int LOG_HEADER_SIZE = 4 + 8;
+  private static final long DEFAULT_WINDOW_SIZE = 64L * 1024 * 1024;
+
+  private final long windowSize;
+  private RandomAccessFile logRaf;
+  private FileChannel channel;
+  private String filepath;
+  private long fileLength;
+  /**
+   * the mapped region of the file, which begins at windowStart.
+   */
+  private MappedByteBuffer window;
+  private long windowStart;
+  private byte[] buffer = new byte[4 * 1024];
+  private CRC32 checkSummer = new CRC32();
+  private PhysicalPlan planBuffer = null;
+
+  public MmapLogReader() {
+    this(DEFAULT_WINDOW_SIZE);
+  }
+
+  public MmapLogReader(long windowSize) {
+    this.windowSize = windowSize;
+  }
+
+  public MmapLogReader(File logFile) throws FileNotFoundException {
+    this();
+    open(logFile);
+  }
+
+  @Override
+  public boolean hasNext() {
+    if (planBuffer != null) {
+      return true;
+    }
+    try {
+      long position = getPosition();
+      if (position + LOG_HEADER_SIZE > fileLength) {
+        return false;
+      }
+      ensureMapped(position, LOG_HEADER_SIZE);
+      int logSize = window.getInt();
+      long checkSum = window.getLong();
+      if (logSize < 0 || position + LOG_HEADER_SIZE + logSize > fileLength) {
+        return false;
+      }
+      ensureMapped(position + LOG_HEADER_SIZE, logSize);
+      if (logSize > buffer.length) {
+        buffer = new byte[logSize];
+      }
+      window.get(buffer, 0, logSize);
+      checkSummer.reset();
+      checkSummer.update(buffer, 0, logSize);
+      if (checkSummer.getValue() != checkSum) {
+        return false;
+      }
+      planBuffer = PhysicalPlanLogTransfer.logToOperator(buffer);
+      return true;
+    } catch (IOException e) {
+      logger.error("Cannot read log file {}", filepath, e);
+      return false;
+    }
+  }
+
+  /**
+   * make sure that [position, position + length) of the file is in the window, and move the
+   * window position to position.
+   */
+  private void ensureMapped(long position, int length) throws IOException {
+    if (window == null || position < windowStart
+        || position + length > windowStart + window.limit()) {
+      unmap();
+      windowStart = position;
+      long size = Math.min(Math.max(windowSize, length), fileLength - position);
+      window = channel.map(MapMode.READ_ONLY, position, size);
+    }
+    window.position((int) (position - windowStart));
+  }
+
+  private void unmap() {
+    if (window != null) {
+      try {
+        CommonUtils.destroyBuffer(window);
+      } catch (Exception e) {
+        logger.warn("Cannot unmap log file {}, it will be unmapped by GC", filepath, e);
+      }
+      window = null;
+    }
+  }
+
+  @Override
+  public PhysicalPlan next() {
+    if (!hasNext()) {
+      throw new NoSuchElementException();
+    }
+
+    PhysicalPlan ret = planBuffer;
+    planBuffer = null;
+    return ret;
+  }
+
+  @Override
+  public long getPosition() {
+    return window == null ? 0 : windowStart + window.position();
+  }
+
+  @Override
+  public void close() {
+    unmap();
+    if (logRaf != null) {
+      try {
+        logRaf.close();
+      } catch (IOException e) {
+        logger.error("Cannot close log file {}", filepath, e);
+      }
+      logRaf = null;
+      channel = null;
+    }
+  }
+
+  @Override
+  public void open(File logFile) throws FileNotFoundException {
+    close();
+    logRaf = new RandomAccessFile(logFile, "r");
+    channel = logRaf.getChannel();
+    filepath = logFile.getPath();
+    fileLength = logFile.length();
+    windowStart = 0;
+    planBuffer = null;
+  }
+}
@@ -104,6 +104,16 @@ public class RAFLogReader implements ILogReader {
     }
   }
 
+  @Override
+  public long getPosition() {
+    try {
+      return logRaf.getFilePointer();
+    } catch (IOException e) {
+      logger.error("Cannot get position of log file {}", filepath, e);
+      return 0;
+    }
+  }
+
   @Override
   public void open(File logFile) throws FileNotFoundException {
     logRaf = new RandomAccessFile(logFile, "r");
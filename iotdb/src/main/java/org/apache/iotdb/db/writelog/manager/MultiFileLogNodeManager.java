@@ -21,9 +21,15 @@ package org.apache.iotdb.db.writelog.manager;
 import java.io.File;
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import org.apache.iotdb.db.concurrent.IoTDBThreadPoolFactory;
 import org.apache.iotdb.db.concurrent.ThreadName;
 import org.apache.iotdb.db.conf.IoTDBConfig;
 import org.apache.iotdb.db.conf.IoTDBConstant;
@@ -31,13 +37,19 @@ import org.apache.iotdb.db.conf.IoTDBDescriptor;
 import org.apache.iotdb.db.exception.RecoverException;
 import org.apache.iotdb.db.exception.StartupException;
 import org.apache.iotdb.db.service.IService;
+import org.apache.iotdb.db.service.JMXService;
 import org.apache.iotdb.db.service.ServiceType;
+import org.apache.iotdb.db.utils.MemUtils;
+import org.apache.iotdb.db.writelog.WalFsyncPolicy;
 import org.apache.iotdb.db.writelog.node.ExclusiveWriteLogNode;
+import org.apache.iotdb.db.writelog.node.GroupCommitWriteLogNode;
 import org.apache.iotdb.db.writelog.node.WriteLogNode;
+import org.apache.iotdb.db.writelog.recover.ReplayStatistics;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-public class MultiFileLogNodeManager implements WriteLogNodeManager, IService {
+public class MultiFileLogNodeManager implements WriteLogNodeManager, IService,
+    MultiFileLogNodeManagerMBean {
 
   private static final Logger logger = LoggerFactory.getLogger(MultiFileLogNodeManager.class);
   private Map<String, WriteLogNode> nodeMap;
@@ -45,6 +57,11 @@ public class MultiFileLogNodeManager implements WriteLogNodeManager, IService {
   private Thread syncThread;
   private Thread forceThread;
   private IoTDBConfig config = IoTDBDescriptor.getInstance().getConfig();
+  private final String mbeanName = String
+      .format("%s:%s=%s", IoTDBConstant.IOTDB_PACKAGE, IoTDBConstant.JMX_TYPE,
+          getID().getJmxName());
+  private boolean mbeanRegistered = false;
+  private ReplayStatistics replayStatistics = ReplayStatistics.getInstance();
 
   private final Runnable syncTask = ()->{
       while (true) {
@@ -110,7 +127,11 @@ public class MultiFileLogNodeManager implements WriteLogNodeManager, IService {
       throws IOException {
     WriteLogNode node = nodeMap.get(identifier);
     if (node == null && restoreFilePath != null && processorStoreFilePath != null) {
-      node = new ExclusiveWriteLogNode(identifier, restoreFilePath, processorStoreFilePath);
+      if (config.enableWalGroupCommit) {
+        node = new GroupCommitWriteLogNode(identifier, restoreFilePath, processorStoreFilePath);
+      } else {
+        node = new ExclusiveWriteLogNode(identifier, restoreFilePath, processorStoreFilePath);
+      }
       WriteLogNode oldNode = nodeMap.putIfAbsent(identifier, node);
       if (oldNode != null) {
         return oldNode;
@@ -135,13 +156,97 @@ public class MultiFileLogNodeManager implements WriteLogNodeManager, IService {
     List<WriteLogNode> nodeList = new ArrayList<>(nodeMap.size());
     nodeList.addAll(nodeMap.values());
     nodeList.sort(null);
+    // the log nodes of one storage group replay into the same FileNode, so they are recovered one
+    // by one in order, while different storage groups are independent
+    Map<String, List<WriteLogNode>> nodeGroups = new LinkedHashMap<>();
+    long totalLogBytes = 0;
     for (WriteLogNode node : nodeList) {
+      nodeGroups.computeIfAbsent(getFileNodeName(node), k -> new ArrayList<>()).add(node);
+      totalLogBytes += getLogBytes(node);
+    }
+
+    registerMBean();
+    replayStatistics.start(nodeList.size(), totalLogBytes);
+    logger.info("Start recovering {} log nodes of {} storage groups, {} of logs", nodeList.size(),
+        nodeGroups.size(), MemUtils.bytesCntToStr(totalLogBytes));
+    try {
+      int threadNum = Math.min(config.walRecoverThreadNum, nodeGroups.size());
+      if (threadNum <= 1) {
+        for (List<WriteLogNode> nodeGroup : nodeGroups.values()) {
+          recoverNodes(nodeGroup);
+        }
+      } else {
+        recoverInParallel(nodeGroups.values(), threadNum);
+      }
+    } finally {
+      replayStatistics.finish();
+    }
+    logger.info("Recovered {} log nodes in {} ms, {} logs replayed", nodeList.size(),
+        replayStatistics.getElapsedTimeInMs(), replayStatistics.getReplayedLogNum());
+  }
+
+  private void recoverInParallel(Collection<List<WriteLogNode>> nodeGroups, int threadNum)
+      throws RecoverException {
+    ExecutorService recoverPool = IoTDBThreadPoolFactory
+        .newFixedThreadPool(threadNum, ThreadName.WAL_RECOVER.getName());
+    List<Future<?>> futures = new ArrayList<>(nodeGroups.size());
+    for (List<WriteLogNode> nodeGroup : nodeGroups) {
+      futures.add(recoverPool.submit(() -> {
+        recoverNodes(nodeGroup);
+        return null;
+      }));
+    }
+    recoverPool.shutdown();
+    RecoverException exception = null;
+    for (Future<?> future : futures) {
+      try {
+        future.get();
+      } catch (InterruptedException e) {
+        recoverPool.shutdownNow();
+        Thread.currentThread().interrupt();
+        throw new RecoverException(e);
+      } catch (ExecutionException e) {
+        if (exception == null) {
+          exception = e.getCause() instanceof RecoverException ? (RecoverException) e.getCause()
+              : new RecoverException(e.getCause());
+        }
+      }
+    }
+    if (exception != null) {
+      throw exception;
+    }
+  }
+
+  private void recoverNodes(List<WriteLogNode> nodes) throws RecoverException {
+    for (WriteLogNode node : nodes) {
       try {
         node.recover();
       } catch (RecoverException e) {
         logger.error("{} failed to recover because {}", node.toString(), e.getMessage());
         throw e;
       }
+      replayStatistics.logNodeRecovered();
+    }
+  }
+
+  private String getFileNodeName(WriteLogNode node) {
+    if (node instanceof ExclusiveWriteLogNode) {
+      return ((ExclusiveWriteLogNode) node).getFileNodeName();
+    }
+    return node.getIdentifier();
+  }
+
+  private long getLogBytes(WriteLogNode node) {
+    File logFile = new File(node.getLogDirectory(), ExclusiveWriteLogNode.WAL_FILE_NAME);
+    File oldLogFile = new File(node.getLogDirectory(),
+        ExclusiveWriteLogNode.WAL_FILE_NAME + ExclusiveWriteLogNode.OLD_SUFFIX);
+    return logFile.length() + oldLogFile.length();
+  }
+
+  private void registerMBean() {
+    if (!mbeanRegistered) {
+      JMXService.registerMBean(this, mbeanName);
+      mbeanRegistered = true;
     }
   }
 
@@ -215,7 +320,7 @@ public class MultiFileLogNodeManager implements WriteLogNodeManager, IService {
         InstanceHolder.instance.syncThread = new Thread(InstanceHolder.instance.syncTask,
             ThreadName.WAL_DAEMON.getName());
         InstanceHolder.instance.syncThread.start();
-        if (config.forceWalPeriodInMs > 0 && !isActivated(forceThread)) {
+        if (needForceThread() && !isActivated(forceThread)) {
           InstanceHolder.instance.forceThread = new Thread(InstanceHolder.instance.forceTask,
               ThreadName.WAL_FORCE_DAEMON.getName());
           InstanceHolder.instance.forceThread.start();
@@ -233,17 +338,87 @@ public class MultiFileLogNodeManager implements WriteLogNodeManager, IService {
 
   @Override
   public void stop() {
+    if (mbeanRegistered) {
+      JMXService.deregisterMBean(mbeanName);
+      mbeanRegistered = false;
+    }
     if (!config.enableWal) {
       return;
     }
     close();
   }
 
+  @Override
+  public boolean isRecovering() {
+    return replayStatistics.isRecovering();
+  }
+
+  @Override
+  public int getRecoverThreadNum() {
+    return config.walRecoverThreadNum;
+  }
+
+  @Override
+  public int getLogNodeNum() {
+    return replayStatistics.getLogNodeNum();
+  }
+
+  @Override
+  public int getRecoveredLogNodeNum() {
+    return replayStatistics.getRecoveredLogNodeNum();
+  }
+
+  @Override
+  public long getTotalLogBytes() {
+    return replayStatistics.getTotalLogBytes();
+  }
+
+  @Override
+  public long getReplayedLogBytes() {
+    return replayStatistics.getReplayedLogBytes();
+  }
+
+  @Override
+  public long getReplayedLogNum() {
+    return replayStatistics.getReplayedLogNum();
+  }
+
+  @Override
+  public double getReplayProgressPercent() {
+    long totalLogBytes = replayStatistics.getTotalLogBytes();
+    if (totalLogBytes == 0) {
+      return 100;
+    }
+    return replayStatistics.getReplayedLogBytes() * 100.0 / totalLogBytes;
+  }
+
+  @Override
+  public long getReplayThroughputInBytesPerSecond() {
+    long elapsedTime = replayStatistics.getElapsedTimeInMs();
+    return elapsedTime == 0 ? 0 : replayStatistics.getReplayedLogBytes() * 1000 / elapsedTime;
+  }
+
+  @Override
+  public long getReplayThroughputInLogsPerSecond() {
+    long elapsedTime = replayStatistics.getElapsedTimeInMs();
+    return elapsedTime == 0 ? 0 : replayStatistics.getReplayedLogNum() * 1000 / elapsedTime;
+  }
+
   @Override
   public ServiceType getID() {
     return ServiceType.WAL_SERVICE;
   }
 
+  /**
+   * with group commit, the log files are forced periodically only under the PERIODIC policy.
+   */
+  private boolean needForceThread() {
+    if (config.enableWalGroupCommit && config.walFsyncPolicy != WalFsyncPolicy.PERIODIC) {
+      return false;
+    }
+    return config.forceWalPeriodInMs > 0;
+  }
+
   private boolean isActivated(Thread thread) {
     return thread != null && thread.isAlive();
   }
@@ -85,6 +85,10 @@ public class ExclusiveWriteLogNode implements WriteLogNode, Comparable<Exclusive
     currentFileWriter = new LogWriter(logDirectory + File.separator + WAL_FILE_NAME);
   }
 
+  protected ILogWriter getCurrentFileWriter() {
+    return currentFileWriter;
+  }
+
   public void setRecoverPerformer(RecoverPerformer recoverPerformer) {
     this.recoverPerformer = recoverPerformer;
   }
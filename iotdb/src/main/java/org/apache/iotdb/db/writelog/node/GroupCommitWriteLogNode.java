@@ -0,0 +1,239 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.db.writelog.node;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.zip.CRC32;
+import org.apache.iotdb.db.conf.IoTDBConfig;
+import org.apache.iotdb.db.conf.IoTDBDescriptor;
+import org.apache.iotdb.db.qp.physical.PhysicalPlan;
+import org.apache.iotdb.db.writelog.LogPosition;
+import org.apache.iotdb.db.writelog.WalFsyncPolicy;
+import org.apache.iotdb.db.writelog.transfer.PhysicalPlanLogTransfer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * A WriteLogNode which commits logs in groups. Writers encode their logs without any lock and
+ * append them to the working buffer of two buffers. A commit swaps the two buffers and writes all
+ * logs of the filled one to the log file with one write and, depending on the
+ * {@link WalFsyncPolicy}, one force, while writers keep appending to the other buffer.
+ *
+ * <p>Commits are done by the WAL sync thread every flush_wal_period_in_ms ms, by a writer whose
+ * log does not fit in the working buffer, and, with EVERY_COMMIT, by a writer waiting for its
+ * log to be on disk. In the last case the writers waiting behind a running commit are all
+ * committed by the next one.
+ *
+ * <p>If a commit fails, the logs of its buffer may not be on disk, and the file may end with a
+ * partial log. So the failure is kept: no log is committed after it, and every later write and
+ * commit throws, including those of the writers waiting for a log of the failed buffer.
+ *
+ * <p>The log file has the same format as the one of {@link ExclusiveWriteLogNode}.
+ */
+public class GroupCommitWriteLogNode extends ExclusiveWriteLogNode {
+
+  private static final Logger logger = LoggerFactory.getLogger(GroupCommitWriteLogNode.class);
+  /**
+   * size of the int log size and the long checksum before each log.
+   */
+  private static final int LOG_HEADER_SIZE = 4 + 8;
+
+  private static final ThreadLocal<ByteBuffer> encodeBuffer = new ThreadLocal<>();
+  private static final ThreadLocal<CRC32> checkSummer = ThreadLocal.withInitial(CRC32::new);
+
+  private IoTDBConfig config = IoTDBDescriptor.getInstance().getConfig();
+
+  private final WalFsyncPolicy fsyncPolicy;
+
+  /**
+   * guards workingBuffer and appendedLogNum.
+   */
+  private final Object bufferMonitor = new Object();
+  private ByteBuffer workingBuffer;
+  private ByteBuffer committingBuffer;
+  private long appendedLogNum = 0;
+
+  /**
+   * only one commit runs at a time. It also keeps a commit from running during close and delete.
+   */
+  private final ReentrantLock commitLock = new ReentrantLock();
+  private volatile long committedLogNum = 0;
+  /**
+   * the cause of the first failed commit, null if no commit has failed.
+   */
+  private volatile IOException commitFailure;
+
+  /**
+   * constructor of GroupCommitWriteLogNode.
+   *
+   * @param identifier             GroupCommitWriteLogNode identifier
+   * @param restoreFilePath        restore file path
+   * @param processorStoreFilePath processor store file path
+   */
+  public GroupCommitWriteLogNode(String identifier, String restoreFilePath,
+      String processorStoreFilePath) {
+    super(identifier, restoreFilePath, processorStoreFilePath);
+    this.fsyncPolicy = config.walFsyncPolicy;
+    int bufferSize = Math.max(config.walBufferSize, config.maxLogEntrySize + LOG_HEADER_SIZE);
+    this.workingBuffer = ByteBuffer.allocateDirect(bufferSize);
+    this.committingBuffer = ByteBuffer.allocateDirect(bufferSize);
+  }
+
+  /*
+   * Return value is of no use in this implementation.
+   */
+  @Override
+  public LogPosition write(PhysicalPlan plan) throws IOException {
+    checkCommitFailure();
+    ByteBuffer logBuffer = encodeBuffer.get();
+    if (logBuffer == null) {
+      logBuffer = ByteBuffer.allocate(config.maxLogEntrySize);
+      encodeBuffer.set(logBuffer);
+    }
+    logBuffer.clear();
+    PhysicalPlanLogTransfer.operatorToLog(plan, logBuffer);
+    logBuffer.flip();
+    int logSize = logBuffer.remaining();
+    CRC32 crc32 = checkSummer.get();
+    crc32.reset();
+    crc32.update(logBuffer);
+    logBuffer.rewind();
+
+    long logNum;
+    while (true) {
+      synchronized (bufferMonitor) {
+        if (workingBuffer.remaining() >= LOG_HEADER_SIZE + logSize) {
+          workingBuffer.putInt(logSize);
+          workingBuffer.putLong(crc32.getValue());
+          workingBuffer.put(logBuffer);
+          logNum = ++appendedLogNum;
+          break;
+        }
+      }
+      // the working buffer is full, commit it and try again
+      commit();
+    }
+
+    if (fsyncPolicy == WalFsyncPolicy.EVERY_COMMIT && committedLogNum < logNum) {
+      commitLock.lock();
+      try {
+        // a commit done while waiting for the lock may already include this log, a failed one
+        // leaves committedLogNum behind it, so the failure is thrown by commitUnderLock
+        if (committedLogNum < logNum) {
+          commitUnderLock();
+        }
+      } finally {
+        commitLock.unlock();
+      }
+    }
+    return null;
+  }
+
+  /**
+   * write the logs appended so far to the log file.
+   */
+  private void commit() throws IOException {
+    commitLock.lock();
+    try {
+      commitUnderLock();
+    } finally {
+      commitLock.unlock();
+    }
+  }
+
+  private void commitUnderLock() throws IOException {
+    checkCommitFailure();
+    ByteBuffer buffer;
+    long logNum;
+    synchronized (bufferMonitor) {
+      if (workingBuffer.position() == 0) {
+        return;
+      }
+      buffer = workingBuffer;
+      workingBuffer = committingBuffer;
+      committingBuffer = buffer;
+      logNum = appendedLogNum;
+    }
+    buffer.flip();
+    try {
+      getCurrentFileWriter().write(buffer);
+      if (fsyncPolicy == WalFsyncPolicy.EVERY_COMMIT) {
+        getCurrentFileWriter().force();
+      }
+    } catch (IOException e) {
+      commitFailure = e;
+      throw e;
+    } finally {
+      buffer.clear();
+    }
+    committedLogNum = logNum;
+  }
+
+  private void checkCommitFailure() throws IOException {
+    IOException failure = commitFailure;
+    if (failure != null) {
+      throw new IOException(
+          String.format("Log node %s failed to commit its logs", getIdentifier()), failure);
+    }
+  }
+
+  @Override
+  public void forceSync() {
+    if (commitFailure != null) {
+      // the failure was logged when it happened
+      return;
+    }
+    try {
+      commit();
+    } catch (IOException e) {
+      logger.error("Log node {} commit failed", getIdentifier(), e);
+    }
+  }
+
+  @Override
+  public void close() {
+    commitLock.lock();
+    try {
+      commitUnderLock();
+    } catch (IOException e) {
+      logger.error("Log node {} commit failed", getIdentifier(), e);
+    } finally {
+      try {
+        super.close();
+      } finally {
+        commitLock.unlock();
+      }
+    }
+  }
+
+  @Override
+  public void delete() throws IOException {
+    commitLock.lock();
+    try {
+      synchronized (bufferMonitor) {
+        workingBuffer.clear();
+      }
+      super.delete();
+    } finally {
+      commitLock.unlock();
+    }
+  }
+}
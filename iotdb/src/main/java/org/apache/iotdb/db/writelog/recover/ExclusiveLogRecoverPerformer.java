@@ -30,12 +30,15 @@ import java.io.IOException;
 import java.util.ArrayList;
 import java.util.List;
 import org.apache.commons.io.FileUtils;
+import org.apache.iotdb.db.conf.IoTDBDescriptor;
 import org.apache.iotdb.db.engine.filenode.FileNodeManager;
 import org.apache.iotdb.db.exception.FileNodeManagerException;
 import org.apache.iotdb.db.exception.ProcessorException;
 import org.apache.iotdb.db.exception.RecoverException;
 import org.apache.iotdb.db.qp.physical.PhysicalPlan;
 import org.apache.iotdb.db.writelog.RecoverStage;
+import org.apache.iotdb.db.writelog.io.ILogReader;
+import org.apache.iotdb.db.writelog.io.MmapLogReader;
 import org.apache.iotdb.db.writelog.io.RAFLogReader;
 import org.apache.iotdb.db.writelog.node.ExclusiveWriteLogNode;
 import org.apache.iotdb.db.writelog.replay.ConcreteLogReplayer;
@@ -49,8 +52,12 @@ public class ExclusiveLogRecoverPerformer implements RecoverPerformer {
   public static final String RECOVER_SUFFIX = "-recover";
   public static final String FLAG_SEPERATOR = "-";
   private static final Logger logger = LoggerFactory.getLogger(ExclusiveLogRecoverPerformer.class);
-  // The two fields can be made static only because the recovery is a serial process.
-  private static RAFLogReader rafLogReader = new RAFLogReader();
+  // the replay progress is reported to ReplayStatistics every this number of logs
+  private static final int REPORT_INTERVAL_LOG_NUM = 1024;
+  // log nodes of different storage groups may be recovered in parallel, so each performer has its
+  // own reader.
+  private ILogReader logReader = IoTDBDescriptor.getInstance().getConfig().enableMmapWalReplay
+      ? new MmapLogReader() : new RAFLogReader();
   private ExclusiveWriteLogNode writeLogNode;
   private String recoveryFlagPath;
   private String restoreFilePath;
@@ -259,27 +266,40 @@ public class ExclusiveLogRecoverPerformer implements RecoverPerformer {
     int failedCnt = 0;
     if (logFile.exists()) {
       try {
-        rafLogReader.open(logFile);
+        logReader.open(logFile);
       } catch (FileNotFoundException e) {
         logger
             .error("Log node {} cannot read old log file, because {}", writeLogNode.getIdentifier(),
                 e.getMessage());
         throw new RecoverException("Cannot read old log file, recovery aborted.");
       }
-      while (rafLogReader.hasNext()) {
-        try {
-          PhysicalPlan physicalPlan = rafLogReader.next();
-          if (physicalPlan == null) {
-            logger.error("Log node {} read a bad log", writeLogNode.getIdentifier());
-            throw new RecoverException("Cannot read old log file, recovery aborted.");
+      ReplayStatistics statistics = ReplayStatistics.getInstance();
+      long reportedPosition = 0;
+      int unreportedLogNum = 0;
+      try {
+        while (logReader.hasNext()) {
+          try {
+            PhysicalPlan physicalPlan = logReader.next();
+            if (physicalPlan == null) {
+              logger.error("Log node {} read a bad log", writeLogNode.getIdentifier());
+              throw new RecoverException("Cannot read old log file, recovery aborted.");
+            }
+            replayer.replay(physicalPlan);
+          } catch (ProcessorException e) {
+            failedCnt++;
+            logger.error("Log node {}", writeLogNode.getLogDirectory(), e);
+          }
+          if (++unreportedLogNum == REPORT_INTERVAL_LOG_NUM) {
+            long position = logReader.getPosition();
+            statistics.addReplayedLogs(unreportedLogNum, position - reportedPosition);
+            reportedPosition = position;
+            unreportedLogNum = 0;
           }
-          replayer.replay(physicalPlan);
-        } catch (ProcessorException e) {
-          failedCnt++;
-          logger.error("Log node {}", writeLogNode.getLogDirectory(), e);
         }
+        statistics.addReplayedLogs(unreportedLogNum, logReader.getPosition() - reportedPosition);
+      } finally {
+        logReader.close();
       }
-      rafLogReader.close();
     }
     return failedCnt;
   }
@@ -0,0 +1,118 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.db.writelog.recover;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Progress of the replay of write ahead logs during the recovery at startup. It is updated by the
+ * recover performers of all log nodes, which may run in parallel.
+ */
+public class ReplayStatistics {
+
+  private volatile boolean recovering = false;
+  private volatile int logNodeNum = 0;
+  private volatile long totalLogBytes = 0;
+  private volatile long startTime = 0;
+  private volatile long endTime = 0;
+  private final AtomicInteger recoveredLogNodeNum = new AtomicInteger();
+  private final AtomicLong replayedLogBytes = new AtomicLong();
+  private final AtomicLong replayedLogNum = new AtomicLong();
+
+  private ReplayStatistics() {
+  }
+
+  public static ReplayStatistics getInstance() {
+    return ReplayStatisticsHolder.INSTANCE;
+  }
+
+  /**
+   * reset the statistics when a recovery starts.
+   *
+   * @param logNodeNum number of log nodes to be recovered
+   * @param totalLogBytes total size of their log files
+   */
+  public void start(int logNodeNum, long totalLogBytes) {
+    this.logNodeNum = logNodeNum;
+    this.totalLogBytes = totalLogBytes;
+    recoveredLogNodeNum.set(0);
+    replayedLogBytes.set(0);
+    replayedLogNum.set(0);
+    startTime = System.currentTimeMillis();
+    endTime = 0;
+    recovering = true;
+  }
+
+  public void finish() {
+    endTime = System.currentTimeMillis();
+    recovering = false;
+  }
+
+  public void addReplayedLogs(long logNum, long logBytes) {
+    replayedLogNum.addAndGet(logNum);
+    replayedLogBytes.addAndGet(logBytes);
+  }
+
+  public void logNodeRecovered() {
+    recoveredLogNodeNum.incrementAndGet();
+  }
+
+  public boolean isRecovering() {
+    return recovering;
+  }
+
+  public int getLogNodeNum() {
+    return logNodeNum;
+  }
+
+  public int getRecoveredLogNodeNum() {
+    return recoveredLogNodeNum.get();
+  }
+
+  public long getTotalLogBytes() {
+    return totalLogBytes;
+  }
+
+  public long getReplayedLogBytes() {
+    return replayedLogBytes.get();
+  }
+
+  public long getReplayedLogNum() {
+    return replayedLogNum.get();
+  }
+
+  /**
+   * time spent by the running or the last recovery, in milliseconds.
+   */
+  public long getElapsedTimeInMs() {
+    if (startTime == 0) {
+      return 0;
+    }
+    return (recovering ? System.currentTimeMillis() : endTime) - startTime;
+  }
+
+  private static class ReplayStatisticsHolder {
+
+    private static final ReplayStatistics INSTANCE = new ReplayStatistics();
+
+    private ReplayStatisticsHolder() {
+    }
+  }
+}
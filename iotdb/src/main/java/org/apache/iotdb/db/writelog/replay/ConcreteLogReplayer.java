@@ -25,6 +25,7 @@ import org.apache.iotdb.db.exception.PathErrorException;
 import org.apache.iotdb.db.exception.ProcessorException;
 import org.apache.iotdb.db.metadata.MManager;
 import org.apache.iotdb.db.qp.physical.PhysicalPlan;
+import org.apache.iotdb.db.qp.physical.crud.BatchInsertPlan;
 import org.apache.iotdb.db.qp.physical.crud.DeletePlan;
 import org.apache.iotdb.db.qp.physical.crud.InsertPlan;
 import org.apache.iotdb.db.qp.physical.crud.UpdatePlan;
@@ -48,6 +49,8 @@ public class ConcreteLogReplayer implements LogReplayer {
       if (plan instanceof InsertPlan) {
         InsertPlan insertPlan = (InsertPlan) plan;
         multiInsert(insertPlan);
+      } else if (plan instanceof BatchInsertPlan) {
+        batchInsert((BatchInsertPlan) plan);
       } else if (plan instanceof UpdatePlan) {
         UpdatePlan updatePlan = (UpdatePlan) plan;
         update(updatePlan);
@@ -79,6 +82,12 @@ public class ConcreteLogReplayer implements LogReplayer {
     FileNodeManager.getInstance().insert(tsRecord, true);
   }
 
+  private void batchInsert(BatchInsertPlan batchInsertPlan) throws FileNodeManagerException {
+    for (int i = 0; i < batchInsertPlan.getRowCount(); i++) {
+      FileNodeManager.getInstance().insert(batchInsertPlan.getRecord(i), true);
+    }
+  }
+
   private void update(UpdatePlan updatePlan) throws FileNodeManagerException, PathErrorException {
     TSDataType dataType = MManager.getInstance().getSeriesType(updatePlan.getPath().getFullPath());
     for (Pair<Long, Long> timePair : updatePlan.getIntervals()) {
@@ -19,11 +19,21 @@
 package org.apache.iotdb.db.writelog.transfer;
 
 import java.io.IOException;
+import java.nio.ByteBuffer;
 import org.apache.iotdb.db.qp.physical.PhysicalPlan;
 
 interface Codec<T extends PhysicalPlan> {
 
   byte[] encode(T t);
 
+  /**
+   * encode t into the given buffer, starting from its current position.
+   *
+   * @throws java.nio.BufferOverflowException if the remaining space of the buffer is not enough
+   */
+  default void encode(T t, ByteBuffer buffer) {
+    buffer.put(encode(t));
+  }
+
   T decode(byte[] bytes) throws IOException;
 }
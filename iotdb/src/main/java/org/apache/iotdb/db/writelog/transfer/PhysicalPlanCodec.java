@@ -26,10 +26,14 @@ import java.util.HashMap;
 import java.util.List;
 import org.apache.iotdb.db.conf.IoTDBConfig;
 import org.apache.iotdb.db.conf.IoTDBDescriptor;
+import org.apache.iotdb.db.qp.physical.crud.BatchInsertPlan;
 import org.apache.iotdb.db.qp.physical.crud.DeletePlan;
 import org.apache.iotdb.db.qp.physical.crud.InsertPlan;
 import org.apache.iotdb.db.qp.physical.crud.UpdatePlan;
+import org.apache.iotdb.tsfile.exception.write.UnSupportedDataTypeException;
+import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
 import org.apache.iotdb.tsfile.read.common.Path;
+import org.apache.iotdb.tsfile.utils.Binary;
 import org.apache.iotdb.tsfile.utils.BytesUtils;
 import org.apache.iotdb.tsfile.utils.Pair;
 
@@ -38,7 +42,8 @@ public enum PhysicalPlanCodec {
   MULTIINSERTPLAN(SystemLogOperator.INSERT, CodecInstances.multiInsertPlanCodec), UPDATEPLAN(
       SystemLogOperator.UPDATE,
       CodecInstances.updatePlanCodec), DELETEPLAN(SystemLogOperator.DELETE,
-      CodecInstances.deletePlanCodec);
+      CodecInstances.deletePlanCodec), BATCHINSERTPLAN(SystemLogOperator.BATCHINSERT,
+      CodecInstances.batchInsertPlanCodec);
 
   private static final HashMap<Integer, PhysicalPlanCodec> codecMap = new HashMap<>();
   private static IoTDBConfig config = IoTDBDescriptor.getInstance().getConfig();
@@ -65,6 +70,48 @@ public enum PhysicalPlanCodec {
     return codecMap.get(opcode);
   }
 
+  /**
+   * get the number of bytes the device and the measurements of a batch take in its log entry.
+   */
+  public static int getBatchInsertHeaderSize(BatchInsertPlan plan) {
+    // type, device, number of measurements and number of rows
+    int size = 1 + 4 + BytesUtils.stringToBytes(plan.getDeviceId()).length + 4 + 4;
+    for (String measurement : plan.getMeasurements()) {
+      // name and type
+      size += 4 + BytesUtils.stringToBytes(measurement).length + 2;
+    }
+    return size;
+  }
+
+  /**
+   * get the number of bytes the time and the values of one row of a batch take in its log entry.
+   */
+  public static int getBatchInsertRowSize(BatchInsertPlan plan, int row) {
+    int size = 8;
+    TSDataType[] dataTypes = plan.getDataTypes();
+    for (int i = 0; i < dataTypes.length; i++) {
+      switch (dataTypes[i]) {
+        case BOOLEAN:
+          size += 1;
+          break;
+        case INT32:
+        case FLOAT:
+          size += 4;
+          break;
+        case INT64:
+        case DOUBLE:
+          size += 8;
+          break;
+        case TEXT:
+          size += 4 + ((Binary[]) plan.getColumns()[i])[row].getLength();
+          break;
+        default:
+          throw new UnSupportedDataTypeException("Unsupported data type:" + dataTypes[i]);
+      }
+    }
+    return size;
+  }
+
   static class CodecInstances {
 
     private CodecInstances(){}
@@ -237,5 +284,172 @@ public enum PhysicalPlanCodec {
       }
     };
 
+
+    /**
+     * values are written in their binary form according to their data types, column by column.
+     */
+    static final Codec<BatchInsertPlan> batchInsertPlanCodec = new Codec<BatchInsertPlan>() {
+      ThreadLocal<ByteBuffer> localBuffer = new ThreadLocal<>();
+
+      @Override
+      public byte[] encode(BatchInsertPlan plan) {
+        if (localBuffer.get() == null) {
+          localBuffer.set(ByteBuffer.allocate(config.maxLogEntrySize));
+        }
+        ByteBuffer buffer = localBuffer.get();
+        buffer.clear();
+        encode(plan, buffer);
+        return Arrays.copyOfRange(buffer.array(), 0, buffer.position());
+      }
+
+      @Override
+      public void encode(BatchInsertPlan plan, ByteBuffer buffer) {
+        buffer.put((byte) SystemLogOperator.BATCHINSERT);
+        putString(buffer, plan.getDeviceId());
+
+        String[] measurements = plan.getMeasurements();
+        TSDataType[] dataTypes = plan.getDataTypes();
+        buffer.putInt(measurements.length);
+        for (int i = 0; i < measurements.length; i++) {
+          putString(buffer, measurements[i]);
+          buffer.putShort(dataTypes[i].serialize());
+        }
+
+        int rowCount = plan.getRowCount();
+        buffer.putInt(rowCount);
+        long[] times = plan.getTimes();
+        for (int i = 0; i < rowCount; i++) {
+          buffer.putLong(times[i]);
+        }
+        Object[] columns = plan.getColumns();
+        for (int i = 0; i < measurements.length; i++) {
+          putColumn(buffer, dataTypes[i], columns[i], rowCount);
+        }
+      }
+
+      @Override
+      public BatchInsertPlan decode(byte[] bytes) throws IOException {
+        ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        buffer.get(); // read and skip an int representing "type"
+        String deviceId = getString(buffer);
+
+        int measurementNum = buffer.getInt();
+        String[] measurements = new String[measurementNum];
+        TSDataType[] dataTypes = new TSDataType[measurementNum];
+        for (int i = 0; i < measurementNum; i++) {
+          measurements[i] = getString(buffer);
+          dataTypes[i] = TSDataType.deserialize(buffer.getShort());
+        }
+
+        int rowCount = buffer.getInt();
+        long[] times = new long[rowCount];
+        for (int i = 0; i < rowCount; i++) {
+          times[i] = buffer.getLong();
+        }
+        Object[] columns = new Object[measurementNum];
+        for (int i = 0; i < measurementNum; i++) {
+          columns[i] = getColumn(buffer, dataTypes[i], rowCount);
+        }
+        return new BatchInsertPlan(deviceId, measurements, dataTypes, times, columns, rowCount);
+      }
+
+      private void putString(ByteBuffer buffer, String str) {
+        byte[] bytes = BytesUtils.stringToBytes(str);
+        buffer.putInt(bytes.length);
+        buffer.put(bytes);
+      }
+
+      private String getString(ByteBuffer buffer) {
+        byte[] bytes = new byte[buffer.getInt()];
+        buffer.get(bytes);
+        return BytesUtils.bytesToString(bytes);
+      }
+
+      private void putColumn(ByteBuffer buffer, TSDataType dataType, Object column,
+          int rowCount) {
+        switch (dataType) {
+          case BOOLEAN:
+            for (int i = 0; i < rowCount; i++) {
+              buffer.put((byte) (((boolean[]) column)[i] ? 1 : 0));
+            }
+            break;
+          case INT32:
+            for (int i = 0; i < rowCount; i++) {
+              buffer.putInt(((int[]) column)[i]);
+            }
+            break;
+          case INT64:
+            for (int i = 0; i < rowCount; i++) {
+              buffer.putLong(((long[]) column)[i]);
+            }
+            break;
+          case FLOAT:
+            for (int i = 0; i < rowCount; i++) {
+              buffer.putFloat(((float[]) column)[i]);
+            }
+            break;
+          case DOUBLE:
+            for (int i = 0; i < rowCount; i++) {
+              buffer.putDouble(((double[]) column)[i]);
+            }
+            break;
+          case TEXT:
+            for (int i = 0; i < rowCount; i++) {
+              byte[] bytes = ((Binary[]) column)[i].getValues();
+              buffer.putInt(bytes.length);
+              buffer.put(bytes);
+            }
+            break;
+          default:
+            throw new UnSupportedDataTypeException("Unsupported data type:" + dataType);
+        }
+      }
+
+      private Object getColumn(ByteBuffer buffer, TSDataType dataType, int rowCount) {
+        switch (dataType) {
+          case BOOLEAN:
+            boolean[] booleans = new boolean[rowCount];
+            for (int i = 0; i < rowCount; i++) {
+              booleans[i] = buffer.get() == 1;
+            }
+            return booleans;
+          case INT32:
+            int[] ints = new int[rowCount];
+            for (int i = 0; i < rowCount; i++) {
+              ints[i] = buffer.getInt();
+            }
+            return ints;
+          case INT64:
+            long[] longs = new long[rowCount];
+            for (int i = 0; i < rowCount; i++) {
+              longs[i] = buffer.getLong();
+            }
+            return longs;
+          case FLOAT:
+            float[] floats = new float[rowCount];
+            for (int i = 0; i < rowCount; i++) {
+              floats[i] = buffer.getFloat();
+            }
+            return floats;
+          case DOUBLE:
+            double[] doubles = new double[rowCount];
+            for (int i = 0; i < rowCount; i++) {
+              doubles[i] = buffer.getDouble();
+            }
+            return doubles;
+          case TEXT:
+            Binary[] binaries = new Binary[rowCount];
+            for (int i = 0; i < rowCount; i++) {
+              byte[] bytes = new byte[buffer.getInt()];
+              buffer.get(bytes);
+              binaries[i] = new Binary(bytes);
+            }
+            return binaries;
+          default:
+            throw new UnSupportedDataTypeException("Unsupported data type:" + dataType);
+        }
+      }
+    };
+
   }
 }
\ No newline at end of file
@@ -20,6 +20,7 @@ package org.apache.iotdb.db.writelog.transfer;
 
 import java.io.IOException;
 import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
 import org.apache.iotdb.db.exception.WALOverSizedException;
 import org.apache.iotdb.db.qp.physical.PhysicalPlan;
 
@@ -28,26 +29,43 @@ public class PhysicalPlanLogTransfer {
   private PhysicalPlanLogTransfer(){}
 
   public static byte[] operatorToLog(PhysicalPlan plan) throws WALOverSizedException {
-    Codec<PhysicalPlan> codec;
+    Codec<PhysicalPlan> codec = getCodec(plan);
+    try {
+      return codec.encode(plan);
+    } catch (BufferOverflowException e) {
+      throw new WALOverSizedException("Plan " + plan.toString() + " is too big to write to WAL");
+    }
+  }
+
+  /**
+   * encode the plan into the given buffer, starting from its current position, without creating
+   * an intermediate byte array.
+   */
+  public static void operatorToLog(PhysicalPlan plan, ByteBuffer buffer)
+      throws WALOverSizedException {
+    Codec<PhysicalPlan> codec = getCodec(plan);
+    try {
+      codec.encode(plan, buffer);
+    } catch (BufferOverflowException e) {
+      throw new WALOverSizedException("Plan " + plan.toString() + " is too big to write to WAL");
+    }
+  }
+
+  private static Codec<PhysicalPlan> getCodec(PhysicalPlan plan) {
     switch (plan.getOperatorType()) {
       case INSERT:
-        codec = (Codec<PhysicalPlan>) PhysicalPlanCodec.fromOpcode(SystemLogOperator.INSERT).codec;
-        break;
+        return (Codec<PhysicalPlan>) PhysicalPlanCodec.fromOpcode(SystemLogOperator.INSERT).codec;
+      case BATCHINSERT:
+        return (Codec<PhysicalPlan>) PhysicalPlanCodec.fromOpcode(SystemLogOperator.BATCHINSERT)
+            .codec;
       case UPDATE:
-        codec = (Codec<PhysicalPlan>) PhysicalPlanCodec.fromOpcode(SystemLogOperator.UPDATE).codec;
-        break;
+        return (Codec<PhysicalPlan>) PhysicalPlanCodec.fromOpcode(SystemLogOperator.UPDATE).codec;
       case DELETE:
-        codec = (Codec<PhysicalPlan>) PhysicalPlanCodec.fromOpcode(SystemLogOperator.DELETE).codec;
-        break;
+        return (Codec<PhysicalPlan>) PhysicalPlanCodec.fromOpcode(SystemLogOperator.DELETE).codec;
       default:
         throw new UnsupportedOperationException(
             "SystemLogOperator given is not supported. " + plan.getOperatorType());
     }
-    try {
-      return codec.encode(plan);
-    } catch (BufferOverflowException e) {
-      throw new WALOverSizedException("Plan " + plan.toString() + " is too big to write to WAL");
-    }
   }
 
   public static PhysicalPlan logToOperator(byte[] opInBytes) throws IOException {
@@ -21,13 +21,17 @@ package org.apache.iotdb.db.auth;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.fail;
 
+import java.util.Collections;
 import java.util.List;
 import java.util.Set;
 import org.apache.iotdb.db.auth.authorizer.IAuthorizer;
 import org.apache.iotdb.db.auth.authorizer.LocalFileAuthorizer;
+import org.apache.iotdb.db.auth.entity.PrivilegeType;
 import org.apache.iotdb.db.auth.entity.User;
 import org.apache.iotdb.db.conf.IoTDBConstant;
+import org.apache.iotdb.db.qp.logical.Operator.OperatorType;
 import org.apache.iotdb.db.utils.EnvironmentUtils;
+import org.apache.iotdb.tsfile.read.common.Path;
 import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
@@ -289,6 +293,36 @@ public class LocalFileAuthorizerTest {
     }
   }
 
+  @Test
+  public void testPrivilegeChange() throws AuthException {
+    IAuthorizer authorizer = LocalFileAuthorizer.getInstance();
+    PrivilegeDecisionCache cache = new PrivilegeDecisionCache();
+    int read = PrivilegeType.READ_TIMESERIES.ordinal();
+    List<Path> paths = Collections.singletonList(new Path("root.a.b.s1"));
+    authorizer.createUser("user", "password");
+    authorizer.createRole("role");
+    assertEquals(false, AuthorityChecker.check("user", paths, OperatorType.QUERY, null, cache));
+
+    authorizer.grantPrivilegeToUser("user", "root.a", read);
+    assertEquals(true, AuthorityChecker.check("user", paths, OperatorType.QUERY, null, cache));
+    assertEquals(false, AuthorityChecker.check("user", paths, OperatorType.INSERT, null, cache));
+    authorizer.revokePrivilegeFromUser("user", "root.a", read);
+    assertEquals(false, AuthorityChecker.check("user", paths, OperatorType.QUERY, null, cache));
+
+    authorizer.grantRoleToUser("role", "user");
+    authorizer.grantPrivilegeToRole("role", "root.a.b", read);
+    assertEquals(true, AuthorityChecker.check("user", paths, OperatorType.QUERY, null, cache));
+    authorizer.revokePrivilegeFromRole("role", "root.a.b", read);
+    assertEquals(false, AuthorityChecker.check("user", paths, OperatorType.QUERY, null, cache));
+    authorizer.grantPrivilegeToRole("role", "root.a.b", read);
+    authorizer.revokeRoleFromUser("role", "user");
+    assertEquals(false, AuthorityChecker.check("user", paths, OperatorType.QUERY, null, cache));
+
+    authorizer.deleteUser("user");
+    authorizer.deleteRole("role");
+    assertEquals(false, AuthorityChecker.check("user", paths, OperatorType.QUERY, null, cache));
+  }
+
   @Test
   public void testListUser() throws AuthException {
     IAuthorizer authorizer = LocalFileAuthorizer.getInstance();
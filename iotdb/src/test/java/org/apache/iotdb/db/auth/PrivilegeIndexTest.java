@@ -0,0 +1,105 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.db.auth;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import org.apache.iotdb.db.auth.authorizer.PrivilegeIndex;
+import org.apache.iotdb.db.auth.entity.PrivilegeType;
+import org.apache.iotdb.db.auth.entity.Role;
+import org.apache.iotdb.db.auth.entity.User;
+import org.junit.Test;
+
+public class PrivilegeIndexTest {
+
+  private static final int READ = PrivilegeType.READ_TIMESERIES.ordinal();
+  private static final int INSERT = PrivilegeType.INSERT_TIMESERIES.ordinal();
+
+  @Test
+  public void testPathPrefix() {
+    User user = new User("user", "password");
+    user.addPrivilege("root.a.b", READ);
+    user.addPrivilege("root.c", PrivilegeType.ALL.ordinal());
+    PrivilegeIndex index = new PrivilegeIndex(user, Collections.emptyList(), 0);
+
+    assertTrue(index.checkPrivilege("root.a.b", READ));
+    assertTrue(index.checkPrivilege("root.a.b.s1", READ));
+    assertFalse(index.checkPrivilege("root.a.bc", READ));
+    assertFalse(index.checkPrivilege("root.a", READ));
+    assertFalse(index.checkPrivilege("root", READ));
+    assertFalse(index.checkPrivilege("root.a.b.s1", INSERT));
+    assertTrue(index.checkPrivilege("root.c.d", INSERT));
+    assertFalse(index.checkPrivilege(null, READ));
+    assertFalse(index.checkPrivilege("root.c", -1));
+  }
+
+  @Test
+  public void testRoles() {
+    User user = new User("user", "password");
+    user.addPrivilege("root.a", READ);
+    Role role1 = new Role("role1");
+    role1.addPrivilege("root.a", INSERT);
+    Role role2 = new Role("role2");
+    role2.addPrivilege("root", PrivilegeType.CREATE_USER.ordinal());
+    PrivilegeIndex index = new PrivilegeIndex(user, Arrays.asList(role1, role2), 0);
+
+    assertTrue(index.checkPrivilege("root.a.s1", READ));
+    assertTrue(index.checkPrivilege("root.a.s1", INSERT));
+    assertFalse(index.checkPrivilege("root.b.s1", INSERT));
+    assertTrue(index.checkPrivilege("root", PrivilegeType.CREATE_USER.ordinal()));
+  }
+
+  @Test
+  public void testSameAsPrivilegeList() {
+    Random random = new Random(0);
+    String[] nodes = {"root", "a", "b", "ab", "s1"};
+    List<String> paths = new ArrayList<>();
+    for (int i = 0; i < 200; i++) {
+      StringBuilder path = new StringBuilder("root");
+      int depth = random.nextInt(4);
+      for (int j = 0; j < depth; j++) {
+        path.append('.').append(nodes[random.nextInt(nodes.length)]);
+      }
+      paths.add(path.toString());
+    }
+    for (int round = 0; round < 20; round++) {
+      User user = new User("user", "password");
+      Role role = new Role("role");
+      for (int i = 0; i < 5; i++) {
+        user.addPrivilege(paths.get(random.nextInt(paths.size())), random.nextInt(4));
+        role.addPrivilege(paths.get(random.nextInt(paths.size())), random.nextInt(4));
+      }
+      PrivilegeIndex index = new PrivilegeIndex(user, Collections.singletonList(role), round);
+      for (String path : paths) {
+        for (int privilegeId = 0; privilegeId < 4; privilegeId++) {
+          assertEquals(path + " " + privilegeId,
+              user.checkPrivilege(path, privilegeId) || role.checkPrivilege(path, privilegeId),
+              index.checkPrivilege(path, privilegeId));
+        }
+      }
+    }
+  }
+}
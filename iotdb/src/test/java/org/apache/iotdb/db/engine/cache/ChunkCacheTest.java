@@ -0,0 +1,180 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.db.engine.cache;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import org.apache.iotdb.db.monitor.MonitorConstants.ChunkCacheStatConstants;
+import org.apache.iotdb.tsfile.file.metadata.ChunkMetaData;
+import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
+import org.apache.iotdb.tsfile.file.metadata.enums.TSEncoding;
+import org.apache.iotdb.tsfile.read.TsFileSequenceReader;
+import org.apache.iotdb.tsfile.read.common.Chunk;
+import org.apache.iotdb.tsfile.read.common.Path;
+import org.apache.iotdb.tsfile.read.controller.MetadataQuerierByFileImpl;
+import org.apache.iotdb.tsfile.write.TsFileWriter;
+import org.apache.iotdb.tsfile.write.record.TSRecord;
+import org.apache.iotdb.tsfile.write.record.datapoint.IntDataPoint;
+import org.apache.iotdb.tsfile.write.schema.MeasurementSchema;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+public class ChunkCacheTest {
+
+  private static final String FILE_PATH = "target" + File.separator + "chunkCacheTest.tsfile";
+  private static final int DEVICE_NUM = 4;
+  private static final int POINT_NUM = 100;
+
+  private TsFileSequenceReader reader;
+  private List<ChunkMetaData> chunkMetaDataList = new ArrayList<>();
+  private long maxChunkSize;
+
+  @Before
+  public void setUp() throws Exception {
+    TsFileWriter writer = new TsFileWriter(new File(FILE_PATH));
+    writer.addMeasurement(new MeasurementSchema("s0", TSDataType.INT32, TSEncoding.RLE));
+    for (int i = 0; i < DEVICE_NUM; i++) {
+      for (int time = 0; time < POINT_NUM; time++) {
+        TSRecord record = new TSRecord(time, "root.vehicle.d" + i);
+        record.addTuple(new IntDataPoint("s0", time));
+        writer.write(record);
+      }
+    }
+    writer.close();
+
+    // one chunk for each device
+    reader = new TsFileSequenceReader(FILE_PATH);
+    MetadataQuerierByFileImpl metadataQuerier = new MetadataQuerierByFileImpl(reader);
+    for (int i = 0; i < DEVICE_NUM; i++) {
+      chunkMetaDataList
+          .addAll(metadataQuerier.getChunkMetaDataList(new Path("root.vehicle.d" + i + ".s0")));
+    }
+    Assert.assertEquals(DEVICE_NUM, chunkMetaDataList.size());
+    for (ChunkMetaData metaData : chunkMetaDataList) {
+      Chunk chunk = reader.readMemChunk(metaData);
+      maxChunkSize = Math.max(maxChunkSize,
+          chunk.getHeader().getSerializedSize() + chunk.getData().capacity());
+    }
+  }
+
+  @After
+  public void tearDown() throws IOException {
+    reader.close();
+    new File(FILE_PATH).delete();
+  }
+
+  @Test
+  public void testHit() throws IOException {
+    ChunkCache cache = new ChunkCache(DEVICE_NUM * maxChunkSize);
+    Chunk chunk = cache.get(FILE_PATH, chunkMetaDataList.get(0), reader);
+    int dataSize = chunk.getData().remaining();
+    // consuming the returned chunk does not affect the cached one
+    chunk.getData().position(chunk.getData().limit());
+
+    chunk = cache.get(FILE_PATH, chunkMetaDataList.get(0), reader);
+    Assert.assertEquals(dataSize, chunk.getData().remaining());
+    Assert.assertEquals(1, getStat(cache, ChunkCacheStatConstants.HIT_NUM));
+    Assert.assertEquals(1, getStat(cache, ChunkCacheStatConstants.MISS_NUM));
+
+    // chunks of different files are different even if their offsets are the same
+    cache.get(FILE_PATH + "_copy", chunkMetaDataList.get(0), reader);
+    Assert.assertEquals(2, getStat(cache, ChunkCacheStatConstants.MISS_NUM));
+  }
+
+  @Test
+  public void testEviction() throws IOException {
+    ChunkCache cache = new ChunkCache((DEVICE_NUM - 1) * maxChunkSize);
+    // the first chunk is read twice so that it is protected
+    cache.get(FILE_PATH, chunkMetaDataList.get(0), reader);
+    cache.get(FILE_PATH, chunkMetaDataList.get(0), reader);
+    // a scan of the other chunks only evicts the chunks read once
+    for (int i = 1; i < DEVICE_NUM; i++) {
+      cache.get(FILE_PATH, chunkMetaDataList.get(i), reader);
+    }
+    Assert.assertEquals(1, getStat(cache, ChunkCacheStatConstants.EVICTION_NUM));
+    Assert.assertTrue(cache.getUsedSize() <= (DEVICE_NUM - 1) * maxChunkSize);
+
+    cache.get(FILE_PATH, chunkMetaDataList.get(0), reader);
+    Assert.assertEquals(2, getStat(cache, ChunkCacheStatConstants.HIT_NUM));
+    cache.get(FILE_PATH, chunkMetaDataList.get(1), reader);
+    Assert.assertEquals(DEVICE_NUM + 1, getStat(cache, ChunkCacheStatConstants.MISS_NUM));
+
+    // a chunk larger than the budget is never cached
+    cache = new ChunkCache(maxChunkSize / 2);
+    cache.get(FILE_PATH, chunkMetaDataList.get(0), reader);
+    Assert.assertEquals(0, cache.getUsedSize());
+  }
+
+  @Test
+  public void testRemove() throws IOException {
+    ChunkCache cache = new ChunkCache(DEVICE_NUM * maxChunkSize);
+    for (ChunkMetaData metaData : chunkMetaDataList) {
+      cache.get(FILE_PATH, metaData, reader);
+    }
+    cache.get(FILE_PATH, chunkMetaDataList.get(0), reader);
+    cache.remove(FILE_PATH);
+    Assert.assertEquals(0, cache.getUsedSize());
+
+    cache.get(FILE_PATH, chunkMetaDataList.get(0), reader);
+    Assert.assertEquals(DEVICE_NUM + 1, getStat(cache, ChunkCacheStatConstants.MISS_NUM));
+  }
+
+  @Test
+  public void testConcurrentGet() throws Exception {
+    ChunkCache cache = new ChunkCache((DEVICE_NUM - 1) * maxChunkSize);
+    int expectedSize = reader.readMemChunk(chunkMetaDataList.get(0)).getData().remaining();
+    int threadNum = 4;
+    int roundNum = 50;
+    ExecutorService pool = Executors.newFixedThreadPool(threadNum);
+    try {
+      List<Future<?>> futures = new ArrayList<>();
+      for (int i = 0; i < threadNum; i++) {
+        int offset = i;
+        futures.add(pool.submit(() -> {
+          for (int round = 0; round < roundNum; round++) {
+            ChunkMetaData metaData = chunkMetaDataList.get((round + offset) % DEVICE_NUM);
+            Chunk chunk = cache.get(FILE_PATH, metaData, reader);
+            Assert.assertEquals(expectedSize, chunk.getData().remaining());
+            chunk.getData().position(chunk.getData().limit());
+          }
+          return null;
+        }));
+      }
+      for (Future<?> future : futures) {
+        future.get();
+      }
+    } finally {
+      pool.shutdown();
+    }
+    Assert.assertEquals(threadNum * roundNum, getStat(cache, ChunkCacheStatConstants.HIT_NUM)
+        + getStat(cache, ChunkCacheStatConstants.MISS_NUM));
+    Assert.assertTrue(cache.getUsedSize() <= (DEVICE_NUM - 1) * maxChunkSize);
+  }
+
+  private static long getStat(ChunkCache cache, ChunkCacheStatConstants statConstant) {
+    return cache.getStatParamsHashMap().get(statConstant.name()).get();
+  }
+}
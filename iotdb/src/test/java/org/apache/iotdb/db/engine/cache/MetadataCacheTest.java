@@ -0,0 +1,170 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.db.engine.cache;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import org.apache.iotdb.db.monitor.MonitorConstants.MetadataCacheStatConstants;
+import org.apache.iotdb.tsfile.file.metadata.ChunkMetaData;
+import org.apache.iotdb.tsfile.file.metadata.TsFileMetaData;
+import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
+import org.apache.iotdb.tsfile.file.metadata.enums.TSEncoding;
+import org.apache.iotdb.tsfile.read.TsFileSequenceReader;
+import org.apache.iotdb.tsfile.read.common.Path;
+import org.apache.iotdb.tsfile.read.controller.MetadataQuerierByFileImpl;
+import org.apache.iotdb.tsfile.write.TsFileWriter;
+import org.apache.iotdb.tsfile.write.record.TSRecord;
+import org.apache.iotdb.tsfile.write.record.datapoint.IntDataPoint;
+import org.apache.iotdb.tsfile.write.schema.MeasurementSchema;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+public class MetadataCacheTest {
+
+  private static final String FILE_PATH = "target" + File.separator + "metadataCacheTest.tsfile";
+  private static final int DEVICE_NUM = 4;
+  private static final long LARGE_CAPACITY = 1024 * 1024L;
+
+  private TsFileSequenceReader reader;
+
+  @Before
+  public void setUp() throws Exception {
+    TsFileWriter writer = new TsFileWriter(new File(FILE_PATH));
+    writer.addMeasurement(new MeasurementSchema("s0", TSDataType.INT32, TSEncoding.RLE));
+    writer.addMeasurement(new MeasurementSchema("s1", TSDataType.INT32, TSEncoding.RLE));
+    for (int i = 0; i < DEVICE_NUM; i++) {
+      for (int time = 0; time < 100; time++) {
+        TSRecord record = new TSRecord(time, "root.vehicle.d" + i);
+        record.addTuple(new IntDataPoint("s0", time));
+        record.addTuple(new IntDataPoint("s1", -time));
+        writer.write(record);
+      }
+    }
+    writer.close();
+    reader = new TsFileSequenceReader(FILE_PATH);
+  }
+
+  @After
+  public void tearDown() throws IOException {
+    reader.close();
+    new File(FILE_PATH).delete();
+  }
+
+  @Test
+  public void testGet() throws IOException {
+    MetadataCache cache = new MetadataCache(LARGE_CAPACITY);
+    MetadataQuerierByFileImpl metadataQuerier = new MetadataQuerierByFileImpl(reader);
+    for (int i = 0; i < DEVICE_NUM; i++) {
+      Path path = new Path("root.vehicle.d" + i + ".s1");
+      List<ChunkMetaData> expected = metadataQuerier.getChunkMetaDataList(path);
+      List<ChunkMetaData> actual = cache.getChunkMetaDataList(reader, path);
+      Assert.assertEquals(expected.size(), actual.size());
+      for (int j = 0; j < expected.size(); j++) {
+        Assert.assertEquals(expected.get(j).getOffsetOfChunkHeader(),
+            actual.get(j).getOffsetOfChunkHeader());
+        Assert.assertEquals("s1", actual.get(j).getMeasurementUid());
+      }
+    }
+    // the file metadata is loaded once, each device metadata is loaded once
+    Assert.assertEquals(1 + DEVICE_NUM, getStat(cache, MetadataCacheStatConstants.MISS_NUM));
+    Assert.assertEquals(DEVICE_NUM - 1, getStat(cache, MetadataCacheStatConstants.HIT_NUM));
+
+    cache.getChunkMetaDataList(reader, new Path("root.vehicle.d0.s0"));
+    Assert.assertEquals(DEVICE_NUM + 1, getStat(cache, MetadataCacheStatConstants.HIT_NUM));
+    Assert.assertEquals(50, getStat(cache, MetadataCacheStatConstants.HIT_RATIO_IN_PERCENT));
+
+    // a device which is not in the file
+    Assert.assertTrue(cache.getChunkMetaDataList(reader, new Path("root.vehicle.d9.s0"))
+        .isEmpty());
+    Assert.assertNull(cache.getDeviceMetaData(reader, "root.vehicle.d9"));
+  }
+
+  @Test
+  public void testEviction() throws IOException {
+    MetadataCache cache = new MetadataCache(LARGE_CAPACITY);
+    cache.getFileMetaData(reader);
+    long fileMetaDataSize = cache.getUsedSize();
+    cache.getDeviceMetaData(reader, "root.vehicle.d0");
+    long deviceMetaDataSize = cache.getUsedSize() - fileMetaDataSize;
+
+    // room for the file metadata and two device metadata
+    long capacity = fileMetaDataSize + 2 * deviceMetaDataSize + deviceMetaDataSize / 2;
+    cache = new MetadataCache(capacity);
+    for (int i = 0; i < DEVICE_NUM; i++) {
+      cache.getDeviceMetaData(reader, "root.vehicle.d" + i);
+      Assert.assertTrue(cache.getUsedSize() <= capacity);
+    }
+    Assert.assertTrue(getStat(cache, MetadataCacheStatConstants.EVICTION_NUM) > 0);
+
+    // the file metadata is read by every device lookup, so it is never the least recently used
+    long missNum = getStat(cache, MetadataCacheStatConstants.MISS_NUM);
+    cache.getFileMetaData(reader);
+    Assert.assertEquals(missNum, getStat(cache, MetadataCacheStatConstants.MISS_NUM));
+
+    // metadata larger than the budget is never cached
+    cache = new MetadataCache(fileMetaDataSize / 2);
+    Assert.assertNotNull(cache.getFileMetaData(reader));
+    Assert.assertEquals(0, cache.getUsedSize());
+  }
+
+  @Test
+  public void testRemove() throws IOException {
+    MetadataCache cache = new MetadataCache(LARGE_CAPACITY);
+    cache.getChunkMetaDataList(reader, new Path("root.vehicle.d0.s0"));
+    Assert.assertTrue(cache.getUsedSize() > 0);
+    cache.remove(FILE_PATH);
+    Assert.assertEquals(0, cache.getUsedSize());
+
+    cache.getFileMetaData(reader);
+    Assert.assertEquals(3, getStat(cache, MetadataCacheStatConstants.MISS_NUM));
+  }
+
+  @Test
+  public void testConcurrentLoad() throws Exception {
+    MetadataCache cache = new MetadataCache(LARGE_CAPACITY);
+    int threadNum = 8;
+    ExecutorService pool = Executors.newFixedThreadPool(threadNum);
+    try {
+      List<Future<TsFileMetaData>> futures = new ArrayList<>();
+      for (int i = 0; i < threadNum; i++) {
+        futures.add(pool.submit(() -> cache.getFileMetaData(reader)));
+      }
+      TsFileMetaData fileMetaData = futures.get(0).get();
+      for (Future<TsFileMetaData> future : futures) {
+        Assert.assertSame(fileMetaData, future.get());
+      }
+    } finally {
+      pool.shutdown();
+    }
+    // only one of the threads reads the file
+    Assert.assertEquals(1, getStat(cache, MetadataCacheStatConstants.MISS_NUM));
+    Assert.assertEquals(threadNum - 1, getStat(cache, MetadataCacheStatConstants.HIT_NUM));
+  }
+
+  private static long getStat(MetadataCache cache, MetadataCacheStatConstants statConstant) {
+    return cache.getStatParamsHashMap().get(statConstant.name()).get();
+  }
+}
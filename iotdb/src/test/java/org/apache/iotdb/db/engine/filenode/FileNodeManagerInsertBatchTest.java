@@ -0,0 +1,217 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.db.engine.filenode;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import org.apache.iotdb.db.conf.IoTDBConfig;
+import org.apache.iotdb.db.conf.IoTDBConstant;
+import org.apache.iotdb.db.conf.IoTDBDescriptor;
+import org.apache.iotdb.db.exception.FileNodeManagerException;
+import org.apache.iotdb.db.metadata.MManager;
+import org.apache.iotdb.db.qp.physical.PhysicalPlan;
+import org.apache.iotdb.db.qp.physical.crud.BatchInsertPlan;
+import org.apache.iotdb.db.query.control.QueryTokenManager;
+import org.apache.iotdb.db.query.executor.EngineQueryRouter;
+import org.apache.iotdb.db.utils.EnvironmentUtils;
+import org.apache.iotdb.db.writelog.io.RAFLogReader;
+import org.apache.iotdb.db.writelog.manager.MultiFileLogNodeManager;
+import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
+import org.apache.iotdb.tsfile.read.common.Field;
+import org.apache.iotdb.tsfile.read.common.Path;
+import org.apache.iotdb.tsfile.read.common.RowRecord;
+import org.apache.iotdb.tsfile.read.expression.QueryExpression;
+import org.apache.iotdb.tsfile.read.query.dataset.QueryDataSet;
+import org.apache.iotdb.tsfile.utils.Binary;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class FileNodeManagerInsertBatchTest {
+
+  private static final String STORAGE_GROUP = "root.vehicle";
+  private static final String DEVICE = "root.vehicle.d0";
+  private static final String[] MEASUREMENTS = {"s0", "s1", "s2", "s3", "s4", "s5"};
+  private static final TSDataType[] DATA_TYPES = {TSDataType.INT32, TSDataType.INT64,
+      TSDataType.FLOAT, TSDataType.DOUBLE, TSDataType.BOOLEAN, TSDataType.TEXT};
+
+  private IoTDBConfig config = IoTDBDescriptor.getInstance().getConfig();
+  private boolean enableWal;
+
+  @Before
+  public void setUp() throws Exception {
+    enableWal = config.enableWal;
+    config.enableWal = true;
+    EnvironmentUtils.closeMemControl();
+    EnvironmentUtils.envSetUp();
+    MManager mManager = MManager.getInstance();
+    mManager.setStorageLevelToMTree(STORAGE_GROUP);
+    for (int i = 0; i < MEASUREMENTS.length; i++) {
+      mManager.addPathToMTree(DEVICE + "." + MEASUREMENTS[i], DATA_TYPES[i].toString(),
+          DATA_TYPES[i] == TSDataType.TEXT ? "PLAIN" : "RLE", new String[0]);
+    }
+  }
+
+  @After
+  public void tearDown() throws Exception {
+    EnvironmentUtils.cleanEnv();
+    config.enableWal = enableWal;
+  }
+
+  /**
+   * build a batch whose values are derived from the times, see checkRow.
+   */
+  private BatchInsertPlan createPlan(long... times) {
+    int rowCount = times.length;
+    int[] ints = new int[rowCount];
+    long[] longs = new long[rowCount];
+    float[] floats = new float[rowCount];
+    double[] doubles = new double[rowCount];
+    boolean[] booleans = new boolean[rowCount];
+    Binary[] binaries = new Binary[rowCount];
+    for (int i = 0; i < rowCount; i++) {
+      ints[i] = (int) times[i];
+      longs[i] = times[i] * 10;
+      floats[i] = times[i] + 0.5f;
+      doubles[i] = times[i] + 0.25;
+      booleans[i] = times[i] % 2 == 0;
+      binaries[i] = Binary.valueOf("v" + times[i]);
+    }
+    return new BatchInsertPlan(DEVICE, MEASUREMENTS, DATA_TYPES, times,
+        new Object[]{ints, longs, floats, doubles, booleans, binaries}, rowCount);
+  }
+
+  private void checkRow(RowRecord record) {
+    long time = record.getTimestamp();
+    List<Field> fields = record.getFields();
+    assertEquals((int) time, fields.get(0).getIntV());
+    assertEquals(time * 10, fields.get(1).getLongV());
+    assertEquals(time + 0.5f, fields.get(2).getFloatV(), 0);
+    assertEquals(time + 0.25, fields.get(3).getDoubleV(), 0);
+    assertEquals(time % 2 == 0, fields.get(4).getBoolV());
+    assertEquals("v" + time, fields.get(5).getBinaryV().getStringValue());
+  }
+
+  private List<Long> queryAndCheck() throws IOException, FileNodeManagerException {
+    QueryExpression queryExpression = QueryExpression.create();
+    for (String measurement : MEASUREMENTS) {
+      queryExpression.addSelectedPath(new Path(DEVICE + "." + measurement));
+    }
+    QueryDataSet dataSet = new EngineQueryRouter().query(queryExpression);
+    List<Long> times = new ArrayList<>();
+    while (dataSet.hasNext()) {
+      RowRecord record = dataSet.next();
+      checkRow(record);
+      times.add(record.getTimestamp());
+    }
+    QueryTokenManager.getInstance().endQueryForCurrentRequestThread();
+    return times;
+  }
+
+  private List<BatchInsertPlan> readLogs(String logNodeSuffix) throws IOException {
+    String identifier = STORAGE_GROUP + logNodeSuffix;
+    MultiFileLogNodeManager.getInstance().getNode(identifier, null, null).forceSync();
+    File walFile = new File(config.walFolder + File.separator + identifier + File.separator
+        + "wal");
+    List<BatchInsertPlan> plans = new ArrayList<>();
+    RAFLogReader reader = new RAFLogReader(walFile);
+    try {
+      while (reader.hasNext()) {
+        PhysicalPlan plan = reader.next();
+        plans.add((BatchInsertPlan) plan);
+      }
+    } finally {
+      reader.close();
+    }
+    return plans;
+  }
+
+  @Test
+  public void testInsertBatch() throws IOException, FileNodeManagerException {
+    long[] times = new long[100];
+    for (int i = 0; i < times.length; i++) {
+      times[i] = i + 1L;
+    }
+    assertEquals(100, FileNodeManager.getInstance().insertBatch(createPlan(times)));
+
+    List<Long> queried = queryAndCheck();
+    assertEquals(100, queried.size());
+    assertEquals(1L, (long) queried.get(0));
+    assertEquals(100L, (long) queried.get(99));
+
+    // the whole batch is logged as one entry
+    List<BatchInsertPlan> logs = readLogs(IoTDBConstant.BUFFERWRITE_LOG_NODE_SUFFIX);
+    assertEquals(1, logs.size());
+    assertEquals(100, logs.get(0).getRowCount());
+    assertEquals(createPlan(times).getRecord(50).toString(), logs.get(0).getRecord(50).toString());
+  }
+
+  @Test
+  public void testInsertBatchWithOverflow() throws IOException, FileNodeManagerException {
+    long[] times = new long[100];
+    for (int i = 0; i < times.length; i++) {
+      times[i] = i + 100L;
+    }
+    FileNodeManager.getInstance().insertBatch(createPlan(times));
+    FileNodeManager.getInstance().closeOneFileNode(STORAGE_GROUP);
+
+    // two runs of out of order rows around a row going to a new bufferwrite file
+    assertEquals(4, FileNodeManager.getInstance().insertBatch(createPlan(50, 60, 300, 70)));
+
+    List<Long> queried = queryAndCheck();
+    assertEquals(104, queried.size());
+    assertTrue(queried.contains(50L));
+    assertTrue(queried.contains(60L));
+    assertTrue(queried.contains(70L));
+    assertTrue(queried.contains(300L));
+    assertFalse(queried.contains(80L));
+
+    // every run is logged as one entry
+    List<BatchInsertPlan> overflowLogs = readLogs(IoTDBConstant.OVERFLOW_LOG_NODE_SUFFIX);
+    assertEquals(2, overflowLogs.size());
+    assertEquals(2, overflowLogs.get(0).getRowCount());
+    assertEquals(60L, overflowLogs.get(0).getTimes()[1]);
+    assertEquals(1, overflowLogs.get(1).getRowCount());
+    assertEquals(70L, overflowLogs.get(1).getTimes()[0]);
+    List<BatchInsertPlan> bufferwriteLogs = readLogs(IoTDBConstant.BUFFERWRITE_LOG_NODE_SUFFIX);
+    assertEquals(1, bufferwriteLogs.size());
+    assertEquals(300L, bufferwriteLogs.get(0).getTimes()[0]);
+  }
+
+  @Test
+  public void testSplitLargeLog() throws IOException, FileNodeManagerException {
+    // a row takes 40 bytes in the log, so the batch does not fit in one entry
+    long[] times = new long[config.maxLogEntrySize / 40 + 1000];
+    for (int i = 0; i < times.length; i++) {
+      times[i] = i + 1L;
+    }
+    FileNodeManager.getInstance().insertBatch(createPlan(times));
+
+    List<BatchInsertPlan> logs = readLogs(IoTDBConstant.BUFFERWRITE_LOG_NODE_SUFFIX);
+    assertEquals(2, logs.size());
+    assertEquals(times.length, logs.get(0).getRowCount() + logs.get(1).getRowCount());
+    assertEquals(times[logs.get(0).getRowCount()], logs.get(1).getTimes()[0]);
+  }
+}
@@ -18,10 +18,14 @@
  */
 package org.apache.iotdb.db.engine.memtable;
 
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
 import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
+import org.apache.iotdb.tsfile.write.record.datapoint.LongDataPoint;
 
 /**
- * Memtable insert benchmark. Bench the Memtable and get its performance.
+ * Memtable insert benchmark. Bench the Memtable and get its performance, including the throughput
+ * in points per second and the bytes allocated per inserted point.
  */
 public class MemtableBenchmark {
 
@@ -39,7 +43,13 @@ public class MemtableBenchmark {
   }
 
   public static void main(String[] args) {
+    benchStringWrite();
+    benchTypedWrite();
+  }
+
+  private static void benchStringWrite() {
     IMemTable memTable = new PrimitiveMemTable();
+    final long startAllocated = getAllocatedBytes();
     final long startTime = System.currentTimeMillis();
     // cpu not locality
     for (int i = 0; i < numOfPoint; i++) {
@@ -48,11 +58,49 @@ public class MemtableBenchmark {
             String.valueOf(System.currentTimeMillis()));
       }
     }
+    final long endTime = System.currentTimeMillis();
+    report("string write", endTime - startTime, getAllocatedBytes() - startAllocated);
+  }
 
+  private static void benchTypedWrite() {
+    IMemTable memTable = new PrimitiveMemTable();
+    LongDataPoint[] dataPoints = new LongDataPoint[numOfMeasurement];
+    for (int j = 0; j < numOfMeasurement; j++) {
+      dataPoints[j] = new LongDataPoint(measurementId[j], 0);
+    }
+    final long startAllocated = getAllocatedBytes();
+    final long startTime = System.currentTimeMillis();
+    // cpu not locality
+    for (int i = 0; i < numOfPoint; i++) {
+      for (int j = 0; j < numOfMeasurement; j++) {
+        dataPoints[j].setLong(System.currentTimeMillis());
+        memTable.write(deviceId, System.nanoTime(), dataPoints[j]);
+      }
+    }
     final long endTime = System.currentTimeMillis();
+    report("typed write", endTime - startTime, getAllocatedBytes() - startAllocated);
+  }
+
+  private static void report(String name, long timeCost, long allocatedBytes) {
+    long totalPoints = (long) numOfMeasurement * numOfPoint;
     System.out.println(String.format(
-        "Num of time series: %d, " + "Num of points for each time series: %d, "
-            + "The total time: %d ms. ",
-        numOfMeasurement, numOfPoint, endTime - startTime));
+        "%s: Num of time series: %d, " + "Num of points for each time series: %d, "
+            + "The total time: %d ms, %.0f points/s, %s bytes allocated per point. ",
+        name, numOfMeasurement, numOfPoint, timeCost,
+        totalPoints * 1000.0 / Math.max(timeCost, 1),
+        allocatedBytes < 0 ? "unknown"
+            : String.format("%.2f", (double) allocatedBytes / totalPoints)));
+  }
+
+  /**
+   * @return bytes allocated by current thread so far, or -1 if the JVM does not support it.
+   */
+  private static long getAllocatedBytes() {
+    ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+    if (bean instanceof com.sun.management.ThreadMXBean) {
+      return ((com.sun.management.ThreadMXBean) bean)
+          .getThreadAllocatedBytes(Thread.currentThread().getId());
+    }
+    return -1;
   }
 }
@@ -26,6 +26,9 @@ import org.apache.iotdb.db.utils.TsPrimitiveType;
 import org.apache.iotdb.tsfile.exception.write.UnSupportedDataTypeException;
 import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
 import org.apache.iotdb.tsfile.utils.Binary;
+import org.apache.iotdb.tsfile.write.record.datapoint.DoubleDataPoint;
+import org.apache.iotdb.tsfile.write.record.datapoint.LongDataPoint;
+import org.apache.iotdb.tsfile.write.record.datapoint.StringDataPoint;
 import org.junit.Assert;
 import org.junit.Test;
 
@@ -75,6 +78,30 @@ public class PrimitiveMemTableTest {
     }
   }
 
+  @Test
+  public void typedWriteTest() {
+    IMemTable memTable = new PrimitiveMemTable();
+    String deviceId = "d1";
+    int dataSize = 1000;
+    for (int i = 0; i < dataSize; i++) {
+      memTable.write(deviceId, i, new LongDataPoint("s0", i * 10L));
+      memTable.write(deviceId, i, new DoubleDataPoint("s1", i + 0.5));
+      memTable.write(deviceId, i, new StringDataPoint("s2", new Binary(String.valueOf(i))));
+    }
+    Iterator<TimeValuePair> longIt = memTable.query(deviceId, "s0", TSDataType.INT64)
+        .getSortedTimeValuePairList().iterator();
+    Iterator<TimeValuePair> doubleIt = memTable.query(deviceId, "s1", TSDataType.DOUBLE)
+        .getSortedTimeValuePairList().iterator();
+    Iterator<TimeValuePair> textIt = memTable.query(deviceId, "s2", TSDataType.TEXT)
+        .getSortedTimeValuePairList().iterator();
+    for (int i = 0; i < dataSize; i++) {
+      Assert.assertEquals(i * 10L, longIt.next().getValue().getLong());
+      Assert.assertEquals(i + 0.5, doubleIt.next().getValue().getDouble(), 0);
+      Assert.assertEquals(String.valueOf(i), textIt.next().getValue().getBinary().getStringValue());
+    }
+    Assert.assertFalse(longIt.hasNext());
+  }
+
   private void write(IMemTable memTable, String deviceId, String sensorId, TSDataType dataType,
       int size) {
     int dataSize = 100;
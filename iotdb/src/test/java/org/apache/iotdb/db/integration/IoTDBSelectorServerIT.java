@@ -0,0 +1,140 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.db.integration;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.Properties;
+import org.apache.iotdb.db.conf.IoTDBConfig;
+import org.apache.iotdb.db.conf.IoTDBDescriptor;
+import org.apache.iotdb.db.service.IoTDB;
+import org.apache.iotdb.db.utils.EnvironmentUtils;
+import org.apache.iotdb.jdbc.Config;
+import org.apache.iotdb.jdbc.IoTDBConnection;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Connects to a JDBC server in the selector mode with framed transport, the requests of all the
+ * connections are served by a shared worker pool.
+ */
+public class IoTDBSelectorServerIT {
+
+  private static final int CONNECTION_NUM = 4;
+
+  private IoTDB deamon;
+  private IoTDBConfig config = IoTDBDescriptor.getInstance().getConfig();
+  private boolean rpcSelectorMode;
+  private int rpcWorkerThreadNum;
+
+  @Before
+  public void setUp() throws Exception {
+    rpcSelectorMode = config.rpcSelectorMode;
+    rpcWorkerThreadNum = config.rpcWorkerThreadNum;
+    // fewer workers than connections, so the requests of a session run on different threads
+    config.rpcSelectorMode = true;
+    config.rpcWorkerThreadNum = 2;
+    EnvironmentUtils.closeStatMonitor();
+    EnvironmentUtils.closeMemControl();
+    deamon = IoTDB.getInstance();
+    deamon.active();
+    EnvironmentUtils.envSetUp();
+  }
+
+  @After
+  public void tearDown() throws Exception {
+    deamon.stop();
+    EnvironmentUtils.cleanEnv();
+    config.rpcSelectorMode = rpcSelectorMode;
+    config.rpcWorkerThreadNum = rpcWorkerThreadNum;
+  }
+
+  @Test
+  public void test() throws Exception {
+    Class.forName(Config.JDBC_DRIVER_NAME);
+    Properties info = new Properties();
+    info.setProperty(Config.AUTH_USER, "root");
+    info.setProperty(Config.AUTH_PASSWORD, "root");
+    info.setProperty(Config.RPC_FRAMED, "true");
+
+    IoTDBConnection[] connections = new IoTDBConnection[CONNECTION_NUM];
+    for (int i = 0; i < CONNECTION_NUM; i++) {
+      connections[i] = (IoTDBConnection) DriverManager
+          .getConnection(Config.IOTDB_URL_PREFIX + "127.0.0.1:6667/", info);
+    }
+    try {
+      try (Statement statement = connections[0].createStatement()) {
+        statement.execute("SET STORAGE GROUP TO root.selector");
+        for (int i = 0; i < CONNECTION_NUM; i++) {
+          statement.execute(String.format(
+              "CREATE TIMESERIES root.selector.d0.s%d WITH DATATYPE=INT64, ENCODING=RLE", i));
+        }
+      }
+
+      // the time zone is a session state, a local time is parsed with the zone of its connection
+      for (int i = 0; i < CONNECTION_NUM; i++) {
+        connections[i].setTimeZone(String.format("+0%d:00", i));
+      }
+      for (int i = 0; i < CONNECTION_NUM; i++) {
+        try (Statement statement = connections[i].createStatement()) {
+          for (int time = 1; time <= 100; time++) {
+            statement.execute(String.format(
+                "insert into root.selector.d0(timestamp,s%d) values(%d,%d)", i, time, time * i));
+          }
+          statement.execute(String.format(
+              "insert into root.selector.d0(timestamp,s%d) values(2018-01-01T00:00:00,-1)", i));
+        }
+      }
+
+      // open a query on every connection before fetching any of them
+      Statement[] statements = new Statement[CONNECTION_NUM];
+      ResultSet[] resultSets = new ResultSet[CONNECTION_NUM];
+      for (int i = 0; i < CONNECTION_NUM; i++) {
+        statements[i] = connections[i].createStatement();
+        statements[i].setFetchSize(10);
+        assertTrue(statements[i].execute("select s" + i + " from root.selector.d0"));
+        resultSets[i] = statements[i].getResultSet();
+      }
+      for (int i = 0; i < CONNECTION_NUM; i++) {
+        int count = 0;
+        while (resultSets[i].next()) {
+          count++;
+          long time = resultSets[i].getLong(1);
+          if (count <= 100) {
+            assertEquals(time * i, resultSets[i].getLong(2));
+          } else {
+            // 1514764800000 is 2018-01-01T00:00:00Z
+            assertEquals(1514764800000L - i * 3600000L, time);
+          }
+        }
+        assertEquals(101, count);
+        statements[i].close();
+      }
+    } finally {
+      for (IoTDBConnection connection : connections) {
+        connection.close();
+      }
+    }
+  }
+}
@@ -0,0 +1,122 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.db.qp.plan;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+import java.io.IOException;
+import java.util.Arrays;
+import org.apache.iotdb.db.qp.physical.crud.BatchInsertPlan;
+import org.apache.iotdb.db.writelog.transfer.PhysicalPlanCodec;
+import org.apache.iotdb.db.writelog.transfer.PhysicalPlanLogTransfer;
+import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
+import org.apache.iotdb.tsfile.read.common.Path;
+import org.apache.iotdb.tsfile.utils.Binary;
+import org.apache.iotdb.tsfile.write.record.TSRecord;
+import org.apache.iotdb.tsfile.write.record.datapoint.BooleanDataPoint;
+import org.apache.iotdb.tsfile.write.record.datapoint.DoubleDataPoint;
+import org.apache.iotdb.tsfile.write.record.datapoint.FloatDataPoint;
+import org.apache.iotdb.tsfile.write.record.datapoint.IntDataPoint;
+import org.apache.iotdb.tsfile.write.record.datapoint.LongDataPoint;
+import org.apache.iotdb.tsfile.write.record.datapoint.StringDataPoint;
+import org.junit.Test;
+
+public class BatchInsertPlanTest {
+
+  private static final String DEVICE = "root.vehicle.d0";
+
+  private BatchInsertPlan createPlan() {
+    String[] measurements = {"s0", "s1", "s2", "s3", "s4", "s5"};
+    TSDataType[] dataTypes = {TSDataType.INT32, TSDataType.INT64, TSDataType.FLOAT,
+        TSDataType.DOUBLE, TSDataType.BOOLEAN, TSDataType.TEXT};
+    Object[] columns = {new int[]{1, 2, 3}, new long[]{10L, 20L, 30L},
+        new float[]{1.5f, 2.5f, 3.5f}, new double[]{0.1, 0.2, 0.3},
+        new boolean[]{true, false, true},
+        new Binary[]{Binary.valueOf("a"), Binary.valueOf("bb"), Binary.valueOf("ccc")}};
+    return new BatchInsertPlan(DEVICE, measurements, dataTypes, new long[]{100, 200, 300},
+        columns, 3);
+  }
+
+  @Test
+  public void testGetRecord() {
+    BatchInsertPlan plan = createPlan();
+    TSRecord record = new TSRecord(200, DEVICE);
+    record.addTuple(new IntDataPoint("s0", 2));
+    record.addTuple(new LongDataPoint("s1", 20L));
+    record.addTuple(new FloatDataPoint("s2", 2.5f));
+    record.addTuple(new DoubleDataPoint("s3", 0.2));
+    record.addTuple(new BooleanDataPoint("s4", false));
+    record.addTuple(new StringDataPoint("s5", Binary.valueOf("bb")));
+    assertEquals(record.toString(), plan.getRecord(1).toString());
+
+    assertEquals(Arrays.asList(new Path(DEVICE + ".s0"), new Path(DEVICE + ".s1"),
+        new Path(DEVICE + ".s2"), new Path(DEVICE + ".s3"), new Path(DEVICE + ".s4"),
+        new Path(DEVICE + ".s5")), plan.getPaths());
+  }
+
+  @Test
+  public void testFromRecord() {
+    TSRecord record = new TSRecord(100, DEVICE);
+    record.addTuple(new LongDataPoint("s1", 15L));
+    record.addTuple(new StringDataPoint("s5", Binary.valueOf("str")));
+    BatchInsertPlan plan = new BatchInsertPlan(record);
+
+    assertEquals(DEVICE, plan.getDeviceId());
+    assertEquals(1, plan.getRowCount());
+    assertArrayEquals(new long[]{100}, plan.getTimes());
+    assertArrayEquals(new String[]{"s1", "s5"}, plan.getMeasurements());
+    assertArrayEquals(new TSDataType[]{TSDataType.INT64, TSDataType.TEXT}, plan.getDataTypes());
+    assertArrayEquals(new long[]{15L}, (long[]) plan.getColumns()[0]);
+    assertArrayEquals(new Binary[]{Binary.valueOf("str")}, (Binary[]) plan.getColumns()[1]);
+    assertEquals(record.toString(), plan.getRecord(0).toString());
+  }
+
+  @Test
+  public void testSubPlan() {
+    BatchInsertPlan plan = createPlan();
+    BatchInsertPlan subPlan = plan.subPlan(1, 3);
+
+    assertEquals(2, subPlan.getRowCount());
+    assertArrayEquals(new long[]{200, 300}, subPlan.getTimes());
+    assertArrayEquals(plan.getMeasurements(), subPlan.getMeasurements());
+    for (int i = 0; i < 2; i++) {
+      assertEquals(plan.getRecord(i + 1).toString(), subPlan.getRecord(i).toString());
+    }
+    // the columns are copied
+    ((int[]) subPlan.getColumns()[0])[0] = 7;
+    assertEquals(2, ((int[]) plan.getColumns()[0])[1]);
+  }
+
+  @Test
+  public void testLogSize() throws IOException {
+    BatchInsertPlan plan = createPlan();
+    byte[] log = PhysicalPlanLogTransfer.operatorToLog(plan);
+    int size = PhysicalPlanCodec.getBatchInsertHeaderSize(plan);
+    for (int i = 0; i < plan.getRowCount(); i++) {
+      size += PhysicalPlanCodec.getBatchInsertRowSize(plan, i);
+    }
+    assertEquals(log.length, size);
+
+    BatchInsertPlan decoded = (BatchInsertPlan) PhysicalPlanLogTransfer.logToOperator(log);
+    for (int i = 0; i < plan.getRowCount(); i++) {
+      assertEquals(plan.getRecord(i).toString(), decoded.getRecord(i).toString());
+    }
+  }
+}
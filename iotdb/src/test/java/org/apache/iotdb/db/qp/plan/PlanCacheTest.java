@@ -0,0 +1,151 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.db.qp.plan;
+
+import static org.junit.Assert.assertEquals;
+
+import java.time.ZoneId;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import org.apache.iotdb.db.exception.ArgsErrorException;
+import org.apache.iotdb.db.exception.ProcessorException;
+import org.apache.iotdb.db.exception.qp.QueryProcessorException;
+import org.apache.iotdb.db.qp.QueryProcessor;
+import org.apache.iotdb.db.qp.physical.PhysicalPlan;
+import org.apache.iotdb.db.qp.physical.crud.GroupByPlan;
+import org.apache.iotdb.db.qp.physical.crud.QueryPlan;
+import org.apache.iotdb.db.qp.utils.MemIntQpExecutor;
+import org.apache.iotdb.tsfile.read.common.Path;
+import org.junit.Before;
+import org.junit.Test;
+
+public class PlanCacheTest {
+
+  private MemIntQpExecutor executor = new MemIntQpExecutor();
+  private QueryProcessor processor = new QueryProcessor(executor, 100);
+  private QueryProcessor uncachedProcessor = new QueryProcessor(executor, 0);
+  private ZoneId zoneId = ZoneId.of("+08:00");
+
+  @Before
+  public void before() throws ProcessorException {
+    executor.insert(new Path("root.vehicle.d1.s1"), 10, "10");
+    executor.insert(new Path("root.vehicle.d2.s1"), 10, "10");
+    Map<String, List<String>> fakeAllPaths = new HashMap<>();
+    fakeAllPaths.put("root.vehicle.*.s1",
+        Arrays.asList("root.vehicle.d1.s1", "root.vehicle.d2.s1"));
+    fakeAllPaths.put("root.vehicle.d1.s1", Arrays.asList("root.vehicle.d1.s1"));
+    fakeAllPaths.put("root.vehicle.d2.s1", Arrays.asList("root.vehicle.d2.s1"));
+    executor.setFakeAllPaths(fakeAllPaths);
+  }
+
+  @Test
+  public void testSameAsUncached()
+      throws QueryProcessorException, ArgsErrorException, ProcessorException {
+    String[] templates = {
+        "select s1 from root.vehicle.d1 where time > %d and time <= %d",
+        "SELECT s1 FROM root.vehicle.d1 WHERE time > %d and time <= 100 or s1 < %d",
+        "select s1 from root.vehicle.d1 where not(time > %d or s1 != %d)",
+        "select d1.s1, d2.s1 from root.vehicle where d2.s1 >= %d and time < %d",
+        "select s1 from root.vehicle.d1 where time > 2017-11-01T00:00:00 and s1 < %d and "
+            + "time < %d",
+        "select sum(d1.s1) from root.vehicle where time <= %d or !(time != %d and time < 460)",
+        "select count(s1) from root.vehicle.d1 where s1 < %d and time <= %d "
+            + "group by(10m, 44, [1,3], [4,5])",
+        "SELECT s1 FROM root.vehicle.d1 WHERE time = %d Fill(int32[linear, 5m, 5m])",
+        "select s1 from root.vehicle.* where time > %d and time < %d slimit 1 soffset 1"};
+    for (String template : templates) {
+      for (int i = 1; i <= 3; i++) {
+        String sql = String.format(template, i * 7, i * 11);
+        assertPlanEquals(uncachedProcessor.parseSQLToPhysicalPlan(sql, zoneId),
+            processor.parseSQLToPhysicalPlan(sql, zoneId));
+      }
+    }
+    assertEquals(templates.length, processor.getPlanCache().getMissCount());
+    assertEquals(templates.length * 2, processor.getPlanCache().getHitCount());
+  }
+
+  @Test
+  public void testStringLiteral() {
+    // the series are INT32, so the literal of the query is reported as it is
+    for (String value : new String[]{"'a'", "'b c'", "\"d\\\"e\"", "'f\\'g'"}) {
+      String sql = "select s1 from root.vehicle.d1 where s1 =   " + value;
+      assertEquals(getError(uncachedProcessor, sql), getError(processor, sql));
+    }
+    assertEquals(1, processor.getPlanCache().size());
+  }
+
+  @Test
+  public void testMetadataChange()
+      throws QueryProcessorException, ArgsErrorException, ProcessorException {
+    Map<String, List<String>> fakeAllPaths = new HashMap<>();
+    fakeAllPaths.put("root.vehicle.*.s1", Arrays.asList("root.vehicle.d1.s1"));
+    fakeAllPaths.put("root.vehicle.d1.s1", Arrays.asList("root.vehicle.d1.s1"));
+    executor.setFakeAllPaths(fakeAllPaths);
+    String sql = "select s1 from root.vehicle.* where time > %d";
+    QueryPlan plan = (QueryPlan) processor.parseSQLToPhysicalPlan(String.format(sql, 1), zoneId);
+    assertEquals(1, plan.getPaths().size());
+
+    // a new timeseries matches the prefix path
+    fakeAllPaths = new HashMap<>(fakeAllPaths);
+    fakeAllPaths.put("root.vehicle.*.s1",
+        Arrays.asList("root.vehicle.d1.s1", "root.vehicle.d2.s1"));
+    fakeAllPaths.put("root.vehicle.d2.s1", Arrays.asList("root.vehicle.d2.s1"));
+    executor.setFakeAllPaths(fakeAllPaths);
+    plan = (QueryPlan) processor.parseSQLToPhysicalPlan(String.format(sql, 2), zoneId);
+    assertEquals(2, plan.getPaths().size());
+    assertEquals(2, processor.getPlanCache().getMissCount());
+    plan = (QueryPlan) processor.parseSQLToPhysicalPlan(String.format(sql, 3), zoneId);
+    assertEquals(2, plan.getPaths().size());
+    assertEquals(1, processor.getPlanCache().getHitCount());
+  }
+
+  @Test
+  public void testNotCached()
+      throws QueryProcessorException, ArgsErrorException, ProcessorException {
+    processor.parseSQLToPhysicalPlan("insert into root.vehicle.d1(timestamp,s1) values(1,2)",
+        zoneId);
+    processor.parseSQLToPhysicalPlan("select s1 from root.vehicle.d1 where time <= now()", zoneId);
+    assertEquals(0, processor.getPlanCache().getMissCount());
+    assertEquals(0, processor.getPlanCache().size());
+  }
+
+  private String getError(QueryProcessor processor, String sql) {
+    try {
+      processor.parseSQLToPhysicalPlan(sql, zoneId);
+    } catch (Exception e) {
+      return e.toString();
+    }
+    return null;
+  }
+
+  private static void assertPlanEquals(PhysicalPlan expected, PhysicalPlan actual) {
+    assertEquals(expected.getClass(), actual.getClass());
+    assertEquals(expected.getPaths(), actual.getPaths());
+    QueryPlan expectedQuery = (QueryPlan) expected;
+    QueryPlan actualQuery = (QueryPlan) actual;
+    assertEquals(String.valueOf(expectedQuery.getExpression()),
+        String.valueOf(actualQuery.getExpression()));
+    if (expected instanceof GroupByPlan) {
+      assertEquals(((GroupByPlan) expected).getIntervals(),
+          ((GroupByPlan) actual).getIntervals());
+    }
+  }
+}
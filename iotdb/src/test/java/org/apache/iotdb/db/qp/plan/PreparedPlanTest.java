@@ -0,0 +1,164 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.db.qp.plan;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.time.ZoneId;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import org.apache.iotdb.db.exception.ArgsErrorException;
+import org.apache.iotdb.db.exception.ProcessorException;
+import org.apache.iotdb.db.exception.qp.QueryProcessorException;
+import org.apache.iotdb.db.qp.PreparedPlan;
+import org.apache.iotdb.db.qp.QueryProcessor;
+import org.apache.iotdb.db.qp.physical.crud.InsertPlan;
+import org.apache.iotdb.db.qp.physical.crud.QueryPlan;
+import org.apache.iotdb.db.qp.utils.MemIntQpExecutor;
+import org.apache.iotdb.tsfile.read.common.Path;
+import org.junit.Before;
+import org.junit.Test;
+
+public class PreparedPlanTest {
+
+  private MemIntQpExecutor executor = new MemIntQpExecutor();
+  private QueryProcessor processor = new QueryProcessor(executor);
+  private ZoneId zoneId = ZoneId.of("+08:00");
+
+  @Before
+  public void before() throws ProcessorException {
+    executor.insert(new Path("root.vehicle.d1.s1"), 10, "10");
+  }
+
+  @Test
+  public void testBindInsert() throws QueryProcessorException, ProcessorException {
+    PreparedPlan preparedPlan = PreparedPlan.prepare(processor,
+        "insert into root.vehicle.d1(timestamp,s1,s2,s3) values(?,?,'a?b',?)", zoneId);
+    assertEquals(3, preparedPlan.getParameterCount());
+
+    InsertPlan plan = (InsertPlan) preparedPlan.bind(Arrays.asList("100", "5", "'c'"), zoneId);
+    assertEquals("root.vehicle.d1", plan.getDeviceId());
+    assertEquals(100, plan.getTime());
+    assertEquals(Arrays.asList("s1", "s2", "s3"), plan.getMeasurements());
+    assertEquals(Arrays.asList("5", "'a?b'", "'c'"), plan.getValues());
+
+    // the rows do not share their values
+    InsertPlan another = (InsertPlan) preparedPlan
+        .bind(Arrays.asList("2017-11-01T08:00:00", "6", "'d'"), zoneId);
+    assertEquals(1509494400000L, another.getTime());
+    assertEquals(Arrays.asList("6", "'a?b'", "'d'"), another.getValues());
+    assertEquals(Arrays.asList("5", "'a?b'", "'c'"), plan.getValues());
+  }
+
+  @Test
+  public void testFixedTime() throws QueryProcessorException, ProcessorException {
+    PreparedPlan preparedPlan = PreparedPlan
+        .prepare(processor, "insert into root.vehicle.d1(timestamp,s1) values(10,?)", zoneId);
+    InsertPlan plan = (InsertPlan) preparedPlan.bind(Collections.singletonList("7"), zoneId);
+    assertEquals(10, plan.getTime());
+    assertEquals(Collections.singletonList("7"), plan.getValues());
+  }
+
+  @Test
+  public void testBindError() throws ProcessorException {
+    PreparedPlan preparedPlan = PreparedPlan
+        .prepare(processor, "insert into root.vehicle.d1(timestamp,s1) values(?,?)", zoneId);
+    try {
+      preparedPlan.bind(Collections.singletonList("1"), zoneId);
+      fail();
+    } catch (QueryProcessorException e) {
+      assertEquals("Expect 2 parameters but get 1", e.getMessage());
+    }
+    try {
+      preparedPlan.bind(Arrays.asList("0", "1"), zoneId);
+      fail();
+    } catch (QueryProcessorException e) {
+      assertEquals("For Insert command, time must greater than 0.", e.getMessage());
+    }
+  }
+
+  @Test
+  public void testNotPrepared() {
+    assertNull(PreparedPlan
+        .prepare(processor, "insert into root.vehicle.?(timestamp,s1) values(1,2)", zoneId));
+    assertNull(PreparedPlan
+        .prepare(processor, "select s1 from root.vehicle.d1 where time > 1 limit ?", zoneId));
+    assertNull(PreparedPlan
+        .prepare(processor, "select s1 from root.vehicle.d1 where time < now() and s1 > ?",
+            zoneId));
+    assertNull(PreparedPlan.prepare(processor, "select s1 from root.vehicle.d1", zoneId));
+  }
+
+  @Test
+  public void testBindQuery()
+      throws QueryProcessorException, ProcessorException, ArgsErrorException {
+    PreparedPlan preparedPlan = PreparedPlan.prepare(processor,
+        "select s1 from root.vehicle.d1 where time > ? and (s1 < ? or s1 = 7)", zoneId);
+    assertTrue(preparedPlan.isQuery());
+    assertEquals(2, preparedPlan.getParameterCount());
+
+    QueryPlan plan = (QueryPlan) preparedPlan.bind(Arrays.asList("100", "5"), zoneId);
+    assertQueryEquals("select s1 from root.vehicle.d1 where time > 100 and (s1 < 5 or s1 = 7)",
+        plan);
+    // a datetime can be bound to the time
+    QueryPlan another = (QueryPlan) preparedPlan
+        .bind(Arrays.asList("2017-11-01T08:00:00", "-6"), zoneId);
+    assertQueryEquals("select s1 from root.vehicle.d1 where time > 2017-11-01T08:00:00 and "
+        + "(s1 < -6 or s1 = 7)", another);
+    assertQueryEquals("select s1 from root.vehicle.d1 where time > 100 and (s1 < 5 or s1 = 7)",
+        plan);
+  }
+
+  @Test
+  public void testQueryMetadataChange() throws QueryProcessorException, ProcessorException {
+    Map<String, List<String>> fakeAllPaths = new HashMap<>();
+    fakeAllPaths.put("root.vehicle.*.s1", Collections.singletonList("root.vehicle.d1.s1"));
+    fakeAllPaths.put("root.vehicle.d1.s1", Collections.singletonList("root.vehicle.d1.s1"));
+    executor.setFakeAllPaths(fakeAllPaths);
+    PreparedPlan preparedPlan = PreparedPlan
+        .prepare(processor, "select s1 from root.vehicle.* where time > ?", zoneId);
+    QueryPlan plan = (QueryPlan) preparedPlan.bind(Collections.singletonList("1"), zoneId);
+    assertEquals(1, plan.getPaths().size());
+
+    // a new timeseries matches the prefix path
+    fakeAllPaths = new HashMap<>(fakeAllPaths);
+    fakeAllPaths.put("root.vehicle.*.s1",
+        Arrays.asList("root.vehicle.d1.s1", "root.vehicle.d2.s1"));
+    fakeAllPaths.put("root.vehicle.d2.s1", Collections.singletonList("root.vehicle.d2.s1"));
+    executor.setFakeAllPaths(fakeAllPaths);
+    plan = (QueryPlan) preparedPlan.bind(Collections.singletonList("2"), zoneId);
+    assertEquals(2, plan.getPaths().size());
+    assertFalse(PreparedPlan.prepare(processor,
+        "insert into root.vehicle.d1(timestamp,s1) values(?,?)", zoneId).isQuery());
+  }
+
+  private void assertQueryEquals(String sql, QueryPlan actual)
+      throws QueryProcessorException, ProcessorException, ArgsErrorException {
+    QueryPlan expected = (QueryPlan) processor.parseSQLToPhysicalPlan(sql, zoneId);
+    assertEquals(expected.getPaths(), actual.getPaths());
+    assertEquals(expected.getExpression().toString(), actual.getExpression().toString());
+  }
+}
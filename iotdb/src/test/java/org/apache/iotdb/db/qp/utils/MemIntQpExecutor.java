@@ -29,6 +29,7 @@ import org.apache.iotdb.db.exception.ProcessorException;
 import org.apache.iotdb.db.qp.constant.SQLConstant;
 import org.apache.iotdb.db.qp.executor.QueryProcessExecutor;
 import org.apache.iotdb.db.qp.physical.PhysicalPlan;
+import org.apache.iotdb.db.qp.physical.crud.BatchInsertPlan;
 import org.apache.iotdb.db.qp.physical.crud.DeletePlan;
 import org.apache.iotdb.db.qp.physical.crud.InsertPlan;
 import org.apache.iotdb.db.qp.physical.crud.UpdatePlan;
@@ -52,6 +53,7 @@ public class MemIntQpExecutor extends QueryProcessExecutor {
 
   private TreeSet<Long> timeStampUnion = new TreeSet<>();
   private Map<String, List<String>> fakeAllPaths;
+  private long metadataVersion = 0;
 
   public MemIntQpExecutor() {
     this.fetchSize.set(5);
@@ -59,6 +61,7 @@ public class MemIntQpExecutor extends QueryProcessExecutor {
 
   public void setFakeAllPaths(Map<String, List<String>> fakeAllPaths) {
     this.fakeAllPaths = fakeAllPaths;
+    metadataVersion++;
   }
 
   @Override
@@ -180,12 +183,22 @@ public class MemIntQpExecutor extends QueryProcessExecutor {
     };
   }
 
+  @Override
+  public long getMetadataVersion() {
+    return metadataVersion;
+  }
+
   @Override
   public int multiInsert(String deviceId, long insertTime, List<String> measurementList,
       List<String> insertValues) {
     return 0;
   }
 
+  @Override
+  public int batchInsert(BatchInsertPlan plan) {
+    return 0;
+  }
+
   private class TestSeries {
 
     public TreeMap<Long, Integer> data = new TreeMap<>();
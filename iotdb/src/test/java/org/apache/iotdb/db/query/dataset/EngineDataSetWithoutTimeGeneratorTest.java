@@ -0,0 +1,186 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.db.query.dataset;
+
+import java.io.File;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import org.apache.iotdb.db.engine.querycontext.GlobalSortedSeriesDataSource;
+import org.apache.iotdb.db.engine.querycontext.UnsealedTsFile;
+import org.apache.iotdb.db.query.control.FileReaderManager;
+import org.apache.iotdb.db.query.reader.IReader;
+import org.apache.iotdb.db.query.reader.mem.MemChunkReaderWithoutFilter;
+import org.apache.iotdb.db.query.reader.merge.PriorityMergeReader;
+import org.apache.iotdb.db.query.reader.sequence.SequenceDataReader;
+import org.apache.iotdb.db.utils.SortedTimeValueArray;
+import org.apache.iotdb.tsfile.common.conf.TSFileConfig;
+import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
+import org.apache.iotdb.tsfile.file.metadata.enums.TSEncoding;
+import org.apache.iotdb.tsfile.read.TsFileSequenceReader;
+import org.apache.iotdb.tsfile.read.common.Path;
+import org.apache.iotdb.tsfile.read.common.RowBatch;
+import org.apache.iotdb.tsfile.read.common.RowRecord;
+import org.apache.iotdb.tsfile.read.controller.MetadataQuerierByFileImpl;
+import org.apache.iotdb.tsfile.read.query.dataset.QueryDataSet;
+import org.apache.iotdb.tsfile.write.TsFileWriter;
+import org.apache.iotdb.tsfile.write.record.TSRecord;
+import org.apache.iotdb.tsfile.write.record.datapoint.IntDataPoint;
+import org.apache.iotdb.tsfile.write.schema.MeasurementSchema;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+public class EngineDataSetWithoutTimeGeneratorTest {
+
+  private static final String FILE_PATH = "target" + File.separator + "dataSetTest.tsfile";
+
+  private int maxNumberOfPointsInPage;
+  private Path path = new Path("root.vehicle.d0.s0");
+
+  @Before
+  public void setUp() throws Exception {
+    maxNumberOfPointsInPage = TSFileConfig.maxNumberOfPointsInPage;
+    TSFileConfig.maxNumberOfPointsInPage = 100;
+    File file = new File(FILE_PATH);
+    file.getParentFile().mkdirs();
+    TsFileWriter writer = new TsFileWriter(file);
+    writer.addMeasurement(new MeasurementSchema("s0", TSDataType.INT32, TSEncoding.RLE));
+    for (long time = 0; time < 1000; time++) {
+      TSRecord record = new TSRecord(time, "root.vehicle.d0");
+      record.addTuple(new IntDataPoint("s0", (int) time));
+      writer.write(record);
+    }
+    writer.close();
+  }
+
+  @After
+  public void tearDown() throws Exception {
+    TSFileConfig.maxNumberOfPointsInPage = maxNumberOfPointsInPage;
+    FileReaderManager.getInstance().closeFileAndRemoveReader(FILE_PATH);
+    new File(FILE_PATH).delete();
+  }
+
+  @Test
+  public void testMergeSequenceAndUnSequenceData() throws Exception {
+    UnsealedTsFile unsealedTsFile = new UnsealedTsFile();
+    unsealedTsFile.setFilePath(FILE_PATH);
+    TsFileSequenceReader fileReader = new TsFileSequenceReader(FILE_PATH);
+    unsealedTsFile.setTimeSeriesChunkMetaDatas(
+        new MetadataQuerierByFileImpl(fileReader).getChunkMetaDataList(path));
+    fileReader.close();
+
+    TreeMap<Long, Integer> expected = new TreeMap<>();
+    for (long time = 0; time < 1000; time++) {
+      expected.put(time, (int) time);
+    }
+    // data in memtable after the TsFile
+    TreeMap<Long, Integer> memData = new TreeMap<>();
+    for (long time = 1000; time < 3000; time++) {
+      memData.put(time, (int) time);
+    }
+    // unsequence data overriding some points
+    TreeMap<Long, Integer> unSeqData = new TreeMap<>();
+    unSeqData.put(5L, -5);
+    unSeqData.put(500L, -500);
+    unSeqData.put(1050L, -1050);
+    unSeqData.put(5000L, -5000);
+    expected.putAll(memData);
+    expected.putAll(unSeqData);
+
+    PriorityMergeReader reader = new PriorityMergeReader();
+    reader.addReaderWithPriority(new SequenceDataReader(
+            new GlobalSortedSeriesDataSource(path, null, unsealedTsFile, () -> toArray(memData)),
+            null),
+        PriorityMergeReader.LOW_PRIORITY);
+    reader.addReaderWithPriority(new MemChunkReaderWithoutFilter(() -> toArray(unSeqData)),
+        PriorityMergeReader.HIGH_PRIORITY);
+    List<IReader> readers = Collections.singletonList(reader);
+    QueryDataSet dataSet = new EngineDataSetWithoutTimeGenerator(Collections.singletonList(path),
+        Collections.singletonList(TSDataType.INT32), readers);
+
+    for (Map.Entry<Long, Integer> entry : expected.entrySet()) {
+      Assert.assertTrue(dataSet.hasNext());
+      RowRecord record = dataSet.next();
+      Assert.assertEquals((long) entry.getKey(), record.getTimestamp());
+      Assert.assertEquals((int) entry.getValue(), record.getFields().get(0).getIntV());
+    }
+    Assert.assertFalse(dataSet.hasNext());
+  }
+
+  @Test
+  public void testNextRowBatch() throws Exception {
+    // the series have the even and the multiples of three as times
+    TreeMap<Long, Integer> data1 = new TreeMap<>();
+    TreeMap<Long, Integer> data2 = new TreeMap<>();
+    for (long time = 0; time < 1000; time++) {
+      if (time % 2 == 0) {
+        data1.put(time, (int) time);
+      }
+      if (time % 3 == 0) {
+        data2.put(time, (int) -time);
+      }
+    }
+    List<IReader> readers = Arrays.asList(
+        new MemChunkReaderWithoutFilter(() -> toArray(data1)),
+        new MemChunkReaderWithoutFilter(() -> toArray(data2)));
+    List<TSDataType> dataTypes = Arrays.asList(TSDataType.INT32, TSDataType.INT32);
+    QueryDataSet dataSet = new EngineDataSetWithoutTimeGenerator(
+        Arrays.asList(path, new Path("root.vehicle.d0.s1")), dataTypes, readers);
+
+    RowBatch rowBatch = new RowBatch(dataTypes, 100);
+    long expectedTime = 0;
+    int rowNum = 0;
+    while (dataSet.nextRowBatch(rowBatch) > 0) {
+      for (int row = 0; row < rowBatch.size(); row++) {
+        while (expectedTime % 2 != 0 && expectedTime % 3 != 0) {
+          expectedTime++;
+        }
+        Assert.assertEquals(expectedTime, rowBatch.getTime(row));
+        Assert.assertEquals(expectedTime % 2 != 0, rowBatch.isNull(0, row));
+        Assert.assertEquals(expectedTime % 3 != 0, rowBatch.isNull(1, row));
+        if (expectedTime % 2 == 0) {
+          Assert.assertEquals(expectedTime, rowBatch.getInt(0, row));
+        }
+        if (expectedTime % 3 == 0) {
+          Assert.assertEquals(-expectedTime, rowBatch.getInt(1, row));
+        }
+        expectedTime++;
+        rowNum++;
+      }
+    }
+    // 500 even times, 334 multiples of three and 167 multiples of six
+    Assert.assertEquals(667, rowNum);
+    Assert.assertFalse(dataSet.hasNext());
+  }
+
+  private static SortedTimeValueArray toArray(TreeMap<Long, Integer> data) {
+    long[] times = new long[data.size()];
+    int[] values = new int[data.size()];
+    int i = 0;
+    for (Map.Entry<Long, Integer> entry : data.entrySet()) {
+      times[i] = entry.getKey();
+      values[i++] = entry.getValue();
+    }
+    return new SortedTimeValueArray(TSDataType.INT32, times, values, data.size());
+  }
+}
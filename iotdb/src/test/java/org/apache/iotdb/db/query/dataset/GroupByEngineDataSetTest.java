@@ -0,0 +1,238 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.db.query.dataset;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import org.apache.iotdb.db.engine.querycontext.GlobalSortedSeriesDataSource;
+import org.apache.iotdb.db.engine.querycontext.UnsealedTsFile;
+import org.apache.iotdb.db.exception.ProcessorException;
+import org.apache.iotdb.db.query.aggregation.AggregateFunction;
+import org.apache.iotdb.db.query.control.FileReaderManager;
+import org.apache.iotdb.db.query.factory.AggregateFuncFactory;
+import org.apache.iotdb.db.query.reader.IReader;
+import org.apache.iotdb.db.query.reader.aggregate.SeriesAggregateReader;
+import org.apache.iotdb.db.utils.TimeValuePair;
+import org.apache.iotdb.tsfile.common.conf.TSFileConfig;
+import org.apache.iotdb.tsfile.common.constant.StatisticConstant;
+import org.apache.iotdb.tsfile.exception.write.WriteProcessException;
+import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
+import org.apache.iotdb.tsfile.file.metadata.enums.TSEncoding;
+import org.apache.iotdb.tsfile.read.TsFileSequenceReader;
+import org.apache.iotdb.tsfile.read.common.BatchData;
+import org.apache.iotdb.tsfile.read.common.Path;
+import org.apache.iotdb.tsfile.read.common.RowRecord;
+import org.apache.iotdb.tsfile.read.controller.MetadataQuerierByFileImpl;
+import org.apache.iotdb.tsfile.read.filter.TimeFilter;
+import org.apache.iotdb.tsfile.read.filter.basic.Filter;
+import org.apache.iotdb.tsfile.read.filter.factory.FilterFactory;
+import org.apache.iotdb.tsfile.utils.Pair;
+import org.apache.iotdb.tsfile.write.TsFileWriter;
+import org.apache.iotdb.tsfile.write.record.TSRecord;
+import org.apache.iotdb.tsfile.write.record.datapoint.IntDataPoint;
+import org.apache.iotdb.tsfile.write.schema.MeasurementSchema;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class GroupByEngineDataSetTest {
+
+  private static final String FILE_PATH = "target" + File.separator + "groupByTest.tsfile";
+
+  @Test
+  public void testMergeIntervals() {
+    List<Pair<Long, Long>> merged = GroupByEngineDataSet.mergeIntervals(Arrays
+        .asList(new Pair<>(20L, 30L), new Pair<>(1L, 5L), new Pair<>(6L, 8L), new Pair<>(3L, 4L),
+            new Pair<>(9L, 7L), new Pair<>(25L, 40L)));
+    Assert.assertEquals(Arrays.asList(new Pair<>(1L, 8L), new Pair<>(20L, 40L)), merged);
+  }
+
+  @Test
+  public void testWindows() throws IOException, ProcessorException {
+    checkCount(4, 0, Collections.singletonList(new Pair<>(1L, 10L)),
+        new long[]{1, 2, 3, 4, 5, 6, 7, 8, 9, 10}, new long[]{1, 4, 8}, new long[]{3, 4, 3});
+    checkCount(3, 2, Collections.singletonList(new Pair<>(1L, 5L)),
+        new long[]{1, 2, 3, 4, 5}, new long[]{1, 2, 5}, new long[]{1, 3, 1});
+    // two intervals in the same window make one row
+    checkCount(3, 1, Arrays.asList(new Pair<>(1L, 4L), new Pair<>(6L, 9L)),
+        new long[]{1, 2, 3, 4, 6, 7, 8, 9}, new long[]{1, 4, 7}, new long[]{3, 2, 3});
+    // a window without data still makes a row
+    checkCount(2, 0, Collections.singletonList(new Pair<>(0L, 5L)),
+        new long[]{0, 1, 5}, new long[]{0, 2, 4}, new long[]{2, 0, 1});
+    // windows before the origin
+    checkCount(10, 5, Collections.singletonList(new Pair<>(-20L, 3L)),
+        new long[]{-20, -15, -6, 3}, new long[]{-20, -15, -5}, new long[]{1, 2, 1});
+  }
+
+  private void checkCount(long unit, long origin, List<Pair<Long, Long>> intervals, long[] times,
+      long[] expectedTimes, long[] expectedCounts) throws IOException, ProcessorException {
+    AggregateFunction count = AggregateFuncFactory
+        .getAggrFuncByName(StatisticConstant.COUNT, TSDataType.INT32);
+    GroupByEngineDataSet dataSet = new GroupByEngineDataSet(
+        Collections.singletonList(new Path("root.vehicle.d0.s0")),
+        Collections.singletonList(count), unit, origin,
+        GroupByEngineDataSet.mergeIntervals(intervals)) {
+      private int index = 0;
+
+      @Override
+      protected void calculateWindow(long windowEndTime) {
+        while (index < times.length && times[index] < windowEndTime) {
+          count.calculateValueFromPoint(times[index++], 0);
+        }
+      }
+    };
+
+    int row = 0;
+    while (dataSet.hasNext()) {
+      RowRecord record = dataSet.next();
+      Assert.assertEquals(expectedTimes[row], record.getTimestamp());
+      Assert.assertEquals(expectedCounts[row], record.getFields().get(0).getLongV());
+      row++;
+    }
+    Assert.assertEquals(expectedTimes.length, row);
+  }
+
+  @Test
+  public void testWithoutValueFilter()
+      throws IOException, ProcessorException, WriteProcessException {
+    int maxNumberOfPointsInPage = TSFileConfig.maxNumberOfPointsInPage;
+    TSFileConfig.maxNumberOfPointsInPage = 100;
+    try {
+      writeTsFile();
+      checkWithoutValueFilter();
+    } finally {
+      TSFileConfig.maxNumberOfPointsInPage = maxNumberOfPointsInPage;
+      FileReaderManager.getInstance().closeFileAndRemoveReader(FILE_PATH);
+      new File(FILE_PATH).delete();
+    }
+  }
+
+  private void writeTsFile() throws IOException, WriteProcessException {
+    File file = new File(FILE_PATH);
+    file.getParentFile().mkdirs();
+    TsFileWriter writer = new TsFileWriter(file);
+    writer.addMeasurement(new MeasurementSchema("s0", TSDataType.INT32, TSEncoding.RLE));
+    for (long time = 0; time < 1000; time++) {
+      TSRecord record = new TSRecord(time, "root.vehicle.d0");
+      record.addTuple(new IntDataPoint("s0", (int) time));
+      writer.write(record);
+    }
+    writer.close();
+  }
+
+  private void checkWithoutValueFilter() throws IOException, ProcessorException {
+    Path path = new Path("root.vehicle.d0.s0");
+    UnsealedTsFile unsealedTsFile = new UnsealedTsFile();
+    unsealedTsFile.setFilePath(FILE_PATH);
+    TsFileSequenceReader fileReader = new TsFileSequenceReader(FILE_PATH);
+    unsealedTsFile.setTimeSeriesChunkMetaDatas(
+        new MetadataQuerierByFileImpl(fileReader).getChunkMetaDataList(path));
+    fileReader.close();
+
+    List<Pair<Long, Long>> intervals = Arrays.asList(new Pair<>(50L, 599L),
+        new Pair<>(700L, 2000L));
+    Filter timeFilter = FilterFactory.or(
+        FilterFactory.and(TimeFilter.gtEq(50L), TimeFilter.ltEq(599L)),
+        FilterFactory.and(TimeFilter.gtEq(700L), TimeFilter.ltEq(2000L)));
+    SeriesAggregateReader reader = new SeriesAggregateReader(
+        new GlobalSortedSeriesDataSource(path, null, unsealedTsFile, null), new EmptyReader(),
+        timeFilter);
+
+    List<AggregateFunction> functions = new ArrayList<>();
+    functions.add(AggregateFuncFactory.getAggrFuncByName(StatisticConstant.COUNT,
+        TSDataType.INT32));
+    functions.add(AggregateFuncFactory.getAggrFuncByName(StatisticConstant.SUM,
+        TSDataType.INT32));
+    functions.add(AggregateFuncFactory.getAggrFuncByName(StatisticConstant.MAX_VALUE,
+        TSDataType.INT32));
+    GroupByEngineDataSet dataSet = new GroupByWithoutValueFilterDataSet(
+        Arrays.asList(path, path, path), functions, 250, 0,
+        GroupByEngineDataSet.mergeIntervals(intervals), Collections.singletonList(reader),
+        Collections.singletonList(functions));
+
+    // windows [0, 250), [250, 500), [500, 750), [750, 1000), [1000, 1250) ...
+    long[] expectedTimes = {50, 250, 500, 750};
+    for (long expectedTime : expectedTimes) {
+      long windowEndTime = expectedTime - expectedTime % 250 + 250;
+      long count = 0;
+      long sum = 0;
+      long max = 0;
+      for (long time = expectedTime; time < windowEndTime; time++) {
+        if (time <= 599 || time >= 700) {
+          count++;
+          sum += time;
+          max = time;
+        }
+      }
+      Assert.assertTrue(dataSet.hasNext());
+      RowRecord record = dataSet.next();
+      Assert.assertEquals(expectedTime, record.getTimestamp());
+      Assert.assertEquals(count, record.getFields().get(0).getLongV());
+      Assert.assertEquals(sum, record.getFields().get(1).getDoubleV(), 0.01);
+      Assert.assertEquals(max, record.getFields().get(2).getIntV());
+    }
+    // the windows after the data are empty
+    for (long time = 1000; time <= 2000; time += 250) {
+      RowRecord record = dataSet.next();
+      Assert.assertEquals(time, record.getTimestamp());
+      Assert.assertEquals(0, record.getFields().get(0).getLongV());
+      Assert.assertTrue(record.getFields().get(2).isNull());
+    }
+    Assert.assertFalse(dataSet.hasNext());
+  }
+
+  private static class EmptyReader implements IReader {
+
+    @Override
+    public boolean hasNext() {
+      return false;
+    }
+
+    @Override
+    public TimeValuePair next() {
+      return null;
+    }
+
+    @Override
+    public void skipCurrentTimeValuePair() {
+    }
+
+    @Override
+    public void close() {
+    }
+
+    @Override
+    public boolean hasNextBatch() {
+      return false;
+    }
+
+    @Override
+    public BatchData nextBatch() {
+      return null;
+    }
+
+    @Override
+    public BatchData currentBatch() {
+      return null;
+    }
+  }
+}
@@ -0,0 +1,94 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.db.query.dataset;
+
+import java.io.IOException;
+import java.util.Collections;
+import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
+import org.apache.iotdb.tsfile.read.common.Field;
+import org.apache.iotdb.tsfile.read.common.Path;
+import org.apache.iotdb.tsfile.read.common.RowRecord;
+import org.apache.iotdb.tsfile.read.query.dataset.QueryDataSet;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class PrefetchQueryDataSetTest {
+
+  @Test
+  public void testReadAll() throws IOException {
+    // the last batch is full, not full, and there is only one batch
+    int[][] cases = {{1000, 100}, {1000, 300}, {10, 100}, {0, 100}};
+    for (int[] testCase : cases) {
+      int rowNum = testCase[0];
+      CountingDataSet countingDataSet = new CountingDataSet(rowNum);
+      QueryDataSet dataSet = new PrefetchQueryDataSet(countingDataSet, testCase[1]);
+      for (int i = 0; i < rowNum; i++) {
+        Assert.assertTrue(dataSet.hasNext());
+        RowRecord record = dataSet.next();
+        Assert.assertEquals(i, record.getTimestamp());
+        Assert.assertEquals(i, record.getFields().get(0).getLongV());
+      }
+      Assert.assertFalse(dataSet.hasNext());
+      Assert.assertNull(dataSet.next());
+    }
+  }
+
+  @Test
+  public void testClose() throws IOException {
+    CountingDataSet countingDataSet = new CountingDataSet(10000);
+    PrefetchQueryDataSet dataSet = new PrefetchQueryDataSet(countingDataSet, 100);
+    for (int i = 0; i < 150; i++) {
+      Assert.assertTrue(dataSet.hasNext());
+      dataSet.next();
+    }
+    dataSet.close();
+    // nothing is read after close() returns
+    int readNum = countingDataSet.count;
+    Assert.assertTrue(readNum <= 300);
+    Assert.assertFalse(dataSet.hasNext());
+    Assert.assertEquals(readNum, countingDataSet.count);
+  }
+
+  private static class CountingDataSet extends QueryDataSet {
+
+    private int rowNum;
+    private int count = 0;
+
+    CountingDataSet(int rowNum) {
+      super(Collections.singletonList(new Path("root.vehicle.d0.s0")),
+          Collections.singletonList(TSDataType.INT64));
+      this.rowNum = rowNum;
+    }
+
+    @Override
+    public boolean hasNext() {
+      return count < rowNum;
+    }
+
+    @Override
+    public RowRecord next() {
+      RowRecord record = new RowRecord(count);
+      Field field = new Field(TSDataType.INT64);
+      field.setLongV(count);
+      record.addField(field);
+      count++;
+      return record;
+    }
+  }
+}
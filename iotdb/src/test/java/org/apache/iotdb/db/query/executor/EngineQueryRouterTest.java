@@ -0,0 +1,35 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.db.query.executor;
+
+import java.util.Collections;
+import org.apache.iotdb.db.exception.FileNodeManagerException;
+import org.apache.iotdb.db.exception.ProcessorException;
+import org.apache.iotdb.tsfile.read.common.Path;
+import org.junit.Test;
+
+public class EngineQueryRouterTest {
+
+  @Test(expected = ProcessorException.class)
+  public void testGroupByWithoutInterval()
+      throws FileNodeManagerException, ProcessorException {
+    new EngineQueryRouter().groupBy(Collections.singletonList(new Path("root.vehicle.d0.s0")),
+        Collections.singletonList("count"), null, 10, 0, Collections.emptyList());
+  }
+}
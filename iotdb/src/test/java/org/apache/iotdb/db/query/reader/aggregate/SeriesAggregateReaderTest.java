@@ -0,0 +1,288 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.db.query.reader.aggregate;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import org.apache.iotdb.db.engine.querycontext.GlobalSortedSeriesDataSource;
+import org.apache.iotdb.db.engine.querycontext.UnsealedTsFile;
+import org.apache.iotdb.db.exception.ProcessorException;
+import org.apache.iotdb.db.query.aggregation.AggregateFunction;
+import org.apache.iotdb.db.query.control.FileReaderManager;
+import org.apache.iotdb.db.query.factory.AggregateFuncFactory;
+import org.apache.iotdb.db.query.reader.IReader;
+import org.apache.iotdb.db.utils.TimeValuePair;
+import org.apache.iotdb.db.utils.TsPrimitiveType;
+import org.apache.iotdb.tsfile.common.conf.TSFileConfig;
+import org.apache.iotdb.tsfile.common.constant.StatisticConstant;
+import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
+import org.apache.iotdb.tsfile.file.metadata.enums.TSEncoding;
+import org.apache.iotdb.tsfile.read.TsFileSequenceReader;
+import org.apache.iotdb.tsfile.read.common.BatchData;
+import org.apache.iotdb.tsfile.read.common.Field;
+import org.apache.iotdb.tsfile.read.common.Path;
+import org.apache.iotdb.tsfile.read.controller.MetadataQuerierByFileImpl;
+import org.apache.iotdb.tsfile.read.filter.TimeFilter;
+import org.apache.iotdb.tsfile.read.filter.basic.Filter;
+import org.apache.iotdb.tsfile.read.filter.factory.FilterFactory;
+import org.apache.iotdb.tsfile.write.TsFileWriter;
+import org.apache.iotdb.tsfile.write.record.TSRecord;
+import org.apache.iotdb.tsfile.write.record.datapoint.IntDataPoint;
+import org.apache.iotdb.tsfile.write.schema.MeasurementSchema;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+public class SeriesAggregateReaderTest {
+
+  private static final String FILE_PATH = "target" + File.separator + "aggregateTest.tsfile";
+  private static final String DEVICE = "root.vehicle.d0";
+  private static final String MEASUREMENT = "s0";
+  private static final int POINT_NUM = 1000;
+  private static final int PAGE_POINT_NUM = 100;
+  private static final String[] AGGREGATIONS = {StatisticConstant.COUNT, StatisticConstant.SUM,
+      StatisticConstant.MEAN, StatisticConstant.FIRST, StatisticConstant.LAST,
+      StatisticConstant.MIN_TIME, StatisticConstant.MAX_TIME, StatisticConstant.MIN_VALUE,
+      StatisticConstant.MAX_VALUE};
+
+  private int maxNumberOfPointsInPage;
+  private Path path = new Path(DEVICE + "." + MEASUREMENT);
+  private TreeMap<Long, Integer> sequenceData = new TreeMap<>();
+  private int usedDigestNum;
+  private int readPointNum;
+
+  @Before
+  public void setUp() throws Exception {
+    maxNumberOfPointsInPage = TSFileConfig.maxNumberOfPointsInPage;
+    TSFileConfig.maxNumberOfPointsInPage = PAGE_POINT_NUM;
+
+    File file = new File(FILE_PATH);
+    file.getParentFile().mkdirs();
+    TsFileWriter writer = new TsFileWriter(file);
+    writer.addMeasurement(new MeasurementSchema(MEASUREMENT, TSDataType.INT32, TSEncoding.RLE));
+    for (long time = 0; time < POINT_NUM; time++) {
+      int value = (int) (time * 7 % 101);
+      TSRecord record = new TSRecord(time, DEVICE);
+      record.addTuple(new IntDataPoint(MEASUREMENT, value));
+      writer.write(record);
+      sequenceData.put(time, value);
+    }
+    writer.close();
+  }
+
+  @After
+  public void tearDown() throws IOException {
+    TSFileConfig.maxNumberOfPointsInPage = maxNumberOfPointsInPage;
+    FileReaderManager.getInstance().closeFileAndRemoveReader(FILE_PATH);
+    new File(FILE_PATH).delete();
+  }
+
+  @Test
+  public void testWithoutFilter() throws IOException, ProcessorException {
+    checkAggregation(null, new TreeMap<>());
+    // the statistics of the chunk answer all the aggregations
+    Assert.assertEquals(1, usedDigestNum);
+    Assert.assertEquals(0, readPointNum);
+  }
+
+  @Test
+  public void testTimeFilter() throws IOException, ProcessorException {
+    Filter timeFilter = FilterFactory.and(TimeFilter.gtEq(250L), TimeFilter.lt(730L));
+    checkAggregation(timeFilter, new TreeMap<>());
+    // only the two pages at the edges are decoded
+    Assert.assertEquals(4, usedDigestNum);
+    Assert.assertEquals(80, readPointNum);
+  }
+
+  @Test
+  public void testUnSequenceData() throws IOException, ProcessorException {
+    TreeMap<Long, Integer> unSeqData = new TreeMap<>();
+    unSeqData.put(-5L, 500);
+    unSeqData.put(510L, -500);
+    unSeqData.put(2000L, 1000);
+    checkAggregation(null, unSeqData);
+    // the page overlapped by the unsequence data is decoded
+    Assert.assertEquals(9, usedDigestNum);
+    Assert.assertEquals(PAGE_POINT_NUM + 2, readPointNum);
+
+    Filter timeFilter = TimeFilter.gtEq(150L);
+    checkAggregation(timeFilter, unSeqData);
+    Assert.assertEquals(7, usedDigestNum);
+    Assert.assertEquals(50 + PAGE_POINT_NUM + 1, readPointNum);
+  }
+
+  private void checkAggregation(Filter timeFilter, TreeMap<Long, Integer> unSeqData)
+      throws IOException, ProcessorException {
+    TreeMap<Long, Integer> expectedData = new TreeMap<>(sequenceData);
+    expectedData.putAll(unSeqData);
+    if (timeFilter != null) {
+      expectedData.entrySet().removeIf(entry -> !timeFilter.satisfy(entry.getKey(), null));
+    }
+
+    List<AggregateFunction> functions = new ArrayList<>();
+    for (String aggregation : AGGREGATIONS) {
+      functions.add(AggregateFuncFactory.getAggrFuncByName(aggregation, TSDataType.INT32));
+    }
+    usedDigestNum = 0;
+    readPointNum = 0;
+    SeriesAggregateReader reader = createReader(timeFilter, unSeqData);
+    while (reader.hasNext()) {
+      SeriesDigest digest = reader.currentDigest();
+      if (digest != null) {
+        for (AggregateFunction function : functions) {
+          function.calculateValueFromDigest(digest);
+        }
+        reader.skipDigest();
+        usedDigestNum++;
+      } else {
+        for (AggregateFunction function : functions) {
+          function.calculateValueFromPoint(reader.currentTime(), reader.currentValue());
+        }
+        reader.next();
+        readPointNum++;
+      }
+    }
+    reader.close();
+
+    long sum = 0;
+    int min = Integer.MAX_VALUE;
+    int max = Integer.MIN_VALUE;
+    for (int value : expectedData.values()) {
+      sum += value;
+      min = Math.min(min, value);
+      max = Math.max(max, value);
+    }
+    Assert.assertEquals(expectedData.size(), functions.get(0).getResult().getLongV());
+    Assert.assertEquals(sum, functions.get(1).getResult().getDoubleV(), 0.01);
+    Assert.assertEquals((double) sum / expectedData.size(),
+        functions.get(2).getResult().getDoubleV(), 0.01);
+    Assert.assertEquals((int) expectedData.firstEntry().getValue(),
+        functions.get(3).getResult().getIntV());
+    Assert.assertEquals((int) expectedData.lastEntry().getValue(),
+        functions.get(4).getResult().getIntV());
+    Assert.assertEquals((long) expectedData.firstKey(), functions.get(5).getResult().getLongV());
+    Assert.assertEquals((long) expectedData.lastKey(), functions.get(6).getResult().getLongV());
+    Assert.assertEquals(min, functions.get(7).getResult().getIntV());
+    Assert.assertEquals(max, functions.get(8).getResult().getIntV());
+  }
+
+  @Test
+  public void testSplitDigest() throws IOException {
+    // a caller which can not use the statistics reads all the points in order
+    SeriesAggregateReader reader = createReader(null, new TreeMap<>());
+    long expectedTime = 0;
+    while (reader.hasNext()) {
+      if (reader.currentDigest() != null) {
+        reader.splitDigest();
+        continue;
+      }
+      Assert.assertEquals(expectedTime, reader.currentTime());
+      Assert.assertEquals(sequenceData.get(expectedTime), reader.currentValue());
+      reader.next();
+      expectedTime++;
+    }
+    reader.close();
+    Assert.assertEquals(POINT_NUM, expectedTime);
+  }
+
+  @Test
+  public void testEmptyResult() throws ProcessorException {
+    AggregateFunction count = AggregateFuncFactory
+        .getAggrFuncByName(StatisticConstant.COUNT, TSDataType.INT32);
+    Assert.assertEquals(0, count.getResult().getLongV());
+    AggregateFunction first = AggregateFuncFactory
+        .getAggrFuncByName(StatisticConstant.FIRST, TSDataType.INT32);
+    Assert.assertTrue(first.getResult().isNull());
+  }
+
+  @Test(expected = ProcessorException.class)
+  public void testSumOfText() throws ProcessorException {
+    AggregateFuncFactory.getAggrFuncByName(StatisticConstant.SUM, TSDataType.TEXT);
+  }
+
+  private SeriesAggregateReader createReader(Filter timeFilter, Map<Long, Integer> unSeqData)
+      throws IOException {
+    UnsealedTsFile unsealedTsFile = new UnsealedTsFile();
+    unsealedTsFile.setFilePath(FILE_PATH);
+    TsFileSequenceReader fileReader = new TsFileSequenceReader(FILE_PATH);
+    unsealedTsFile.setTimeSeriesChunkMetaDatas(
+        new MetadataQuerierByFileImpl(fileReader).getChunkMetaDataList(path));
+    fileReader.close();
+    GlobalSortedSeriesDataSource sequenceSource = new GlobalSortedSeriesDataSource(path, null,
+        unsealedTsFile, null);
+
+    List<TimeValuePair> unSeqPoints = new ArrayList<>();
+    for (Map.Entry<Long, Integer> entry : unSeqData.entrySet()) {
+      if (timeFilter == null || timeFilter.satisfy(entry.getKey(), null)) {
+        unSeqPoints.add(new TimeValuePair(entry.getKey(),
+            TsPrimitiveType.getByType(TSDataType.INT32, entry.getValue())));
+      }
+    }
+    return new SeriesAggregateReader(sequenceSource, new ListReader(unSeqPoints), timeFilter);
+  }
+
+  private static class ListReader implements IReader {
+
+    private Iterator<TimeValuePair> iterator;
+
+    ListReader(List<TimeValuePair> points) {
+      iterator = points.iterator();
+    }
+
+    @Override
+    public boolean hasNext() {
+      return iterator.hasNext();
+    }
+
+    @Override
+    public TimeValuePair next() {
+      return iterator.next();
+    }
+
+    @Override
+    public void skipCurrentTimeValuePair() {
+      iterator.next();
+    }
+
+    @Override
+    public void close() {
+    }
+
+    @Override
+    public boolean hasNextBatch() {
+      return false;
+    }
+
+    @Override
+    public BatchData nextBatch() {
+      return null;
+    }
+
+    @Override
+    public BatchData currentBatch() {
+      return null;
+    }
+  }
+}
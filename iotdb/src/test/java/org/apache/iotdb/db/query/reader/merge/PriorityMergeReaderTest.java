@@ -20,6 +20,7 @@ package org.apache.iotdb.db.query.reader.merge;
 
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Iterator;
 import java.util.List;
 import org.apache.iotdb.db.query.reader.IReader;
@@ -65,6 +66,112 @@ public class PriorityMergeReaderTest {
     Assert.assertEquals(162, cnt);
   }
 
+  @Test
+  public void testBatch() throws IOException {
+    BatchData[] sequenceBatches = {createBatch(0, 100, 1), createBatch(100, 100, 1),
+        createBatch(200, 100, 1)};
+    // override the points 150, 151 and 160, and add the point 350
+    BatchData unSequenceBatch = createBatch(150, 2, 1);
+    BatchData unSequenceBatch2 = createBatch(160, 1, 1);
+    BatchData unSequenceBatch3 = createBatch(350, 1, 1);
+    negateValues(unSequenceBatch);
+    negateValues(unSequenceBatch2);
+    negateValues(unSequenceBatch3);
+
+    PriorityMergeReader priorityMergeReader = new PriorityMergeReader();
+    priorityMergeReader.addReaderWithPriority(new FakedBatchReader(sequenceBatches),
+        PriorityMergeReader.LOW_PRIORITY);
+    priorityMergeReader.addReaderWithPriority(
+        new FakedBatchReader(unSequenceBatch, unSequenceBatch2, unSequenceBatch3),
+        PriorityMergeReader.HIGH_PRIORITY);
+
+    List<BatchData> batches = new ArrayList<>();
+    List<Long> times = new ArrayList<>();
+    while (priorityMergeReader.hasNextBatch()) {
+      BatchData batchData = priorityMergeReader.nextBatch();
+      Assert.assertTrue(batchData.hasNext());
+      batches.add(batchData);
+      while (batchData.hasNext()) {
+        long time = batchData.currentTime();
+        boolean overridden = time == 150 || time == 151 || time == 160 || time == 350;
+        long expectedValue = overridden ? -time : time;
+        Assert.assertEquals(expectedValue, batchData.getLong());
+        times.add(time);
+        batchData.next();
+      }
+    }
+
+    Assert.assertEquals(301, times.size());
+    for (int i = 0; i < times.size() - 1; i++) {
+      Assert.assertEquals(i, (long) times.get(i));
+    }
+    Assert.assertEquals(350, (long) times.get(300));
+    // the batches not overlapped by other readers are passed through
+    Assert.assertSame(sequenceBatches[0], batches.get(0));
+    Assert.assertSame(sequenceBatches[2], batches.get(batches.size() - 2));
+    Assert.assertSame(unSequenceBatch3, batches.get(batches.size() - 1));
+  }
+
+  private static BatchData createBatch(long startTime, int size, int interval) {
+    BatchData batchData = new BatchData(TSDataType.INT64, true);
+    for (int i = 0; i < size; i++) {
+      batchData.putTime(startTime + i * interval);
+      batchData.putLong(startTime + i * interval);
+    }
+    return batchData;
+  }
+
+  private static void negateValues(BatchData batchData) {
+    for (int i = 0; i < batchData.length(); i++) {
+      batchData.setLong(i, -batchData.getTimeByIndex(i));
+    }
+  }
+
+  private static class FakedBatchReader implements IReader {
+
+    private Iterator<BatchData> iterator;
+    private BatchData batchData;
+
+    FakedBatchReader(BatchData... batches) {
+      iterator = Arrays.asList(batches).iterator();
+    }
+
+    @Override
+    public boolean hasNext() {
+      throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public TimeValuePair next() {
+      throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public void skipCurrentTimeValuePair() {
+      throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public void close() {
+    }
+
+    @Override
+    public boolean hasNextBatch() {
+      return iterator.hasNext();
+    }
+
+    @Override
+    public BatchData nextBatch() {
+      batchData = iterator.next();
+      return batchData;
+    }
+
+    @Override
+    public BatchData currentBatch() {
+      return batchData;
+    }
+  }
+
   public static class FakedPrioritySeriesReader implements IReader {
 
     private Iterator<TimeValuePair> iterator;
@@ -0,0 +1,182 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.db.query.reader.parallel;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.apache.iotdb.db.query.reader.IReader;
+import org.apache.iotdb.db.utils.TimeValuePair;
+import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
+import org.apache.iotdb.tsfile.read.common.BatchData;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Test {@code ParallelSeriesReader}
+ */
+public class ParallelSeriesReaderTest {
+
+  private AtomicInteger runningReads = new AtomicInteger();
+  private AtomicInteger maxRunningReads = new AtomicInteger();
+
+  @Test
+  public void testReadInParallel() throws IOException {
+    int readerNum = 5;
+    int batchNum = 20;
+    ParallelReadScheduler scheduler = new ParallelReadScheduler(2, 1);
+    List<FakedBatchReader> fakedReaders = new ArrayList<>();
+    List<IReader> readers = new ArrayList<>();
+    for (int i = 0; i < readerNum; i++) {
+      FakedBatchReader fakedReader = new FakedBatchReader(batchNum, -1);
+      fakedReaders.add(fakedReader);
+      readers.add(scheduler.wrap(fakedReader));
+    }
+
+    // read the readers alternately, the batches are returned in the original order
+    for (int i = 0; i < batchNum; i++) {
+      for (int j = 0; j < readerNum; j++) {
+        Assert.assertTrue(readers.get(j).hasNextBatch());
+        BatchData batchData = readers.get(j).nextBatch();
+        Assert.assertSame(fakedReaders.get(j).batches.get(i), batchData);
+        Assert.assertSame(batchData, readers.get(j).currentBatch());
+      }
+    }
+    for (IReader reader : readers) {
+      Assert.assertFalse(reader.hasNextBatch());
+    }
+    scheduler.close();
+    Assert.assertTrue(maxRunningReads.get() <= 2);
+  }
+
+  @Test
+  public void testReadPointByPoint() throws IOException {
+    ParallelReadScheduler scheduler = new ParallelReadScheduler(1, 2);
+    IReader reader = scheduler.wrap(new FakedBatchReader(10, -1));
+    long expectedTime = 0;
+    while (reader.hasNext()) {
+      TimeValuePair timeValuePair = reader.next();
+      Assert.assertEquals(expectedTime, timeValuePair.getTimestamp());
+      Assert.assertEquals(expectedTime, timeValuePair.getValue().getLong());
+      expectedTime++;
+    }
+    Assert.assertEquals(10 * FakedBatchReader.BATCH_SIZE, expectedTime);
+    scheduler.close();
+  }
+
+  @Test
+  public void testFailure() throws IOException {
+    ParallelReadScheduler scheduler = new ParallelReadScheduler(2, 2);
+    IReader reader = scheduler.wrap(new FakedBatchReader(10, 3));
+    for (int i = 0; i < 3; i++) {
+      Assert.assertTrue(reader.hasNextBatch());
+      reader.nextBatch();
+    }
+    try {
+      reader.hasNextBatch();
+      Assert.fail();
+    } catch (IOException e) {
+      Assert.assertEquals("failed at batch 3", e.getMessage());
+    }
+    scheduler.close();
+  }
+
+  @Test
+  public void testClose() throws IOException {
+    ParallelReadScheduler scheduler = new ParallelReadScheduler(2, 2);
+    FakedBatchReader fakedReader = new FakedBatchReader(100, -1);
+    IReader reader = scheduler.wrap(fakedReader);
+    Assert.assertTrue(reader.hasNextBatch());
+    reader.nextBatch();
+    scheduler.close();
+    Assert.assertFalse(reader.hasNextBatch());
+    // reading ahead stops at the queue size
+    Assert.assertTrue(fakedReader.index <= 4);
+  }
+
+  private class FakedBatchReader implements IReader {
+
+    private static final int BATCH_SIZE = 10;
+
+    private List<BatchData> batches = new ArrayList<>();
+    private int index = 0;
+    private int failedIndex;
+
+    /**
+     * @param failedIndex -the index of the batch whose reading fails, -1 if never fails
+     */
+    FakedBatchReader(int batchNum, int failedIndex) {
+      for (int i = 0; i < batchNum; i++) {
+        BatchData batchData = new BatchData(TSDataType.INT64, true);
+        for (int j = 0; j < BATCH_SIZE; j++) {
+          batchData.putTime(i * BATCH_SIZE + j);
+          batchData.putLong(i * BATCH_SIZE + j);
+        }
+        batches.add(batchData);
+      }
+      this.failedIndex = failedIndex;
+    }
+
+    @Override
+    public boolean hasNext() {
+      throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public TimeValuePair next() {
+      throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public void skipCurrentTimeValuePair() {
+      throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public void close() {
+    }
+
+    @Override
+    public boolean hasNextBatch() throws IOException {
+      if (index == failedIndex) {
+        throw new IOException("failed at batch " + index);
+      }
+      return index < batches.size();
+    }
+
+    @Override
+    public BatchData nextBatch() {
+      int running = runningReads.incrementAndGet();
+      maxRunningReads.accumulateAndGet(running, Math::max);
+      try {
+        Thread.sleep(1);
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+      runningReads.decrementAndGet();
+      return batches.get(index++);
+    }
+
+    @Override
+    public BatchData currentBatch() {
+      return batches.get(index - 1);
+    }
+  }
+}
@@ -0,0 +1,229 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.db.service;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import org.apache.iotdb.db.qp.physical.crud.BatchInsertPlan;
+import org.apache.iotdb.service.rpc.thrift.TSBatchInsertionReq;
+import org.apache.iotdb.service.rpc.thrift.TSColumnarDataSet;
+import org.apache.iotdb.tsfile.file.metadata.enums.CompressionType;
+import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
+import org.apache.iotdb.tsfile.read.common.Field;
+import org.apache.iotdb.tsfile.read.common.Path;
+import org.apache.iotdb.tsfile.read.common.RowRecord;
+import org.apache.iotdb.tsfile.read.query.dataset.QueryDataSet;
+import org.apache.iotdb.tsfile.utils.Binary;
+import org.junit.Test;
+
+public class UtilsTest {
+
+  private static final String DEVICE = "root.vehicle.d0";
+
+  private ByteBuffer timestamps(long... times) {
+    ByteBuffer buffer = ByteBuffer.allocate(times.length * 8);
+    for (long time : times) {
+      buffer.putLong(time);
+    }
+    buffer.flip();
+    return buffer;
+  }
+
+  private ByteBuffer texts(String... texts) {
+    ByteBuffer buffer = ByteBuffer.allocate(64);
+    for (String text : texts) {
+      byte[] bytes = Binary.valueOf(text).getValues();
+      buffer.putInt(bytes.length);
+      buffer.put(bytes);
+    }
+    buffer.flip();
+    return buffer;
+  }
+
+  private TSBatchInsertionReq createReq(List<String> measurements, List<TSDataType> dataTypes,
+      ByteBuffer timestamps, List<ByteBuffer> values, int size) {
+    List<Integer> types = new ArrayList<>();
+    for (TSDataType dataType : dataTypes) {
+      types.add((int) dataType.serialize());
+    }
+    return new TSBatchInsertionReq(null, DEVICE, measurements, types, timestamps, values, size);
+  }
+
+  @Test
+  public void testConvertToBatchInsertPlan() {
+    ByteBuffer ints = ByteBuffer.allocate(8).putInt(1).putInt(-2);
+    ByteBuffer longs = ByteBuffer.allocate(16).putLong(Long.MAX_VALUE).putLong(-20L);
+    ByteBuffer floats = ByteBuffer.allocate(8).putFloat(1.5f).putFloat(-2.5f);
+    ByteBuffer doubles = ByteBuffer.allocate(16).putDouble(0.1).putDouble(Double.NaN);
+    ByteBuffer booleans = ByteBuffer.allocate(2).put((byte) 1).put((byte) 0);
+    for (ByteBuffer buffer : Arrays.asList(ints, longs, floats, doubles, booleans)) {
+      buffer.flip();
+    }
+    TSBatchInsertionReq req = createReq(Arrays.asList("s0", "s1", "s2", "s3", "s4", "s5"),
+        Arrays.asList(TSDataType.INT32, TSDataType.INT64, TSDataType.FLOAT, TSDataType.DOUBLE,
+            TSDataType.BOOLEAN, TSDataType.TEXT), timestamps(100, 200),
+        Arrays.asList(ints, longs, floats, doubles, booleans, texts("", "text")), 2);
+
+    BatchInsertPlan plan = Utils.convertToBatchInsertPlan(req);
+    assertEquals(DEVICE, plan.getDeviceId());
+    assertEquals(2, plan.getRowCount());
+    assertArrayEquals(new long[]{100, 200}, plan.getTimes());
+    assertArrayEquals(new String[]{"s0", "s1", "s2", "s3", "s4", "s5"}, plan.getMeasurements());
+    assertArrayEquals(new TSDataType[]{TSDataType.INT32, TSDataType.INT64, TSDataType.FLOAT,
+        TSDataType.DOUBLE, TSDataType.BOOLEAN, TSDataType.TEXT}, plan.getDataTypes());
+    Object[] columns = plan.getColumns();
+    assertArrayEquals(new int[]{1, -2}, (int[]) columns[0]);
+    assertArrayEquals(new long[]{Long.MAX_VALUE, -20L}, (long[]) columns[1]);
+    assertArrayEquals(new float[]{1.5f, -2.5f}, (float[]) columns[2], 0);
+    assertArrayEquals(new double[]{0.1, Double.NaN}, (double[]) columns[3], 0);
+    assertArrayEquals(new boolean[]{true, false}, (boolean[]) columns[4]);
+    assertArrayEquals(new Binary[]{Binary.valueOf(""), Binary.valueOf("text")},
+        (Binary[]) columns[5]);
+
+    // the buffers of the request are not consumed
+    assertEquals(8, req.getValues().get(0).remaining());
+  }
+
+  @Test
+  public void testRejectShortBuffer() {
+    // the column holds one value less than the number of rows
+    ByteBuffer longs = ByteBuffer.allocate(8).putLong(1L);
+    longs.flip();
+    assertRejected(createReq(Collections.singletonList("s1"),
+        Collections.singletonList(TSDataType.INT64), timestamps(100, 200),
+        Collections.singletonList(longs), 2));
+
+    // the timestamps are fewer than the rows
+    ByteBuffer ints = ByteBuffer.allocate(8).putInt(1).putInt(2);
+    ints.flip();
+    assertRejected(createReq(Collections.singletonList("s0"),
+        Collections.singletonList(TSDataType.INT32), timestamps(100),
+        Collections.singletonList(ints), 2));
+
+    // the last text value is cut
+    ByteBuffer text = texts("a", "bcd");
+    text.limit(text.limit() - 1);
+    assertRejected(createReq(Collections.singletonList("s5"),
+        Collections.singletonList(TSDataType.TEXT), timestamps(100, 200),
+        Collections.singletonList(text), 2));
+  }
+
+  @Test
+  public void testRejectMalformedBuffer() {
+    // a column longer than the number of rows
+    ByteBuffer ints = ByteBuffer.allocate(12).putInt(1).putInt(2).putInt(3);
+    ints.flip();
+    assertRejected(createReq(Collections.singletonList("s0"),
+        Collections.singletonList(TSDataType.INT32), timestamps(100, 200),
+        Collections.singletonList(ints), 2));
+
+    // a negative text length
+    ByteBuffer text = ByteBuffer.allocate(4).putInt(-1);
+    text.flip();
+    assertRejected(createReq(Collections.singletonList("s5"),
+        Collections.singletonList(TSDataType.TEXT), timestamps(100),
+        Collections.singletonList(text), 1));
+
+    // the types do not match the measurements
+    ByteBuffer doubles = ByteBuffer.allocate(8).putDouble(1.0);
+    doubles.flip();
+    assertRejected(createReq(Arrays.asList("s3", "s4"),
+        Collections.singletonList(TSDataType.DOUBLE), timestamps(100),
+        Collections.singletonList(doubles), 1));
+  }
+
+  private void assertRejected(TSBatchInsertionReq req) {
+    try {
+      Utils.convertToBatchInsertPlan(req);
+      fail();
+    } catch (IllegalArgumentException e) {
+      // expected
+    }
+  }
+
+  @Test
+  public void testConvertSparseDataSetToColumnar() throws IOException {
+    int rowNum = 3000;
+    int denseRowNum = 10;
+    QueryDataSet queryDataSet = new QueryDataSet(
+        Arrays.asList(new Path(DEVICE, "s0"), new Path(DEVICE, "s1")),
+        Arrays.asList(TSDataType.INT64, TSDataType.INT64)) {
+      private int row = 0;
+
+      @Override
+      public boolean hasNext() {
+        return row < rowNum;
+      }
+
+      @Override
+      public RowRecord next() {
+        RowRecord record = new RowRecord(row);
+        Field field = new Field(TSDataType.INT64);
+        field.setLongV(row);
+        record.addField(field);
+        // the second column is null after the first rows
+        field = new Field(TSDataType.INT64);
+        if (row < denseRowNum) {
+          field.setLongV(-row);
+        } else {
+          field.setNull();
+        }
+        record.addField(field);
+        row++;
+        return record;
+      }
+    };
+
+    TSColumnarDataSet dataSet = Utils
+        .convertQueryDataSetToColumnar(queryDataSet, 10000, CompressionType.UNCOMPRESSED);
+    assertEquals(rowNum, dataSet.getRowCount());
+    assertEquals(rowNum * 8, dataSet.getTimestamps().length);
+    int bitmapSize = (rowNum + 7) / 8;
+    for (int i = 0; i < 2; i++) {
+      assertEquals((int) TSDataType.INT64.serialize(), (int) dataSet.getTypes().get(i));
+      assertEquals(bitmapSize, dataSet.getBitmaps().get(i).remaining());
+    }
+    assertEquals(rowNum * 8, dataSet.getValues().get(0).remaining());
+    assertEquals(denseRowNum * 8, dataSet.getValues().get(1).remaining());
+
+    ByteBuffer bitmap = dataSet.getBitmaps().get(1);
+    for (int row = 0; row < rowNum; row++) {
+      boolean hasValue = (bitmap.get(bitmap.position() + row / 8) & (0x80 >>> (row % 8))) != 0;
+      assertEquals(row < denseRowNum, hasValue);
+    }
+    bitmap = dataSet.getBitmaps().get(0);
+    for (int i = 0; i < bitmapSize - 1; i++) {
+      assertEquals((byte) 0xFF, bitmap.get(bitmap.position() + i));
+    }
+    ByteBuffer values = dataSet.getValues().get(1);
+    for (int row = 0; row < denseRowNum; row++) {
+      assertEquals(-row, values.getLong());
+    }
+    assertTrue(!values.hasRemaining());
+  }
+}
@@ -18,6 +18,8 @@
  */
 package org.apache.iotdb.db.utils;
 
+import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
+import org.apache.iotdb.tsfile.utils.Binary;
 import org.junit.Assert;
 import org.junit.Test;
 
@@ -38,16 +40,99 @@ public class PrimitiveArrayListTest {
 
     long timestamp = System.currentTimeMillis();
     int count = 10000;
-    PrimitiveArrayList primitiveArrayList = new PrimitiveArrayList(int.class);
+    PrimitiveArrayList primitiveArrayList = PrimitiveArrayListFactory
+        .getByDataType(TSDataType.INT32);
     for (int i = 0; i < count; i++) {
-      primitiveArrayList.putTimestamp(i, i);
+      primitiveArrayList.putInt(i, i);
     }
 
     for (int i = 0; i < count; i++) {
-      int v = (int) primitiveArrayList.getValue(i);
+      int v = primitiveArrayList.getInt(i);
       Assert.assertEquals((long) i, primitiveArrayList.getTimestamp(i));
       Assert.assertEquals(i, v);
     }
     printMemUsed();
   }
+
+  @Test
+  public void releaseTest() {
+    int count = PrimitiveArrayPool.ARRAY_SIZE * 3 + 1;
+    PrimitiveArrayList list = PrimitiveArrayListFactory.getByDataType(TSDataType.TEXT);
+    for (int i = 0; i < count; i++) {
+      list.putBinary(i, Binary.valueOf(String.valueOf(i)));
+    }
+    Assert.assertEquals(count, list.size());
+    Assert.assertEquals(String.valueOf(count - 1), list.getBinary(count - 1).getStringValue());
+    Assert.assertEquals(new TsPrimitiveType.TsBinary(Binary.valueOf("7")),
+        list.getPrimitiveValue(7));
+
+    list.release();
+    Assert.assertEquals(0, list.size());
+
+    // the list can be used again after being released
+    list.putBinary(100, Binary.valueOf("a"));
+    Assert.assertEquals(1, list.size());
+    Assert.assertEquals(100, list.getTimestamp(0));
+    Assert.assertEquals("a", list.getBinary(0).getStringValue());
+  }
+
+  @Test
+  public void sortedArrayTest() {
+    // in order, the arrays are only copied
+    PrimitiveArrayList list = PrimitiveArrayListFactory.getByDataType(TSDataType.INT64);
+    for (int i = 0; i < 1000; i++) {
+      list.putLong(i, i * 10L);
+    }
+    SortedTimeValueArray sortedArray = list.getSortedArray();
+    Assert.assertEquals(1000, sortedArray.size());
+    for (int i = 0; i < 1000; i++) {
+      Assert.assertEquals(i, sortedArray.getTimestamp(i));
+      Assert.assertEquals(i * 10L, sortedArray.getLong(i));
+    }
+
+    // out of order with duplicated timestamps, the value put last wins
+    list = PrimitiveArrayListFactory.getByDataType(TSDataType.INT32);
+    int count = 3000;
+    for (int i = 0; i < count; i++) {
+      list.putInt((i * 7919L) % 1000, i);
+    }
+    sortedArray = list.getSortedArray();
+    Assert.assertEquals(1000, sortedArray.size());
+    for (int i = 0; i < 1000; i++) {
+      Assert.assertEquals(i, sortedArray.getTimestamp(i));
+      int value = sortedArray.getInt(i);
+      Assert.assertEquals(i, (value * 7919L) % 1000);
+      Assert.assertTrue(value >= count - 1000);
+    }
+  }
+
+  @Test
+  public void firstBlockTest() {
+    PrimitiveArrayList list = PrimitiveArrayListFactory.getByDataType(TSDataType.DOUBLE);
+    list.putDouble(0, 0.5);
+    // a sparse series does not hold a full block
+    Assert.assertTrue(list.timestamps.get(0).length < PrimitiveArrayPool.ARRAY_SIZE);
+    Assert.assertTrue(((double[]) list.values.get(0)).length < PrimitiveArrayPool.ARRAY_SIZE);
+
+    // the first block grows up to the size of the pooled blocks which follow it
+    int count = PrimitiveArrayPool.ARRAY_SIZE * 2 + 1;
+    for (int i = 1; i < count; i++) {
+      list.putDouble(i, i + 0.5);
+    }
+    Assert.assertEquals(3, list.timestamps.size());
+    for (long[] timestamps : list.timestamps) {
+      Assert.assertEquals(PrimitiveArrayPool.ARRAY_SIZE, timestamps.length);
+    }
+    for (int i = 0; i < count; i++) {
+      Assert.assertEquals(i, list.getTimestamp(i));
+      Assert.assertEquals(i + 0.5, list.getDouble(i), 0);
+    }
+    list.release();
+  }
+
+  @Test(expected = UnsupportedOperationException.class)
+  public void wrongTypeTest() {
+    PrimitiveArrayList list = PrimitiveArrayListFactory.getByDataType(TSDataType.DOUBLE);
+    list.putLong(1, 1L);
+  }
 }
@@ -0,0 +1,242 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.db.writelog;
+
+import static junit.framework.TestCase.assertEquals;
+import static junit.framework.TestCase.assertTrue;
+import static junit.framework.TestCase.fail;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import org.apache.iotdb.db.conf.IoTDBConfig;
+import org.apache.iotdb.db.conf.IoTDBDescriptor;
+import org.apache.iotdb.db.qp.physical.PhysicalPlan;
+import org.apache.iotdb.db.qp.physical.crud.BatchInsertPlan;
+import org.apache.iotdb.db.qp.physical.crud.DeletePlan;
+import org.apache.iotdb.db.utils.EnvironmentUtils;
+import org.apache.iotdb.db.writelog.io.ILogWriter;
+import org.apache.iotdb.db.writelog.io.RAFLogReader;
+import org.apache.iotdb.db.writelog.node.GroupCommitWriteLogNode;
+import org.apache.iotdb.db.writelog.node.WriteLogNode;
+import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
+import org.apache.iotdb.tsfile.read.common.Path;
+import org.apache.iotdb.tsfile.utils.Binary;
+import org.apache.iotdb.tsfile.write.record.TSRecord;
+import org.apache.iotdb.tsfile.write.record.datapoint.DoubleDataPoint;
+import org.apache.iotdb.tsfile.write.record.datapoint.LongDataPoint;
+import org.apache.iotdb.tsfile.write.record.datapoint.StringDataPoint;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class GroupCommitWriteLogNodeTest {
+
+  private static final String DEVICE = "root.groupCommitTestDevice";
+
+  private IoTDBConfig config = IoTDBDescriptor.getInstance().getConfig();
+
+  private boolean enableWal;
+  private WalFsyncPolicy fsyncPolicy;
+  private int walBufferSize;
+  private File tempRestore;
+  private File tempProcessorStore;
+
+  @Before
+  public void setUp() throws Exception {
+    enableWal = config.enableWal;
+    fsyncPolicy = config.walFsyncPolicy;
+    walBufferSize = config.walBufferSize;
+    config.enableWal = true;
+    EnvironmentUtils.envSetUp();
+    tempRestore = new File("testtemp", "restore");
+    tempProcessorStore = new File("testtemp", "processorStore");
+    tempRestore.getParentFile().mkdirs();
+    tempRestore.createNewFile();
+    tempProcessorStore.createNewFile();
+  }
+
+  @After
+  public void tearDown() throws Exception {
+    tempRestore.delete();
+    tempProcessorStore.delete();
+    tempRestore.getParentFile().delete();
+    EnvironmentUtils.cleanEnv();
+    config.enableWal = enableWal;
+    config.walFsyncPolicy = fsyncPolicy;
+    config.walBufferSize = walBufferSize;
+  }
+
+  @Test
+  public void testTypedLog() throws IOException {
+    config.walFsyncPolicy = WalFsyncPolicy.PERIODIC;
+    WriteLogNode logNode = new GroupCommitWriteLogNode(DEVICE, tempRestore.getPath(),
+        tempProcessorStore.getPath());
+
+    TSRecord record = new TSRecord(100, DEVICE);
+    record.addTuple(new LongDataPoint("s1", 15L));
+    record.addTuple(new DoubleDataPoint("s2", 1.5));
+    record.addTuple(new StringDataPoint("s3", Binary.valueOf("str")));
+    DeletePlan deletePlan = new DeletePlan(50, new Path(DEVICE + ".s1"));
+    logNode.write(new BatchInsertPlan(record));
+    logNode.write(deletePlan);
+
+    // nothing is written before a commit
+    File walFile = new File(config.walFolder + File.separator + DEVICE + File.separator + "wal");
+    assertTrue(!walFile.exists() || walFile.length() == 0);
+    logNode.forceSync();
+    assertTrue(walFile.exists());
+
+    RAFLogReader reader = new RAFLogReader(walFile);
+    BatchInsertPlan insertPlan = (BatchInsertPlan) reader.next();
+    assertEquals(DEVICE, insertPlan.getDeviceId());
+    assertEquals(1, insertPlan.getRowCount());
+    assertEquals(100, insertPlan.getTimes()[0]);
+    assertEquals(Arrays.asList("s1", "s2", "s3"), Arrays.asList(insertPlan.getMeasurements()));
+    assertEquals(Arrays.asList(TSDataType.INT64, TSDataType.DOUBLE, TSDataType.TEXT),
+        Arrays.asList(insertPlan.getDataTypes()));
+    assertEquals(record.toString(), insertPlan.getRecord(0).toString());
+    DeletePlan deletePlan2 = (DeletePlan) reader.next();
+    assertEquals(deletePlan.getDeleteTime(), deletePlan2.getDeleteTime());
+    assertEquals(deletePlan.getPaths(), deletePlan2.getPaths());
+    assertTrue(!reader.hasNext());
+    reader.close();
+
+    logNode.delete();
+  }
+
+  @Test
+  public void testConcurrentWrite() throws Exception {
+    config.walFsyncPolicy = WalFsyncPolicy.EVERY_COMMIT;
+    // a small buffer makes writers commit when it is full
+    config.walBufferSize = 1024;
+    WriteLogNode logNode = new GroupCommitWriteLogNode(DEVICE, tempRestore.getPath(),
+        tempProcessorStore.getPath());
+
+    int threadNum = 4;
+    int logPerThread = 500;
+    ExecutorService pool = Executors.newFixedThreadPool(threadNum);
+    List<Future<?>> futures = new ArrayList<>();
+    for (int i = 0; i < threadNum; i++) {
+      long offset = i * (long) logPerThread;
+      futures.add(pool.submit(() -> {
+        for (int j = 0; j < logPerThread; j++) {
+          TSRecord record = new TSRecord(offset + j, DEVICE);
+          record.addTuple(new LongDataPoint("s1", offset + j));
+          logNode.write(new BatchInsertPlan(record));
+        }
+        return null;
+      }));
+    }
+    for (Future<?> future : futures) {
+      future.get();
+    }
+    pool.shutdown();
+
+    // with EVERY_COMMIT, every log is in the file once write returns
+    File walFile = new File(config.walFolder + File.separator + DEVICE + File.separator + "wal");
+    RAFLogReader reader = new RAFLogReader(walFile);
+    boolean[] found = new boolean[threadNum * logPerThread];
+    int count = 0;
+    while (reader.hasNext()) {
+      PhysicalPlan plan = reader.next();
+      BatchInsertPlan insertPlan = (BatchInsertPlan) plan;
+      long time = insertPlan.getTimes()[0];
+      assertEquals(time, ((long[]) insertPlan.getColumns()[0])[0]);
+      found[(int) time] = true;
+      count++;
+    }
+    reader.close();
+    assertEquals(threadNum * logPerThread, count);
+    for (boolean f : found) {
+      assertTrue(f);
+    }
+
+    logNode.delete();
+  }
+
+  @Test
+  public void testFailedCommit() throws IOException {
+    config.walFsyncPolicy = WalFsyncPolicy.EVERY_COMMIT;
+    boolean[] failing = new boolean[1];
+    WriteLogNode logNode = new GroupCommitWriteLogNode(DEVICE, tempRestore.getPath(),
+        tempProcessorStore.getPath()) {
+      @Override
+      protected ILogWriter getCurrentFileWriter() {
+        ILogWriter writer = super.getCurrentFileWriter();
+        return new ILogWriter() {
+          @Override
+          public void write(List<byte[]> logCache) throws IOException {
+            writer.write(logCache);
+          }
+
+          @Override
+          public void write(ByteBuffer logBuffer) throws IOException {
+            if (failing[0]) {
+              throw new IOException("injected failure");
+            }
+            writer.write(logBuffer);
+          }
+
+          @Override
+          public void force() throws IOException {
+            writer.force();
+          }
+
+          @Override
+          public void close() throws IOException {
+            writer.close();
+          }
+        };
+      }
+    };
+
+    logNode.write(new DeletePlan(10, new Path(DEVICE + ".s1")));
+    failing[0] = true;
+    try {
+      logNode.write(new DeletePlan(20, new Path(DEVICE + ".s1")));
+      fail("the log of a failed commit must not be acknowledged");
+    } catch (IOException e) {
+      // expected
+    }
+    // the failure is kept although the file could be written again
+    failing[0] = false;
+    try {
+      logNode.write(new DeletePlan(30, new Path(DEVICE + ".s1")));
+      fail("a log must not be acknowledged after a failed commit");
+    } catch (IOException e) {
+      // expected
+    }
+    logNode.forceSync();
+
+    File walFile = new File(config.walFolder + File.separator + DEVICE + File.separator + "wal");
+    RAFLogReader reader = new RAFLogReader(walFile);
+    assertEquals(10, ((DeletePlan) reader.next()).getDeleteTime());
+    assertTrue(!reader.hasNext());
+    reader.close();
+
+    logNode.delete();
+  }
+}
@@ -19,23 +19,42 @@
 package org.apache.iotdb.db.writelog;
 
 import static junit.framework.TestCase.assertTrue;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.fail;
 
 import java.io.File;
 import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import org.apache.iotdb.db.concurrent.ThreadName;
 import org.apache.iotdb.db.conf.IoTDBConfig;
+import org.apache.iotdb.db.conf.IoTDBConstant;
 import org.apache.iotdb.db.conf.IoTDBDescriptor;
 import org.apache.iotdb.db.exception.MetadataArgsErrorException;
 import org.apache.iotdb.db.exception.PathErrorException;
+import org.apache.iotdb.db.exception.ProcessorException;
 import org.apache.iotdb.db.exception.RecoverException;
 import org.apache.iotdb.db.metadata.MManager;
+import org.apache.iotdb.db.qp.physical.PhysicalPlan;
 import org.apache.iotdb.db.qp.physical.crud.DeletePlan;
 import org.apache.iotdb.db.qp.physical.crud.InsertPlan;
 import org.apache.iotdb.db.qp.physical.crud.UpdatePlan;
 import org.apache.iotdb.db.utils.EnvironmentUtils;
 import org.apache.iotdb.db.writelog.manager.MultiFileLogNodeManager;
 import org.apache.iotdb.db.writelog.manager.WriteLogNodeManager;
+import org.apache.iotdb.db.writelog.node.ExclusiveWriteLogNode;
 import org.apache.iotdb.db.writelog.node.WriteLogNode;
+import org.apache.iotdb.db.writelog.recover.ExclusiveLogRecoverPerformer;
+import org.apache.iotdb.db.writelog.replay.LogReplayer;
 import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
 import org.apache.iotdb.tsfile.file.metadata.enums.TSEncoding;
 import org.apache.iotdb.tsfile.read.common.Path;
@@ -136,4 +155,137 @@ public class WriteLogNodeManagerTest {
     }
     manager.recover();
   }
+
+  @Test
+  public void testRecoverInParallel() throws Exception {
+    // this test recovers 4 storage groups on 2 threads, each node is replayed exactly once
+    int walRecoverThreadNum = config.walRecoverThreadNum;
+    config.walRecoverThreadNum = 2;
+    try {
+      List<File> tempFiles = new ArrayList<>();
+      CountingReplayer replayer = new CountingReplayer();
+      Map<String, AtomicInteger> fileNodeRecovered = new ConcurrentHashMap<>();
+      for (int i = 0; i < 4; i++) {
+        createRecoverNode("root.parallelTest" + i, i + 1, tempFiles, replayer,
+            fileNodeRecovered, false);
+      }
+
+      MultiFileLogNodeManager.getInstance().recover();
+
+      for (int i = 0; i < 4; i++) {
+        String identifier = "root.parallelTest" + i + IoTDBConstant.BUFFERWRITE_LOG_NODE_SUFFIX;
+        assertEquals(1, fileNodeRecovered.get(identifier).get());
+        assertEquals(i + 1, replayer.replayedPlans.get("root.parallelTest" + i).get());
+      }
+      // the nodes are replayed by the recover pool, which has at most 2 threads
+      assertTrue(replayer.threadNames.size() <= 2);
+      for (String threadName : replayer.threadNames) {
+        assertTrue(threadName.contains(ThreadName.WAL_RECOVER.getName()));
+      }
+
+      MBeanServer mbs = ManagementFactory.getPlatformMBeanServer();
+      ObjectName mbeanName = new ObjectName(String.format("%s:%s=%s",
+          IoTDBConstant.IOTDB_PACKAGE, IoTDBConstant.JMX_TYPE,
+          MultiFileLogNodeManager.getInstance().getID().getJmxName()));
+      assertFalse((Boolean) mbs.getAttribute(mbeanName, "Recovering"));
+      assertEquals(2, mbs.getAttribute(mbeanName, "RecoverThreadNum"));
+      assertEquals(4, mbs.getAttribute(mbeanName, "LogNodeNum"));
+      assertEquals(4, mbs.getAttribute(mbeanName, "RecoveredLogNodeNum"));
+      assertEquals(10L, mbs.getAttribute(mbeanName, "ReplayedLogNum"));
+      long totalLogBytes = (Long) mbs.getAttribute(mbeanName, "TotalLogBytes");
+      assertTrue(totalLogBytes > 0);
+      assertEquals(totalLogBytes, mbs.getAttribute(mbeanName, "ReplayedLogBytes"));
+      assertEquals(100.0, (Double) mbs.getAttribute(mbeanName, "ReplayProgressPercent"), 0.01);
+
+      for (File file : tempFiles) {
+        file.delete();
+      }
+    } finally {
+      config.walRecoverThreadNum = walRecoverThreadNum;
+    }
+  }
+
+  @Test
+  public void testRecoverInParallelFailure() throws Exception {
+    // this test fails one of 3 storage groups, the others are still recovered
+    int walRecoverThreadNum = config.walRecoverThreadNum;
+    config.walRecoverThreadNum = 3;
+    try {
+      List<File> tempFiles = new ArrayList<>();
+      CountingReplayer replayer = new CountingReplayer();
+      Map<String, AtomicInteger> fileNodeRecovered = new ConcurrentHashMap<>();
+      for (int i = 0; i < 3; i++) {
+        createRecoverNode("root.failureTest" + i, 2, tempFiles, replayer, fileNodeRecovered,
+            i == 1);
+      }
+
+      try {
+        MultiFileLogNodeManager.getInstance().recover();
+        fail();
+      } catch (RecoverException e) {
+        assertEquals("root.failureTest1 cannot be recovered", e.getMessage());
+      }
+
+      assertEquals(2, replayer.replayedPlans.get("root.failureTest0").get());
+      assertFalse(replayer.replayedPlans.containsKey("root.failureTest1"));
+      assertEquals(2, replayer.replayedPlans.get("root.failureTest2").get());
+      assertEquals(2, MultiFileLogNodeManager.getInstance().getRecoveredLogNodeNum());
+      assertFalse(MultiFileLogNodeManager.getInstance().isRecovering());
+
+      for (File file : tempFiles) {
+        file.delete();
+      }
+    } finally {
+      config.walRecoverThreadNum = walRecoverThreadNum;
+    }
+  }
+
+  /**
+   * create a log node of the storage group holding logNum insertions, whose recovery is counted
+   * by the replayer and fileNodeRecovered.
+   */
+  private void createRecoverNode(String storageGroup, int logNum, List<File> tempFiles,
+      CountingReplayer replayer, Map<String, AtomicInteger> fileNodeRecovered, boolean fail)
+      throws IOException {
+    File tempRestore = File.createTempFile("managerTest", "restore");
+    File tempProcessorStore = File.createTempFile("managerTest", "processorStore");
+    tempFiles.add(tempRestore);
+    tempFiles.add(tempProcessorStore);
+    String identifier = storageGroup + IoTDBConstant.BUFFERWRITE_LOG_NODE_SUFFIX;
+    ExclusiveWriteLogNode logNode = (ExclusiveWriteLogNode) MultiFileLogNodeManager.getInstance()
+        .getNode(identifier, tempRestore.getPath(), tempProcessorStore.getPath());
+    for (int i = 0; i < logNum; i++) {
+      logNode.write(new InsertPlan(1, storageGroup, 100 + i, Arrays.asList("s1"),
+          Arrays.asList("1.0")));
+    }
+    logNode.forceSync();
+    logNode.close();
+
+    ExclusiveLogRecoverPerformer performer = new ExclusiveLogRecoverPerformer(
+        tempRestore.getPath(), tempProcessorStore.getPath(), logNode);
+    performer.setReplayer(replayer);
+    performer.setFileNodeRecoverPerformer(() -> {
+      if (fail) {
+        throw new RecoverException(storageGroup + " cannot be recovered");
+      }
+      fileNodeRecovered.computeIfAbsent(identifier, k -> new AtomicInteger()).incrementAndGet();
+    });
+    logNode.setRecoverPerformer(performer);
+  }
+
+  /**
+   * count the replayed plans of every device and the threads replaying them.
+   */
+  private static class CountingReplayer implements LogReplayer {
+
+    private Map<String, AtomicInteger> replayedPlans = new ConcurrentHashMap<>();
+    private Set<String> threadNames = ConcurrentHashMap.newKeySet();
+
+    @Override
+    public void replay(PhysicalPlan plan) throws ProcessorException {
+      String deviceId = ((InsertPlan) plan).getDeviceId();
+      replayedPlans.computeIfAbsent(deviceId, k -> new AtomicInteger()).incrementAndGet();
+      threadNames.add(Thread.currentThread().getName());
+    }
+  }
 }
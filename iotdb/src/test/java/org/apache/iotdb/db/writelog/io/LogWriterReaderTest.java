@@ -19,6 +19,9 @@
 package org.apache.iotdb.db.writelog.io;
 
 import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
 
 import java.io.File;
 import java.io.IOException;
@@ -81,4 +84,34 @@ public class LogWriterReaderTest {
       new File(filePath).delete();
     }
   }
+
+  @Test
+  public void testMmapRead() throws IOException {
+    LogWriter writer = new LogWriter(filePath);
+    for (int i = 0; i < 100; i++) {
+      writer.write(logs);
+    }
+    try {
+      writer.close();
+      // a tiny window makes most logs cross the window boundary
+      MmapLogReader reader = new MmapLogReader(50);
+      reader.open(new File(filePath));
+      RAFLogReader rafReader = new RAFLogReader(new File(filePath));
+      int cnt = 0;
+      while (reader.hasNext()) {
+        assertTrue(rafReader.hasNext());
+        assertArrayEquals(PhysicalPlanLogTransfer.operatorToLog(rafReader.next()),
+            PhysicalPlanLogTransfer.operatorToLog(reader.next()));
+        assertEquals(rafReader.getPosition(), reader.getPosition());
+        cnt++;
+      }
+      assertFalse(rafReader.hasNext());
+      assertEquals(logs.size() * 100, cnt);
+      assertEquals(new File(filePath).length(), reader.getPosition());
+      reader.close();
+      rafReader.close();
+    } finally {
+      new File(filePath).delete();
+    }
+  }
 }
@@ -0,0 +1,151 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.jdbc;
+
+import java.nio.ByteBuffer;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import org.apache.iotdb.service.rpc.thrift.TSColumnarDataSet;
+import org.apache.iotdb.tsfile.compress.UnCompressor;
+import org.apache.iotdb.tsfile.exception.write.UnSupportedDataTypeException;
+import org.apache.iotdb.tsfile.file.metadata.enums.CompressionType;
+import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
+import org.apache.iotdb.tsfile.read.common.Field;
+import org.apache.iotdb.tsfile.read.common.RowRecord;
+import org.apache.iotdb.tsfile.utils.Binary;
+
+/**
+ * Iterates the rows of a column-organized page of query results. The buffers are uncompressed
+ * once, and the values of a row are decoded only when the row is reached.
+ */
+public class ColumnarRecordIterator implements Iterator<RowRecord> {
+
+  private int rowCount;
+  private int rowIndex = 0;
+  private ByteBuffer timeBuffer;
+  /**
+   * null if the column has no value in this page.
+   */
+  private TSDataType[] types;
+  private byte[][] bitmaps;
+  private ByteBuffer[] valueBuffers;
+
+  /**
+   * constructor of ColumnarRecordIterator.
+   *
+   * @param dataSet -columnar data set fetched from the server
+   */
+  public ColumnarRecordIterator(TSColumnarDataSet dataSet) throws IoTDBSQLException {
+    CompressionType compressionType = dataSet.isSetCompressionType()
+        ? CompressionType.valueOf(dataSet.getCompressionType()) : CompressionType.UNCOMPRESSED;
+    UnCompressor unCompressor = UnCompressor.getUnCompressor(compressionType);
+    int columnNum = dataSet.getTypesSize();
+    if (dataSet.getBitmapsSize() != columnNum || dataSet.getValuesSize() != columnNum) {
+      throw new IoTDBSQLException(String.format(
+          "%d columns are fetched, but there are %d bitmaps and %d value buffers", columnNum,
+          dataSet.getBitmapsSize(), dataSet.getValuesSize()));
+    }
+
+    rowCount = dataSet.getRowCount();
+    timeBuffer = ByteBuffer
+        .wrap(uncompress(unCompressor, toBytes(dataSet.bufferForTimestamps())));
+    types = new TSDataType[columnNum];
+    bitmaps = new byte[columnNum][];
+    valueBuffers = new ByteBuffer[columnNum];
+    for (int i = 0; i < columnNum; i++) {
+      int type = dataSet.getTypes().get(i);
+      types[i] = type < 0 ? null : TSDataType.deserialize((short) type);
+      bitmaps[i] = uncompress(unCompressor, toBytes(dataSet.getBitmaps().get(i)));
+      valueBuffers[i] = ByteBuffer.wrap(uncompress(unCompressor,
+          toBytes(dataSet.getValues().get(i))));
+    }
+  }
+
+  private static byte[] toBytes(ByteBuffer buffer) {
+    byte[] bytes = new byte[buffer.remaining()];
+    buffer.duplicate().get(bytes);
+    return bytes;
+  }
+
+  private static byte[] uncompress(UnCompressor unCompressor, byte[] bytes)
+      throws IoTDBSQLException {
+    byte[] uncompressed = unCompressor.uncompress(bytes);
+    if (uncompressed == null) {
+      throw new IoTDBSQLException(String.format("Cannot uncompress the fetched result with %s",
+          unCompressor.getCodecName()));
+    }
+    return uncompressed;
+  }
+
+  @Override
+  public boolean hasNext() {
+    return rowIndex < rowCount;
+  }
+
+  @Override
+  public RowRecord next() {
+    if (!hasNext()) {
+      throw new NoSuchElementException();
+    }
+    RowRecord record = new RowRecord(timeBuffer.getLong());
+    int byteIndex = rowIndex / Byte.SIZE;
+    int mask = 0x80 >>> (rowIndex % Byte.SIZE);
+    for (int i = 0; i < types.length; i++) {
+      if (types[i] == null || (bitmaps[i][byteIndex] & mask) == 0) {
+        Field field = new Field(null);
+        field.setNull();
+        record.getFields().add(field);
+      } else {
+        record.getFields().add(readField(types[i], valueBuffers[i]));
+      }
+    }
+    rowIndex++;
+    return record;
+  }
+
+  private static Field readField(TSDataType dataType, ByteBuffer buffer) {
+    Field field = new Field(dataType);
+    switch (dataType) {
+      case BOOLEAN:
+        field.setBoolV(buffer.get() != 0);
+        break;
+      case INT32:
+        field.setIntV(buffer.getInt());
+        break;
+      case INT64:
+        field.setLongV(buffer.getLong());
+        break;
+      case FLOAT:
+        field.setFloatV(buffer.getFloat());
+        break;
+      case DOUBLE:
+        field.setDoubleV(buffer.getDouble());
+        break;
+      case TEXT:
+        byte[] bytes = new byte[buffer.getInt()];
+        buffer.get(bytes);
+        field.setBinaryV(new Binary(bytes));
+        break;
+      default:
+        throw new UnSupportedDataTypeException(
+            String.format("data type %s is not supported when convert data at client", dataType));
+    }
+    return field;
+  }
+}
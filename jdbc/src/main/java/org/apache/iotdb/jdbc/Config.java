@@ -44,6 +44,16 @@ public class Config {
   public static final String AUTH_PASSWORD = "password";
   public static final String DEFALUT_PASSWORD = "password";
 
+  /**
+   * Compression of the fetched query results, UNCOMPRESSED or SNAPPY.
+   */
+  public static final String RESULT_COMPRESSION = "result_compression";
+
+  /**
+   * Whether to use framed transport, which is required by servers in the selector mode.
+   */
+  public static final String RPC_FRAMED = "rpc_framed";
+
   public static final int RETRY_NUM = 3;
   public static final long RETRY_INTERVAL = 1000;
 
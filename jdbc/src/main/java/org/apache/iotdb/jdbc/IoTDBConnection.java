@@ -55,9 +55,12 @@ import org.apache.iotdb.service.rpc.thrift.TSProtocolVersion;
 import org.apache.iotdb.service.rpc.thrift.TSSetTimeZoneReq;
 import org.apache.iotdb.service.rpc.thrift.TSSetTimeZoneResp;
 import org.apache.iotdb.service.rpc.thrift.TS_SessionHandle;
+import org.apache.iotdb.tsfile.file.metadata.enums.CompressionType;
 import org.apache.thrift.TException;
 import org.apache.thrift.protocol.TBinaryProtocol;
+import org.apache.thrift.transport.TFramedTransport;
 import org.apache.thrift.transport.TSocket;
+import org.apache.thrift.transport.TTransport;
 import org.apache.thrift.transport.TTransportException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -71,7 +74,7 @@ public class IoTDBConnection implements Connection {
   private IoTDBConnectionParams params;
   private boolean isClosed = true;
   private SQLWarning warningChain = null;
-  private TSocket transport;
+  private TTransport transport;
   private TSProtocolVersion protocol;
   private ZoneId zoneId;
   private boolean autoCommit;
@@ -406,12 +409,15 @@ public class IoTDBConnection implements Connection {
   }
 
   private void openTransport() throws TTransportException {
-    transport = new TSocket(params.getHost(), params.getPort(), Config.connectionTimeoutInMs);
+    TSocket socket = new TSocket(params.getHost(), params.getPort(),
+        Config.connectionTimeoutInMs);
     try {
-      transport.getSocket().setKeepAlive(true);
+      socket.getSocket().setKeepAlive(true);
     } catch (SocketException e) {
       logger.error("Cannot set socket keep alive because: " + e.getMessage());
     }
+    // a server in the selector mode only accepts framed requests
+    transport = params.isRpcFramed() ? new TFramedTransport(socket) : socket;
     if (!transport.isOpen()) {
       transport.open();
     }
@@ -476,13 +482,14 @@ public class IoTDBConnection implements Connection {
       return zoneId.toString();
     }
 
-    TSGetTimeZoneResp resp = client.getTimeZone();
+    TSGetTimeZoneResp resp = client.getTimeZone(sessionHandle);
     Utils.verifySuccess(resp.getStatus());
     return resp.getTimeZone();
   }
 
   public void setTimeZone(String zoneId) throws TException, IoTDBSQLException {
     TSSetTimeZoneReq req = new TSSetTimeZoneReq(zoneId);
+    req.setSessionHandle(sessionHandle);
     TSSetTimeZoneResp resp = client.setTimeZone(req);
     Utils.verifySuccess(resp.getStatus());
     this.zoneId = ZoneId.of(zoneId);
@@ -496,6 +503,13 @@ public class IoTDBConnection implements Connection {
     return protocol;
   }
 
+  /**
+   * get the compression requested for fetched query results.
+   */
+  public CompressionType getResultCompression() {
+    return params == null ? CompressionType.UNCOMPRESSED : params.getResultCompression();
+  }
+
   public void setProtocol(TSProtocolVersion protocol) {
     this.protocol = protocol;
   }
@@ -18,6 +18,8 @@
  */
 package org.apache.iotdb.jdbc;
 
+import org.apache.iotdb.tsfile.file.metadata.enums.CompressionType;
+
 public class IoTDBConnectionParams {
 
   private String host = Config.IOTDB_URL_PREFIX;
@@ -26,6 +28,8 @@ public class IoTDBConnectionParams {
   private String seriesName = Config.DEFAULT_SERIES_NAME;
   private String username = Config.DEFAULT_USER;
   private String password = Config.DEFALUT_PASSWORD;
+  private CompressionType resultCompression = CompressionType.UNCOMPRESSED;
+  private boolean rpcFramed = false;
 
   public IoTDBConnectionParams(String url) {
     this.jdbcUriString = url;
@@ -79,4 +83,19 @@ public class IoTDBConnectionParams {
     this.password = password;
   }
 
+  public CompressionType getResultCompression() {
+    return resultCompression;
+  }
+
+  public void setResultCompression(CompressionType resultCompression) {
+    this.resultCompression = resultCompression;
+  }
+
+  public boolean isRpcFramed() {
+    return rpcFramed;
+  }
+
+  public void setRpcFramed(boolean rpcFramed) {
+    this.rpcFramed = rpcFramed;
+  }
 }
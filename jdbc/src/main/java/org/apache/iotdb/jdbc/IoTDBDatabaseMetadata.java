@@ -74,6 +74,7 @@ public class IoTDBDatabaseMetadata implements DatabaseMetaData {
     switch (catalog) {
       case Constant.CATALOG_COLUMN:
         req = new TSFetchMetadataReq(Constant.GLOBAL_COLUMNS_REQ);
+        req.setSessionHandle(connection.sessionHandle);
         req.setColumnPath(schemaPattern);
         try {
           TSFetchMetadataResp resp = client.fetchMetadata(req);
@@ -84,6 +85,7 @@ public class IoTDBDatabaseMetadata implements DatabaseMetaData {
         }
       case Constant.CATALOG_DEVICE:
         req = new TSFetchMetadataReq(Constant.GLOBAL_DELTA_OBJECT_REQ);
+        req.setSessionHandle(connection.sessionHandle);
         req.setColumnPath(schemaPattern);
         try {
           TSFetchMetadataResp resp = client.fetchMetadata(req);
@@ -94,6 +96,7 @@ public class IoTDBDatabaseMetadata implements DatabaseMetaData {
         }
       case Constant.CATALOG_STORAGE_GROUP:
         req = new TSFetchMetadataReq(Constant.GLOBAL_SHOW_STORAGE_GROUP_REQ);
+        req.setSessionHandle(connection.sessionHandle);
         try {
           TSFetchMetadataResp resp = client.fetchMetadata(req);
           Utils.verifySuccess(resp.getStatus());
@@ -104,6 +107,7 @@ public class IoTDBDatabaseMetadata implements DatabaseMetaData {
         }
       case Constant.CATALOG_TIMESERIES:
         req = new TSFetchMetadataReq(Constant.GLOBAL_SHOW_TIMESERIES_REQ);
+        req.setSessionHandle(connection.sessionHandle);
         req.setColumnPath(schemaPattern);
         try {
           TSFetchMetadataResp resp = client.fetchMetadata(req);
@@ -1240,6 +1244,7 @@ public class IoTDBDatabaseMetadata implements DatabaseMetaData {
 
   private String getMetadataInJsonFunc() throws TException, IoTDBSQLException {
     TSFetchMetadataReq req = new TSFetchMetadataReq("METADATA_IN_JSON");
+    req.setSessionHandle(connection.sessionHandle);
     TSFetchMetadataResp resp;
     resp = client.fetchMetadata(req);
     Utils.verifySuccess(resp.getStatus());
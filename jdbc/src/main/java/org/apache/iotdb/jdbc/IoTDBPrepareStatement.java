@@ -23,6 +23,7 @@ import java.io.Reader;
 import java.math.BigDecimal;
 import java.net.URL;
 import java.sql.Array;
+import java.sql.BatchUpdateException;
 import java.sql.Blob;
 import java.sql.Clob;
 import java.sql.Date;
@@ -46,27 +47,106 @@ import java.util.Calendar;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import org.apache.iotdb.service.rpc.thrift.TSClosePreparedStatementReq;
+import org.apache.iotdb.service.rpc.thrift.TSExecuteBatchStatementResp;
+import org.apache.iotdb.service.rpc.thrift.TSExecutePreparedReq;
 import org.apache.iotdb.service.rpc.thrift.TSIService.Iface;
+import org.apache.iotdb.service.rpc.thrift.TSPrepareStatementReq;
+import org.apache.iotdb.service.rpc.thrift.TSPrepareStatementResp;
 import org.apache.iotdb.service.rpc.thrift.TS_SessionHandle;
+import org.apache.iotdb.service.rpc.thrift.TS_StatusCode;
+import org.apache.thrift.TException;
 
 public class IoTDBPrepareStatement extends IoTDBStatement implements PreparedStatement {
 
+  private static final String INSERT_COMMAND_LOWERCASE = "insert";
+  private static final String SELECT_COMMAND_LOWERCASE = "select";
+
   private final String sql;
   /**
    * save the SQL parameters as (paramLoc,paramValue) pairs.
    */
   private final Map<Integer, String> parameters = new HashMap<Integer, String>();
+  private final IoTDBConnection connection;
+  private Iface client;
+  private TS_SessionHandle sessionHandle;
+  /**
+   * id of the statement prepared on the server, null if the statement is completed by the client
+   * and sent as SQL text.
+   */
+  private Long statementId = null;
+  private int parameterCount;
+  /**
+   * whether the statement is a query, which is executed with one row of parameters.
+   */
+  private final boolean isQuery;
+  /**
+   * the parameter rows added by addBatch() when the statement is prepared on the server.
+   */
+  private final List<List<String>> parameterRows = new ArrayList<>();
 
   public IoTDBPrepareStatement(IoTDBConnection connection, Iface client,
       TS_SessionHandle sessionHandle, String sql,
       ZoneId zoneId) {
     super(connection, client, sessionHandle, zoneId);
+    this.connection = connection;
+    this.client = client;
+    this.sessionHandle = sessionHandle;
     this.sql = sql;
+    // only insert statements and queries can be prepared on the server
+    String sqlToLowerCase = sql.trim().toLowerCase();
+    this.isQuery = sqlToLowerCase.startsWith(SELECT_COMMAND_LOWERCASE);
+    if (isQuery || sqlToLowerCase.startsWith(INSERT_COMMAND_LOWERCASE)) {
+      prepareOnServer();
+    }
+  }
+
+  /**
+   * ask the server to keep the statement as a plan template. Any failure leaves the statement to be
+   * completed by the client.
+   */
+  private void prepareOnServer() {
+    statementId = null;
+    try {
+      TSPrepareStatementResp resp = client
+          .prepareStatement(new TSPrepareStatementReq(sessionHandle, sql));
+      if (resp != null && resp.getStatus().getStatusCode() == TS_StatusCode.SUCCESS_STATUS
+          && resp.isSetStatementId()) {
+        statementId = resp.getStatementId();
+        parameterCount = resp.getParameterCount();
+      }
+    } catch (TException e) {
+      statementId = null;
+    }
   }
 
   @Override
   public void addBatch() throws SQLException {
-    throw new SQLException("Method not supported");
+    if (isPreparedUpdate()) {
+      parameterRows.add(createParameterRow());
+    } else {
+      super.addBatch(createCompleteSql(sql, parameters));
+    }
+  }
+
+  @Override
+  public void clearBatch() throws SQLException {
+    parameterRows.clear();
+    super.clearBatch();
+  }
+
+  @Override
+  public int[] executeBatch() throws SQLException {
+    if (!isPreparedUpdate()) {
+      return super.executeBatch();
+    }
+    // the batch is reset once it is sent, so that the rows are not sent again by the next batch
+    List<List<String>> rows = new ArrayList<>(parameterRows);
+    try {
+      return executePrepared(rows);
+    } finally {
+      parameterRows.clear();
+    }
   }
 
   @Override
@@ -76,19 +156,134 @@ public class IoTDBPrepareStatement extends IoTDBStatement implements PreparedSta
 
   @Override
   public boolean execute() throws SQLException {
+    if (statementId != null && isQuery) {
+      executePreparedQuery();
+      return true;
+    }
+    if (isPreparedUpdate()) {
+      executeSingleRow();
+      return false;
+    }
     return super.execute(createCompleteSql(sql, parameters));
   }
 
   @Override
   public ResultSet executeQuery() throws SQLException {
+    if (statementId != null && isQuery) {
+      return executePreparedQuery();
+    }
     return super.executeQuery(createCompleteSql(sql, parameters));
   }
 
   @Override
   public int executeUpdate() throws SQLException {
+    if (isPreparedUpdate()) {
+      executeSingleRow();
+      return 0;
+    }
     return super.executeUpdate(createCompleteSql(sql, parameters));
   }
 
+  @Override
+  public void close() throws SQLException {
+    super.close();
+    if (statementId != null) {
+      TSClosePreparedStatementReq closeReq = new TSClosePreparedStatementReq(sessionHandle,
+          statementId);
+      statementId = null;
+      try {
+        client.closePreparedStatement(closeReq);
+      } catch (TException e) {
+        throw new SQLException(
+            "Error occurs when closing prepared statement because " + e.getMessage());
+      }
+    }
+  }
+
+  private void executeSingleRow() throws SQLException {
+    List<List<String>> rows = new ArrayList<>();
+    rows.add(createParameterRow());
+    try {
+      executePrepared(rows);
+    } catch (BatchUpdateException e) {
+      throw new IoTDBSQLException(e.getMessage());
+    }
+  }
+
+  private boolean isPreparedUpdate() {
+    return statementId != null && !isQuery;
+  }
+
+  private ResultSet executePreparedQuery() throws SQLException {
+    List<List<String>> rows = new ArrayList<>();
+    rows.add(createParameterRow());
+    return callPrepared(() -> {
+      TSExecutePreparedReq execReq = new TSExecutePreparedReq(sessionHandle, statementId, rows);
+      execReq.setFetchSize(getFetchSize());
+      return createQueryResultSet(sql, client.executePreparedQuery(execReq));
+    });
+  }
+
+  private int[] executePrepared(List<List<String>> rows) throws SQLException {
+    return callPrepared(() -> executePreparedRows(rows));
+  }
+
+  /**
+   * a request which uses the statement prepared on the server.
+   */
+  private interface PreparedCall<T> {
+
+    T call() throws TException, SQLException;
+  }
+
+  private <T> T callPrepared(PreparedCall<T> preparedCall) throws SQLException {
+    checkConnection("execute prepared statement");
+    try {
+      return preparedCall.call();
+    } catch (TException e) {
+      // the statements prepared by the old session are lost, prepare it again on the new session
+      boolean flag = connection.reconnect();
+      this.client = connection.client;
+      this.sessionHandle = connection.sessionHandle;
+      reInit();
+      if (flag) {
+        try {
+          prepareOnServer();
+          if (statementId == null) {
+            throw new SQLException(
+                String.format("Fail to prepare %s after reconnecting.", sql));
+          }
+          return preparedCall.call();
+        } catch (TException e2) {
+          throw new SQLException(
+              String.format("Fail to execute %s after reconnecting. please check server status",
+                  sql));
+        }
+      } else {
+        throw new SQLException(String
+            .format("Fail to reconnect to server when executing %s. please check server status",
+                sql));
+      }
+    }
+  }
+
+  private int[] executePreparedRows(List<List<String>> rows) throws TException, SQLException {
+    TSExecuteBatchStatementResp execResp = client
+        .executePrepared(new TSExecutePreparedReq(sessionHandle, statementId, rows));
+    return getUpdateCounts(execResp);
+  }
+
+  private List<String> createParameterRow() throws SQLException {
+    List<String> row = new ArrayList<>(parameterCount);
+    for (int i = 1; i <= parameterCount; i++) {
+      if (!parameters.containsKey(i)) {
+        throw new SQLException("Parameter #" + i + " is unset");
+      }
+      row.add(parameters.get(i));
+    }
+    return row;
+  }
+
   @Override
   public ResultSetMetaData getMetaData() throws SQLException {
     throw new SQLException("Method not supported");
@@ -26,6 +26,7 @@ import java.net.URL;
 import java.sql.Array;
 import java.sql.Blob;
 import java.sql.Clob;
+import java.sql.Connection;
 import java.sql.Date;
 import java.sql.NClob;
 import java.sql.Ref;
@@ -53,6 +54,7 @@ import org.apache.iotdb.service.rpc.thrift.TSIService;
 import org.apache.iotdb.service.rpc.thrift.TSOperationHandle;
 import org.apache.iotdb.service.rpc.thrift.TSQueryDataSet;
 import org.apache.iotdb.service.rpc.thrift.TS_SessionHandle;
+import org.apache.iotdb.tsfile.file.metadata.enums.CompressionType;
 import org.apache.iotdb.tsfile.read.common.Field;
 import org.apache.iotdb.tsfile.read.common.RowRecord;
 import org.apache.thrift.TException;
@@ -68,6 +70,7 @@ public class IoTDBQueryResultSet implements ResultSet {
   private boolean wasNull = false;
   private boolean isClosed = false;
   private TSIService.Iface client = null;
+  private TS_SessionHandle sessionHandle = null;
   private TSOperationHandle operationHandle = null;
   private List<String> columnInfoList;
   private List<String> columnTypeList;
@@ -79,6 +82,11 @@ public class IoTDBQueryResultSet implements ResultSet {
   private int fetchSize;
   private boolean emptyResultSet = false;
   private String operationType;
+  private CompressionType resultCompression = CompressionType.UNCOMPRESSED;
+  /**
+   * id of the query on the server, -1 if the server does not assign query ids.
+   */
+  private long queryId = -1;
   // 0 means it is not constrained in sql
   private int rowsLimit = 0;
   // 0 means it is not constrained in sql, or the offset position has been reached
@@ -109,10 +117,16 @@ public class IoTDBQueryResultSet implements ResultSet {
     this.maxRows = statement.getMaxRows();
     this.fetchSize = statement.getFetchSize();
     this.client = client;
+    this.sessionHandle = sessionHandle;
     this.operationHandle = operationHandle;
     this.sql = sql;
     this.operationType = aggregations;
     this.columnTypeList = columnTypeList;
+    Connection connection = statement.getConnection();
+    if (connection instanceof IoTDBConnection
+        && ((IoTDBConnection) connection).getResultCompression() != null) {
+      this.resultCompression = ((IoTDBConnection) connection).getResultCompression();
+    }
 
     this.columnInfoList = new ArrayList<>();
     this.columnInfoList.add(TIMESTAMP_STR);
@@ -207,6 +221,10 @@ public class IoTDBQueryResultSet implements ResultSet {
     try {
       if (operationHandle != null) {
         TSCloseOperationReq closeReq = new TSCloseOperationReq(operationHandle);
+        closeReq.setSessionHandle(sessionHandle);
+        if (queryId >= 0) {
+          closeReq.setQueryId(queryId);
+        }
         TSCloseOperationResp closeResp = client.closeOperation(closeReq);
         Utils.verifySuccess(closeResp.getStatus());
       }
@@ -692,16 +710,35 @@ public class IoTDBQueryResultSet implements ResultSet {
     throw new SQLException("Method not supported");
   }
 
+  public long getQueryId() {
+    return queryId;
+  }
+
+  public void setQueryId(long queryId) {
+    this.queryId = queryId;
+  }
+
   // the next record rule without constraints
   private boolean nextWithoutConstraints() throws SQLException {
     if ((recordItr == null || !recordItr.hasNext()) && !emptyResultSet) {
       TSFetchResultsReq req = new TSFetchResultsReq(sql, fetchSize);
+      req.setSessionHandle(sessionHandle);
+      // servers not knowing columnar results ignore the flag and still return row records
+      req.setColumnar(true);
+      if (queryId >= 0) {
+        req.setQueryId(queryId);
+      }
+      if (resultCompression != CompressionType.UNCOMPRESSED) {
+        req.setCompressionType(resultCompression.toString());
+      }
 
       try {
         TSFetchResultsResp resp = client.fetchResults(req);
         Utils.verifySuccess(resp.getStatus());
         if (!resp.hasResultSet) {
           emptyResultSet = true;
+        } else if (resp.isSetColumnarDataSet()) {
+          recordItr = new ColumnarRecordIterator(resp.getColumnarDataSet());
         } else {
           TSQueryDataSet tsQueryDataSet = resp.getQueryDataSet();
           List<RowRecord> records = Utils.convertRowRecords(tsQueryDataSet);
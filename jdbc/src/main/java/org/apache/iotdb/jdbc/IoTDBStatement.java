@@ -57,6 +57,10 @@ public class IoTDBStatement implements Statement {
   private TSIService.Iface client = null;
   private TS_SessionHandle sessionHandle = null;
   private TSOperationHandle operationHandle = null;
+  /**
+   * id of the last query on the server, -1 if there is none or the server does not assign ids.
+   */
+  private long queryId = -1;
   private List<String> batchSQLList;
   /**
    * Keep state so we can fail certain calls made after close().
@@ -153,6 +157,10 @@ public class IoTDBStatement implements Statement {
     try {
       if (operationHandle != null) {
         TSCloseOperationReq closeReq = new TSCloseOperationReq(operationHandle);
+        closeReq.setSessionHandle(sessionHandle);
+        if (queryId >= 0) {
+          closeReq.setQueryId(queryId);
+        }
         TSCloseOperationResp closeResp = client.closeOperation(closeReq);
         Utils.verifySuccess(closeResp.getStatus());
       }
@@ -243,13 +251,16 @@ public class IoTDBStatement implements Statement {
       return true;
     } else {
       TSExecuteStatementReq execReq = new TSExecuteStatementReq(sessionHandle, sql);
+      execReq.setFetchSize(fetchSize);
       TSExecuteStatementResp execResp = client.executeStatement(execReq);
       operationHandle = execResp.getOperationHandle();
       Utils.verifySuccess(execResp.getStatus());
       if (execResp.getOperationHandle().hasResultSet) {
-        resultSet = new IoTDBQueryResultSet(this, execResp.getColumns(), client, sessionHandle,
-            operationHandle,
+        IoTDBQueryResultSet queryResultSet = new IoTDBQueryResultSet(this, execResp.getColumns(),
+            client, sessionHandle, operationHandle,
             sql, execResp.getOperationType(), getColumnsType(execResp.getColumns()));
+        setQueryId(queryResultSet, execResp);
+        resultSet = queryResultSet;
         return true;
       }
       return false;
@@ -284,6 +295,16 @@ public class IoTDBStatement implements Statement {
     TSExecuteBatchStatementReq execReq = new TSExecuteBatchStatementReq(sessionHandle,
         batchSQLList);
     TSExecuteBatchStatementResp execResp = client.executeBatchStatement(execReq);
+    return getUpdateCounts(execResp);
+  }
+
+  /**
+   * convert the response of a batch to the update counts of its statements.
+   *
+   * @throws BatchUpdateException if any statement of the batch fails
+   */
+  static int[] getUpdateCounts(TSExecuteBatchStatementResp execResp)
+      throws BatchUpdateException {
     if (execResp.getStatus().statusCode == TS_StatusCode.SUCCESS_STATUS) {
       if (execResp.getResult() == null) {
         return new int[0];
@@ -340,15 +361,37 @@ public class IoTDBStatement implements Statement {
   private ResultSet executeQuerySQL(String sql) throws TException, SQLException {
     isCancelled = false;
     TSExecuteStatementReq execReq = new TSExecuteStatementReq(sessionHandle, sql);
+    execReq.setFetchSize(fetchSize);
     TSExecuteStatementResp execResp = client.executeQueryStatement(execReq);
+    return createQueryResultSet(sql, execResp);
+  }
+
+  /**
+   * open the result set of a query executed by the server.
+   *
+   * @param sql the statement which the results are fetched for
+   */
+  ResultSet createQueryResultSet(String sql, TSExecuteStatementResp execResp)
+      throws SQLException {
     operationHandle = execResp.getOperationHandle();
     Utils.verifySuccess(execResp.getStatus());
-    resultSet = new IoTDBQueryResultSet(this, execResp.getColumns(), client, sessionHandle,
-        operationHandle, sql,
+    IoTDBQueryResultSet queryResultSet = new IoTDBQueryResultSet(this, execResp.getColumns(),
+        client, sessionHandle, operationHandle, sql,
         execResp.getOperationType(), getColumnsType(execResp.getColumns()));
+    setQueryId(queryResultSet, execResp);
+    resultSet = queryResultSet;
     return resultSet;
   }
 
+  private void setQueryId(IoTDBQueryResultSet queryResultSet, TSExecuteStatementResp execResp) {
+    if (execResp.isSetQueryId()) {
+      queryId = execResp.getQueryId();
+      queryResultSet.setQueryId(queryId);
+    } else {
+      queryId = -1;
+    }
+  }
+
   @Override
   public int executeUpdate(String sql) throws SQLException {
     checkConnection("execute update");
@@ -546,13 +589,13 @@ public class IoTDBStatement implements Statement {
     throw new SQLException("Method not supported");
   }
 
-  private void checkConnection(String action) throws SQLException {
+  void checkConnection(String action) throws SQLException {
     if (connection == null || connection.isClosed()) {
       throw new SQLException(String.format("Cannot %s after connection has been closed!", action));
     }
   }
 
-  private void reInit() {
+  void reInit() {
     this.client = connection.client;
     this.sessionHandle = connection.sessionHandle;
   }
@@ -570,6 +613,7 @@ public class IoTDBStatement implements Statement {
 
     req = new TSFetchMetadataReq(Constant.GLOBAL_COLUMN_REQ);
     req.setColumnPath(columnName);
+    req.setSessionHandle(sessionHandle);
 
     TSFetchMetadataResp resp;
     try {
@@ -29,6 +29,7 @@ import org.apache.iotdb.service.rpc.thrift.TSRowRecord;
 import org.apache.iotdb.service.rpc.thrift.TS_Status;
 import org.apache.iotdb.service.rpc.thrift.TS_StatusCode;
 import org.apache.iotdb.tsfile.exception.write.UnSupportedDataTypeException;
+import org.apache.iotdb.tsfile.file.metadata.enums.CompressionType;
 import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
 import org.apache.iotdb.tsfile.read.common.Field;
 import org.apache.iotdb.tsfile.read.common.RowRecord;
@@ -68,6 +69,19 @@ public class Utils {
     if (info.containsKey(Config.AUTH_PASSWORD)) {
       params.setPassword(info.getProperty(Config.AUTH_PASSWORD));
     }
+    if (info.containsKey(Config.RESULT_COMPRESSION)) {
+      String compression = info.getProperty(Config.RESULT_COMPRESSION).trim().toUpperCase();
+      if (!CompressionType.UNCOMPRESSED.toString().equals(compression)
+          && !CompressionType.SNAPPY.toString().equals(compression)) {
+        throw new IoTDBURLException(String.format(
+            "Unsupported %s %s, it should be UNCOMPRESSED or SNAPPY", Config.RESULT_COMPRESSION,
+            compression));
+      }
+      params.setResultCompression(CompressionType.valueOf(compression));
+    }
+    if (info.containsKey(Config.RPC_FRAMED)) {
+      params.setRpcFramed(Boolean.parseBoolean(info.getProperty(Config.RPC_FRAMED).trim()));
+    }
 
     return params;
   }
@@ -68,7 +68,7 @@ public class IoTDBConnectionTest {
   @Test
   public void testGetTimeZone() throws IoTDBSQLException, TException {
     String timeZone = "GMT+:08:00";
-    when(client.getTimeZone()).thenReturn(new TSGetTimeZoneResp(Status_SUCCESS, timeZone));
+    when(client.getTimeZone(any())).thenReturn(new TSGetTimeZoneResp(Status_SUCCESS, timeZone));
     connection.client = client;
     assertEquals(connection.getTimeZone(), timeZone);
   }
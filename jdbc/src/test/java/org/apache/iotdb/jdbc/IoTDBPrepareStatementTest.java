@@ -18,19 +18,35 @@
  */
 package org.apache.iotdb.jdbc;
 
+import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
 import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import java.sql.SQLException;
+import java.sql.Statement;
 import java.sql.Timestamp;
 import java.time.ZoneId;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import org.apache.iotdb.service.rpc.thrift.TSExecuteBatchStatementReq;
+import org.apache.iotdb.service.rpc.thrift.TSExecuteBatchStatementResp;
+import org.apache.iotdb.service.rpc.thrift.TSExecutePreparedReq;
 import org.apache.iotdb.service.rpc.thrift.TSExecuteStatementReq;
 import org.apache.iotdb.service.rpc.thrift.TSExecuteStatementResp;
+import org.apache.iotdb.service.rpc.thrift.TSFetchMetadataReq;
+import org.apache.iotdb.service.rpc.thrift.TSFetchMetadataResp;
 import org.apache.iotdb.service.rpc.thrift.TSGetOperationStatusResp;
 import org.apache.iotdb.service.rpc.thrift.TSIService.Iface;
 import org.apache.iotdb.service.rpc.thrift.TSOperationHandle;
+import org.apache.iotdb.service.rpc.thrift.TSPrepareStatementReq;
+import org.apache.iotdb.service.rpc.thrift.TSPrepareStatementResp;
 import org.apache.iotdb.service.rpc.thrift.TS_SessionHandle;
 import org.apache.iotdb.service.rpc.thrift.TS_Status;
 import org.apache.iotdb.service.rpc.thrift.TS_StatusCode;
@@ -312,4 +328,147 @@ public class IoTDBPrepareStatementTest {
         "INSERT INTO root.ln.wf01.wt01(timestamp,a,b,c,d,e,f) VALUES(2017-11-01T00:13:00,false,123,123234345,123.423,-1323.0,'abc')",
         argument.getValue().getStatement());
   }
+
+  @SuppressWarnings("resource")
+  @Test
+  public void testBatchPreparedOnServer() throws Exception {
+    TSPrepareStatementResp prepareResp = new TSPrepareStatementResp(Status_SUCCESS);
+    prepareResp.setStatementId(7);
+    prepareResp.setParameterCount(2);
+    when(client.prepareStatement(any(TSPrepareStatementReq.class))).thenReturn(prepareResp);
+    TSExecuteBatchStatementResp batchResp = new TSExecuteBatchStatementResp(Status_SUCCESS);
+    batchResp.setResult(Arrays.asList(Statement.SUCCESS_NO_INFO, Statement.SUCCESS_NO_INFO));
+    when(client.executePrepared(any(TSExecutePreparedReq.class))).thenReturn(batchResp);
+
+    String sql = "INSERT INTO root.ln.wf01.wt01(timestamp,f) VALUES(?,?)";
+    IoTDBPrepareStatement ps = new IoTDBPrepareStatement(connection, client, sessHandle, sql,
+        zoneId);
+    ps.setLong(1, 1);
+    ps.setString(2, "abc");
+    ps.addBatch();
+    ps.setLong(1, 2);
+    ps.setString(2, "d'e");
+    ps.addBatch();
+    int[] result = ps.executeBatch();
+
+    assertArrayEquals(new int[]{Statement.SUCCESS_NO_INFO, Statement.SUCCESS_NO_INFO}, result);
+    ArgumentCaptor<TSExecutePreparedReq> argument = ArgumentCaptor
+        .forClass(TSExecutePreparedReq.class);
+    verify(client).executePrepared(argument.capture());
+    assertEquals(7, argument.getValue().getStatementId());
+    List<List<String>> rows = argument.getValue().getParameters();
+    assertEquals(Arrays.asList("1", "'abc'"), rows.get(0));
+    assertEquals(Arrays.asList("2", "'d\\'e'"), rows.get(1));
+  }
+
+  @SuppressWarnings("resource")
+  @Test
+  public void testBatchRoundsPreparedOnServer() throws Exception {
+    TSPrepareStatementResp prepareResp = new TSPrepareStatementResp(Status_SUCCESS);
+    prepareResp.setStatementId(7);
+    prepareResp.setParameterCount(1);
+    when(client.prepareStatement(any(TSPrepareStatementReq.class))).thenReturn(prepareResp);
+    TSExecuteBatchStatementResp batchResp = new TSExecuteBatchStatementResp(Status_SUCCESS);
+    when(client.executePrepared(any(TSExecutePreparedReq.class))).thenReturn(batchResp);
+
+    String sql = "INSERT INTO root.ln.wf01.wt01(timestamp,f) VALUES(?,1)";
+    IoTDBPrepareStatement ps = new IoTDBPrepareStatement(connection, client, sessHandle, sql,
+        zoneId);
+    ps.setLong(1, 1);
+    ps.addBatch();
+    ps.setLong(1, 2);
+    ps.addBatch();
+    ps.executeBatch();
+    ps.setLong(1, 3);
+    ps.addBatch();
+    ps.executeBatch();
+
+    ArgumentCaptor<TSExecutePreparedReq> argument = ArgumentCaptor
+        .forClass(TSExecutePreparedReq.class);
+    verify(client, times(2)).executePrepared(argument.capture());
+    List<TSExecutePreparedReq> requests = argument.getAllValues();
+    assertEquals(Arrays.asList(Arrays.asList("1"), Arrays.asList("2")),
+        requests.get(0).getParameters());
+    assertEquals(Arrays.asList(Arrays.asList("3")), requests.get(1).getParameters());
+  }
+
+  @SuppressWarnings("resource")
+  @Test
+  public void testQueryPreparedOnServer() throws Exception {
+    TSPrepareStatementResp prepareResp = new TSPrepareStatementResp(Status_SUCCESS);
+    prepareResp.setStatementId(8);
+    prepareResp.setParameterCount(1);
+    when(client.prepareStatement(any(TSPrepareStatementReq.class))).thenReturn(prepareResp);
+    TSExecuteStatementResp queryResp = new TSExecuteStatementResp(Status_SUCCESS);
+    queryResp.setOperationHandle(tOperationHandle);
+    queryResp.setColumns(Collections.singletonList("root.ln.wf01.wt01.temperature"));
+    queryResp.setOperationType("QUERY");
+    queryResp.setQueryId(3);
+    when(client.executePreparedQuery(any(TSExecutePreparedReq.class))).thenReturn(queryResp);
+    TSFetchMetadataResp metadataResp = new TSFetchMetadataResp(Status_SUCCESS);
+    metadataResp.setDataType("FLOAT");
+    when(client.fetchMetadata(any(TSFetchMetadataReq.class))).thenReturn(metadataResp);
+
+    String sql = "SELECT temperature FROM root.ln.wf01.wt01 WHERE temperature < ?";
+    IoTDBPrepareStatement ps = new IoTDBPrepareStatement(connection, client, sessHandle, sql,
+        zoneId);
+    ps.setInt(1, 123);
+    assertTrue(ps.execute());
+    assertNotNull(ps.getResultSet());
+    ps.setInt(1, 124);
+    assertNotNull(ps.executeQuery());
+
+    ArgumentCaptor<TSExecutePreparedReq> argument = ArgumentCaptor
+        .forClass(TSExecutePreparedReq.class);
+    verify(client, times(2)).executePreparedQuery(argument.capture());
+    assertEquals(8, argument.getAllValues().get(0).getStatementId());
+    assertEquals(Collections.singletonList(Collections.singletonList("123")),
+        argument.getAllValues().get(0).getParameters());
+    assertEquals(Collections.singletonList(Collections.singletonList("124")),
+        argument.getAllValues().get(1).getParameters());
+    verify(client, never()).executeStatement(any(TSExecuteStatementReq.class));
+  }
+
+  @SuppressWarnings("resource")
+  @Test
+  public void testBatchCompletedByClient() throws Exception {
+    TSExecuteBatchStatementResp batchResp = new TSExecuteBatchStatementResp(Status_SUCCESS);
+    batchResp.setResult(Arrays.asList(Statement.SUCCESS_NO_INFO, Statement.SUCCESS_NO_INFO));
+    when(client.executeBatchStatement(any(TSExecuteBatchStatementReq.class)))
+        .thenReturn(batchResp);
+
+    // the server does not prepare the statement
+    String sql = "INSERT INTO root.ln.wf01.wt01(timestamp,b) VALUES(?,?)";
+    IoTDBPrepareStatement ps = new IoTDBPrepareStatement(connection, client, sessHandle, sql,
+        zoneId);
+    ps.setLong(1, 1);
+    ps.setInt(2, 10);
+    ps.addBatch();
+    ps.setLong(1, 2);
+    ps.setInt(2, 20);
+    ps.addBatch();
+    ps.executeBatch();
+
+    ArgumentCaptor<TSExecuteBatchStatementReq> argument = ArgumentCaptor
+        .forClass(TSExecuteBatchStatementReq.class);
+    verify(client).executeBatchStatement(argument.capture());
+    assertEquals(Arrays.asList("INSERT INTO root.ln.wf01.wt01(timestamp,b) VALUES(1,10)",
+        "INSERT INTO root.ln.wf01.wt01(timestamp,b) VALUES(2,20)"),
+        argument.getValue().getStatements());
+  }
+
+  @SuppressWarnings("resource")
+  @Test(expected = SQLException.class)
+  public void testBatchWithUnsetParameter() throws Exception {
+    TSPrepareStatementResp prepareResp = new TSPrepareStatementResp(Status_SUCCESS);
+    prepareResp.setStatementId(1);
+    prepareResp.setParameterCount(2);
+    when(client.prepareStatement(any(TSPrepareStatementReq.class))).thenReturn(prepareResp);
+
+    String sql = "INSERT INTO root.ln.wf01.wt01(timestamp,b) VALUES(?,?)";
+    IoTDBPrepareStatement ps = new IoTDBPrepareStatement(connection, client, sessHandle, sql,
+        zoneId);
+    ps.setLong(1, 1);
+    ps.addBatch();
+  }
 }
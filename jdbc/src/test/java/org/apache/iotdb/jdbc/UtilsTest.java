@@ -19,18 +19,25 @@
 package org.apache.iotdb.jdbc;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 
+import java.io.IOException;
 import java.nio.ByteBuffer;
+import java.sql.SQLException;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Properties;
+import org.apache.iotdb.service.rpc.thrift.TSColumnarDataSet;
 import org.apache.iotdb.service.rpc.thrift.TSDataValue;
 import org.apache.iotdb.service.rpc.thrift.TSQueryDataSet;
 import org.apache.iotdb.service.rpc.thrift.TSRowRecord;
 import org.apache.iotdb.service.rpc.thrift.TS_Status;
 import org.apache.iotdb.service.rpc.thrift.TS_StatusCode;
+import org.apache.iotdb.tsfile.compress.Compressor;
+import org.apache.iotdb.tsfile.file.metadata.enums.CompressionType;
 import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
 import org.apache.iotdb.tsfile.read.common.Field;
 import org.apache.iotdb.tsfile.read.common.RowRecord;
@@ -187,4 +194,76 @@ public class UtilsTest {
     }
   }
 
+  @Test
+  public void testParseResultCompression() throws IoTDBURLException {
+    Properties properties = new Properties();
+    properties.setProperty(Config.RESULT_COMPRESSION, "snappy");
+    IoTDBConnectionParams params = Utils
+        .parseUrl(Config.IOTDB_URL_PREFIX + "localhost:6667/", properties);
+    assertEquals(CompressionType.SNAPPY, params.getResultCompression());
+
+    properties.setProperty(Config.RESULT_COMPRESSION, "GZIP");
+    try {
+      Utils.parseUrl(Config.IOTDB_URL_PREFIX + "localhost:6667/", properties);
+      fail();
+    } catch (IoTDBURLException e) {
+      // expected
+    }
+  }
+
+  @Test
+  public void testColumnarRecordIterator() throws IOException, SQLException {
+    int rowCount = 20;
+    ByteBuffer timeBuffer = ByteBuffer.allocate(rowCount * 8);
+    byte[] longBitmap = new byte[(rowCount + 7) / 8];
+    ByteBuffer longBuffer = ByteBuffer.allocate(rowCount * 8);
+    byte[] textBitmap = new byte[(rowCount + 7) / 8];
+    ByteBuffer textBuffer = ByteBuffer.allocate(rowCount * 16);
+    for (int i = 0; i < rowCount; i++) {
+      timeBuffer.putLong(i * 100L);
+      textBitmap[i / 8] |= 0x80 >>> (i % 8);
+      byte[] text = ("text" + i).getBytes();
+      textBuffer.putInt(text.length);
+      textBuffer.put(text);
+      // the long column only has values in even rows
+      if (i % 2 == 0) {
+        longBitmap[i / 8] |= 0x80 >>> (i % 8);
+        longBuffer.putLong(-i);
+      }
+    }
+
+    Compressor compressor = Compressor.getCompressor(CompressionType.SNAPPY);
+    TSColumnarDataSet dataSet = new TSColumnarDataSet();
+    dataSet.setRowCount(rowCount);
+    dataSet.setTimestamps(compressor.compress(Arrays.copyOf(timeBuffer.array(),
+        timeBuffer.position())));
+    dataSet.setTypes(Arrays.asList((int) TSDataType.INT64.serialize(),
+        (int) TSDataType.TEXT.serialize(), -1));
+    dataSet.setBitmaps(Arrays.asList(ByteBuffer.wrap(compressor.compress(longBitmap)),
+        ByteBuffer.wrap(compressor.compress(textBitmap)),
+        ByteBuffer.wrap(compressor.compress(new byte[(rowCount + 7) / 8]))));
+    dataSet.setValues(Arrays.asList(
+        ByteBuffer.wrap(compressor.compress(Arrays.copyOf(longBuffer.array(),
+            longBuffer.position()))),
+        ByteBuffer.wrap(compressor.compress(Arrays.copyOf(textBuffer.array(),
+            textBuffer.position()))),
+        ByteBuffer.wrap(compressor.compress(new byte[0]))));
+    dataSet.setCompressionType(CompressionType.SNAPPY.toString());
+
+    ColumnarRecordIterator iterator = new ColumnarRecordIterator(dataSet);
+    for (int i = 0; i < rowCount; i++) {
+      assertTrue(iterator.hasNext());
+      RowRecord record = iterator.next();
+      assertEquals(i * 100L, record.getTimestamp());
+      assertEquals(3, record.getFields().size());
+      if (i % 2 == 0) {
+        assertEquals(-i, record.getFields().get(0).getLongV());
+      } else {
+        assertTrue(record.getFields().get(0).isNull());
+      }
+      assertEquals("text" + i, record.getFields().get(1).getStringValue());
+      assertTrue(record.getFields().get(2).isNull());
+    }
+    assertFalse(iterator.hasNext());
+  }
 }
@@ -73,6 +73,8 @@ struct TSExecuteStatementResp {
   // Column names in select statement of SQL
 	3: optional list<string> columns
 	4: optional string operationType
+  // id of the query on the server, which holds the result set of the query until it is closed
+	5: optional i64 queryId
 }
 
 enum TSProtocolVersion {
@@ -80,7 +82,8 @@ enum TSProtocolVersion {
 }
 
 // Client-side handle to persistent session information on the server-side.
-// In current version, it is not used.
+// The guid of sessionId is the 8-byte id of the session and its secret is a random token issued by
+// the server. Requests that do not carry a handle use the session opened on their connection.
 struct TS_SessionHandle {
   1: required TSHandleIdentifier sessionId
 }
@@ -130,6 +133,9 @@ struct TSExecuteStatementReq {
 
   // The statement to be executed (DML, DDL, SET, etc)
   2: required string statement
+
+  // The number of rows the client fetches at a time, used to prefetch query results
+  3: optional i32 fetchSize
 }
 
 
@@ -148,6 +154,77 @@ struct TSExecuteBatchStatementReq{
 }
 
 
+// InsertBatch()
+//
+// Insert a column-organized batch of rows of one device without going through the SQL parser.
+// All buffers are big-endian. The value buffer of an INT32/FLOAT column holds 4 bytes per row,
+// INT64/DOUBLE 8 bytes per row, BOOLEAN 1 byte per row and TEXT a 4-byte length followed by the
+// UTF-8 bytes for each row.
+struct TSBatchInsertionReq {
+  // The session to execute the insertion against
+  1: required TS_SessionHandle sessionHandle
+
+  2: required string deviceId
+
+  3: required list<string> measurements
+
+  // data type of each measurement, in the serialized form of TSDataType
+  4: required list<i32> types
+
+  // timestamps of all rows, 8 bytes per row
+  5: required binary timestamps
+
+  // one value buffer per measurement
+  6: required list<binary> values
+
+  // number of rows in this batch
+  7: required i32 size
+}
+
+
+// PrepareStatement()
+//
+// Parse a statement with '?' placeholders once and keep it as a plan template in the session.
+struct TSPrepareStatementReq {
+  1: required TS_SessionHandle sessionHandle
+
+  2: required string statement
+}
+
+struct TSPrepareStatementResp {
+  1: required TS_Status status
+
+  // Id of the template in the session. Not set if the statement can not be prepared on the
+  // server, in which case the client sends the completed statement text instead.
+  2: optional i64 statementId
+
+  // number of '?' placeholders in the statement
+  3: optional i32 parameterCount
+}
+
+// ExecutePrepared()
+//
+// Execute a prepared statement once for each row of bound parameters. Each parameter is the SQL
+// literal text that would replace its placeholder, e.g. 123, 1.5 or 'abc' with its quotes.
+// A prepared query is executed by ExecutePreparedQuery() with one row of parameters instead.
+struct TSExecutePreparedReq {
+  1: required TS_SessionHandle sessionHandle
+
+  2: required i64 statementId
+
+  3: required list<list<string>> parameters
+
+  // The number of rows the client fetches at a time, used by executePreparedQuery
+  4: optional i32 fetchSize
+}
+
+struct TSClosePreparedStatementReq {
+  1: required TS_SessionHandle sessionHandle
+
+  2: required i64 statementId
+}
+
+
 struct TSGetOperationStatusReq {
   // Session to run this request against
   1: required TSOperationHandle operationHandle
@@ -173,6 +250,9 @@ struct TSCancelOperationResp {
 // CloseOperation()
 struct TSCloseOperationReq {
   1: required TSOperationHandle operationHandle
+  // The query to close, all queries of the session are closed if it is not set
+  2: optional i64 queryId
+  3: optional TS_SessionHandle sessionHandle
 }
 
 struct TSCloseOperationResp {
@@ -200,15 +280,49 @@ struct TSQueryDataSet{
 	1: required list<TSRowRecord> records
 }
 
+// A column-organized page of query results.
+// All buffers are big-endian and use the layout of TSBatchInsertionReq. If compressionType is set,
+// every buffer is compressed on its own with that compression type.
+struct TSColumnarDataSet{
+  // number of rows in this page
+  1: required i32 rowCount
+
+  // timestamps of all rows, 8 bytes per row
+  2: required binary timestamps
+
+  // data type of each column in the serialized form of TSDataType, -1 if the column has no value
+  // in this page
+  3: required list<i32> types
+
+  // one null bitmap per column, the bit (0x80 >> (i % 8)) of byte (i / 8) is set if the column
+  // has a value in row i
+  4: required list<binary> bitmaps
+
+  // one value buffer per column, holding only the values of the rows set in its bitmap
+  5: required list<binary> values
+
+  // name of the CompressionType of the buffers, absent if they are not compressed
+  6: optional string compressionType
+}
+
 struct TSFetchResultsReq{
 	1: required string statement
 	2: required i32 fetch_size
+	// if true, the results are returned in columnarDataSet instead of queryDataSet
+	3: optional bool columnar
+	// name of the CompressionType used for columnar results, e.g. SNAPPY
+	4: optional string compressionType
+	// the query returned by executeQueryStatement, the last query of the statement is fetched if
+	// it is not set
+	5: optional i64 queryId
+	6: optional TS_SessionHandle sessionHandle
 }
 
 struct TSFetchResultsResp{
 	1: required TS_Status status
 	2: required bool hasResultSet
 	3: optional TSQueryDataSet queryDataSet
+	4: optional TSColumnarDataSet columnarDataSet
 }
 
 struct TSFetchMetadataResp{
@@ -223,6 +337,7 @@ struct TSFetchMetadataResp{
 struct TSFetchMetadataReq{
 		1: required string type
 		2: optional string columnPath
+		3: optional TS_SessionHandle sessionHandle
 }
 
 struct TSColumnSchema{
@@ -239,6 +354,7 @@ struct TSGetTimeZoneResp {
 
 struct TSSetTimeZoneReq {
     1: required string timeZone
+    2: optional TS_SessionHandle sessionHandle
 }
 
 struct TSSetTimeZoneResp {
@@ -259,6 +375,17 @@ service TSIService {
 
 	TSExecuteBatchStatementResp executeBatchStatement(1:TSExecuteBatchStatementReq req);
 
+	TSExecuteBatchStatementResp insertBatch(1:TSBatchInsertionReq req);
+
+	TSPrepareStatementResp prepareStatement(1:TSPrepareStatementReq req);
+
+	TSExecuteBatchStatementResp executePrepared(1:TSExecutePreparedReq req);
+
+	// execute a prepared query with exactly one row of parameters
+	TSExecuteStatementResp executePreparedQuery(1:TSExecutePreparedReq req);
+
+	TSCloseOperationResp closePreparedStatement(1:TSClosePreparedStatementReq req);
+
 	TSExecuteStatementResp executeQueryStatement(1:TSExecuteStatementReq req);
 
 	TSExecuteStatementResp executeUpdateStatement(1:TSExecuteStatementReq req);
@@ -271,7 +398,7 @@ service TSIService {
 
 	TSCloseOperationResp closeOperation(1:TSCloseOperationReq req);
 
-	TSGetTimeZoneResp getTimeZone();
+	TSGetTimeZoneResp getTimeZone(1:TS_SessionHandle sessionHandle);
 
 	TSSetTimeZoneResp setTimeZone(1:TSSetTimeZoneReq req);
 	
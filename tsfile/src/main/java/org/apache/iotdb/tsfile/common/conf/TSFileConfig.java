@@ -51,9 +51,10 @@ public class TSFileConfig {
   public static final String CONFIG_FILE_NAME = "tsfile-format.properties";
   public static final String MAGIC_STRING = "TsFilev0.8.0";
   /**
-   * Current version is 3.
+   * Current version is 4, whose file metadata has a sorted device index with a sparse directory.
+   * Files of version 3 are still read.
    */
-  public static final int CURRENT_VERSION = 3;
+  public static final int CURRENT_VERSION = 4;
   /**
    * The default grow size of class BatchData.
    */
@@ -106,6 +107,11 @@ public class TSFileConfig {
   public static int rleBitWidth = 8;
 
   // Don't change the following configuration
+  /**
+   * The number of devices in every segment of the device index in the file metadata, the first of
+   * each is kept in memory to find the segment of a device. Default value is 64.
+   */
+  public static int deviceIndexInterval = 64;
   /**
    * Default block size of two-diff. delta encoding is 128
    */
@@ -101,6 +101,102 @@ public abstract class Decoder {
     throw new TsFileDecodingException("Method readBigDecimal is not supproted by Decoder");
   }
 
+  /**
+   * decode at most length int values into values, from the given offset. The decoders which can
+   * decode a run of values at once override it.
+   *
+   * @return the number of decoded values, it is less than length only if there is no more value
+   */
+  public int readInts(ByteBuffer buffer, int[] values, int offset, int length) throws IOException {
+    int count = 0;
+    while (count < length && hasNext(buffer)) {
+      values[offset + count++] = readInt(buffer);
+    }
+    return count;
+  }
+
+  /**
+   * decode at most length long values into values, from the given offset.
+   *
+   * @return the number of decoded values, it is less than length only if there is no more value
+   * @see #readInts(ByteBuffer, int[], int, int)
+   */
+  public int readLongs(ByteBuffer buffer, long[] values, int offset, int length)
+      throws IOException {
+    int count = 0;
+    while (count < length && hasNext(buffer)) {
+      values[offset + count++] = readLong(buffer);
+    }
+    return count;
+  }
+
+  /**
+   * decode at most length float values into values, from the given offset.
+   *
+   * @return the number of decoded values, it is less than length only if there is no more value
+   * @see #readInts(ByteBuffer, int[], int, int)
+   */
+  public int readFloats(ByteBuffer buffer, float[] values, int offset, int length)
+      throws IOException {
+    int count = 0;
+    while (count < length && hasNext(buffer)) {
+      values[offset + count++] = readFloat(buffer);
+    }
+    return count;
+  }
+
+  /**
+   * decode at most length double values into values, from the given offset.
+   *
+   * @return the number of decoded values, it is less than length only if there is no more value
+   * @see #readInts(ByteBuffer, int[], int, int)
+   */
+  public int readDoubles(ByteBuffer buffer, double[] values, int offset, int length)
+      throws IOException {
+    int count = 0;
+    while (count < length && hasNext(buffer)) {
+      values[offset + count++] = readDouble(buffer);
+    }
+    return count;
+  }
+
+  /**
+   * skip at most count values of the given data type without returning them. The decoders which
+   * can skip a run of values without decoding them override it.
+   *
+   * @return the number of skipped values, it is less than count only if there is no more value
+   */
+  public int skip(ByteBuffer buffer, TSDataType dataType, int count) throws IOException {
+    int skipped = 0;
+    while (skipped < count && hasNext(buffer)) {
+      switch (dataType) {
+        case BOOLEAN:
+          readBoolean(buffer);
+          break;
+        case INT32:
+          readInt(buffer);
+          break;
+        case INT64:
+          readLong(buffer);
+          break;
+        case FLOAT:
+          readFloat(buffer);
+          break;
+        case DOUBLE:
+          readDouble(buffer);
+          break;
+        case TEXT:
+          readBinary(buffer);
+          break;
+        default:
+          throw new TsFileDecodingException(
+              String.format("data type %s is not supported by Decoder", dataType));
+      }
+      skipped++;
+    }
+    return skipped;
+  }
+
   public abstract boolean hasNext(ByteBuffer buffer) throws IOException;
 
   public abstract void reset();
@@ -21,6 +21,7 @@ package org.apache.iotdb.tsfile.encoding.decoder;
 import java.io.IOException;
 import java.nio.ByteBuffer;
 import org.apache.iotdb.tsfile.encoding.encoder.DeltaBinaryEncoder;
+import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
 import org.apache.iotdb.tsfile.file.metadata.enums.TSEncoding;
 import org.apache.iotdb.tsfile.utils.BytesUtils;
 import org.apache.iotdb.tsfile.utils.ReadWriteIOUtils;
@@ -84,6 +85,60 @@ public abstract class DeltaBinaryDecoder extends Decoder {
     return (nextReadIndex < readIntTotalCount) || buffer.remaining() > 0;
   }
 
+  /**
+   * skip the values of whole packs without decoding them.
+   */
+  @Override
+  public int skip(ByteBuffer buffer, TSDataType dataType, int skipCount) throws IOException {
+    int skipped = 0;
+    while (skipped < skipCount) {
+      if (nextReadIndex < readIntTotalCount) {
+        // the rest of the decoded pack
+        int num = Math.min(skipCount - skipped, readIntTotalCount - nextReadIndex);
+        nextReadIndex += num;
+        skipped += num;
+      } else if (buffer.hasRemaining()) {
+        int num = skipPack(buffer, skipCount - skipped);
+        if (num == 0) {
+          loadPack(buffer);
+          num = 1;
+        }
+        skipped += num;
+      } else {
+        break;
+      }
+    }
+    return skipped;
+  }
+
+  /**
+   * skip the next pack in buffer if it has no more than maxCount values.
+   *
+   * @return the number of skipped values, 0 if the pack is not skipped
+   */
+  private int skipPack(ByteBuffer buffer, int maxCount) {
+    int position = buffer.position();
+    int num = buffer.getInt(position);
+    int width = buffer.getInt(position + Integer.BYTES);
+    // the first value of a pack is saved in its header, followed by num deltas
+    if (num + 1 > maxCount) {
+      return 0;
+    }
+    buffer.position(position + 2 * Integer.BYTES + getHeaderSize() + ceil(num * width));
+    count++;
+    return num + 1;
+  }
+
+  /**
+   * decode the next pack, whose first value is consumed.
+   */
+  protected abstract void loadPack(ByteBuffer buffer);
+
+  /**
+   * @return the number of bytes of minDeltaBase and firstValue in the header of a pack
+   */
+  protected abstract int getHeaderSize();
+
   public static class IntDeltaDecoder extends DeltaBinaryDecoder {
 
     private int firstValue;
@@ -116,6 +171,25 @@ public abstract class DeltaBinaryDecoder extends Decoder {
       return readT(buffer);
     }
 
+    @Override
+    public int readInts(ByteBuffer buffer, int[] values, int offset, int length) {
+      int count = 0;
+      while (count < length) {
+        if (nextReadIndex < readIntTotalCount) {
+          // the rest of the decoded pack
+          int num = Math.min(length - count, readIntTotalCount - nextReadIndex);
+          System.arraycopy(data, nextReadIndex, values, offset + count, num);
+          nextReadIndex += num;
+          count += num;
+        } else if (buffer.hasRemaining()) {
+          values[offset + count++] = loadIntBatch(buffer);
+        } else {
+          break;
+        }
+      }
+      return count;
+    }
+
     /**
      * if remaining data has been run out, load next pack from InputStream.
      *
@@ -147,6 +221,16 @@ public abstract class DeltaBinaryDecoder extends Decoder {
       }
     }
 
+    @Override
+    protected void loadPack(ByteBuffer buffer) {
+      loadIntBatch(buffer);
+    }
+
+    @Override
+    protected int getHeaderSize() {
+      return 2 * Integer.BYTES;
+    }
+
     @Override
     protected void readHeader(ByteBuffer buffer) {
       minDeltaBase = ReadWriteIOUtils.readInt(buffer);
@@ -232,6 +316,35 @@ public abstract class DeltaBinaryDecoder extends Decoder {
       return readT(buffer);
     }
 
+    @Override
+    public int readLongs(ByteBuffer buffer, long[] values, int offset, int length) {
+      int count = 0;
+      while (count < length) {
+        if (nextReadIndex < readIntTotalCount) {
+          // the rest of the decoded pack
+          int num = Math.min(length - count, readIntTotalCount - nextReadIndex);
+          System.arraycopy(data, nextReadIndex, values, offset + count, num);
+          nextReadIndex += num;
+          count += num;
+        } else if (buffer.hasRemaining()) {
+          values[offset + count++] = loadIntBatch(buffer);
+        } else {
+          break;
+        }
+      }
+      return count;
+    }
+
+    @Override
+    protected void loadPack(ByteBuffer buffer) {
+      loadIntBatch(buffer);
+    }
+
+    @Override
+    protected int getHeaderSize() {
+      return 2 * Long.BYTES;
+    }
+
     @Override
     protected void readHeader(ByteBuffer buffer) {
       minDeltaBase = ReadWriteIOUtils.readLong(buffer);
@@ -79,6 +79,16 @@ public class DoublePrecisionDecoder extends GorillaDecoder {
    * @param buffer stream to read
    * @throws IOException cannot read from stream
    */
+  @Override
+  public int readDoubles(ByteBuffer buffer, double[] values, int offset, int length) {
+    // every value is xor-ed with the previous one bit by bit, so they can only be decoded in turn
+    int count = 0;
+    while (count < length && (buffer.hasRemaining() || !isEnd)) {
+      values[offset + count++] = readDouble(buffer);
+    }
+    return count;
+  }
+
   private void getNextValue(ByteBuffer buffer) throws IOException {
     nextFlag1 = readBit(buffer);
     // case: '0'
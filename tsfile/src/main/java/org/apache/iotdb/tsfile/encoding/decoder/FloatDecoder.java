@@ -96,6 +96,45 @@ public class FloatDecoder extends Decoder {
     return result;
   }
 
+  @Override
+  public int readFloats(ByteBuffer buffer, float[] values, int offset, int length)
+      throws IOException {
+    if (length == 0 || !hasNext(buffer)) {
+      return 0;
+    }
+    readMaxPointValue(buffer);
+    int[] scaledValues = new int[length];
+    int count = decoder.readInts(buffer, scaledValues, 0, length);
+    for (int i = 0; i < count; i++) {
+      values[offset + i] = (float) (scaledValues[i] / maxPointValue);
+    }
+    return count;
+  }
+
+  @Override
+  public int readDoubles(ByteBuffer buffer, double[] values, int offset, int length)
+      throws IOException {
+    if (length == 0 || !hasNext(buffer)) {
+      return 0;
+    }
+    readMaxPointValue(buffer);
+    long[] scaledValues = new long[length];
+    int count = decoder.readLongs(buffer, scaledValues, 0, length);
+    for (int i = 0; i < count; i++) {
+      values[offset + i] = scaledValues[i] / maxPointValue;
+    }
+    return count;
+  }
+
+  @Override
+  public int skip(ByteBuffer buffer, TSDataType dataType, int count) throws IOException {
+    if (count == 0 || !hasNext(buffer)) {
+      return 0;
+    }
+    readMaxPointValue(buffer);
+    return decoder.skip(buffer, dataType, count);
+  }
+
   private void readMaxPointValue(ByteBuffer buffer) {
     if (!isMaxPointNumberRead) {
       int maxPointNumber = ReadWriteForEncodingUtils.readUnsignedVarInt(buffer);
@@ -20,6 +20,7 @@ package org.apache.iotdb.tsfile.encoding.decoder;
 
 import java.io.IOException;
 import java.nio.ByteBuffer;
+import java.util.Arrays;
 import org.apache.iotdb.tsfile.encoding.bitpacking.LongPacker;
 import org.apache.iotdb.tsfile.encoding.common.EndianType;
 import org.apache.iotdb.tsfile.exception.encoding.TsFileDecodingException;
@@ -97,6 +98,34 @@ public class LongRleDecoder extends RleDecoder {
     return result;
   }
 
+  @Override
+  public int readLongs(ByteBuffer buffer, long[] values, int offset, int length)
+      throws IOException {
+    int count = 0;
+    while (count < length && hasNext(buffer)) {
+      if (!isLengthAndBitWidthReaded) {
+        readLengthAndBitWidth(buffer);
+      }
+      if (currentCount == 0) {
+        readNext();
+      }
+      // the rest of the current run or bit-packed group
+      int num = Math.min(length - count, currentCount);
+      if (mode == Mode.RLE) {
+        Arrays.fill(values, offset + count, offset + count + num, currentValue);
+      } else {
+        System.arraycopy(currentBuffer, bitPackingNum - currentCount, values, offset + count,
+            num);
+      }
+      currentCount -= num;
+      count += num;
+      if (!hasNextPackage()) {
+        isLengthAndBitWidthReaded = false;
+      }
+    }
+    return count;
+  }
+
   @Override
   protected void initPacker() {
     packer = new LongPacker(bitWidth);
@@ -125,4 +154,4 @@ public class LongRleDecoder extends RleDecoder {
   public void reset() {
     super.reset();
   }
-}
\ No newline at end of file
+}
\ No newline at end of file
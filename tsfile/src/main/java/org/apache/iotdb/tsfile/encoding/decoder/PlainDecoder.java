@@ -21,8 +21,10 @@ package org.apache.iotdb.tsfile.encoding.decoder;
 import java.io.IOException;
 import java.math.BigDecimal;
 import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
 import org.apache.iotdb.tsfile.encoding.common.EndianType;
 import org.apache.iotdb.tsfile.exception.encoding.TsFileDecodingException;
+import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
 import org.apache.iotdb.tsfile.file.metadata.enums.TSEncoding;
 import org.apache.iotdb.tsfile.utils.Binary;
 import org.apache.iotdb.tsfile.utils.ReadWriteIOUtils;
@@ -112,6 +114,78 @@ public class PlainDecoder extends Decoder {
     return new Binary(buf);
   }
 
+  @Override
+  public int readInts(ByteBuffer buffer, int[] values, int offset, int length)
+      throws IOException {
+    if (endianType != EndianType.LITTLE_ENDIAN) {
+      return super.readInts(buffer, values, offset, length);
+    }
+    int count = Math.min(length, buffer.remaining() / Integer.BYTES);
+    buffer.slice().order(ByteOrder.LITTLE_ENDIAN).asIntBuffer().get(values, offset, count);
+    buffer.position(buffer.position() + count * Integer.BYTES);
+    return count;
+  }
+
+  @Override
+  public int readLongs(ByteBuffer buffer, long[] values, int offset, int length)
+      throws IOException {
+    if (endianType != EndianType.LITTLE_ENDIAN) {
+      return super.readLongs(buffer, values, offset, length);
+    }
+    int count = Math.min(length, buffer.remaining() / Long.BYTES);
+    buffer.slice().order(ByteOrder.LITTLE_ENDIAN).asLongBuffer().get(values, offset, count);
+    buffer.position(buffer.position() + count * Long.BYTES);
+    return count;
+  }
+
+  @Override
+  public int readFloats(ByteBuffer buffer, float[] values, int offset, int length)
+      throws IOException {
+    if (endianType != EndianType.LITTLE_ENDIAN) {
+      return super.readFloats(buffer, values, offset, length);
+    }
+    int count = Math.min(length, buffer.remaining() / Float.BYTES);
+    buffer.slice().order(ByteOrder.LITTLE_ENDIAN).asFloatBuffer().get(values, offset, count);
+    buffer.position(buffer.position() + count * Float.BYTES);
+    return count;
+  }
+
+  @Override
+  public int readDoubles(ByteBuffer buffer, double[] values, int offset, int length)
+      throws IOException {
+    if (endianType != EndianType.LITTLE_ENDIAN) {
+      return super.readDoubles(buffer, values, offset, length);
+    }
+    int count = Math.min(length, buffer.remaining() / Double.BYTES);
+    buffer.slice().order(ByteOrder.LITTLE_ENDIAN).asDoubleBuffer().get(values, offset, count);
+    buffer.position(buffer.position() + count * Double.BYTES);
+    return count;
+  }
+
+  @Override
+  public int skip(ByteBuffer buffer, TSDataType dataType, int count) throws IOException {
+    int width;
+    switch (dataType) {
+      case BOOLEAN:
+        width = Byte.BYTES;
+        break;
+      case INT32:
+      case FLOAT:
+        width = Integer.BYTES;
+        break;
+      case INT64:
+      case DOUBLE:
+        width = Long.BYTES;
+        break;
+      default:
+        // values of variable length have to be read one by one
+        return super.skip(buffer, dataType, count);
+    }
+    int skipped = Math.min(count, buffer.remaining() / width);
+    buffer.position(buffer.position() + skipped * width);
+    return skipped;
+  }
+
   @Override
   public boolean hasNext(ByteBuffer buffer) throws IOException {
     return buffer.remaining() > 0;
@@ -25,6 +25,7 @@ import org.apache.iotdb.tsfile.common.conf.TSFileConfig;
 import org.apache.iotdb.tsfile.common.conf.TSFileDescriptor;
 import org.apache.iotdb.tsfile.encoding.common.EndianType;
 import org.apache.iotdb.tsfile.exception.encoding.TsFileDecodingException;
+import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
 import org.apache.iotdb.tsfile.file.metadata.enums.TSEncoding;
 import org.apache.iotdb.tsfile.utils.Binary;
 import org.apache.iotdb.tsfile.utils.ReadWriteForEncodingUtils;
@@ -172,6 +173,58 @@ public abstract class RleDecoder extends Decoder {
     return currentCount > 0 || byteCache.remaining() > 0;
   }
 
+  /**
+   * skip the values of whole runs and bit-packed groups without unpacking them.
+   */
+  @Override
+  public int skip(ByteBuffer buffer, TSDataType dataType, int count) throws IOException {
+    int skipped = 0;
+    while (skipped < count && hasNext(buffer)) {
+      if (!isLengthAndBitWidthReaded) {
+        readLengthAndBitWidth(buffer);
+      }
+      if (currentCount == 0) {
+        int num = skipBitPackedGroups(count - skipped);
+        if (num > 0) {
+          skipped += num;
+        } else {
+          readNext();
+        }
+      }
+      // the rest of the current run or bit-packed group
+      int num = Math.min(count - skipped, currentCount);
+      currentCount -= num;
+      skipped += num;
+      if (!hasNextPackage()) {
+        isLengthAndBitWidthReaded = false;
+      }
+    }
+    return skipped;
+  }
+
+  /**
+   * skip the next bit-packed groups in byteCache if they have no more than maxCount values.
+   *
+   * @return the number of skipped values, 0 if nothing is skipped
+   */
+  private int skipBitPackedGroups(int maxCount) {
+    int position = byteCache.position();
+    int header = ReadWriteForEncodingUtils.readUnsignedVarInt(byteCache);
+    if ((header & 1) != 0) {
+      int bitPackedGroupCount = header >> 1;
+      int lastBitPackedNum = ReadWriteIOUtils.read(byteCache);
+      int num = (bitPackedGroupCount - 1) * config.RLE_MIN_REPEATED_NUM + lastBitPackedNum;
+      if (bitPackedGroupCount > 0 && num <= maxCount) {
+        byteCache.position(byteCache.position()
+            + Math.min(bitPackedGroupCount * bitWidth, byteCache.remaining()));
+        return num;
+      }
+    }
+    // a run of repeated values is cheap to read
+    byteCache.position(position);
+    return 0;
+  }
+
   protected abstract void initPacker();
 
   /**
@@ -75,6 +75,16 @@ public class SinglePrecisionDecoder extends GorillaDecoder {
    * @param buffer stream to read
    * @throws IOException cannot read from stream
    */
+  @Override
+  public int readFloats(ByteBuffer buffer, float[] values, int offset, int length) {
+    // every value is xor-ed with the previous one bit by bit, so they can only be decoded in turn
+    int count = 0;
+    while (count < length && (buffer.hasRemaining() || !isEnd)) {
+      values[offset + count++] = readFloat(buffer);
+    }
+    return count;
+  }
+
   private void getNextValue(ByteBuffer buffer) throws IOException {
     nextFlag1 = readBit(buffer);
     // case: '0'
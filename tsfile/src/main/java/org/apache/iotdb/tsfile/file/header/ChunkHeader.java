@@ -27,6 +27,7 @@ import org.apache.iotdb.tsfile.file.MetaMarker;
 import org.apache.iotdb.tsfile.file.metadata.enums.CompressionType;
 import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
 import org.apache.iotdb.tsfile.file.metadata.enums.TSEncoding;
+import org.apache.iotdb.tsfile.read.reader.TsFileInput;
 import org.apache.iotdb.tsfile.utils.ReadWriteIOUtils;
 
 public class ChunkHeader {
@@ -148,6 +149,27 @@ public class ChunkHeader {
     return deserializePartFrom(measurementID, buffer);
   }
 
+  /**
+   * deserialize from TsFileInput.
+   *
+   * @param input TsFileInput
+   * @param offset offset
+   * @param markerRead read marker (boolean type)
+   * @return CHUNK_HEADER object
+   * @throws IOException IOException
+   */
+  public static ChunkHeader deserializeFrom(TsFileInput input, long offset, boolean markerRead)
+      throws IOException {
+    if (!markerRead) {
+      offset++;
+    }
+    int size = input.slice(offset, Integer.BYTES).getInt();
+    offset += Integer.BYTES;
+    ByteBuffer buffer = input.slice(offset, getSerializedSize(size));
+    String measurementID = ReadWriteIOUtils.readStringWithoutLength(buffer, size);
+    return deserializePartFrom(measurementID, buffer);
+  }
+
   private static ChunkHeader deserializePartFrom(String measurementID, ByteBuffer buffer) {
     int dataSize = ReadWriteIOUtils.readInt(buffer);
     TSDataType dataType = TSDataType.deserialize(ReadWriteIOUtils.readShort(buffer));
@@ -18,21 +18,50 @@
  */
 package org.apache.iotdb.tsfile.file.metadata;
 
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
 import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.TreeMap;
+import org.apache.iotdb.tsfile.common.conf.TSFileConfig;
 import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
 import org.apache.iotdb.tsfile.utils.ReadWriteIOUtils;
 import org.apache.iotdb.tsfile.write.schema.MeasurementSchema;
 
 /**
  * TSFileMetaData collects all metadata info and saves in its data structure.
+ *
+ * <p>Since version 4, the serialized metadata starts with {@link #INDEXED_LAYOUT_MARKER} and the
+ * byte size of the head. The head holds the measurement schemas, the version, createdBy, the
+ * number of devices, the byte size of the device index and a sparse directory of it: the first
+ * device id and the offset of every {@link TSFileConfig#deviceIndexInterval} entries. The device
+ * index follows the head, its entries are sorted by device id. So a reader may load the head only
+ * and read the entries of one device through the directory, see
+ * {@code TsFileSequenceReader#readDeviceMetadataIndex}. The layout of older versions, which starts
+ * with the device index in no order, is still read.
  */
 public class TsFileMetaData {
 
+  /**
+   * the first int of the metadata since version 4, the number of devices at the start of the older
+   * layout is never negative.
+   */
+  public static final int INDEXED_LAYOUT_MARKER = -1;
+
+  /**
+   * the byte size of the marker and of the head size before the head.
+   */
+  public static final int INDEXED_LAYOUT_PREFIX_SIZE = 2 * Integer.BYTES;
+
+  /**
+   * null if only the head of the metadata is loaded.
+   */
   private Map<String, TsDeviceMetadataIndex> deviceIndexMap = new HashMap<>();
 
   /**
@@ -51,6 +80,16 @@ public class TsFileMetaData {
    */
   private String createdBy;
 
+  /**
+   * the sorted device index: the number of its entries, its byte size, its position in the file,
+   * and the first device id and the offset of every segment of it.
+   */
+  private int deviceCount;
+  private int deviceIndexSize;
+  private long deviceIndexOffset;
+  private String[] deviceIndexDirectory = new String[0];
+  private int[] deviceIndexSegmentOffsets = new int[0];
+
   public TsFileMetaData() {
   }
 
@@ -74,9 +113,21 @@ public class TsFileMetaData {
    * @return -a instance of TsFileMetaData
    */
   public static TsFileMetaData deserializeFrom(InputStream inputStream) throws IOException {
+    int size = ReadWriteIOUtils.readInt(inputStream);
+    if (size == INDEXED_LAYOUT_MARKER) {
+      int headSize = ReadWriteIOUtils.readInt(inputStream);
+      TsFileMetaData fileMetaData = deserializeHeadFrom(
+          ByteBuffer.wrap(ReadWriteIOUtils.readBytes(inputStream, headSize)));
+      fileMetaData.deviceIndexMap = new HashMap<>();
+      for (int i = 0; i < fileMetaData.deviceCount; i++) {
+        fileMetaData.deviceIndexMap.put(ReadWriteIOUtils.readString(inputStream),
+            TsDeviceMetadataIndex.deserializeFrom(inputStream));
+      }
+      return fileMetaData;
+    }
+
     TsFileMetaData fileMetaData = new TsFileMetaData();
 
-    int size = ReadWriteIOUtils.readInt(inputStream);
     if (size > 0) {
       Map<String, TsDeviceMetadataIndex> deviceMap = new HashMap<>();
       String key;
@@ -117,9 +168,21 @@ public class TsFileMetaData {
    * @return -a instance of TsFileMetaData
    */
   public static TsFileMetaData deserializeFrom(ByteBuffer buffer) throws IOException {
+    int size = ReadWriteIOUtils.readInt(buffer);
+    if (size == INDEXED_LAYOUT_MARKER) {
+      // the head size, the head is read right from the buffer
+      ReadWriteIOUtils.readInt(buffer);
+      TsFileMetaData fileMetaData = deserializeHeadFrom(buffer);
+      fileMetaData.deviceIndexMap = new HashMap<>();
+      for (int i = 0; i < fileMetaData.deviceCount; i++) {
+        fileMetaData.deviceIndexMap.put(ReadWriteIOUtils.readString(buffer),
+            TsDeviceMetadataIndex.deserializeFrom(buffer));
+      }
+      return fileMetaData;
+    }
+
     TsFileMetaData fileMetaData = new TsFileMetaData();
 
-    int size = ReadWriteIOUtils.readInt(buffer);
     if (size > 0) {
       Map<String, TsDeviceMetadataIndex> deviceMap = new HashMap<>();
       String key;
@@ -153,6 +216,60 @@ public class TsFileMetaData {
     return fileMetaData;
   }
 
+  /**
+   * deserialize the head of the indexed layout, the device index is not loaded.
+   *
+   * @param buffer -buffer positioned after the marker and the head size
+   * @return -a instance of TsFileMetaData whose device index is read through its directory
+   */
+  public static TsFileMetaData deserializeHeadFrom(ByteBuffer buffer) throws IOException {
+    TsFileMetaData fileMetaData = new TsFileMetaData();
+    fileMetaData.deviceIndexMap = null;
+
+    int size = ReadWriteIOUtils.readInt(buffer);
+    for (int i = 0; i < size; i++) {
+      String key = ReadWriteIOUtils.readString(buffer);
+      fileMetaData.measurementSchema.put(key, MeasurementSchema.deserializeFrom(buffer));
+    }
+
+    fileMetaData.currentVersion = ReadWriteIOUtils.readInt(buffer);
+    if (ReadWriteIOUtils.readIsNull(buffer)) {
+      fileMetaData.createdBy = ReadWriteIOUtils.readString(buffer);
+    }
+
+    fileMetaData.deviceCount = ReadWriteIOUtils.readInt(buffer);
+    fileMetaData.deviceIndexSize = ReadWriteIOUtils.readInt(buffer);
+    size = ReadWriteIOUtils.readInt(buffer);
+    fileMetaData.deviceIndexDirectory = new String[size];
+    fileMetaData.deviceIndexSegmentOffsets = new int[size];
+    for (int i = 0; i < size; i++) {
+      fileMetaData.deviceIndexDirectory[i] = ReadWriteIOUtils.readString(buffer);
+      fileMetaData.deviceIndexSegmentOffsets[i] = ReadWriteIOUtils.readInt(buffer);
+    }
+    return fileMetaData;
+  }
+
+  /**
+   * find the given device in a segment of the sorted device index.
+   *
+   * @param segment -the serialized entries of the segment
+   * @param deviceId -id of the device
+   * @return null if the segment does not contain the device
+   */
+  public static TsDeviceMetadataIndex findDeviceMetadataIndex(ByteBuffer segment,
+      String deviceId) {
+    while (segment.hasRemaining()) {
+      int cmp = ReadWriteIOUtils.readString(segment).compareTo(deviceId);
+      TsDeviceMetadataIndex index = TsDeviceMetadataIndex.deserializeFrom(segment);
+      if (cmp == 0) {
+        return index;
+      } else if (cmp > 0) {
+        return null;
+      }
+    }
+    return null;
+  }
+
   /**
    * add time series metadata to list. THREAD NOT SAFE
    *
@@ -164,8 +281,9 @@ public class TsFileMetaData {
 
   @Override
   public String toString() {
-    return "TsFileMetaData{" + "deviceIndexMap=" + deviceIndexMap + ", measurementSchema="
-        + measurementSchema
+    return "TsFileMetaData{" + "deviceIndexMap=" + (isDeviceIndexLoaded() ? deviceIndexMap
+        : "not loaded, directory=" + Arrays.toString(deviceIndexDirectory))
+        + ", measurementSchema=" + measurementSchema
         + ", CURRENT_VERSION=" + currentVersion + ", createdBy='" + createdBy + '\'' + '}';
   }
 
@@ -185,7 +303,16 @@ public class TsFileMetaData {
     this.createdBy = createdBy;
   }
 
+  /**
+   * false if only the head of the metadata is loaded, the device index is then read through
+   * {@link #findDeviceIndexSegment(String)}.
+   */
+  public boolean isDeviceIndexLoaded() {
+    return deviceIndexMap != null;
+  }
+
   public Map<String, TsDeviceMetadataIndex> getDeviceMap() {
+    checkDeviceIndexLoaded();
     return deviceIndexMap;
   }
 
@@ -194,13 +321,61 @@ public class TsFileMetaData {
   }
 
   public boolean containsDevice(String deltaObjUid) {
+    checkDeviceIndexLoaded();
     return this.deviceIndexMap.containsKey(deltaObjUid);
   }
 
   public TsDeviceMetadataIndex getDeviceMetadataIndex(String deltaObjUid) {
+    checkDeviceIndexLoaded();
     return this.deviceIndexMap.get(deltaObjUid);
   }
 
+  private void checkDeviceIndexLoaded() {
+    if (!isDeviceIndexLoaded()) {
+      throw new IllegalStateException(
+          "The device index is not loaded, read it through the directory of the metadata.");
+    }
+  }
+
+  /**
+   * find the segment of the sorted device index which contains the given device if the file
+   * contains it.
+   *
+   * @param deviceId -id of the device
+   * @return -number of the segment, or -1 if the file does not contain the device
+   */
+  public int findDeviceIndexSegment(String deviceId) {
+    int pos = Arrays.binarySearch(deviceIndexDirectory, deviceId);
+    return pos >= 0 ? pos : -pos - 2;
+  }
+
+  /**
+   * get the position of the given segment of the device index in the file.
+   */
+  public long getDeviceIndexSegmentOffset(int segment) {
+    return deviceIndexOffset + deviceIndexSegmentOffsets[segment];
+  }
+
+  public int getDeviceIndexSegmentSize(int segment) {
+    int end = segment + 1 < deviceIndexSegmentOffsets.length
+        ? deviceIndexSegmentOffsets[segment + 1] : deviceIndexSize;
+    return end - deviceIndexSegmentOffsets[segment];
+  }
+
+  /**
+   * get the first device id of every segment of the device index.
+   */
+  public String[] getDeviceIndexDirectory() {
+    return deviceIndexDirectory;
+  }
+
+  /**
+   * set the position of the device index in the file, which follows the head.
+   */
+  public void setDeviceIndexOffset(long deviceIndexOffset) {
+    this.deviceIndexOffset = deviceIndexOffset;
+  }
+
   public boolean containsMeasurement(String measurement) {
     return measurementSchema.containsKey(measurement);
   }
@@ -230,28 +405,9 @@ public class TsFileMetaData {
    * @return -byte length
    */
   public int serializeTo(OutputStream outputStream) throws IOException {
-    int byteLen = 0;
-
-    byteLen += ReadWriteIOUtils.write(deviceIndexMap.size(), outputStream);
-    for (Map.Entry<String, TsDeviceMetadataIndex> entry : deviceIndexMap.entrySet()) {
-      byteLen += ReadWriteIOUtils.write(entry.getKey(), outputStream);
-      byteLen += entry.getValue().serializeTo(outputStream);
-    }
-
-    byteLen += ReadWriteIOUtils.write(measurementSchema.size(), outputStream);
-    for (Map.Entry<String, MeasurementSchema> entry : measurementSchema.entrySet()) {
-      byteLen += ReadWriteIOUtils.write(entry.getKey(), outputStream);
-      byteLen += entry.getValue().serializeTo(outputStream);
-    }
-
-    byteLen += ReadWriteIOUtils.write(currentVersion, outputStream);
-
-    byteLen += ReadWriteIOUtils.writeIsNull(createdBy, outputStream);
-    if (createdBy != null) {
-      byteLen += ReadWriteIOUtils.write(createdBy, outputStream);
-    }
-
-    return byteLen;
+    byte[] bytes = serialize();
+    outputStream.write(bytes);
+    return bytes.length;
   }
 
   /**
@@ -261,28 +417,62 @@ public class TsFileMetaData {
    * @return -byte length
    */
   public int serializeTo(ByteBuffer buffer) throws IOException {
-    int byteLen = 0;
+    byte[] bytes = serialize();
+    buffer.put(bytes);
+    return bytes.length;
+  }
 
-    byteLen += ReadWriteIOUtils.write(deviceIndexMap.size(), buffer);
-    for (Map.Entry<String, TsDeviceMetadataIndex> entry : deviceIndexMap.entrySet()) {
-      byteLen += ReadWriteIOUtils.write(entry.getKey(), buffer);
-      byteLen += entry.getValue().serializeTo(buffer);
+  /**
+   * serialize the metadata in the indexed layout.
+   */
+  private byte[] serialize() throws IOException {
+    checkDeviceIndexLoaded();
+
+    // the sorted device index, whose offsets go into the directory in the head
+    ByteArrayOutputStream deviceIndex = new ByteArrayOutputStream();
+    List<String> directory = new ArrayList<>();
+    List<Integer> segmentOffsets = new ArrayList<>();
+    int interval = Math.max(1, TSFileConfig.deviceIndexInterval);
+    int count = 0;
+    for (Map.Entry<String, TsDeviceMetadataIndex> entry : new TreeMap<>(deviceIndexMap)
+        .entrySet()) {
+      if (count++ % interval == 0) {
+        directory.add(entry.getKey());
+        segmentOffsets.add(deviceIndex.size());
+      }
+      ReadWriteIOUtils.write(entry.getKey(), deviceIndex);
+      entry.getValue().serializeTo(deviceIndex);
     }
 
-    byteLen += ReadWriteIOUtils.write(measurementSchema.size(), buffer);
+    ByteArrayOutputStream head = new ByteArrayOutputStream();
+    ReadWriteIOUtils.write(measurementSchema.size(), head);
     for (Map.Entry<String, MeasurementSchema> entry : measurementSchema.entrySet()) {
-      byteLen += ReadWriteIOUtils.write(entry.getKey(), buffer);
-      byteLen += entry.getValue().serializeTo(buffer);
+      ReadWriteIOUtils.write(entry.getKey(), head);
+      entry.getValue().serializeTo(head);
     }
 
-    byteLen += ReadWriteIOUtils.write(currentVersion, buffer);
+    ReadWriteIOUtils.write(currentVersion, head);
 
-    byteLen += ReadWriteIOUtils.writeIsNull(createdBy, buffer);
+    ReadWriteIOUtils.writeIsNull(createdBy, head);
     if (createdBy != null) {
-      byteLen += ReadWriteIOUtils.write(createdBy, buffer);
+      ReadWriteIOUtils.write(createdBy, head);
+    }
+
+    ReadWriteIOUtils.write(deviceIndexMap.size(), head);
+    ReadWriteIOUtils.write(deviceIndex.size(), head);
+    ReadWriteIOUtils.write(directory.size(), head);
+    for (int i = 0; i < directory.size(); i++) {
+      ReadWriteIOUtils.write(directory.get(i), head);
+      ReadWriteIOUtils.write(segmentOffsets.get(i), head);
     }
 
-    return byteLen;
+    ByteArrayOutputStream out = new ByteArrayOutputStream(
+        INDEXED_LAYOUT_PREFIX_SIZE + head.size() + deviceIndex.size());
+    ReadWriteIOUtils.write(INDEXED_LAYOUT_MARKER, out);
+    ReadWriteIOUtils.write(head.size(), out);
+    head.writeTo(out);
+    deviceIndex.writeTo(out);
+    return out.toByteArray();
   }
 
 }
@@ -71,6 +71,21 @@ public class TsFileSequenceReader {
     }
   }
 
+  /**
+   * Create a reader of the given file through the given input, such as a
+   * {@link org.apache.iotdb.tsfile.read.reader.MmapTsFileInput} of a sealed file. The reader will
+   * read the tail of the file to get the file metadata size.
+   *
+   * @param file the data file
+   * @param input the input of the file
+   * @throws IOException If some I/O error occurs
+   */
+  public TsFileSequenceReader(String file, TsFileInput input) throws IOException {
+    this.file = file;
+    tsFileInput = input;
+    loadMetadataSize();
+  }
+
   /**
    * construct function for TsFileSequenceReader.
    *
@@ -135,6 +150,46 @@ public class TsFileSequenceReader {
     return TsFileMetaData.deserializeFrom(readData(fileMetadataPos, fileMetadataSize));
   }
 
+  /**
+   * read the file metadata without its device index if the file has the indexed layout of version
+   * 4, the index of a device is then read by {@link #readDeviceMetadataIndex}. The metadata of an
+   * older file is read entirely. This function does not modify the position of the file reader.
+   */
+  public TsFileMetaData readFileMetadataWithoutDeviceIndex() throws IOException {
+    ByteBuffer prefix = readData(fileMetadataPos, TsFileMetaData.INDEXED_LAYOUT_PREFIX_SIZE);
+    if (ReadWriteIOUtils.readInt(prefix) != TsFileMetaData.INDEXED_LAYOUT_MARKER) {
+      return readFileMetadata();
+    }
+    int headSize = ReadWriteIOUtils.readInt(prefix);
+    long headPos = fileMetadataPos + TsFileMetaData.INDEXED_LAYOUT_PREFIX_SIZE;
+    TsFileMetaData fileMetaData = TsFileMetaData.deserializeHeadFrom(readData(headPos, headSize));
+    fileMetaData.setDeviceIndexOffset(headPos + headSize);
+    return fileMetaData;
+  }
+
+  /**
+   * get the index of the TsDeviceMetadata of the given device. If the device index of the file
+   * metadata is not loaded, only the segment of the index which may contain the device is read.
+   * This function does not modify the position of the file reader.
+   *
+   * @param fileMetaData -the file metadata of this file
+   * @param deviceId -id of the device
+   * @return null if the file does not contain the device
+   */
+  public TsDeviceMetadataIndex readDeviceMetadataIndex(TsFileMetaData fileMetaData,
+      String deviceId) throws IOException {
+    if (fileMetaData.isDeviceIndexLoaded()) {
+      return fileMetaData.getDeviceMetadataIndex(deviceId);
+    }
+    int segment = fileMetaData.findDeviceIndexSegment(deviceId);
+    if (segment < 0) {
+      return null;
+    }
+    return TsFileMetaData.findDeviceMetadataIndex(
+        readData(fileMetaData.getDeviceIndexSegmentOffset(segment),
+            fileMetaData.getDeviceIndexSegmentSize(segment)), deviceId);
+  }
+
   /**
    * this function does not modify the position of the file reader.
    */
@@ -196,7 +251,7 @@ public class TsFileSequenceReader {
    * @param markerRead true if the offset does not contains the marker , otherwise false
    */
   private ChunkHeader readChunkHeader(long position, boolean markerRead) throws IOException {
-    return ChunkHeader.deserializeFrom(tsFileInput.wrapAsFileChannel(), position, markerRead);
+    return ChunkHeader.deserializeFrom(tsFileInput, position, markerRead);
   }
 
   /**
@@ -314,7 +369,8 @@ public class TsFileSequenceReader {
    * read data from tsFileInput, from the current position (if position = -1), or the given
    * position. <br> if position = -1, the tsFileInput's position will be changed to the current
    * position + real data size that been read. Other wise, the tsFileInput's position is not
-   * changed.
+   * changed, and the data may be a read-only view shared with the tsFileInput, see
+   * {@link TsFileInput#slice(long, int)}.
    *
    * @param position the start position of data in the tsFileInput, or the current position if
    * position = -1
@@ -322,12 +378,11 @@ public class TsFileSequenceReader {
    * @return data that been read.
    */
   private ByteBuffer readData(long position, int size) throws IOException {
-    ByteBuffer buffer = ByteBuffer.allocate(size);
-    if (position == -1) {
-      ReadWriteIOUtils.readAsPossible(tsFileInput.wrapAsFileChannel(), buffer);
-    } else {
-      ReadWriteIOUtils.readAsPossible(tsFileInput.wrapAsFileChannel(), buffer, position, size);
+    if (position != -1) {
+      return tsFileInput.slice(position, size);
     }
+    ByteBuffer buffer = ByteBuffer.allocate(size);
+    ReadWriteIOUtils.readAsPossible(tsFileInput.wrapAsFileChannel(), buffer);
     buffer.flip();
     return buffer;
   }
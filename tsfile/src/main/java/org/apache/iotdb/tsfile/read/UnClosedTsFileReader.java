@@ -49,6 +49,14 @@ public class UnClosedTsFileReader extends TsFileSequenceReader {
     throw new NotImplementedException();
   }
 
+  /**
+   * unclosed file has no file metadata.
+   */
+  @Override
+  public TsFileMetaData readFileMetadataWithoutDeviceIndex() throws IOException {
+    throw new NotImplementedException();
+  }
+
   /**
    * unclosed file has no metadata.
    */
@@ -83,6 +83,20 @@ public class BatchData {
     init(type, recordTime, hasEmptyTime);
   }
 
+  /**
+   * BatchData Constructor which allocates room for the given number of points at once, so that
+   * putting them never grows the arrays.
+   *
+   * @param type Data type to record for this BatchData
+   * @param recordTime whether to record time value for this BatchData
+   * @param capacity the expected number of points
+   */
+  public BatchData(TSDataType type, boolean recordTime, int capacity) {
+    timeCapacity = Math.max(1, capacity);
+    valueCapacity = timeCapacity;
+    init(type, recordTime, false);
+  }
+
   public boolean hasNext() {
     return curIdx < timeLength;
   }
@@ -91,6 +105,24 @@ public class BatchData {
     curIdx++;
   }
 
+  /**
+   * skip the points whose time is less than the given time by binary search, the times of the
+   * batch must be in ascending order.
+   */
+  public void skipTo(long time) {
+    int low = curIdx;
+    int high = timeLength;
+    while (low < high) {
+      int mid = (low + high) >>> 1;
+      if (getTimeByIndex(mid) < time) {
+        low = mid + 1;
+      } else {
+        high = mid;
+      }
+    }
+    curIdx = low;
+  }
+
   public long currentTime() {
     rangeCheckForTime(curIdx);
     return this.timeRet.get(curIdx / timeCapacity)[curIdx % timeCapacity];
@@ -204,6 +236,21 @@ public class BatchData {
     timeLength++;
   }
 
+  /**
+   * put the timestamps times[offset, offset + length).
+   */
+  public void putTimes(long[] times, int offset, int length) {
+    if (curTimeIdx + length > timeCapacity) {
+      for (int i = offset; i < offset + length; i++) {
+        putTime(times[i]);
+      }
+      return;
+    }
+    System.arraycopy(times, offset, timeRet.get(timeArrayIdx), curTimeIdx, length);
+    curTimeIdx += length;
+    timeLength += length;
+  }
+
   /**
    * put boolean data.
    *
@@ -252,6 +299,21 @@ public class BatchData {
     valueLength++;
   }
 
+  /**
+   * put the int data values[offset, offset + length).
+   */
+  public void putInts(int[] values, int offset, int length) {
+    if (curValueIdx + length > valueCapacity) {
+      for (int i = offset; i < offset + length; i++) {
+        putInt(values[i]);
+      }
+      return;
+    }
+    System.arraycopy(values, offset, intRet.get(valueArrayIdx), curValueIdx, length);
+    curValueIdx += length;
+    valueLength += length;
+  }
+
   /**
    * put long data.
    *
@@ -276,6 +338,21 @@ public class BatchData {
     valueLength++;
   }
 
+  /**
+   * put the long data values[offset, offset + length).
+   */
+  public void putLongs(long[] values, int offset, int length) {
+    if (curValueIdx + length > valueCapacity) {
+      for (int i = offset; i < offset + length; i++) {
+        putLong(values[i]);
+      }
+      return;
+    }
+    System.arraycopy(values, offset, longRet.get(valueArrayIdx), curValueIdx, length);
+    curValueIdx += length;
+    valueLength += length;
+  }
+
   /**
    * put float data.
    *
@@ -300,6 +377,21 @@ public class BatchData {
     valueLength++;
   }
 
+  /**
+   * put the float data values[offset, offset + length).
+   */
+  public void putFloats(float[] values, int offset, int length) {
+    if (curValueIdx + length > valueCapacity) {
+      for (int i = offset; i < offset + length; i++) {
+        putFloat(values[i]);
+      }
+      return;
+    }
+    System.arraycopy(values, offset, floatRet.get(valueArrayIdx), curValueIdx, length);
+    curValueIdx += length;
+    valueLength += length;
+  }
+
   /**
    * put double data.
    *
@@ -324,6 +416,21 @@ public class BatchData {
     valueLength++;
   }
 
+  /**
+   * put the double data values[offset, offset + length).
+   */
+  public void putDoubles(double[] values, int offset, int length) {
+    if (curValueIdx + length > valueCapacity) {
+      for (int i = offset; i < offset + length; i++) {
+        putDouble(values[i]);
+      }
+      return;
+    }
+    System.arraycopy(values, offset, doubleRet.get(valueArrayIdx), curValueIdx, length);
+    curValueIdx += length;
+    valueLength += length;
+  }
+
   /**
    * put binary data.
    *
@@ -440,6 +547,11 @@ public class BatchData {
     this.binaryRet.get(idx / timeCapacity)[idx % timeCapacity] = v;
   }
 
+  public long getTimeByIndex(int idx) {
+    rangeCheckForTime(idx);
+    return this.timeRet.get(idx / timeCapacity)[idx % timeCapacity];
+  }
+
   public void setTime(int idx, long v) {
     rangeCheckForTime(idx);
     this.timeRet.get(idx / timeCapacity)[idx % timeCapacity] = v;
@@ -0,0 +1,312 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.tsfile.read.common;
+
+import java.util.Arrays;
+import java.util.List;
+import org.apache.iotdb.tsfile.exception.write.UnSupportedDataTypeException;
+import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
+import org.apache.iotdb.tsfile.utils.Binary;
+
+/**
+ * A batch of rows stored column by column in primitive arrays, so that the rows of a QueryDataSet
+ * can be read without creating a RowRecord for each row and a Field for each value. A RowBatch is
+ * reused by reset().
+ */
+public class RowBatch {
+
+  private final List<TSDataType> dataTypes;
+  private final int capacity;
+  private int size = 0;
+
+  private final long[] times;
+  /**
+   * hasValues[column][row] is false if the value is null.
+   */
+  private final boolean[][] hasValues;
+  // only the array of the data type of a column is created
+  private final boolean[][] booleanValues;
+  private final int[][] intValues;
+  private final long[][] longValues;
+  private final float[][] floatValues;
+  private final double[][] doubleValues;
+  private final Binary[][] binaryValues;
+
+  /**
+   * constructor of RowBatch.
+   *
+   * @param dataTypes -data types of the columns
+   * @param capacity -the maximum number of rows
+   */
+  public RowBatch(List<TSDataType> dataTypes, int capacity) {
+    this.dataTypes = dataTypes;
+    this.capacity = Math.max(1, capacity);
+    int columnNum = dataTypes.size();
+    times = new long[this.capacity];
+    hasValues = new boolean[columnNum][this.capacity];
+    booleanValues = new boolean[columnNum][];
+    intValues = new int[columnNum][];
+    longValues = new long[columnNum][];
+    floatValues = new float[columnNum][];
+    doubleValues = new double[columnNum][];
+    binaryValues = new Binary[columnNum][];
+    for (int i = 0; i < columnNum; i++) {
+      switch (dataTypes.get(i)) {
+        case BOOLEAN:
+          booleanValues[i] = new boolean[this.capacity];
+          break;
+        case INT32:
+          intValues[i] = new int[this.capacity];
+          break;
+        case INT64:
+          longValues[i] = new long[this.capacity];
+          break;
+        case FLOAT:
+          floatValues[i] = new float[this.capacity];
+          break;
+        case DOUBLE:
+          doubleValues[i] = new double[this.capacity];
+          break;
+        case TEXT:
+          binaryValues[i] = new Binary[this.capacity];
+          break;
+        default:
+          throw new UnSupportedDataTypeException(String.valueOf(dataTypes.get(i)));
+      }
+    }
+  }
+
+  /**
+   * remove all rows.
+   */
+  public void reset() {
+    // release the references to the binary values
+    for (Binary[] values : binaryValues) {
+      if (values != null) {
+        Arrays.fill(values, 0, size, null);
+      }
+    }
+    size = 0;
+  }
+
+  public int size() {
+    return size;
+  }
+
+  public int capacity() {
+    return capacity;
+  }
+
+  public boolean isFull() {
+    return size == capacity;
+  }
+
+  public int getColumnNum() {
+    return dataTypes.size();
+  }
+
+  public TSDataType getDataType(int column) {
+    return dataTypes.get(column);
+  }
+
+  /**
+   * add a row whose values are all null, the values are set by putValue() afterwards.
+   */
+  public void addRow(long time) {
+    times[size] = time;
+    for (boolean[] columnHasValues : hasValues) {
+      columnHasValues[size] = false;
+    }
+    size++;
+  }
+
+  /**
+   * set the value of the given column in the last row to the current value of the batch.
+   */
+  public void putValue(int column, BatchData batchData) {
+    int row = size - 1;
+    hasValues[column][row] = true;
+    switch (dataTypes.get(column)) {
+      case BOOLEAN:
+        booleanValues[column][row] = batchData.getBoolean();
+        break;
+      case INT32:
+        intValues[column][row] = batchData.getInt();
+        break;
+      case INT64:
+        longValues[column][row] = batchData.getLong();
+        break;
+      case FLOAT:
+        floatValues[column][row] = batchData.getFloat();
+        break;
+      case DOUBLE:
+        doubleValues[column][row] = batchData.getDouble();
+        break;
+      case TEXT:
+        binaryValues[column][row] = batchData.getBinary();
+        break;
+      default:
+        throw new UnSupportedDataTypeException(String.valueOf(dataTypes.get(column)));
+    }
+  }
+
+  /**
+   * add a row copied from the record, a field without data type or marked null is null.
+   */
+  public void addRow(RowRecord record) {
+    addRow(record.getTimestamp());
+    int row = size - 1;
+    List<Field> fields = record.getFields();
+    for (int column = 0; column < fields.size(); column++) {
+      Field field = fields.get(column);
+      if (field.getDataType() == null || field.isNull()) {
+        continue;
+      }
+      hasValues[column][row] = true;
+      switch (dataTypes.get(column)) {
+        case BOOLEAN:
+          booleanValues[column][row] = field.getBoolV();
+          break;
+        case INT32:
+          intValues[column][row] = field.getIntV();
+          break;
+        case INT64:
+          longValues[column][row] = field.getLongV();
+          break;
+        case FLOAT:
+          floatValues[column][row] = field.getFloatV();
+          break;
+        case DOUBLE:
+          doubleValues[column][row] = field.getDoubleV();
+          break;
+        case TEXT:
+          binaryValues[column][row] = field.getBinaryV();
+          break;
+        default:
+          throw new UnSupportedDataTypeException(String.valueOf(dataTypes.get(column)));
+      }
+    }
+  }
+
+  /**
+   * add a row copied from the given row of another batch with the same data types.
+   */
+  public void addRow(RowBatch batch, int row) {
+    addRow(batch.times[row]);
+    int target = size - 1;
+    for (int column = 0; column < hasValues.length; column++) {
+      if (!batch.hasValues[column][row]) {
+        continue;
+      }
+      hasValues[column][target] = true;
+      switch (dataTypes.get(column)) {
+        case BOOLEAN:
+          booleanValues[column][target] = batch.booleanValues[column][row];
+          break;
+        case INT32:
+          intValues[column][target] = batch.intValues[column][row];
+          break;
+        case INT64:
+          longValues[column][target] = batch.longValues[column][row];
+          break;
+        case FLOAT:
+          floatValues[column][target] = batch.floatValues[column][row];
+          break;
+        case DOUBLE:
+          doubleValues[column][target] = batch.doubleValues[column][row];
+          break;
+        case TEXT:
+          binaryValues[column][target] = batch.binaryValues[column][row];
+          break;
+        default:
+          throw new UnSupportedDataTypeException(String.valueOf(dataTypes.get(column)));
+      }
+    }
+  }
+
+  /**
+   * create a RowRecord of the given row, a null value is a Field without data type.
+   */
+  public RowRecord toRowRecord(int row) {
+    RowRecord record = new RowRecord(times[row]);
+    for (int column = 0; column < hasValues.length; column++) {
+      if (!hasValues[column][row]) {
+        record.addField(new Field(null));
+        continue;
+      }
+      Field field = new Field(dataTypes.get(column));
+      switch (dataTypes.get(column)) {
+        case BOOLEAN:
+          field.setBoolV(booleanValues[column][row]);
+          break;
+        case INT32:
+          field.setIntV(intValues[column][row]);
+          break;
+        case INT64:
+          field.setLongV(longValues[column][row]);
+          break;
+        case FLOAT:
+          field.setFloatV(floatValues[column][row]);
+          break;
+        case DOUBLE:
+          field.setDoubleV(doubleValues[column][row]);
+          break;
+        case TEXT:
+          field.setBinaryV(binaryValues[column][row]);
+          break;
+        default:
+          throw new UnSupportedDataTypeException(String.valueOf(dataTypes.get(column)));
+      }
+      record.addField(field);
+    }
+    return record;
+  }
+
+  public long getTime(int row) {
+    return times[row];
+  }
+
+  public boolean isNull(int column, int row) {
+    return !hasValues[column][row];
+  }
+
+  public boolean getBoolean(int column, int row) {
+    return booleanValues[column][row];
+  }
+
+  public int getInt(int column, int row) {
+    return intValues[column][row];
+  }
+
+  public long getLong(int column, int row) {
+    return longValues[column][row];
+  }
+
+  public float getFloat(int column, int row) {
+    return floatValues[column][row];
+  }
+
+  public double getDouble(int column, int row) {
+    return doubleValues[column][row];
+  }
+
+  public Binary getBinary(int column, int row) {
+    return binaryValues[column][row];
+  }
+}
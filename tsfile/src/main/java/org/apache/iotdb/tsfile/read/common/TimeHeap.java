@@ -0,0 +1,91 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.tsfile.read.common;
+
+import java.util.Arrays;
+
+/**
+ * A min-heap of primitive timestamps used to align the series of a query by time. The same time
+ * may be added more than once, it is returned by poll() only once.
+ */
+public class TimeHeap {
+
+  private long[] heap;
+  private int size = 0;
+
+  public TimeHeap(int initialCapacity) {
+    heap = new long[Math.max(1, initialCapacity)];
+  }
+
+  public boolean isEmpty() {
+    return size == 0;
+  }
+
+  public void add(long time) {
+    if (size == heap.length) {
+      heap = Arrays.copyOf(heap, heap.length * 2);
+    }
+    int index = size++;
+    while (index > 0) {
+      int parent = (index - 1) >>> 1;
+      if (heap[parent] <= time) {
+        break;
+      }
+      heap[index] = heap[parent];
+      index = parent;
+    }
+    heap[index] = time;
+  }
+
+  /**
+   * the minimum time, the heap must not be empty.
+   */
+  public long peek() {
+    return heap[0];
+  }
+
+  /**
+   * remove the minimum time with all its duplicates and return it. The heap must not be empty.
+   */
+  public long poll() {
+    long min = heap[0];
+    do {
+      removeFirst();
+    } while (size > 0 && heap[0] == min);
+    return min;
+  }
+
+  private void removeFirst() {
+    long last = heap[--size];
+    int index = 0;
+    int half = size >>> 1;
+    while (index < half) {
+      int child = 2 * index + 1;
+      if (child + 1 < size && heap[child + 1] < heap[child]) {
+        child++;
+      }
+      if (last <= heap[child]) {
+        break;
+      }
+      heap[index] = heap[child];
+      index = child;
+    }
+    heap[index] = last;
+  }
+}
@@ -28,7 +28,10 @@ public interface MetadataQuerier {
 
   List<ChunkMetaData> getChunkMetaDataList(Path path) throws IOException;
 
-  TsFileMetaData getWholeFileMetadata();
+  /**
+   * get the metadata of the whole file, its device map is loaded.
+   */
+  TsFileMetaData getWholeFileMetadata() throws IOException;
 
   /**
    * this will load all chunk metadata of given paths into cache.
@@ -50,7 +50,7 @@ public class MetadataQuerierByFileImpl implements MetadataQuerier {
    */
   public MetadataQuerierByFileImpl(TsFileSequenceReader tsFileReader) throws IOException {
     this.tsFileReader = tsFileReader;
-    this.fileMetaData = tsFileReader.readFileMetadata();
+    this.fileMetaData = tsFileReader.readFileMetadataWithoutDeviceIndex();
     chunkMetaDataCache = new LRUCache<Path, List<ChunkMetaData>>(CHUNK_METADATA_CACHE_SIZE) {
       @Override
       public List<ChunkMetaData> loadObjectByKey(Path key) throws IOException {
@@ -64,8 +64,15 @@ public class MetadataQuerierByFileImpl implements MetadataQuerier {
     return chunkMetaDataCache.get(path);
   }
 
+  /**
+   * the device index of a file of the indexed layout is not read by the constructor, it is loaded
+   * here on the first call so that the device map of the returned metadata can be used.
+   */
   @Override
-  public TsFileMetaData getWholeFileMetadata() {
+  public TsFileMetaData getWholeFileMetadata() throws IOException {
+    if (!fileMetaData.isDeviceIndexLoaded()) {
+      fileMetaData.setDeviceMap(tsFileReader.readFileMetadata().getDeviceMap());
+    }
     return fileMetaData;
   }
 
@@ -99,7 +106,11 @@ public class MetadataQuerierByFileImpl implements MetadataQuerier {
       Set<String> selectedMeasurements = deviceMeasurements.getValue();
 
       // get the index information of TsDeviceMetadata
-      TsDeviceMetadataIndex index = fileMetaData.getDeviceMetadataIndex(selectedDevice);
+      TsDeviceMetadataIndex index = tsFileReader.readDeviceMetadataIndex(fileMetaData,
+          selectedDevice);
+      if (index == null) {
+        continue;
+      }
       TsDeviceMetadata tsDeviceMetadata = tsFileReader.readTsDeviceMetaData(index);
 
       // d1
@@ -147,13 +158,13 @@ public class MetadataQuerierByFileImpl implements MetadataQuerier {
 
   private List<ChunkMetaData> loadChunkMetadata(Path path) throws IOException {
 
-    if (!fileMetaData.containsDevice(path.getDevice())) {
+    // get the index information of TsDeviceMetadata
+    TsDeviceMetadataIndex index = tsFileReader.readDeviceMetadataIndex(fileMetaData,
+        path.getDevice());
+    if (index == null) {
       return new ArrayList<>();
     }
 
-    // get the index information of TsDeviceMetadata
-    TsDeviceMetadataIndex index = fileMetaData.getDeviceMetadataIndex(path.getDevice());
-
     // read TsDeviceMetadata from file
     TsDeviceMetadata tsDeviceMetadata = tsFileReader.readTsDeviceMetaData(index);
 
@@ -0,0 +1,455 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.tsfile.read.filter;
+
+import java.util.BitSet;
+import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
+import org.apache.iotdb.tsfile.read.filter.basic.BinaryFilter;
+import org.apache.iotdb.tsfile.read.filter.basic.Filter;
+import org.apache.iotdb.tsfile.read.filter.basic.UnaryFilter;
+import org.apache.iotdb.tsfile.read.filter.factory.FilterType;
+import org.apache.iotdb.tsfile.read.filter.operator.AndFilter;
+import org.apache.iotdb.tsfile.read.filter.operator.Eq;
+import org.apache.iotdb.tsfile.read.filter.operator.Gt;
+import org.apache.iotdb.tsfile.read.filter.operator.GtEq;
+import org.apache.iotdb.tsfile.read.filter.operator.Lt;
+import org.apache.iotdb.tsfile.read.filter.operator.LtEq;
+import org.apache.iotdb.tsfile.read.filter.operator.NotEq;
+import org.apache.iotdb.tsfile.read.filter.operator.NotFilter;
+import org.apache.iotdb.tsfile.read.filter.operator.OrFilter;
+
+/**
+ * A Filter specialized for the values of one numeric data type, so that the points are checked
+ * with primitive comparisons instead of boxing each value and calling compareTo.
+ *
+ * <p>The values passed in must be of the data type the filter is compiled for: long for INT32
+ * and INT64, double for FLOAT and DOUBLE. The results are the same as those of the original
+ * Filter, including the ordering of NaN and -0.0 given by compareTo.
+ */
+public abstract class CompiledFilter {
+
+  /**
+   * compile the filter for a series of the given data type. Only the conditions on time are
+   * compiled for a series which is not numeric.
+   *
+   * @return null if the filter cannot be compiled, e.g. the series is not numeric and the filter
+   * has a condition on the value, or the type of a value in the filter differs from the data type.
+   * The original Filter should be used then.
+   */
+  public static CompiledFilter compile(Filter filter, TSDataType dataType) {
+    switch (dataType) {
+      case INT32:
+      case INT64:
+      case FLOAT:
+      case DOUBLE:
+        return compileNode(filter, dataType);
+      default:
+        return compileTimeFilter(filter);
+    }
+  }
+
+  /**
+   * compile a filter which only has conditions on the time of points, so that it can be checked
+   * without the values by {@link #satisfyTimeBatch(long[], int, BitSet)}.
+   *
+   * @return null if the filter has a condition on the value
+   */
+  public static CompiledFilter compileTimeFilter(Filter filter) {
+    return compileNode(filter, null);
+  }
+
+  /**
+   * @param dataType null if only the conditions on time are compiled
+   */
+  private static CompiledFilter compileNode(Filter filter, TSDataType dataType) {
+    if (filter instanceof AndFilter || filter instanceof OrFilter) {
+      CompiledFilter left = compileNode(((BinaryFilter) filter).getLeft(), dataType);
+      CompiledFilter right = compileNode(((BinaryFilter) filter).getRight(), dataType);
+      if (left == null || right == null) {
+        return null;
+      }
+      return filter instanceof AndFilter ? new And(left, right) : new Or(left, right);
+    }
+    if (filter instanceof NotFilter) {
+      CompiledFilter that = compileNode(((NotFilter) filter).getFilter(), dataType);
+      return that == null ? null : new Not(that);
+    }
+    if (filter instanceof UnaryFilter) {
+      return compileComparison((UnaryFilter<?>) filter, dataType);
+    }
+    return null;
+  }
+
+  private static CompiledFilter compileComparison(UnaryFilter<?> filter, TSDataType dataType) {
+    // which results of comparing a point with the value of the filter satisfy it
+    boolean less = filter instanceof Lt || filter instanceof LtEq || filter instanceof NotEq;
+    boolean equal = filter instanceof Eq || filter instanceof GtEq || filter instanceof LtEq;
+    boolean greater = filter instanceof Gt || filter instanceof GtEq || filter instanceof NotEq;
+    if (!less && !equal && !greater) {
+      return null;
+    }
+    Object value = filter.getValue();
+    if (filter.getFilterType() == FilterType.TIME_FILTER) {
+      return value instanceof Long ? new TimeComparison(less, equal, greater, (Long) value) : null;
+    }
+    if (dataType == null) {
+      return null;
+    }
+    switch (dataType) {
+      case INT32:
+        return value instanceof Integer
+            ? new LongComparison(less, equal, greater, (Integer) value) : null;
+      case INT64:
+        return value instanceof Long
+            ? new LongComparison(less, equal, greater, (Long) value) : null;
+      case FLOAT:
+        return value instanceof Float
+            ? new DoubleComparison(less, equal, greater, (Float) value) : null;
+      case DOUBLE:
+        return value instanceof Double
+            ? new DoubleComparison(less, equal, greater, (Double) value) : null;
+      default:
+        return null;
+    }
+  }
+
+  /**
+   * whether the filter only has conditions on the time of points.
+   */
+  public abstract boolean isTimeFilter();
+
+  /**
+   * check the time of a point with a filter which only has conditions on time.
+   */
+  public boolean satisfyTime(long time) {
+    return satisfy(time, 0L);
+  }
+
+  /**
+   * check a point of an INT32 or INT64 series.
+   */
+  public abstract boolean satisfy(long time, long value);
+
+  /**
+   * check a point of a FLOAT or DOUBLE series.
+   */
+  public abstract boolean satisfy(long time, double value);
+
+  /**
+   * check the first length points, bit i of out is set if the i-th point satisfies the filter
+   * and cleared otherwise. The bits from length on are not changed.
+   */
+  public void satisfyBatch(long[] times, int[] values, int length, BitSet out) {
+    evaluate(times, values, length, out);
+  }
+
+  /**
+   * see {@link #satisfyBatch(long[], int[], int, BitSet)}.
+   */
+  public void satisfyBatch(long[] times, long[] values, int length, BitSet out) {
+    evaluate(times, values, length, out);
+  }
+
+  /**
+   * see {@link #satisfyBatch(long[], int[], int, BitSet)}.
+   */
+  public void satisfyBatch(long[] times, float[] values, int length, BitSet out) {
+    evaluate(times, values, length, out);
+  }
+
+  /**
+   * see {@link #satisfyBatch(long[], int[], int, BitSet)}.
+   */
+  public void satisfyBatch(long[] times, double[] values, int length, BitSet out) {
+    evaluate(times, values, length, out);
+  }
+
+  /**
+   * check the times of the first length points with a filter compiled by
+   * {@link #compileTimeFilter(Filter)}, the bits of out are set as in
+   * {@link #satisfyBatch(long[], int[], int, BitSet)}.
+   */
+  public void satisfyTimeBatch(long[] times, int length, BitSet out) {
+    evaluate(times, null, length, out);
+  }
+
+  /**
+   * @param values an int[], long[], float[] or double[], null if the filter only has conditions on
+   * time
+   */
+  abstract void evaluate(long[] times, Object values, int length, BitSet out);
+
+  private static class And extends CompiledFilter {
+
+    private final CompiledFilter left;
+    private final CompiledFilter right;
+
+    private And(CompiledFilter left, CompiledFilter right) {
+      this.left = left;
+      this.right = right;
+    }
+
+    @Override
+    public boolean isTimeFilter() {
+      return left.isTimeFilter() && right.isTimeFilter();
+    }
+
+    @Override
+    public boolean satisfy(long time, long value) {
+      return left.satisfy(time, value) && right.satisfy(time, value);
+    }
+
+    @Override
+    public boolean satisfy(long time, double value) {
+      return left.satisfy(time, value) && right.satisfy(time, value);
+    }
+
+    @Override
+    void evaluate(long[] times, Object values, int length, BitSet out) {
+      left.evaluate(times, values, length, out);
+      if (out.nextSetBit(0) < 0) {
+        return;
+      }
+      BitSet rightOut = new BitSet(length);
+      right.evaluate(times, values, length, rightOut);
+      out.and(rightOut);
+    }
+  }
+
+  private static class Or extends CompiledFilter {
+
+    private final CompiledFilter left;
+    private final CompiledFilter right;
+
+    private Or(CompiledFilter left, CompiledFilter right) {
+      this.left = left;
+      this.right = right;
+    }
+
+    @Override
+    public boolean isTimeFilter() {
+      return left.isTimeFilter() && right.isTimeFilter();
+    }
+
+    @Override
+    public boolean satisfy(long time, long value) {
+      return left.satisfy(time, value) || right.satisfy(time, value);
+    }
+
+    @Override
+    public boolean satisfy(long time, double value) {
+      return left.satisfy(time, value) || right.satisfy(time, value);
+    }
+
+    @Override
+    void evaluate(long[] times, Object values, int length, BitSet out) {
+      left.evaluate(times, values, length, out);
+      BitSet rightOut = new BitSet(length);
+      right.evaluate(times, values, length, rightOut);
+      out.or(rightOut);
+    }
+  }
+
+  private static class Not extends CompiledFilter {
+
+    private final CompiledFilter that;
+
+    private Not(CompiledFilter that) {
+      this.that = that;
+    }
+
+    @Override
+    public boolean isTimeFilter() {
+      return that.isTimeFilter();
+    }
+
+    @Override
+    public boolean satisfy(long time, long value) {
+      return !that.satisfy(time, value);
+    }
+
+    @Override
+    public boolean satisfy(long time, double value) {
+      return !that.satisfy(time, value);
+    }
+
+    @Override
+    void evaluate(long[] times, Object values, int length, BitSet out) {
+      that.evaluate(times, values, length, out);
+      out.flip(0, length);
+    }
+  }
+
+  /**
+   * compares the time or the value of a point with a constant.
+   */
+  private abstract static class Comparison extends CompiledFilter {
+
+    private final boolean less;
+    private final boolean equal;
+    private final boolean greater;
+
+    private Comparison(boolean less, boolean equal, boolean greater) {
+      this.less = less;
+      this.equal = equal;
+      this.greater = greater;
+    }
+
+    /**
+     * @param compareResult the result of comparing the point with the constant
+     */
+    final boolean test(int compareResult) {
+      if (compareResult < 0) {
+        return less;
+      }
+      return compareResult == 0 ? equal : greater;
+    }
+  }
+
+  private static class TimeComparison extends Comparison {
+
+    private final long bound;
+
+    private TimeComparison(boolean less, boolean equal, boolean greater, long bound) {
+      super(less, equal, greater);
+      this.bound = bound;
+    }
+
+    @Override
+    public boolean isTimeFilter() {
+      return true;
+    }
+
+    @Override
+    public boolean satisfy(long time, long value) {
+      return test(Long.compare(time, bound));
+    }
+
+    @Override
+    public boolean satisfy(long time, double value) {
+      return test(Long.compare(time, bound));
+    }
+
+    @Override
+    void evaluate(long[] times, Object values, int length, BitSet out) {
+      out.clear(0, length);
+      for (int i = 0; i < length; i++) {
+        if (test(Long.compare(times[i], bound))) {
+          out.set(i);
+        }
+      }
+    }
+  }
+
+  private static class LongComparison extends Comparison {
+
+    private final long bound;
+
+    private LongComparison(boolean less, boolean equal, boolean greater, long bound) {
+      super(less, equal, greater);
+      this.bound = bound;
+    }
+
+    @Override
+    public boolean isTimeFilter() {
+      return false;
+    }
+
+    @Override
+    public boolean satisfy(long time, long value) {
+      return test(Long.compare(value, bound));
+    }
+
+    @Override
+    public boolean satisfy(long time, double value) {
+      throw new UnsupportedOperationException("The filter is compiled for integer values");
+    }
+
+    @Override
+    void evaluate(long[] times, Object values, int length, BitSet out) {
+      out.clear(0, length);
+      if (values instanceof long[]) {
+        long[] longs = (long[]) values;
+        for (int i = 0; i < length; i++) {
+          if (test(Long.compare(longs[i], bound))) {
+            out.set(i);
+          }
+        }
+      } else if (values instanceof int[]) {
+        int[] ints = (int[]) values;
+        for (int i = 0; i < length; i++) {
+          if (test(Long.compare(ints[i], bound))) {
+            out.set(i);
+          }
+        }
+      } else {
+        throw new UnsupportedOperationException("The filter is compiled for integer values");
+      }
+    }
+  }
+
+  private static class DoubleComparison extends Comparison {
+
+    private final double bound;
+
+    private DoubleComparison(boolean less, boolean equal, boolean greater, double bound) {
+      super(less, equal, greater);
+      this.bound = bound;
+    }
+
+    @Override
+    public boolean isTimeFilter() {
+      return false;
+    }
+
+    @Override
+    public boolean satisfy(long time, long value) {
+      throw new UnsupportedOperationException("The filter is compiled for floating point values");
+    }
+
+    @Override
+    public boolean satisfy(long time, double value) {
+      // Double.compare orders NaN and -0.0 in the same way as Float/Double.compareTo
+      return test(Double.compare(value, bound));
+    }
+
+    @Override
+    void evaluate(long[] times, Object values, int length, BitSet out) {
+      out.clear(0, length);
+      if (values instanceof double[]) {
+        double[] doubles = (double[]) values;
+        for (int i = 0; i < length; i++) {
+          if (test(Double.compare(doubles[i], bound))) {
+            out.set(i);
+          }
+        }
+      } else if (values instanceof float[]) {
+        float[] floats = (float[]) values;
+        for (int i = 0; i < length; i++) {
+          if (test(Double.compare(floats[i], bound))) {
+            out.set(i);
+          }
+        }
+      } else {
+        throw new UnsupportedOperationException(
+            "The filter is compiled for floating point values");
+      }
+    }
+  }
+}
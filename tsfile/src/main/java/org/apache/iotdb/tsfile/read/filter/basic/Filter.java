@@ -53,4 +53,16 @@ public interface Filter {
    *            end time of a page, series or device
    */
   boolean satisfyStartEndTime(long startTime, long endTime);
+
+  /**
+   * To examine whether all the points between the min time and max time are satisfied with the
+   * filter, so that the statistics of a page or chunk can be used directly. A value filter always
+   * returns false.
+   *
+   * @param startTime
+   *            start time of a page, series or device
+   * @param endTime
+   *            end time of a page, series or device
+   */
+  boolean containStartEndTime(long startTime, long endTime);
 }
@@ -53,6 +53,15 @@ public class NotFilter implements Filter, Serializable {
     return !that.satisfyStartEndTime(startTime, endTime);
   }
 
+  /**
+   * Notice that, satisfyStartEndTime() of this filter is not accurate, so false is always returned
+   * to be safe. The not filters are usually removed during the query optimization.
+   */
+  @Override
+  public boolean containStartEndTime(long startTime, long endTime) {
+    return false;
+  }
+
   public Filter getFilter() {
     return this.that;
   }
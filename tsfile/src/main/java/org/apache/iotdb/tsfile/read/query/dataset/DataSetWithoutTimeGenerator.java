@@ -19,17 +19,15 @@
 package org.apache.iotdb.tsfile.read.query.dataset;
 
 import java.io.IOException;
-import java.util.ArrayList;
-import java.util.HashSet;
 import java.util.List;
-import java.util.PriorityQueue;
-import java.util.Set;
 import org.apache.iotdb.tsfile.exception.write.UnSupportedDataTypeException;
 import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
 import org.apache.iotdb.tsfile.read.common.BatchData;
 import org.apache.iotdb.tsfile.read.common.Field;
 import org.apache.iotdb.tsfile.read.common.Path;
+import org.apache.iotdb.tsfile.read.common.RowBatch;
 import org.apache.iotdb.tsfile.read.common.RowRecord;
+import org.apache.iotdb.tsfile.read.common.TimeHeap;
 import org.apache.iotdb.tsfile.read.reader.series.FileSeriesReader;
 
 /**
@@ -39,16 +37,15 @@ public class DataSetWithoutTimeGenerator extends QueryDataSet {
 
   private List<FileSeriesReader> readers;
 
-  private List<BatchData> batchDataList;
-
-  private List<Boolean> hasDataRemaining;
+  /**
+   * the batch being read of each reader, null if the reader has no more data.
+   */
+  private BatchData[] batches;
 
   /**
    * heap only need to store time.
    **/
-  private PriorityQueue<Long> timeHeap;
-
-  private Set<Long> timeSet;
+  private TimeHeap timeHeap;
 
   /**
    * constructor of DataSetWithoutTimeGenerator.
@@ -67,37 +64,48 @@ public class DataSetWithoutTimeGenerator extends QueryDataSet {
   }
 
   private void initHeap() throws IOException {
-    hasDataRemaining = new ArrayList<>();
-    batchDataList = new ArrayList<>();
-    timeHeap = new PriorityQueue<>();
-    timeSet = new HashSet<>();
+    batches = new BatchData[paths.size()];
+    timeHeap = new TimeHeap(paths.size());
 
     for (int i = 0; i < paths.size(); i++) {
-      FileSeriesReader reader = readers.get(i);
-      if (!reader.hasNextBatch()) {
-        batchDataList.add(new BatchData());
-        hasDataRemaining.add(false);
-      } else {
-        batchDataList.add(reader.nextBatch());
-        hasDataRemaining.add(true);
-      }
+      fetchBatch(i);
     }
+  }
 
-    for (BatchData data : batchDataList) {
+  /**
+   * read the next non-empty batch of the given reader and put its first time into the heap.
+   */
+  private void fetchBatch(int index) throws IOException {
+    FileSeriesReader reader = readers.get(index);
+    while (reader.hasNextBatch()) {
+      BatchData data = reader.nextBatch();
       if (data.hasNext()) {
-        timeHeapPut(data.currentTime());
+        batches[index] = data;
+        timeHeap.add(data.currentTime());
+        return;
       }
     }
+    batches[index] = null;
+  }
+
+  private void moveToNextPoint(int index) throws IOException {
+    BatchData data = batches[index];
+    data.next();
+    if (data.hasNext()) {
+      timeHeap.add(data.currentTime());
+    } else {
+      fetchBatch(index);
+    }
   }
 
   @Override
   public boolean hasNext() {
-    return timeHeap.size() > 0;
+    return !timeHeap.isEmpty();
   }
 
   @Override
   public RowRecord next() throws IOException {
-    long minTime = timeHeapGet();
+    long minTime = timeHeap.poll();
 
     RowRecord record = new RowRecord(minTime);
 
@@ -105,35 +113,10 @@ public class DataSetWithoutTimeGenerator extends QueryDataSet {
 
       Field field = new Field(dataTypes.get(i));
 
-      if (!hasDataRemaining.get(i)) {
-        field.setNull();
-        record.addField(field);
-        continue;
-      }
-
-      BatchData data = batchDataList.get(i);
-
-      if (data.currentTime() == minTime) {
+      BatchData data = batches[i];
+      if (data != null && data.currentTime() == minTime) {
         putValueToField(data, field);
-        data.next();
-
-        if (!data.hasNext()) {
-          FileSeriesReader reader = readers.get(i);
-          if (reader.hasNextBatch()) {
-            data = reader.nextBatch();
-            if (data.hasNext()) {
-              batchDataList.set(i, data);
-              timeHeapPut(data.currentTime());
-            } else {
-              hasDataRemaining.set(i, false);
-            }
-          } else {
-            hasDataRemaining.set(i, false);
-          }
-        } else {
-          timeHeapPut(data.currentTime());
-        }
-
+        moveToNextPoint(i);
       } else {
         field.setNull();
       }
@@ -144,20 +127,21 @@ public class DataSetWithoutTimeGenerator extends QueryDataSet {
     return record;
   }
 
-  /**
-   * keep heap from storing duplicate time.
-   */
-  private void timeHeapPut(long time) {
-    if (!timeSet.contains(time)) {
-      timeSet.add(time);
-      timeHeap.add(time);
+  @Override
+  public int nextRowBatch(RowBatch rowBatch) throws IOException {
+    rowBatch.reset();
+    while (!rowBatch.isFull() && !timeHeap.isEmpty()) {
+      long minTime = timeHeap.poll();
+      rowBatch.addRow(minTime);
+      for (int i = 0; i < paths.size(); i++) {
+        BatchData data = batches[i];
+        if (data != null && data.currentTime() == minTime) {
+          rowBatch.putValue(i, data);
+          moveToNextPoint(i);
+        }
+      }
     }
-  }
-
-  private Long timeHeapGet() {
-    Long t = timeHeap.poll();
-    timeSet.remove(t);
-    return t;
+    return rowBatch.size();
   }
 
   private void putValueToField(BatchData col, Field field) {
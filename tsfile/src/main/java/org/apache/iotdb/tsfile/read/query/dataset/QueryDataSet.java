@@ -22,6 +22,7 @@ import java.io.IOException;
 import java.util.List;
 import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
 import org.apache.iotdb.tsfile.read.common.Path;
+import org.apache.iotdb.tsfile.read.common.RowBatch;
 import org.apache.iotdb.tsfile.read.common.RowRecord;
 
 public abstract class QueryDataSet {
@@ -44,6 +45,21 @@ public abstract class QueryDataSet {
    */
   public abstract RowRecord next() throws IOException;
 
+  /**
+   * read the next rows into the row batch, which is reset first, until it is full or there is no
+   * more row. The row batch must have the data types of this data set. Subclasses can fill it
+   * without creating a RowRecord for each row.
+   *
+   * @return the number of rows read
+   */
+  public int nextRowBatch(RowBatch rowBatch) throws IOException {
+    rowBatch.reset();
+    while (!rowBatch.isFull() && hasNext()) {
+      rowBatch.addRow(next());
+    }
+    return rowBatch.size();
+  }
+
   public List<Path> getPaths() {
     return paths;
   }
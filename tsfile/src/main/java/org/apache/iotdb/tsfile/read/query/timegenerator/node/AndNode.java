@@ -45,28 +45,40 @@ public class AndNode implements Node {
     if (hasCachedValue) {
       return true;
     }
-    if (leftChild.hasNext() && rightChild.hasNext()) {
-      long leftValue = leftChild.next();
-      long rightValue = rightChild.next();
-      while (true) {
-        if (leftValue == rightValue) {
-          this.hasCachedValue = true;
-          this.cachedValue = leftValue;
-          return true;
-        } else if (leftValue > rightValue) {
-          if (rightChild.hasNext()) {
-            rightValue = rightChild.next();
-          } else {
-            return false;
-          }
-        } else { // leftValue < rightValue
-          if (leftChild.hasNext()) {
-            leftValue = leftChild.next();
-          } else {
-            return false;
-          }
-        }
+    return leftChild.hasNext() && intersect(leftChild.next());
+  }
+
+  @Override
+  public boolean advanceTo(long time) throws IOException {
+    if (hasCachedValue) {
+      if (cachedValue >= time) {
+        return true;
+      }
+      hasCachedValue = false;
+    }
+    return leftChild.advanceTo(time) && intersect(leftChild.next());
+  }
+
+  /**
+   * find the first time of both children from the given time of the left child. Each child is
+   * advanced to the last time of the other one in turn, so that the data of a child before the
+   * next time of the other one is skipped instead of read.
+   */
+  private boolean intersect(long leftValue) throws IOException {
+    long time = leftValue;
+    Node advancedChild = rightChild;
+    Node otherChild = leftChild;
+    while (advancedChild.advanceTo(time)) {
+      long value = advancedChild.next();
+      if (value == time) {
+        this.hasCachedValue = true;
+        this.cachedValue = time;
+        return true;
       }
+      time = value;
+      Node child = advancedChild;
+      advancedChild = otherChild;
+      otherChild = child;
     }
     return false;
   }
@@ -42,7 +42,8 @@ public class LeafNode implements Node {
       gotData = false;
     }
 
-    if (data == null || !data.hasNext()) {
+    // a batch may be empty if no point of the page satisfies the filter
+    while (data == null || !data.hasNext()) {
       if (reader.hasNextBatch()) {
         data = reader.nextBatch();
       } else {
@@ -50,7 +51,32 @@ public class LeafNode implements Node {
       }
     }
 
-    return data.hasNext();
+    return true;
+  }
+
+  @Override
+  public boolean advanceTo(long time) throws IOException {
+    if (gotData) {
+      data.next();
+      gotData = false;
+    }
+
+    if (data != null) {
+      data.skipTo(time);
+      if (data.hasNext()) {
+        return true;
+      }
+    }
+
+    reader.advanceTo(time);
+    while (reader.hasNextBatch()) {
+      data = reader.nextBatch();
+      data.skipTo(time);
+      if (data.hasNext()) {
+        return true;
+      }
+    }
+    return false;
   }
 
   @Override
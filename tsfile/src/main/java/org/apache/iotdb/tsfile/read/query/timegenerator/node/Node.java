@@ -26,5 +26,13 @@ public interface Node {
 
   long next() throws IOException;
 
+  /**
+   * skip the times less than the given time, so that the next call of next() returns the first
+   * time not less than it. The data which can only contain skipped times is not read.
+   *
+   * @return whether there is such a time
+   */
+  boolean advanceTo(long time) throws IOException;
+
   NodeType getType();
 }
@@ -45,6 +45,19 @@ public class OrNode implements Node {
     return leftChild.hasNext() || rightChild.hasNext();
   }
 
+  @Override
+  public boolean advanceTo(long time) throws IOException {
+    if (hasCachedLeftValue && cachedLeftValue < time) {
+      hasCachedLeftValue = false;
+    }
+    if (hasCachedRightValue && cachedRightValue < time) {
+      hasCachedRightValue = false;
+    }
+    boolean hasLeftValue = hasCachedLeftValue || leftChild.advanceTo(time);
+    boolean hasRightValue = hasCachedRightValue || rightChild.advanceTo(time);
+    return hasLeftValue || hasRightValue;
+  }
+
   private boolean hasLeftValue() throws IOException {
     return hasCachedLeftValue || leftChild.hasNext();
   }
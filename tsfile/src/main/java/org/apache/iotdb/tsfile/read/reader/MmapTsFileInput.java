@@ -0,0 +1,199 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.tsfile.read.reader;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import sun.reflect.generics.reflectiveObjects.NotImplementedException;
+
+/**
+ * A TsFileInput of a sealed file which maps the file read-only into memory, so that the data at a
+ * position is returned as a slice of the mapping rather than read into a new buffer. The file must
+ * not change while it is mapped.
+ *
+ * <p>The file is mapped in regions of at most 1 GB, a slice crossing two regions is copied. The
+ * sequential methods and the channel are those of the underlying file channel.
+ */
+public class MmapTsFileInput implements TsFileInput {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(MmapTsFileInput.class);
+
+  /**
+   * a mapping can not be larger than Integer.MAX_VALUE bytes.
+   */
+  private static final long DEFAULT_REGION_SIZE = 1L << 30;
+
+  private FileChannel channel;
+  private long size;
+  private long regionSize;
+  private MappedByteBuffer[] regions;
+
+  /**
+   * @param regionSize -the size of the mapped regions, only smaller than the default in tests
+   */
+  MmapTsFileInput(FileChannel channel, long regionSize) throws IOException {
+    this.channel = channel;
+    this.size = channel.size();
+    this.regionSize = regionSize;
+    regions = new MappedByteBuffer[(int) ((size + regionSize - 1) / regionSize)];
+    for (int i = 0; i < regions.length; i++) {
+      long start = i * regionSize;
+      regions[i] = channel.map(MapMode.READ_ONLY, start, Math.min(regionSize, size - start));
+    }
+  }
+
+  /**
+   * open the given sealed file by mapping it. A 32-bit JVM has too little address space to map
+   * data files, so there, and if the file can not be mapped, the file is read by a
+   * {@link DefaultTsFileInput} instead.
+   *
+   * @param file -the sealed file
+   * @return -the input of the file
+   */
+  public static TsFileInput open(Path file) throws IOException {
+    if ("32".equals(System.getProperty("sun.arch.data.model"))) {
+      return new DefaultTsFileInput(file);
+    }
+    FileChannel channel = FileChannel.open(file, StandardOpenOption.READ);
+    try {
+      return new MmapTsFileInput(channel, DEFAULT_REGION_SIZE);
+    } catch (IOException | OutOfMemoryError e) {
+      // the address space is used up, FileChannel.map reports it as an IOException or an error
+      LOGGER.warn("Can not map {}, read it without mapping.", file, e);
+      channel.close();
+      return new DefaultTsFileInput(file);
+    }
+  }
+
+  @Override
+  public long size() throws IOException {
+    return size;
+  }
+
+  @Override
+  public long position() throws IOException {
+    return channel.position();
+  }
+
+  @Override
+  public TsFileInput position(long newPosition) throws IOException {
+    channel.position(newPosition);
+    return this;
+  }
+
+  @Override
+  public int read(ByteBuffer dst) throws IOException {
+    return channel.read(dst);
+  }
+
+  @Override
+  public int read(ByteBuffer dst, long position) throws IOException {
+    if (position < 0) {
+      throw new IllegalArgumentException("Negative position: " + position);
+    }
+    if (position >= size) {
+      return -1;
+    }
+    int length = (int) Math.min(dst.remaining(), size - position);
+    dst.put(slice(position, length));
+    return length;
+  }
+
+  @Override
+  public int read() throws IOException {
+    throw new NotImplementedException();
+  }
+
+  @Override
+  public int read(byte[] b, int off, int len) throws IOException {
+    throw new NotImplementedException();
+  }
+
+  /**
+   * return a read-only view of the mapping if the bytes are in one region.
+   */
+  @Override
+  public ByteBuffer slice(long position, int size) throws IOException {
+    MappedByteBuffer[] mappedRegions = regions;
+    if (mappedRegions == null) {
+      throw new IOException("The input of the file is closed.");
+    }
+    if (position < 0 || position + size > this.size) {
+      throw new IOException(
+          "Can not read " + size + " bytes at " + position + ", the file has " + this.size);
+    }
+    if (size == 0) {
+      return ByteBuffer.allocate(0);
+    }
+    int region = (int) (position / regionSize);
+    int offset = (int) (position % regionSize);
+    if (offset + size <= mappedRegions[region].capacity()) {
+      ByteBuffer buffer = mappedRegions[region].duplicate();
+      buffer.position(offset);
+      buffer.limit(offset + size);
+      return buffer.slice();
+    }
+
+    // crossing regions
+    ByteBuffer buffer = ByteBuffer.allocate(size);
+    while (buffer.hasRemaining()) {
+      ByteBuffer part = mappedRegions[region].duplicate();
+      part.position(offset);
+      part.limit(Math.min(part.capacity(), offset + buffer.remaining()));
+      buffer.put(part);
+      region++;
+      offset = 0;
+    }
+    buffer.flip();
+    return buffer;
+  }
+
+  @Override
+  public FileChannel wrapAsFileChannel() throws IOException {
+    return channel;
+  }
+
+  @Override
+  public InputStream wrapAsInputStream() throws IOException {
+    return Channels.newInputStream(channel);
+  }
+
+  /**
+   * the mapping is released when the slices of it are garbage collected.
+   */
+  @Override
+  public void close() throws IOException {
+    regions = null;
+    channel.close();
+  }
+
+  @Override
+  public int readInt() throws IOException {
+    throw new NotImplementedException();
+  }
+}
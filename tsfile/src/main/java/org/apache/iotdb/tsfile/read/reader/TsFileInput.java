@@ -26,6 +26,7 @@ import java.nio.channels.ClosedByInterruptException;
 import java.nio.channels.ClosedChannelException;
 import java.nio.channels.FileChannel;
 import java.nio.channels.ReadableByteChannel;
+import org.apache.iotdb.tsfile.utils.ReadWriteIOUtils;
 
 public interface TsFileInput {
 
@@ -103,6 +104,23 @@ public interface TsFileInput {
    */
   int read(ByteBuffer dst, long position) throws IOException;
 
+  /**
+   * Reads the given number of bytes starting at the given position into a buffer whose position
+   * is 0. An input may return a view of memory it shares with other callers rather than a copy, so
+   * the returned buffer must not be written. This method does not modify this TsFileInput's
+   * position.
+   *
+   * @param position The position at which the bytes begin; must be non-negative
+   * @param size The number of bytes
+   * @throws IOException If an I/O error occurs
+   */
+  default ByteBuffer slice(long position, int size) throws IOException {
+    ByteBuffer buffer = ByteBuffer.allocate(size);
+    ReadWriteIOUtils.readAsPossible(wrapAsFileChannel(), buffer, position, size);
+    buffer.flip();
+    return buffer;
+  }
+
   /**
    * read a byte from the Input.
    */
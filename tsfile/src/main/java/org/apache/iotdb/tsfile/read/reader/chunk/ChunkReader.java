@@ -20,16 +20,17 @@ package org.apache.iotdb.tsfile.read.reader.chunk;
 
 import java.io.IOException;
 import java.nio.ByteBuffer;
-import java.util.Arrays;
 import org.apache.iotdb.tsfile.common.conf.TSFileConfig;
 import org.apache.iotdb.tsfile.compress.UnCompressor;
 import org.apache.iotdb.tsfile.encoding.decoder.Decoder;
 import org.apache.iotdb.tsfile.file.header.ChunkHeader;
 import org.apache.iotdb.tsfile.file.header.PageHeader;
+import org.apache.iotdb.tsfile.file.metadata.enums.CompressionType;
 import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
 import org.apache.iotdb.tsfile.file.metadata.enums.TSEncoding;
 import org.apache.iotdb.tsfile.read.common.BatchData;
 import org.apache.iotdb.tsfile.read.common.Chunk;
+import org.apache.iotdb.tsfile.read.filter.CompiledFilter;
 import org.apache.iotdb.tsfile.read.filter.basic.Filter;
 import org.apache.iotdb.tsfile.read.reader.page.PageReader;
 
@@ -46,8 +47,15 @@ public abstract class ChunkReader {
 
   private Filter filter;
 
+  /**
+   * the filter compiled for the data type of the chunk, null if it cannot be compiled.
+   */
+  private CompiledFilter compiledFilter;
+
   private BatchData data;
 
+  private PageHeader pageHeader;
+
   private long maxTombstoneTime;
 
   public ChunkReader(Chunk chunk) {
@@ -68,6 +76,9 @@ public abstract class ChunkReader {
     valueDecoder = Decoder
         .getDecoderByType(chunkHeader.getEncodingType(), chunkHeader.getDataType());
     data = new BatchData(chunkHeader.getDataType());
+    if (filter != null) {
+      compiledFilter = CompiledFilter.compile(filter, chunkHeader.getDataType());
+    }
   }
 
   public boolean hasNextBatch() {
@@ -90,7 +101,7 @@ public abstract class ChunkReader {
 
       // if the current page satisfies
       if (pageSatisfied(pageHeader)) {
-        PageReader pageReader = constructPageReaderForNextPage(pageHeader.getCompressedSize());
+        PageReader pageReader = constructPageReaderForNextPage(pageHeader);
         if (pageReader.hasNextBatch()) {
           data = pageReader.nextBatch();
           return data;
@@ -107,29 +118,95 @@ public abstract class ChunkReader {
     return data;
   }
 
+  /**
+   * skip the following pages ending before the given time according to their headers, without
+   * decoding them. The pages of a chunk are in ascending order of time, so the skipping stops at
+   * the first page not ending before the time, whose points before the time are still returned.
+   */
+  public void advanceTo(long time) throws IOException {
+    while (chunkDataBuffer.remaining() > 0) {
+      int position = chunkDataBuffer.position();
+      PageHeader header = PageHeader.deserializeFrom(chunkDataBuffer, chunkHeader.getDataType());
+      if (header.getMaxTimestamp() >= time) {
+        chunkDataBuffer.position(position);
+        return;
+      }
+      skipBytesInStreamByLength(header.getCompressedSize());
+    }
+  }
+
+  /**
+   * read the header of the next page, so that the statistics of the page can be used without
+   * decoding it. Use {@link #hasNextBatch()} to check whether there is a next page. After it is
+   * called, {@link #skipPageData()} or {@link #nextPageData()} must be called before the next call.
+   *
+   * @return header of the next page
+   */
+  public PageHeader nextPageHeader() throws IOException {
+    pageHeader = PageHeader.deserializeFrom(chunkDataBuffer, chunkHeader.getDataType());
+    return pageHeader;
+  }
+
+  /**
+   * skip the data of the page whose header is just read by {@link #nextPageHeader()}.
+   */
+  public void skipPageData() {
+    skipBytesInStreamByLength(pageHeader.getCompressedSize());
+  }
+
+  /**
+   * decode the data of the page whose header is just read by {@link #nextPageHeader()}, the filter
+   * is applied.
+   *
+   * @return data of the page, may be an empty BatchData
+   */
+  public BatchData nextPageData() throws IOException {
+    PageReader pageReader = nextPageReader();
+    data = pageReader.nextBatch();
+    return data;
+  }
+
+  /**
+   * construct the reader of the page whose header is just read by {@link #nextPageHeader()}, so
+   * that the page can be decoded in a way other than {@link #nextPageData()}.
+   */
+  protected PageReader nextPageReader() throws IOException {
+    return constructPageReaderForNextPage(pageHeader);
+  }
+
   private void skipBytesInStreamByLength(long length) {
     chunkDataBuffer.position(chunkDataBuffer.position() + (int) length);
   }
 
   public abstract boolean pageSatisfied(PageHeader pageHeader);
 
-  private PageReader constructPageReaderForNextPage(int compressedPageBodyLength)
+  private PageReader constructPageReaderForNextPage(PageHeader pageHeader)
       throws IOException {
-    byte[] compressedPageBody = new byte[compressedPageBodyLength];
+    int compressedPageBodyLength = pageHeader.getCompressedSize();
 
     // already in memory
     if (compressedPageBodyLength > chunkDataBuffer.remaining()) {
       throw new IOException(
           "unexpected byte read length when read compressedPageBody. Expected:"
-              + Arrays.toString(compressedPageBody) + ". Actual:" + chunkDataBuffer
+              + compressedPageBodyLength + ". Actual:" + chunkDataBuffer
               .remaining());
     }
 
-    chunkDataBuffer.get(compressedPageBody, 0, compressedPageBodyLength);
+    ByteBuffer pageData;
+    if (chunkHeader.getCompressionType() == CompressionType.UNCOMPRESSED) {
+      // the page is read in place, the chunk data may be a slice of a mapped file
+      pageData = chunkDataBuffer.slice();
+      pageData.limit(compressedPageBodyLength);
+      skipBytesInStreamByLength(compressedPageBodyLength);
+    } else {
+      byte[] compressedPageBody = new byte[compressedPageBodyLength];
+      chunkDataBuffer.get(compressedPageBody, 0, compressedPageBodyLength);
+      pageData = ByteBuffer.wrap(unCompressor.uncompress(compressedPageBody));
+    }
     valueDecoder.reset();
-    return new PageReader(ByteBuffer.wrap(unCompressor.uncompress(compressedPageBody)),
+    return new PageReader(pageData,
         chunkHeader.getDataType(),
-        valueDecoder, timeDecoder, filter);
+        valueDecoder, timeDecoder, filter, compiledFilter, pageHeader.getNumOfValues());
   }
 
   public void close() {
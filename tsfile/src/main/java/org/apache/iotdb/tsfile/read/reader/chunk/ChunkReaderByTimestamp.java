@@ -18,13 +18,33 @@
  */
 package org.apache.iotdb.tsfile.read.reader.chunk;
 
+import java.io.IOException;
+import java.util.Arrays;
 import org.apache.iotdb.tsfile.file.header.PageHeader;
 import org.apache.iotdb.tsfile.read.common.Chunk;
+import org.apache.iotdb.tsfile.read.reader.page.PageReader;
 
 public class ChunkReaderByTimestamp extends ChunkReader {
 
   private long currentTimestamp;
 
+  /**
+   * header of the next page to be read by {@link #getValueInTimestamp(long)}, null if it has not
+   * been read. The page is decoded only when a timestamp in its range is given.
+   */
+  private PageHeader nextPageHeader;
+
+  /**
+   * reader of the page whose timestamps are decoded, null if there is none.
+   */
+  private PageReader pageReader;
+  private long[] times;
+  private int timeCount;
+  /**
+   * the index of the first timestamp not less than the last given one.
+   */
+  private int timeIndex;
+
   public ChunkReaderByTimestamp(Chunk chunk) {
     super(chunk);
   }
@@ -40,4 +60,45 @@ public class ChunkReaderByTimestamp extends ChunkReader {
     this.currentTimestamp = currentTimestamp;
   }
 
+  /**
+   * get the value of the point at the given timestamp, the timestamps must be given in ascending
+   * order. The timestamps of a page are decoded first, and only the values at the given timestamps
+   * are decoded, the others are skipped.
+   *
+   * @return null if there is no point at the timestamp
+   */
+  public Object getValueInTimestamp(long timestamp) throws IOException {
+    currentTimestamp = timestamp;
+    while (true) {
+      if (pageReader != null) {
+        int index = Arrays.binarySearch(times, timeIndex, timeCount, timestamp);
+        timeIndex = index >= 0 ? index : -index - 1;
+        if (timeIndex < timeCount) {
+          return index >= 0 ? pageReader.getValue(index) : null;
+        }
+        pageReader = null;
+      }
+
+      if (nextPageHeader == null) {
+        if (!hasNextBatch()) {
+          return null;
+        }
+        PageHeader pageHeader = nextPageHeader();
+        if (!pageSatisfied(pageHeader)) {
+          skipPageData();
+          continue;
+        }
+        nextPageHeader = pageHeader;
+      }
+      if (timestamp < nextPageHeader.getMinTimestamp()) {
+        return null;
+      }
+      pageReader = nextPageReader();
+      nextPageHeader = null;
+      times = pageReader.readTimes();
+      timeCount = pageReader.getTimeCount();
+      timeIndex = 0;
+    }
+  }
+
 }
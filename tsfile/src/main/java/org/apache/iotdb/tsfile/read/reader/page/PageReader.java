@@ -20,16 +20,21 @@ package org.apache.iotdb.tsfile.read.reader.page;
 
 import java.io.IOException;
 import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.BitSet;
 import org.apache.iotdb.tsfile.encoding.decoder.Decoder;
 import org.apache.iotdb.tsfile.exception.write.UnSupportedDataTypeException;
 import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
 import org.apache.iotdb.tsfile.read.common.BatchData;
+import org.apache.iotdb.tsfile.read.filter.CompiledFilter;
 import org.apache.iotdb.tsfile.read.filter.basic.Filter;
 import org.apache.iotdb.tsfile.utils.Binary;
 import org.apache.iotdb.tsfile.utils.ReadWriteForEncodingUtils;
 
 public class PageReader {
 
+  private static final int DEFAULT_TIME_ARRAY_SIZE = 1024;
+
   private TSDataType dataType;
 
   /** decoder for value column */
@@ -48,11 +53,60 @@ public class PageReader {
 
   private Filter filter = null;
 
+  /**
+   * the filter compiled for dataType, null if it cannot be compiled.
+   */
+  private CompiledFilter compiledFilter = null;
+
+  /**
+   * the number of points in the page, or -1 if it is unknown.
+   */
+  private int numOfValues = -1;
+
+  /**
+   * the number of timestamps decoded from the page.
+   */
+  private int timeCount;
+
+  /**
+   * the number of values decoded or skipped by {@link #getValue(int)}, and the last decoded one.
+   */
+  private int valueCount = 0;
+  private Object lastValue;
+
   public PageReader(ByteBuffer pageData, TSDataType dataType, Decoder valueDecoder,
       Decoder timeDecoder,
       Filter filter) {
     this(pageData, dataType, valueDecoder, timeDecoder);
     this.filter = filter;
+    if (filter != null) {
+      this.compiledFilter = CompiledFilter.compile(filter, dataType);
+    }
+  }
+
+  /**
+   * constructor of PageReader, the page is decoded into arrays of the given number of points.
+   *
+   * @param numOfValues the number of points in the page, as recorded in its header
+   */
+  public PageReader(ByteBuffer pageData, TSDataType dataType, Decoder valueDecoder,
+      Decoder timeDecoder, Filter filter, int numOfValues) {
+    this(pageData, dataType, valueDecoder, timeDecoder, filter);
+    this.numOfValues = numOfValues;
+  }
+
+  /**
+   * constructor of PageReader, the filter is already compiled so that the pages of a chunk do not
+   * compile it again.
+   *
+   * @param compiledFilter filter compiled for dataType, null if it cannot be compiled
+   */
+  public PageReader(ByteBuffer pageData, TSDataType dataType, Decoder valueDecoder,
+      Decoder timeDecoder, Filter filter, CompiledFilter compiledFilter, int numOfValues) {
+    this(pageData, dataType, valueDecoder, timeDecoder);
+    this.filter = filter;
+    this.compiledFilter = compiledFilter;
+    this.numOfValues = numOfValues;
   }
 
   public PageReader(ByteBuffer pageData, TSDataType dataType, Decoder valueDecoder,
@@ -88,7 +142,11 @@ public class PageReader {
    */
   public BatchData nextBatch() throws IOException {
     if (filter == null) {
-      data = getAllPageData();
+      data = getAllPageData(readAllTimes());
+    } else if (compiledFilter != null && compiledFilter.isTimeFilter()) {
+      data = getAllPageDataWithTimeFilter();
+    } else if (compiledFilter != null) {
+      data = getAllPageDataWithCompiledFilter();
     } else {
       data = getAllPageDataWithFilter();
     }
@@ -100,118 +158,286 @@ public class PageReader {
     return data;
   }
 
-  private BatchData getAllPageData() throws IOException {
+  private BatchData getAllPageData(long[] times) throws IOException {
+    BatchData pageData = new BatchData(dataType, true, timeCount);
+    pageData.putTimes(times, 0, timeCount);
+    putValues(pageData, timeCount);
+    return pageData;
+  }
 
+  /**
+   * the timestamps are decoded and checked first, then only the values of the satisfying points
+   * are decoded, and those of the others are skipped.
+   */
+  private BatchData getAllPageDataWithTimeFilter() throws IOException {
+    long[] times = readAllTimes();
+    if (timeCount == 0 || filter.containStartEndTime(times[0], times[timeCount - 1])) {
+      return getAllPageData(times);
+    }
     BatchData pageData = new BatchData(dataType, true);
+    BitSet satisfied = new BitSet(timeCount);
+    compiledFilter.satisfyTimeBatch(times, timeCount, satisfied);
+    // the number of values decoded or skipped
+    int decodedCount = 0;
+    for (int start = satisfied.nextSetBit(0); start >= 0;
+        start = satisfied.nextSetBit(decodedCount)) {
+      int end = satisfied.nextClearBit(start);
+      skipValues(start - decodedCount);
+      pageData.putTimes(times, start, end - start);
+      putValues(pageData, end - start);
+      decodedCount = end;
+    }
+    return pageData;
+  }
 
-    while (timeDecoder.hasNext(timeBuffer)) {
-      long timestamp = timeDecoder.readLong(timeBuffer);
-
-      pageData.putTime(timestamp);
-      switch (dataType) {
-        case BOOLEAN:
+  /**
+   * decode the next length values into the batch data.
+   */
+  private void putValues(BatchData pageData, int length) throws IOException {
+    switch (dataType) {
+      case BOOLEAN:
+        for (int i = 0; i < length; i++) {
           pageData.putBoolean(valueDecoder.readBoolean(valueBuffer));
-          break;
-        case INT32:
-          pageData.putInt(valueDecoder.readInt(valueBuffer));
-          break;
-        case INT64:
-          pageData.putLong(valueDecoder.readLong(valueBuffer));
-          break;
-        case FLOAT:
-          pageData.putFloat(valueDecoder.readFloat(valueBuffer));
-          break;
-        case DOUBLE:
-          pageData.putDouble(valueDecoder.readDouble(valueBuffer));
-          break;
-        case TEXT:
+        }
+        break;
+      case INT32:
+        int[] ints = new int[length];
+        checkValueCount(length, valueDecoder.readInts(valueBuffer, ints, 0, length));
+        pageData.putInts(ints, 0, length);
+        break;
+      case INT64:
+        long[] longs = new long[length];
+        checkValueCount(length, valueDecoder.readLongs(valueBuffer, longs, 0, length));
+        pageData.putLongs(longs, 0, length);
+        break;
+      case FLOAT:
+        float[] floats = new float[length];
+        checkValueCount(length, valueDecoder.readFloats(valueBuffer, floats, 0, length));
+        pageData.putFloats(floats, 0, length);
+        break;
+      case DOUBLE:
+        double[] doubles = new double[length];
+        checkValueCount(length, valueDecoder.readDoubles(valueBuffer, doubles, 0, length));
+        pageData.putDoubles(doubles, 0, length);
+        break;
+      case TEXT:
+        for (int i = 0; i < length; i++) {
           pageData.putBinary(valueDecoder.readBinary(valueBuffer));
-          break;
-        default:
-          throw new UnSupportedDataTypeException(String.valueOf(dataType));
-      }
+        }
+        break;
+      default:
+        throw new UnSupportedDataTypeException(String.valueOf(dataType));
     }
-    return pageData;
   }
 
-  private BatchData getAllPageDataWithFilter() throws IOException {
-    BatchData pageData = new BatchData(dataType, true);
-
-    while (timeDecoder.hasNext(timeBuffer)) {
-      long timestamp = timeDecoder.readLong(timeBuffer);
-
-      switch (dataType) {
-        case BOOLEAN:
-          readBoolean(pageData, timestamp);
-          break;
-        case INT32:
-          readInt(pageData, timestamp);
-          break;
-        case INT64:
-          readLong(pageData, timestamp);
-          break;
-        case FLOAT:
-          readFloat(pageData, timestamp);
-          break;
-        case DOUBLE:
-          readDouble(pageData, timestamp);
-          break;
-        case TEXT:
-          readText(pageData, timestamp);
-          break;
-        default:
-          throw new UnSupportedDataTypeException(String.valueOf(dataType));
-      }
+  private void skipValues(int count) throws IOException {
+    if (count > 0) {
+      checkValueCount(count, valueDecoder.skip(valueBuffer, dataType, count));
     }
+  }
 
-    return pageData;
+  /**
+   * decode only the timestamps of the page, the values are decoded by {@link #getValue(int)} when
+   * they are needed.
+   *
+   * @return the timestamps, only the first {@link #getTimeCount()} of them are valid
+   */
+  public long[] readTimes() throws IOException {
+    return readAllTimes();
   }
 
-  private void readBoolean(BatchData pageData, long timestamp) {
-    boolean aBoolean = valueDecoder.readBoolean(valueBuffer);
-    if (filter.satisfy(timestamp, aBoolean)) {
-      pageData.putTime(timestamp);
-      pageData.putBoolean(aBoolean);
-    }
+  public int getTimeCount() {
+    return timeCount;
   }
 
-  private void readInt(BatchData pageData, long timestamp) {
-    int anInt = valueDecoder.readInt(valueBuffer);
-    if (filter.satisfy(timestamp, anInt)) {
-      pageData.putTime(timestamp);
-      pageData.putInt(anInt);
+  /**
+   * get the value of the index-th point after {@link #readTimes()}. The values before it which
+   * have not been decoded are skipped, so the index must not be less than the last given one.
+   */
+  public Object getValue(int index) throws IOException {
+    if (index == valueCount - 1) {
+      return lastValue;
     }
+    if (index < valueCount) {
+      throw new IOException(String.format(
+          "The value of point %d has been skipped, %d values are read", index, valueCount));
+    }
+    skipValues(index - valueCount);
+    switch (dataType) {
+      case BOOLEAN:
+        lastValue = valueDecoder.readBoolean(valueBuffer);
+        break;
+      case INT32:
+        lastValue = valueDecoder.readInt(valueBuffer);
+        break;
+      case INT64:
+        lastValue = valueDecoder.readLong(valueBuffer);
+        break;
+      case FLOAT:
+        lastValue = valueDecoder.readFloat(valueBuffer);
+        break;
+      case DOUBLE:
+        lastValue = valueDecoder.readDouble(valueBuffer);
+        break;
+      case TEXT:
+        lastValue = valueDecoder.readBinary(valueBuffer);
+        break;
+      default:
+        throw new UnSupportedDataTypeException(String.valueOf(dataType));
+    }
+    valueCount = index + 1;
+    return lastValue;
   }
 
-  private void readLong(BatchData pageData, long timestamp) {
-    long aLong = valueDecoder.readLong(valueBuffer);
-    if (filter.satisfy(timestamp, aLong)) {
-      pageData.putTime(timestamp);
-      pageData.putLong(aLong);
+  private BatchData getAllPageDataWithCompiledFilter() throws IOException {
+    long[] times = readAllTimes();
+    BatchData pageData = new BatchData(dataType, true);
+    BitSet satisfied = new BitSet(timeCount);
+    switch (dataType) {
+      case INT32:
+        int[] ints = readAllInts();
+        compiledFilter.satisfyBatch(times, ints, timeCount, satisfied);
+        for (int i = satisfied.nextSetBit(0); i >= 0; i = satisfied.nextSetBit(i + 1)) {
+          pageData.putTime(times[i]);
+          pageData.putInt(ints[i]);
+        }
+        break;
+      case INT64:
+        long[] longs = readAllLongs();
+        compiledFilter.satisfyBatch(times, longs, timeCount, satisfied);
+        for (int i = satisfied.nextSetBit(0); i >= 0; i = satisfied.nextSetBit(i + 1)) {
+          pageData.putTime(times[i]);
+          pageData.putLong(longs[i]);
+        }
+        break;
+      case FLOAT:
+        float[] floats = readAllFloats();
+        compiledFilter.satisfyBatch(times, floats, timeCount, satisfied);
+        for (int i = satisfied.nextSetBit(0); i >= 0; i = satisfied.nextSetBit(i + 1)) {
+          pageData.putTime(times[i]);
+          pageData.putFloat(floats[i]);
+        }
+        break;
+      case DOUBLE:
+        double[] doubles = readAllDoubles();
+        compiledFilter.satisfyBatch(times, doubles, timeCount, satisfied);
+        for (int i = satisfied.nextSetBit(0); i >= 0; i = satisfied.nextSetBit(i + 1)) {
+          pageData.putTime(times[i]);
+          pageData.putDouble(doubles[i]);
+        }
+        break;
+      default:
+        throw new UnSupportedDataTypeException(String.valueOf(dataType));
     }
+    return pageData;
   }
 
-  private void readFloat(BatchData pageData, long timestamp) {
-    float aFloat = valueDecoder.readFloat(valueBuffer);
-    if (filter.satisfy(timestamp, aFloat)) {
-      pageData.putTime(timestamp);
-      pageData.putFloat(aFloat);
+  private BatchData getAllPageDataWithFilter() throws IOException {
+    long[] times = readAllTimes();
+    BatchData pageData = new BatchData(dataType, true);
+    switch (dataType) {
+      case BOOLEAN:
+        for (int i = 0; i < timeCount; i++) {
+          boolean aBoolean = valueDecoder.readBoolean(valueBuffer);
+          if (filter.satisfy(times[i], aBoolean)) {
+            pageData.putTime(times[i]);
+            pageData.putBoolean(aBoolean);
+          }
+        }
+        break;
+      case INT32:
+        int[] ints = readAllInts();
+        for (int i = 0; i < timeCount; i++) {
+          if (filter.satisfy(times[i], ints[i])) {
+            pageData.putTime(times[i]);
+            pageData.putInt(ints[i]);
+          }
+        }
+        break;
+      case INT64:
+        long[] longs = readAllLongs();
+        for (int i = 0; i < timeCount; i++) {
+          if (filter.satisfy(times[i], longs[i])) {
+            pageData.putTime(times[i]);
+            pageData.putLong(longs[i]);
+          }
+        }
+        break;
+      case FLOAT:
+        float[] floats = readAllFloats();
+        for (int i = 0; i < timeCount; i++) {
+          if (filter.satisfy(times[i], floats[i])) {
+            pageData.putTime(times[i]);
+            pageData.putFloat(floats[i]);
+          }
+        }
+        break;
+      case DOUBLE:
+        double[] doubles = readAllDoubles();
+        for (int i = 0; i < timeCount; i++) {
+          if (filter.satisfy(times[i], doubles[i])) {
+            pageData.putTime(times[i]);
+            pageData.putDouble(doubles[i]);
+          }
+        }
+        break;
+      case TEXT:
+        for (int i = 0; i < timeCount; i++) {
+          Binary aBinary = valueDecoder.readBinary(valueBuffer);
+          if (filter.satisfy(times[i], aBinary)) {
+            pageData.putTime(times[i]);
+            pageData.putBinary(aBinary);
+          }
+        }
+        break;
+      default:
+        throw new UnSupportedDataTypeException(String.valueOf(dataType));
     }
+    return pageData;
   }
 
-  private void readDouble(BatchData pageData, long timestamp) {
-    double aDouble = valueDecoder.readDouble(valueBuffer);
-    if (filter.satisfy(timestamp, aDouble)) {
-      pageData.putTime(timestamp);
-      pageData.putDouble(aDouble);
+  /**
+   * decode all the timestamps of the page, their number is set to timeCount.
+   */
+  private long[] readAllTimes() throws IOException {
+    long[] times = new long[numOfValues > 0 ? numOfValues : DEFAULT_TIME_ARRAY_SIZE];
+    timeCount = timeDecoder.readLongs(timeBuffer, times, 0, times.length);
+    while (timeCount == times.length && timeDecoder.hasNext(timeBuffer)) {
+      times = Arrays.copyOf(times, times.length * 2);
+      timeCount += timeDecoder.readLongs(timeBuffer, times, timeCount, times.length - timeCount);
     }
+    return times;
+  }
+
+  private int[] readAllInts() throws IOException {
+    int[] values = new int[timeCount];
+    checkValueCount(timeCount, valueDecoder.readInts(valueBuffer, values, 0, timeCount));
+    return values;
+  }
+
+  private long[] readAllLongs() throws IOException {
+    long[] values = new long[timeCount];
+    checkValueCount(timeCount, valueDecoder.readLongs(valueBuffer, values, 0, timeCount));
+    return values;
+  }
+
+  private float[] readAllFloats() throws IOException {
+    float[] values = new float[timeCount];
+    checkValueCount(timeCount, valueDecoder.readFloats(valueBuffer, values, 0, timeCount));
+    return values;
+  }
+
+  private double[] readAllDoubles() throws IOException {
+    double[] values = new double[timeCount];
+    checkValueCount(timeCount, valueDecoder.readDoubles(valueBuffer, values, 0, timeCount));
+    return values;
   }
 
-  private void readText(BatchData pageData, long timestamp) {
-    Binary aBinary = valueDecoder.readBinary(valueBuffer);
-    if (filter.satisfy(timestamp, aBinary)) {
-      pageData.putTime(timestamp);
-      pageData.putBinary(aBinary);
+  private void checkValueCount(int expected, int actual) throws IOException {
+    if (actual != expected) {
+      throw new IOException(String.format(
+          "The page has %d timestamps but fewer values of %s, %d values are expected but %d are"
+              + " read", timeCount, dataType, expected, actual));
     }
   }
 
@@ -37,6 +37,11 @@ public abstract class FileSeriesReader {
 
   private BatchData data;
 
+  /**
+   * the chunks and pages ending before this time are skipped.
+   */
+  private long skippedTime = Long.MIN_VALUE;
+
   /**
    * constructor of FileSeriesReader.
    */
@@ -78,9 +83,10 @@ public abstract class FileSeriesReader {
     while (chunkToRead < chunkMetaDataList.size()) {
 
       ChunkMetaData chunkMetaData = chunkMetaDataList.get(chunkToRead++);
-      if (chunkSatisfied(chunkMetaData)) {
+      if (chunkMetaData.getEndTime() >= skippedTime && chunkSatisfied(chunkMetaData)) {
         // chunk metadata satisfy the condition
         initChunkReader(chunkMetaData);
+        chunkReader.advanceTo(skippedTime);
 
         if (chunkReader.hasNextBatch()) {
           data = chunkReader.nextBatch();
@@ -99,6 +105,22 @@ public abstract class FileSeriesReader {
     return data;
   }
 
+  /**
+   * skip the following chunks and pages ending before the given time according to the time ranges
+   * in their metadata and headers, without reading them. The points before the time in a page not
+   * skipped are still returned.
+   */
+  public void advanceTo(long time) throws IOException {
+    skippedTime = Math.max(skippedTime, time);
+    if (chunkReader != null) {
+      chunkReader.advanceTo(time);
+    }
+    while (chunkToRead < chunkMetaDataList.size()
+        && chunkMetaDataList.get(chunkToRead).getEndTime() < time) {
+      chunkToRead++;
+    }
+  }
+
   protected abstract void initChunkReader(ChunkMetaData chunkMetaData) throws IOException;
 
   protected abstract boolean chunkSatisfied(ChunkMetaData chunkMetaData);
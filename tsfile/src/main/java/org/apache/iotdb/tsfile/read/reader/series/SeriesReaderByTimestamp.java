@@ -22,10 +22,8 @@ import java.io.IOException;
 import java.util.List;
 import org.apache.iotdb.tsfile.file.metadata.ChunkMetaData;
 import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
-import org.apache.iotdb.tsfile.read.common.BatchData;
 import org.apache.iotdb.tsfile.read.common.Chunk;
 import org.apache.iotdb.tsfile.read.controller.ChunkLoader;
-import org.apache.iotdb.tsfile.read.reader.chunk.ChunkReader;
 import org.apache.iotdb.tsfile.read.reader.chunk.ChunkReaderByTimestamp;
 
 /**
@@ -40,9 +38,15 @@ public class SeriesReaderByTimestamp {
   protected List<ChunkMetaData> chunkMetaDataList;
   private int currentChunkIndex = 0;
 
-  private ChunkReader chunkReader;
-  private long currentTimestamp;
-  private BatchData data = null; // current batch data
+  /**
+   * metadata of the chunk which may contain the next given timestamp, null if it is not found.
+   */
+  private ChunkMetaData currentChunkMetaData;
+  /**
+   * reader of the current chunk, it is created when a timestamp in the range of the chunk is
+   * given.
+   */
+  private ChunkReaderByTimestamp chunkReader;
 
   /**
    * init with chunkLoader and chunkMetaDataList.
@@ -50,7 +54,6 @@ public class SeriesReaderByTimestamp {
   public SeriesReaderByTimestamp(ChunkLoader chunkLoader, List<ChunkMetaData> chunkMetaDataList) {
     this.chunkLoader = chunkLoader;
     this.chunkMetaDataList = chunkMetaDataList;
-    currentTimestamp = Long.MIN_VALUE;
   }
 
   public TSDataType getDataType() {
@@ -58,56 +61,35 @@ public class SeriesReaderByTimestamp {
   }
 
   /**
-   * get value with time equals timestamp. If there is no such point, return null.
+   * get value with time equals timestamp. If there is no such point, return null. The timestamps
+   * must be given in ascending order, and only the values at them are decoded.
    */
   public Object getValueInTimestamp(long timestamp) throws IOException {
-    this.currentTimestamp = timestamp;
-
-    // first initialization, only invoked in the first time
-    if (chunkReader == null) {
-      if (!constructNextSatisfiedChunkReader()) {
+    while (true) {
+      if (currentChunkMetaData == null && !findNextSatisfiedChunk(timestamp)) {
         return null;
       }
-
-      if (chunkReader.hasNextBatch()) {
-        data = chunkReader.nextBatch();
-      } else {
+      if (timestamp < currentChunkMetaData.getStartTime()) {
         return null;
       }
-    }
-
-    while (data != null) {
-      while (data.hasNext()) {
-        if (data.currentTime() < timestamp) {
-          data.next();
-        } else {
-          break;
-        }
+      if (chunkReader == null) {
+        initChunkReader(currentChunkMetaData);
       }
-
-      if (data.hasNext()) {
-        if (data.currentTime() == timestamp) {
-          return data.currentValue();
-        }
-        return null;
-      } else {
-        if (chunkReader.hasNextBatch()) {
-          data = chunkReader.nextBatch();
-        } else if (!constructNextSatisfiedChunkReader()) {
-          return null;
-        }
+      Object value = chunkReader.getValueInTimestamp(timestamp);
+      if (value != null || timestamp < currentChunkMetaData.getEndTime()) {
+        return value;
       }
+      // no larger timestamp is in the chunk
+      currentChunkMetaData = null;
+      chunkReader = null;
     }
-
-    return null;
   }
 
-  private boolean constructNextSatisfiedChunkReader() throws IOException {
+  private boolean findNextSatisfiedChunk(long timestamp) {
     while (currentChunkIndex < chunkMetaDataList.size()) {
       ChunkMetaData chunkMetaData = chunkMetaDataList.get(currentChunkIndex++);
-      if (chunkSatisfied(chunkMetaData)) {
-        initChunkReader(chunkMetaData);
-        ((ChunkReaderByTimestamp) chunkReader).setCurrentTimestamp(currentTimestamp);
+      if (chunkMetaData.getEndTime() >= timestamp) {
+        currentChunkMetaData = chunkMetaData;
         return true;
       }
     }
@@ -120,8 +102,4 @@ public class SeriesReaderByTimestamp {
     this.chunkReader.setMaxTombstoneTime(chunkMetaData.getMaxTombstoneTime());
   }
 
-  private boolean chunkSatisfied(ChunkMetaData chunkMetaData) {
-    return chunkMetaData.getEndTime() >= currentTimestamp;
-  }
-
 }
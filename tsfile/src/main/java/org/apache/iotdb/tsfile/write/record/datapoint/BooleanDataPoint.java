@@ -60,6 +60,11 @@ public class BooleanDataPoint extends DataPoint {
     return value;
   }
 
+  @Override
+  public boolean getBoolean() {
+    return value;
+  }
+
   @Override
   public void setBoolean(boolean value) {
     this.value = value;
@@ -116,6 +116,30 @@ public abstract class DataPoint {
     return sc.toString();
   }
 
+  public boolean getBoolean() {
+    throw new UnsupportedOperationException("get Boolean not support in DataPoint");
+  }
+
+  public int getInteger() {
+    throw new UnsupportedOperationException("get Integer not support in DataPoint");
+  }
+
+  public long getLong() {
+    throw new UnsupportedOperationException("get Long not support in DataPoint");
+  }
+
+  public float getFloat() {
+    throw new UnsupportedOperationException("get Float not support in DataPoint");
+  }
+
+  public double getDouble() {
+    throw new UnsupportedOperationException("get Double not support in DataPoint");
+  }
+
+  public Binary getBinary() {
+    throw new UnsupportedOperationException("get Binary not support in DataPoint");
+  }
+
   public void setInteger(int value) {
     throw new UnsupportedOperationException("set Integer not support in DataPoint");
   }
@@ -60,6 +60,11 @@ public class DoubleDataPoint extends DataPoint {
     return value;
   }
 
+  @Override
+  public double getDouble() {
+    return value;
+  }
+
   @Override
   public void setDouble(double value) {
     this.value = value;
@@ -59,6 +59,11 @@ public class FloatDataPoint extends DataPoint {
     return value;
   }
 
+  @Override
+  public float getFloat() {
+    return value;
+  }
+
   @Override
   public void setFloat(float value) {
     this.value = value;
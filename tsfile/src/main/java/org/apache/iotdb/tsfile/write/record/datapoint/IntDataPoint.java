@@ -59,6 +59,11 @@ public class IntDataPoint extends DataPoint {
     return value;
   }
 
+  @Override
+  public int getInteger() {
+    return value;
+  }
+
   @Override
   public void setInteger(int value) {
     this.value = value;
@@ -61,6 +61,11 @@ public class LongDataPoint extends DataPoint {
     return value;
   }
 
+  @Override
+  public long getLong() {
+    return value;
+  }
+
   @Override
   public void setLong(long value) {
     this.value = value;
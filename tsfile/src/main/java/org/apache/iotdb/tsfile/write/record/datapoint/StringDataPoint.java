@@ -62,6 +62,11 @@ public class StringDataPoint extends DataPoint {
     return value;
   }
 
+  @Override
+  public Binary getBinary() {
+    return value;
+  }
+
   @Override
   public void setString(Binary value) {
     this.value = value;
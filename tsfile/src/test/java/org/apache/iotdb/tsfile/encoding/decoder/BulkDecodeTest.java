@@ -0,0 +1,186 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.tsfile.encoding.decoder;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import org.apache.iotdb.tsfile.encoding.encoder.Encoder;
+import org.apache.iotdb.tsfile.encoding.encoder.TSEncodingBuilder;
+import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
+import org.apache.iotdb.tsfile.file.metadata.enums.TSEncoding;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * The values decoded in bulk must be the same as the values decoded one by one.
+ */
+public class BulkDecodeTest {
+
+  private static final int VALUE_NUM = 3000;
+  /**
+   * the bulk reads ask for these numbers of values in turn, and then for all the rest.
+   */
+  private static final int[] READ_LENGTHS = {1, 7, 100, 1000};
+
+  @Test
+  public void testInt() throws IOException {
+    for (TSEncoding encoding : new TSEncoding[]{TSEncoding.PLAIN, TSEncoding.RLE,
+        TSEncoding.TS_2DIFF}) {
+      ByteBuffer buffer = encode(encoding, TSDataType.INT32);
+      Decoder decoder = Decoder.getDecoderByType(encoding, TSDataType.INT32);
+      int[] expected = new int[VALUE_NUM];
+      for (int i = 0; i < VALUE_NUM; i++) {
+        expected[i] = decoder.readInt(buffer);
+      }
+      Assert.assertFalse(decoder.hasNext(buffer));
+
+      buffer = encode(encoding, TSDataType.INT32);
+      decoder = Decoder.getDecoderByType(encoding, TSDataType.INT32);
+      int[] actual = new int[VALUE_NUM + 1];
+      int count = 0;
+      for (int length : READ_LENGTHS) {
+        Assert.assertEquals(length, decoder.readInts(buffer, actual, count, length));
+        count += length;
+      }
+      count += decoder.readInts(buffer, actual, count, actual.length - count);
+      Assert.assertEquals(encoding.name(), VALUE_NUM, count);
+      Assert.assertFalse(decoder.hasNext(buffer));
+      for (int i = 0; i < VALUE_NUM; i++) {
+        Assert.assertEquals(encoding.name(), expected[i], actual[i]);
+      }
+    }
+  }
+
+  @Test
+  public void testLong() throws IOException {
+    for (TSEncoding encoding : new TSEncoding[]{TSEncoding.PLAIN, TSEncoding.RLE,
+        TSEncoding.TS_2DIFF}) {
+      ByteBuffer buffer = encode(encoding, TSDataType.INT64);
+      Decoder decoder = Decoder.getDecoderByType(encoding, TSDataType.INT64);
+      long[] expected = new long[VALUE_NUM];
+      for (int i = 0; i < VALUE_NUM; i++) {
+        expected[i] = decoder.readLong(buffer);
+      }
+      Assert.assertFalse(decoder.hasNext(buffer));
+
+      buffer = encode(encoding, TSDataType.INT64);
+      decoder = Decoder.getDecoderByType(encoding, TSDataType.INT64);
+      long[] actual = new long[VALUE_NUM + 1];
+      int count = 0;
+      for (int length : READ_LENGTHS) {
+        Assert.assertEquals(length, decoder.readLongs(buffer, actual, count, length));
+        count += length;
+      }
+      count += decoder.readLongs(buffer, actual, count, actual.length - count);
+      Assert.assertEquals(encoding.name(), VALUE_NUM, count);
+      Assert.assertFalse(decoder.hasNext(buffer));
+      for (int i = 0; i < VALUE_NUM; i++) {
+        Assert.assertEquals(encoding.name(), expected[i], actual[i]);
+      }
+    }
+  }
+
+  @Test
+  public void testFloat() throws IOException {
+    for (TSEncoding encoding : new TSEncoding[]{TSEncoding.PLAIN, TSEncoding.RLE,
+        TSEncoding.TS_2DIFF, TSEncoding.GORILLA}) {
+      ByteBuffer buffer = encode(encoding, TSDataType.FLOAT);
+      Decoder decoder = Decoder.getDecoderByType(encoding, TSDataType.FLOAT);
+      float[] expected = new float[VALUE_NUM];
+      for (int i = 0; i < VALUE_NUM; i++) {
+        expected[i] = decoder.readFloat(buffer);
+      }
+      Assert.assertFalse(decoder.hasNext(buffer));
+
+      buffer = encode(encoding, TSDataType.FLOAT);
+      decoder = Decoder.getDecoderByType(encoding, TSDataType.FLOAT);
+      float[] actual = new float[VALUE_NUM + 1];
+      int count = 0;
+      for (int length : READ_LENGTHS) {
+        Assert.assertEquals(length, decoder.readFloats(buffer, actual, count, length));
+        count += length;
+      }
+      count += decoder.readFloats(buffer, actual, count, actual.length - count);
+      Assert.assertEquals(encoding.name(), VALUE_NUM, count);
+      Assert.assertFalse(decoder.hasNext(buffer));
+      for (int i = 0; i < VALUE_NUM; i++) {
+        Assert.assertEquals(encoding.name(), expected[i], actual[i], 0);
+      }
+    }
+  }
+
+  @Test
+  public void testDouble() throws IOException {
+    for (TSEncoding encoding : new TSEncoding[]{TSEncoding.PLAIN, TSEncoding.RLE,
+        TSEncoding.TS_2DIFF, TSEncoding.GORILLA}) {
+      ByteBuffer buffer = encode(encoding, TSDataType.DOUBLE);
+      Decoder decoder = Decoder.getDecoderByType(encoding, TSDataType.DOUBLE);
+      double[] expected = new double[VALUE_NUM];
+      for (int i = 0; i < VALUE_NUM; i++) {
+        expected[i] = decoder.readDouble(buffer);
+      }
+      Assert.assertFalse(decoder.hasNext(buffer));
+
+      buffer = encode(encoding, TSDataType.DOUBLE);
+      decoder = Decoder.getDecoderByType(encoding, TSDataType.DOUBLE);
+      double[] actual = new double[VALUE_NUM + 1];
+      int count = 0;
+      for (int length : READ_LENGTHS) {
+        Assert.assertEquals(length, decoder.readDoubles(buffer, actual, count, length));
+        count += length;
+      }
+      count += decoder.readDoubles(buffer, actual, count, actual.length - count);
+      Assert.assertEquals(encoding.name(), VALUE_NUM, count);
+      Assert.assertFalse(decoder.hasNext(buffer));
+      for (int i = 0; i < VALUE_NUM; i++) {
+        Assert.assertEquals(encoding.name(), expected[i], actual[i], 0);
+      }
+    }
+  }
+
+  /**
+   * encode VALUE_NUM values with both repeated runs and jumps.
+   */
+  static ByteBuffer encode(TSEncoding encoding, TSDataType dataType) throws IOException {
+    Encoder encoder = TSEncodingBuilder.getConverter(encoding).getEncoder(dataType);
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    for (int i = 0; i < VALUE_NUM; i++) {
+      long value = (i / 10) * 3L + (i % 7 == 0 ? i : 0);
+      switch (dataType) {
+        case INT32:
+          encoder.encode((int) value, out);
+          break;
+        case INT64:
+          encoder.encode(value, out);
+          break;
+        case FLOAT:
+          encoder.encode(value / 100.0f, out);
+          break;
+        case DOUBLE:
+          encoder.encode(value / 100.0, out);
+          break;
+        default:
+          throw new IllegalArgumentException(dataType.name());
+      }
+    }
+    encoder.flush(out);
+    return ByteBuffer.wrap(out.toByteArray());
+  }
+}
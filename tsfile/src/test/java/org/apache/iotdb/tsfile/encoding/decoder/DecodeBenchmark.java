@@ -0,0 +1,157 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.tsfile.encoding.decoder;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import org.apache.iotdb.tsfile.encoding.encoder.Encoder;
+import org.apache.iotdb.tsfile.encoding.encoder.TSEncodingBuilder;
+import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
+import org.apache.iotdb.tsfile.file.metadata.enums.TSEncoding;
+
+/**
+ * Decode benchmark. Decode pages of every encoding point by point and in bulk, and report the
+ * throughput of both in points per second.
+ */
+public class DecodeBenchmark {
+
+  private static int numOfPointInPage = 100000;
+  private static int numOfRound = 200;
+  private static int numOfWarmUpRound = 50;
+
+  public static void main(String[] args) throws IOException {
+    bench(TSEncoding.PLAIN, TSDataType.INT64);
+    bench(TSEncoding.TS_2DIFF, TSDataType.INT64);
+    bench(TSEncoding.RLE, TSDataType.INT64);
+    bench(TSEncoding.PLAIN, TSDataType.INT32);
+    bench(TSEncoding.TS_2DIFF, TSDataType.INT32);
+    bench(TSEncoding.RLE, TSDataType.INT32);
+    bench(TSEncoding.PLAIN, TSDataType.DOUBLE);
+    bench(TSEncoding.TS_2DIFF, TSDataType.DOUBLE);
+    bench(TSEncoding.RLE, TSDataType.DOUBLE);
+    bench(TSEncoding.GORILLA, TSDataType.DOUBLE);
+    bench(TSEncoding.GORILLA, TSDataType.FLOAT);
+  }
+
+  private static void bench(TSEncoding encoding, TSDataType dataType) throws IOException {
+    byte[] page = encode(encoding, dataType);
+    for (int i = 0; i < numOfWarmUpRound; i++) {
+      decodeByPoint(page, encoding, dataType);
+      decodeInBulk(page, encoding, dataType);
+    }
+
+    long startTime = System.nanoTime();
+    for (int i = 0; i < numOfRound; i++) {
+      decodeByPoint(page, encoding, dataType);
+    }
+    long byPointTime = System.nanoTime() - startTime;
+
+    startTime = System.nanoTime();
+    for (int i = 0; i < numOfRound; i++) {
+      decodeInBulk(page, encoding, dataType);
+    }
+    long bulkTime = System.nanoTime() - startTime;
+
+    long totalPoints = (long) numOfPointInPage * numOfRound;
+    System.out.println(String.format(
+        "%s %s: point by point %.0f points/s, in bulk %.0f points/s, speedup %.2f", encoding,
+        dataType, totalPoints * 1e9 / byPointTime, totalPoints * 1e9 / bulkTime,
+        (double) byPointTime / bulkTime));
+  }
+
+  private static byte[] encode(TSEncoding encoding, TSDataType dataType) throws IOException {
+    Encoder encoder = TSEncodingBuilder.getConverter(encoding).getEncoder(dataType);
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    long value = 0;
+    for (int i = 0; i < numOfPointInPage; i++) {
+      // a random walk, like the values of a sensor
+      value += (long) (Math.random() * 21) - 10;
+      switch (dataType) {
+        case INT32:
+          encoder.encode((int) value, out);
+          break;
+        case INT64:
+          encoder.encode(value, out);
+          break;
+        case FLOAT:
+          encoder.encode(value / 100.0f, out);
+          break;
+        case DOUBLE:
+          encoder.encode(value / 100.0, out);
+          break;
+        default:
+          throw new IllegalArgumentException(dataType.name());
+      }
+    }
+    encoder.flush(out);
+    return out.toByteArray();
+  }
+
+  private static double decodeByPoint(byte[] page, TSEncoding encoding, TSDataType dataType)
+      throws IOException {
+    Decoder decoder = Decoder.getDecoderByType(encoding, dataType);
+    ByteBuffer buffer = ByteBuffer.wrap(page);
+    // the sum keeps the decoded values alive
+    double sum = 0;
+    while (decoder.hasNext(buffer)) {
+      switch (dataType) {
+        case INT32:
+          sum += decoder.readInt(buffer);
+          break;
+        case INT64:
+          sum += decoder.readLong(buffer);
+          break;
+        case FLOAT:
+          sum += decoder.readFloat(buffer);
+          break;
+        case DOUBLE:
+          sum += decoder.readDouble(buffer);
+          break;
+        default:
+          throw new IllegalArgumentException(dataType.name());
+      }
+    }
+    return sum;
+  }
+
+  private static double decodeInBulk(byte[] page, TSEncoding encoding, TSDataType dataType)
+      throws IOException {
+    Decoder decoder = Decoder.getDecoderByType(encoding, dataType);
+    ByteBuffer buffer = ByteBuffer.wrap(page);
+    switch (dataType) {
+      case INT32:
+        int[] ints = new int[numOfPointInPage];
+        return decoder.readInts(buffer, ints, 0, numOfPointInPage) + ints[numOfPointInPage - 1];
+      case INT64:
+        long[] longs = new long[numOfPointInPage];
+        return decoder.readLongs(buffer, longs, 0, numOfPointInPage) + longs[numOfPointInPage - 1];
+      case FLOAT:
+        float[] floats = new float[numOfPointInPage];
+        return decoder.readFloats(buffer, floats, 0, numOfPointInPage)
+            + floats[numOfPointInPage - 1];
+      case DOUBLE:
+        double[] doubles = new double[numOfPointInPage];
+        return decoder.readDoubles(buffer, doubles, 0, numOfPointInPage)
+            + doubles[numOfPointInPage - 1];
+      default:
+        throw new IllegalArgumentException(dataType.name());
+    }
+  }
+}
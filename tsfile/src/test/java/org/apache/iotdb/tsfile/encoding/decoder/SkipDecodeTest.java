@@ -0,0 +1,103 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.tsfile.encoding.decoder;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
+import org.apache.iotdb.tsfile.file.metadata.enums.TSEncoding;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * The values read after skipping some values must be the same as those at the same positions when
+ * all the values are decoded one by one.
+ */
+public class SkipDecodeTest {
+
+  private static final int VALUE_NUM = 3000;
+  /**
+   * the numbers of values skipped in turn, one value is read after each skip.
+   */
+  private static final int[] SKIP_LENGTHS = {0, 1, 7, 8, 100, 0, 0, 513, 1000, 3};
+
+  @Test
+  public void testInt() throws IOException {
+    check(TSDataType.INT32, TSEncoding.PLAIN, TSEncoding.RLE, TSEncoding.TS_2DIFF);
+  }
+
+  @Test
+  public void testLong() throws IOException {
+    check(TSDataType.INT64, TSEncoding.PLAIN, TSEncoding.RLE, TSEncoding.TS_2DIFF);
+  }
+
+  @Test
+  public void testFloat() throws IOException {
+    check(TSDataType.FLOAT, TSEncoding.PLAIN, TSEncoding.RLE, TSEncoding.TS_2DIFF,
+        TSEncoding.GORILLA);
+  }
+
+  @Test
+  public void testDouble() throws IOException {
+    check(TSDataType.DOUBLE, TSEncoding.PLAIN, TSEncoding.RLE, TSEncoding.TS_2DIFF,
+        TSEncoding.GORILLA);
+  }
+
+  private void check(TSDataType dataType, TSEncoding... encodings) throws IOException {
+    for (TSEncoding encoding : encodings) {
+      String message = dataType + " " + encoding;
+      ByteBuffer buffer = BulkDecodeTest.encode(encoding, dataType);
+      Decoder decoder = Decoder.getDecoderByType(encoding, dataType);
+      double[] expected = new double[VALUE_NUM];
+      for (int i = 0; i < VALUE_NUM; i++) {
+        expected[i] = readValue(decoder, buffer, dataType);
+      }
+
+      buffer = BulkDecodeTest.encode(encoding, dataType);
+      decoder = Decoder.getDecoderByType(encoding, dataType);
+      int position = 0;
+      for (int skipLength : SKIP_LENGTHS) {
+        Assert.assertEquals(message, skipLength, decoder.skip(buffer, dataType, skipLength));
+        position += skipLength;
+        Assert.assertEquals(message + " at " + position, expected[position],
+            readValue(decoder, buffer, dataType), 0);
+        position++;
+      }
+      // skip more values than the rest
+      Assert.assertEquals(message, VALUE_NUM - position,
+          decoder.skip(buffer, dataType, VALUE_NUM));
+      Assert.assertFalse(message, decoder.hasNext(buffer));
+    }
+  }
+
+  private static double readValue(Decoder decoder, ByteBuffer buffer, TSDataType dataType) {
+    switch (dataType) {
+      case INT32:
+        return decoder.readInt(buffer);
+      case INT64:
+        return decoder.readLong(buffer);
+      case FLOAT:
+        return decoder.readFloat(buffer);
+      case DOUBLE:
+        return decoder.readDouble(buffer);
+      default:
+        throw new IllegalArgumentException(dataType.name());
+    }
+  }
+}
@@ -21,10 +21,20 @@ package org.apache.iotdb.tsfile.file.metadata;
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.FileOutputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Paths;
+import java.util.Map;
+import org.apache.iotdb.tsfile.common.conf.TSFileConfig;
 import org.apache.iotdb.tsfile.file.metadata.utils.TestHelper;
 import org.apache.iotdb.tsfile.file.metadata.utils.Utils;
+import org.apache.iotdb.tsfile.read.TsFileSequenceReader;
+import org.apache.iotdb.tsfile.read.reader.DefaultTsFileInput;
+import org.apache.iotdb.tsfile.utils.ReadWriteIOUtils;
+import org.apache.iotdb.tsfile.write.schema.MeasurementSchema;
 import org.junit.After;
+import org.junit.Assert;
 import org.junit.Before;
 import org.junit.Test;
 
@@ -55,6 +65,83 @@ public class TsFileMetaDataTest {
     serialized(readMetaData);
   }
 
+  @Test
+  public void testReadDeviceIndexBySegment() throws IOException {
+    int deviceIndexInterval = TSFileConfig.deviceIndexInterval;
+    TSFileConfig.deviceIndexInterval = 3;
+    try {
+      TsFileMetaData tsfMetaData = TestHelper.createSimpleFileMetaData();
+      for (int i = 0; i < 20; i++) {
+        TsDeviceMetadataIndex index = TestHelper.createSimpleDeviceIndexMetadata();
+        index.setOffset(i * 100);
+        tsfMetaData.getDeviceMap().put("d" + i, index);
+      }
+      serialized(tsfMetaData);
+
+      TsFileSequenceReader reader = new TsFileSequenceReader(
+          new DefaultTsFileInput(Paths.get(PATH)), 0, (int) new File(PATH).length());
+      try {
+        TsFileMetaData readMetaData = reader.readFileMetadataWithoutDeviceIndex();
+        Assert.assertFalse(readMetaData.isDeviceIndexLoaded());
+        Assert.assertEquals(9, readMetaData.getDeviceIndexDirectory().length);
+        for (Map.Entry<String, TsDeviceMetadataIndex> entry : tsfMetaData.getDeviceMap()
+            .entrySet()) {
+          Utils.isTsDeviceMetadataIndexEqual(entry.getValue(),
+              reader.readDeviceMetadataIndex(readMetaData, entry.getKey()));
+        }
+        for (String deviceId : new String[]{"a", "d10_", "d5a", "e"}) {
+          Assert.assertNull(reader.readDeviceMetadataIndex(readMetaData, deviceId));
+        }
+
+        Utils.isFileMetaDataEqual(tsfMetaData, reader.readFileMetadata());
+      } finally {
+        reader.close();
+      }
+    } finally {
+      TSFileConfig.deviceIndexInterval = deviceIndexInterval;
+    }
+  }
+
+  @Test
+  public void testReadVersion3Layout() throws IOException {
+    TsFileMetaData tsfMetaData = TestHelper.createSimpleFileMetaData();
+    tsfMetaData.setCurrentVersion(3);
+
+    // the layout before version 4: the device index in no order, then the measurement schemas
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    ReadWriteIOUtils.write(tsfMetaData.getDeviceMap().size(), out);
+    for (Map.Entry<String, TsDeviceMetadataIndex> entry : tsfMetaData.getDeviceMap().entrySet()) {
+      ReadWriteIOUtils.write(entry.getKey(), out);
+      entry.getValue().serializeTo(out);
+    }
+    ReadWriteIOUtils.write(tsfMetaData.getMeasurementSchema().size(), out);
+    for (Map.Entry<String, MeasurementSchema> entry : tsfMetaData.getMeasurementSchema()
+        .entrySet()) {
+      ReadWriteIOUtils.write(entry.getKey(), out);
+      entry.getValue().serializeTo(out);
+    }
+    ReadWriteIOUtils.write(tsfMetaData.getCurrentVersion(), out);
+    ReadWriteIOUtils.writeIsNull(tsfMetaData.getCreatedBy(), out);
+    ReadWriteIOUtils.write(tsfMetaData.getCreatedBy(), out);
+    Utils.isFileMetaDataEqual(tsfMetaData,
+        TsFileMetaData.deserializeFrom(ByteBuffer.wrap(out.toByteArray())));
+
+    try (FileOutputStream fos = new FileOutputStream(PATH)) {
+      out.writeTo(fos);
+    }
+    TsFileSequenceReader reader = new TsFileSequenceReader(
+        new DefaultTsFileInput(Paths.get(PATH)), 0, out.size());
+    try {
+      TsFileMetaData readMetaData = reader.readFileMetadataWithoutDeviceIndex();
+      Assert.assertTrue(readMetaData.isDeviceIndexLoaded());
+      Utils.isFileMetaDataEqual(tsfMetaData, readMetaData);
+      Utils.isTsDeviceMetadataIndexEqual(tsfMetaData.getDeviceMetadataIndex("device_1"),
+          reader.readDeviceMetadataIndex(readMetaData, "device_1"));
+    } finally {
+      reader.close();
+    }
+  }
+
   private TsFileMetaData deSerialized() {
     FileInputStream fis = null;
     TsFileMetaData metaData = null;
@@ -21,7 +21,9 @@ package org.apache.iotdb.tsfile.read;
 import java.io.IOException;
 import org.apache.iotdb.tsfile.common.conf.TSFileDescriptor;
 import org.apache.iotdb.tsfile.exception.write.WriteProcessException;
+import org.apache.iotdb.tsfile.read.common.Field;
 import org.apache.iotdb.tsfile.read.common.Path;
+import org.apache.iotdb.tsfile.read.common.RowBatch;
 import org.apache.iotdb.tsfile.read.common.RowRecord;
 import org.apache.iotdb.tsfile.read.expression.IExpression;
 import org.apache.iotdb.tsfile.read.expression.QueryExpression;
@@ -113,4 +115,32 @@ public class ReadOnlyTsFileTest {
     Assert.assertEquals(101, count);
 
   }
+
+  @Test
+  public void rowBatchTest() throws IOException {
+    QueryExpression queryExpression = QueryExpression.create().addSelectedPath(new Path("d1.s1"))
+        .addSelectedPath(new Path("d1.s4")).addSelectedPath(new Path("d2.s1"));
+    QueryDataSet recordDataSet = tsFile.query(queryExpression);
+    QueryDataSet batchDataSet = tsFile.query(queryExpression);
+
+    RowBatch rowBatch = new RowBatch(batchDataSet.getDataTypes(), 64);
+    int count = 0;
+    while (batchDataSet.nextRowBatch(rowBatch) > 0) {
+      for (int row = 0; row < rowBatch.size(); row++) {
+        Assert.assertTrue(recordDataSet.hasNext());
+        RowRecord record = recordDataSet.next();
+        Assert.assertEquals(record.getTimestamp(), rowBatch.getTime(row));
+        RowRecord batchRecord = rowBatch.toRowRecord(row);
+        for (int column = 0; column < rowBatch.getColumnNum(); column++) {
+          Field field = record.getFields().get(column);
+          Assert.assertEquals(field.isNull(), rowBatch.isNull(column, row));
+          Assert.assertEquals(field.getStringValue(),
+              batchRecord.getFields().get(column).getStringValue());
+        }
+        count++;
+      }
+    }
+    Assert.assertFalse(recordDataSet.hasNext());
+    Assert.assertEquals(rowCount, count);
+  }
 }
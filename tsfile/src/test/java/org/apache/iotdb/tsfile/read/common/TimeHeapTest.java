@@ -0,0 +1,66 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.tsfile.read.common;
+
+import java.util.Random;
+import java.util.TreeSet;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class TimeHeapTest {
+
+  @Test
+  public void testPollDistinct() {
+    TimeHeap heap = new TimeHeap(2);
+    long[] times = {5, 3, 5, 1, 3, 8, 1, 1};
+    for (long time : times) {
+      heap.add(time);
+    }
+    Assert.assertEquals(1, heap.peek());
+    Assert.assertEquals(1, heap.poll());
+    Assert.assertEquals(3, heap.poll());
+    heap.add(4);
+    heap.add(3);
+    Assert.assertEquals(3, heap.poll());
+    Assert.assertEquals(4, heap.poll());
+    Assert.assertEquals(5, heap.poll());
+    Assert.assertEquals(8, heap.poll());
+    Assert.assertTrue(heap.isEmpty());
+  }
+
+  @Test
+  public void testRandom() {
+    Random random = new Random(1);
+    TimeHeap heap = new TimeHeap(16);
+    TreeSet<Long> expected = new TreeSet<>();
+    for (int i = 0; i < 10000; i++) {
+      if (random.nextInt(3) > 0 || expected.isEmpty()) {
+        long time = random.nextInt(1000);
+        heap.add(time);
+        expected.add(time);
+      } else {
+        Assert.assertEquals((long) expected.pollFirst(), heap.poll());
+      }
+    }
+    while (!expected.isEmpty()) {
+      Assert.assertEquals((long) expected.pollFirst(), heap.poll());
+    }
+    Assert.assertTrue(heap.isEmpty());
+  }
+}
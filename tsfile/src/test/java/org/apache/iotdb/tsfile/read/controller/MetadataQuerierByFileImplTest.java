@@ -22,6 +22,7 @@ import java.io.IOException;
 import java.util.List;
 import org.apache.iotdb.tsfile.exception.write.WriteProcessException;
 import org.apache.iotdb.tsfile.file.metadata.ChunkMetaData;
+import org.apache.iotdb.tsfile.file.metadata.TsFileMetaData;
 import org.apache.iotdb.tsfile.read.TsFileSequenceReader;
 import org.apache.iotdb.tsfile.read.common.Path;
 import org.apache.iotdb.tsfile.utils.TsFileGeneratorForTest;
@@ -56,4 +57,19 @@ public class MetadataQuerierByFileImplTest {
       Assert.assertEquals("s1", chunkMetaData.getMeasurementUid());
     }
   }
+
+  @Test
+  public void testGetWholeFileMetadata() throws IOException {
+    fileReader = new TsFileSequenceReader(FILE_PATH);
+    MetadataQuerierByFileImpl metadataQuerierByFile = new MetadataQuerierByFileImpl(fileReader);
+    TsFileMetaData fileMetaData = metadataQuerierByFile.getWholeFileMetadata();
+    Assert.assertTrue(fileMetaData.isDeviceIndexLoaded());
+    Assert.assertEquals(fileReader.readFileMetadata().getDeviceMap().keySet(),
+        fileMetaData.getDeviceMap().keySet());
+    Assert.assertTrue(fileMetaData.containsDevice("d2"));
+
+    List<ChunkMetaData> chunkMetaDataList = metadataQuerierByFile
+        .getChunkMetaDataList(new Path("d2.s1"));
+    Assert.assertFalse(chunkMetaDataList.isEmpty());
+  }
 }
@@ -0,0 +1,181 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.tsfile.read.filter;
+
+import java.lang.reflect.Array;
+import java.util.BitSet;
+import java.util.Random;
+import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
+import org.apache.iotdb.tsfile.read.filter.basic.Filter;
+import org.apache.iotdb.tsfile.read.filter.factory.FilterFactory;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class CompiledFilterTest {
+
+  private static final int POINT_NUM = 1000;
+
+  private long[] times = new long[POINT_NUM];
+
+  public CompiledFilterTest() {
+    for (int i = 0; i < POINT_NUM; i++) {
+      times[i] = i * 10L;
+    }
+  }
+
+  @Test
+  public void testInt() {
+    Random random = new Random(1);
+    int[] values = new int[POINT_NUM];
+    for (int i = 0; i < POINT_NUM; i++) {
+      values[i] = random.nextInt(100) - 50;
+    }
+    Filter[] filters = {ValueFilter.gt(0), ValueFilter.ltEq(-10), ValueFilter.notEq(3),
+        FilterFactory.and(TimeFilter.gtEq(2000L), ValueFilter.lt(20)),
+        FilterFactory.or(TimeFilter.lt(500L), ValueFilter.not(ValueFilter.gtEq(-20))),
+        ValueFilter.not(FilterFactory.and(TimeFilter.notEq(100L), ValueFilter.eq(7)))};
+    for (Filter filter : filters) {
+      checkSameResults(filter, TSDataType.INT32, values);
+    }
+  }
+
+  @Test
+  public void testLong() {
+    Random random = new Random(2);
+    long[] values = new long[POINT_NUM];
+    for (int i = 0; i < POINT_NUM; i++) {
+      values[i] = random.nextInt(100) + Integer.MAX_VALUE;
+    }
+    Filter[] filters = {ValueFilter.gt(Integer.MAX_VALUE + 50L),
+        FilterFactory.and(ValueFilter.gtEq(Integer.MAX_VALUE + 10L),
+            ValueFilter.lt(Integer.MAX_VALUE + 90L)),
+        FilterFactory.or(TimeFilter.eq(30L), ValueFilter.eq(Integer.MAX_VALUE + 1L))};
+    for (Filter filter : filters) {
+      checkSameResults(filter, TSDataType.INT64, values);
+    }
+  }
+
+  @Test
+  public void testFloatAndDouble() {
+    Random random = new Random(3);
+    float[] floats = new float[POINT_NUM];
+    double[] doubles = new double[POINT_NUM];
+    for (int i = 0; i < POINT_NUM; i++) {
+      doubles[i] = random.nextInt(20) / 4.0 - 2;
+      floats[i] = (float) doubles[i];
+    }
+    // compareTo orders NaN after all the other values, and -0.0 before 0.0
+    floats[0] = Float.NaN;
+    doubles[0] = Double.NaN;
+    floats[1] = -0.0f;
+    doubles[1] = -0.0;
+
+    Filter[] floatFilters = {ValueFilter.gt(0.0f), ValueFilter.eq(-0.0f),
+        ValueFilter.eq(Float.NaN), ValueFilter.ltEq(1.25f),
+        FilterFactory.and(TimeFilter.gt(100L), ValueFilter.notEq(0.5f))};
+    for (Filter filter : floatFilters) {
+      checkSameResults(filter, TSDataType.FLOAT, floats);
+    }
+
+    Filter[] doubleFilters = {ValueFilter.lt(0.0), ValueFilter.gtEq(Double.NaN),
+        FilterFactory.or(ValueFilter.eq(1.5), ValueFilter.not(TimeFilter.ltEq(9000L)))};
+    for (Filter filter : doubleFilters) {
+      checkSameResults(filter, TSDataType.DOUBLE, doubles);
+    }
+  }
+
+  /**
+   * the compiled filter must give the same results as the original one, point by point and in
+   * batch.
+   */
+  private void checkSameResults(Filter filter, TSDataType dataType, Object values) {
+    CompiledFilter compiledFilter = CompiledFilter.compile(filter, dataType);
+    Assert.assertNotNull(filter.toString(), compiledFilter);
+    BitSet out = new BitSet();
+    switch (dataType) {
+      case INT32:
+        compiledFilter.satisfyBatch(times, (int[]) values, POINT_NUM, out);
+        break;
+      case INT64:
+        compiledFilter.satisfyBatch(times, (long[]) values, POINT_NUM, out);
+        break;
+      case FLOAT:
+        compiledFilter.satisfyBatch(times, (float[]) values, POINT_NUM, out);
+        break;
+      default:
+        compiledFilter.satisfyBatch(times, (double[]) values, POINT_NUM, out);
+        break;
+    }
+    for (int i = 0; i < POINT_NUM; i++) {
+      Object value = Array.get(values, i);
+      boolean expected = filter.satisfy(times[i], value);
+      boolean actual;
+      if (value instanceof Integer || value instanceof Long) {
+        actual = compiledFilter.satisfy(times[i], ((Number) value).longValue());
+      } else {
+        actual = compiledFilter.satisfy(times[i], ((Number) value).doubleValue());
+      }
+      Assert.assertEquals(filter + " at " + i, expected, actual);
+      Assert.assertEquals(filter + " at " + i, expected, out.get(i));
+    }
+  }
+
+  @Test
+  public void testBatchKeepsBitsAfterLength() {
+    CompiledFilter compiledFilter = CompiledFilter
+        .compile(ValueFilter.not(ValueFilter.gt(5)), TSDataType.INT32);
+    BitSet out = new BitSet();
+    out.set(3);
+    compiledFilter.satisfyBatch(new long[]{1, 2, 3}, new int[]{4, 6, 8}, 2, out);
+    Assert.assertTrue(out.get(0));
+    Assert.assertFalse(out.get(1));
+    Assert.assertFalse(out.get(2));
+    Assert.assertTrue(out.get(3));
+  }
+
+  @Test
+  public void testNotCompiled() {
+    // the type of the value differs from the data type of the series
+    Assert.assertNull(CompiledFilter.compile(ValueFilter.gt(1L), TSDataType.INT32));
+    Assert.assertNull(CompiledFilter.compile(
+        FilterFactory.and(TimeFilter.gt(1L), ValueFilter.gt(1.0)), TSDataType.FLOAT));
+    // the series is not numeric
+    Assert.assertNull(CompiledFilter.compile(ValueFilter.eq(true), TSDataType.BOOLEAN));
+    Assert.assertNull(CompiledFilter.compileTimeFilter(
+        FilterFactory.or(TimeFilter.gt(1L), ValueFilter.gt(1))));
+  }
+
+  @Test
+  public void testTimeFilter() {
+    Filter filter = FilterFactory.or(TimeFilter.ltEq(500L),
+        ValueFilter.not(FilterFactory.and(TimeFilter.gt(1000L), TimeFilter.lt(5000L))));
+    // only the conditions on time are compiled for a series which is not numeric
+    CompiledFilter compiledFilter = CompiledFilter.compile(filter, TSDataType.TEXT);
+    Assert.assertTrue(compiledFilter.isTimeFilter());
+    Assert.assertFalse(CompiledFilter.compile(ValueFilter.gt(1), TSDataType.INT32).isTimeFilter());
+
+    BitSet out = new BitSet();
+    compiledFilter.satisfyTimeBatch(times, POINT_NUM, out);
+    for (int i = 0; i < POINT_NUM; i++) {
+      boolean expected = filter.satisfy(times[i], null);
+      Assert.assertEquals(filter + " at " + i, expected, compiledFilter.satisfyTime(times[i]));
+      Assert.assertEquals(filter + " at " + i, expected, out.get(i));
+    }
+  }
+}
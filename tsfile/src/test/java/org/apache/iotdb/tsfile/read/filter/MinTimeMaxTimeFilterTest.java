@@ -156,4 +156,32 @@ public class MinTimeMaxTimeFilterTest {
     not = FilterFactory.not(ValueFilter.ltEq(100));
     Assert.assertEquals(false, not.satisfyStartEndTime(minTime, maxTime));
   }
+
+  @Test
+  public void testContain() {
+    Assert.assertEquals(true, TimeFilter.gt(10L).containStartEndTime(minTime, maxTime));
+    Assert.assertEquals(false, TimeFilter.gt(100L).containStartEndTime(minTime, maxTime));
+    Assert.assertEquals(true, TimeFilter.gtEq(100L).containStartEndTime(minTime, maxTime));
+    Assert.assertEquals(true, TimeFilter.lt(201L).containStartEndTime(minTime, maxTime));
+    Assert.assertEquals(false, TimeFilter.lt(200L).containStartEndTime(minTime, maxTime));
+    Assert.assertEquals(true, TimeFilter.ltEq(200L).containStartEndTime(minTime, maxTime));
+    Assert.assertEquals(false, TimeFilter.eq(100L).containStartEndTime(minTime, maxTime));
+    Assert.assertEquals(true, TimeFilter.eq(100L).containStartEndTime(minTime, minTime));
+    Assert.assertEquals(true, TimeFilter.notEq(10L).containStartEndTime(minTime, maxTime));
+    Assert.assertEquals(false, TimeFilter.notEq(150L).containStartEndTime(minTime, maxTime));
+    Assert.assertEquals(false, ValueFilter.gt(10).containStartEndTime(minTime, maxTime));
+
+    Filter andFilter = FilterFactory.and(TimeFilter.gt(10L), TimeFilter.lt(300L));
+    Assert.assertEquals(true, andFilter.containStartEndTime(minTime, maxTime));
+    andFilter = FilterFactory.and(TimeFilter.gt(10L), TimeFilter.lt(150L));
+    Assert.assertEquals(false, andFilter.containStartEndTime(minTime, maxTime));
+
+    Filter orFilter = FilterFactory.or(TimeFilter.gt(150L), TimeFilter.lt(300L));
+    Assert.assertEquals(true, orFilter.containStartEndTime(minTime, maxTime));
+    orFilter = FilterFactory.or(TimeFilter.gt(150L), TimeFilter.lt(50L));
+    Assert.assertEquals(false, orFilter.containStartEndTime(minTime, maxTime));
+
+    Filter not = FilterFactory.not(TimeFilter.ltEq(10L));
+    Assert.assertEquals(false, not.containStartEndTime(minTime, maxTime));
+  }
 }
@@ -19,6 +19,8 @@
 package org.apache.iotdb.tsfile.read.query.timegenerator;
 
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
 import org.apache.iotdb.tsfile.file.metadata.ChunkMetaData;
 import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
 import org.apache.iotdb.tsfile.read.common.BatchData;
@@ -88,31 +90,106 @@ public class NodeTest {
     Assert.assertEquals(ret.length, index);
   }
 
+  @Test
+  public void testAdvanceTo() throws IOException {
+    Node leafNode = new LeafNode(new FakedFileSeriesReader(new long[]{1, 3, 5, 7, 9}, 2));
+    Assert.assertTrue(leafNode.advanceTo(4));
+    Assert.assertEquals(5, leafNode.next());
+    // the returned time is skipped
+    Assert.assertTrue(leafNode.advanceTo(5));
+    Assert.assertEquals(7, leafNode.next());
+    Assert.assertTrue(leafNode.advanceTo(2));
+    Assert.assertEquals(9, leafNode.next());
+    Assert.assertFalse(leafNode.advanceTo(10));
+    Assert.assertFalse(leafNode.hasNext());
+
+    Node orNode = new OrNode(new LeafNode(new FakedFileSeriesReader(new long[]{1, 5, 9})),
+        new LeafNode(new FakedFileSeriesReader(new long[]{2, 6, 7})));
+    Assert.assertEquals(1, orNode.next());
+    Assert.assertTrue(orNode.advanceTo(6));
+    Assert.assertEquals(6, orNode.next());
+    Assert.assertEquals(7, orNode.next());
+    Assert.assertEquals(9, orNode.next());
+    Assert.assertFalse(orNode.advanceTo(10));
+
+    Node andNode = new AndNode(new LeafNode(new FakedFileSeriesReader(new long[]{1, 4, 6, 8})),
+        new LeafNode(new FakedFileSeriesReader(new long[]{1, 2, 4, 8})));
+    Assert.assertEquals(1, andNode.next());
+    Assert.assertTrue(andNode.advanceTo(5));
+    Assert.assertEquals(8, andNode.next());
+    Assert.assertFalse(andNode.hasNext());
+  }
+
+  @Test
+  public void testAndNodeSkipsBatches() throws IOException {
+    long[] dense = new long[1000];
+    for (int i = 0; i < dense.length; i++) {
+      dense[i] = i;
+    }
+    FakedFileSeriesReader denseReader = new FakedFileSeriesReader(dense, 10);
+    FakedFileSeriesReader sparseReader = new FakedFileSeriesReader(new long[]{500, 990, 2000}, 1);
+    testAnd(new long[]{500, 990}, new AndNode(new LeafNode(denseReader),
+        new LeafNode(sparseReader)));
+    // only the batches containing the times of the sparse series are read
+    Assert.assertEquals(3, denseReader.readBatchNum);
+  }
+
+  private void testAnd(long[] ret, Node andNode) throws IOException {
+    int index = 0;
+    while (andNode.hasNext()) {
+      Assert.assertEquals(ret[index++], andNode.next());
+    }
+    Assert.assertEquals(ret.length, index);
+  }
+
   private static class FakedFileSeriesReader extends FileSeriesReader {
 
     BatchData data;
-    boolean hasCachedData;
+    List<BatchData> batches = new ArrayList<>();
+    int batchIndex = 0;
+    int readBatchNum = 0;
 
     public FakedFileSeriesReader(long[] timestamps) {
+      this(timestamps, Math.max(1, timestamps.length));
+    }
+
+    public FakedFileSeriesReader(long[] timestamps, int batchSize) {
       super(null, null);
-      data = new BatchData(TSDataType.INT32, true);
-      for (long time : timestamps) {
-        data.putTime(time);
+      for (int i = 0; i < timestamps.length; i += batchSize) {
+        BatchData batchData = new BatchData(TSDataType.INT32, true);
+        for (int j = i; j < Math.min(timestamps.length, i + batchSize); j++) {
+          batchData.putTime(timestamps[j]);
+        }
+        batches.add(batchData);
+      }
+      if (batches.isEmpty()) {
+        batches.add(new BatchData(TSDataType.INT32, true));
       }
-      hasCachedData = true;
     }
 
     @Override
     public boolean hasNextBatch() {
-      return hasCachedData;
+      return batchIndex < batches.size();
     }
 
     @Override
     public BatchData nextBatch() {
-      hasCachedData = false;
+      data = batches.get(batchIndex++);
+      readBatchNum++;
       return data;
     }
 
+    @Override
+    public void advanceTo(long time) {
+      while (batchIndex < batches.size()) {
+        BatchData batchData = batches.get(batchIndex);
+        if (batchData.length() > 0 && batchData.getTimeByIndex(batchData.length() - 1) >= time) {
+          break;
+        }
+        batchIndex++;
+      }
+    }
+
     @Override
     public BatchData currentBatch() {
       return data;
@@ -0,0 +1,126 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.tsfile.read.reader;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import org.apache.iotdb.tsfile.common.conf.TSFileDescriptor;
+import org.apache.iotdb.tsfile.exception.write.WriteProcessException;
+import org.apache.iotdb.tsfile.read.ReadOnlyTsFile;
+import org.apache.iotdb.tsfile.read.TsFileSequenceReader;
+import org.apache.iotdb.tsfile.read.common.Path;
+import org.apache.iotdb.tsfile.read.expression.QueryExpression;
+import org.apache.iotdb.tsfile.read.expression.impl.SingleSeriesExpression;
+import org.apache.iotdb.tsfile.read.filter.ValueFilter;
+import org.apache.iotdb.tsfile.read.query.dataset.QueryDataSet;
+import org.apache.iotdb.tsfile.utils.TsFileGeneratorForTest;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class MmapTsFileInputTest {
+
+  private static final String PATH = "target/mmapInputTest.bin";
+
+  @After
+  public void after() throws IOException {
+    new File(PATH).delete();
+    TsFileGeneratorForTest.after();
+  }
+
+  @Test
+  public void testSlice() throws IOException {
+    byte[] bytes = new byte[1000];
+    new Random(7).nextBytes(bytes);
+    try (FileOutputStream out = new FileOutputStream(PATH)) {
+      out.write(bytes);
+    }
+
+    TsFileInput input = new MmapTsFileInput(
+        FileChannel.open(Paths.get(PATH), StandardOpenOption.READ), 100);
+    try {
+      Assert.assertEquals(bytes.length, input.size());
+      // within a region, at the end of one, across two and across many
+      int[][] ranges = {{0, 10}, {120, 80}, {90, 20}, {50, 700}, {999, 1}, {1000, 0}};
+      for (int[] range : ranges) {
+        ByteBuffer slice = input.slice(range[0], range[1]);
+        Assert.assertEquals(0, slice.position());
+        Assert.assertEquals(range[1], slice.remaining());
+        Assert.assertEquals(ByteBuffer.wrap(bytes, range[0], range[1]), slice);
+      }
+      Assert.assertTrue(input.slice(120, 80).isReadOnly());
+
+      ByteBuffer dst = ByteBuffer.allocate(300);
+      Assert.assertEquals(300, input.read(dst, 150));
+      dst.flip();
+      Assert.assertEquals(ByteBuffer.wrap(bytes, 150, 300), dst);
+      dst.clear();
+      Assert.assertEquals(100, input.read(dst, 900));
+      Assert.assertEquals(-1, input.read(dst, 1000));
+
+      try {
+        input.slice(950, 51);
+        Assert.fail();
+      } catch (IOException e) {
+        // expected, beyond the end of the file
+      }
+    } finally {
+      input.close();
+    }
+  }
+
+  @Test
+  public void testQuery() throws IOException, InterruptedException, WriteProcessException {
+    TSFileDescriptor.getInstance().getConfig().timeSeriesEncoder = "TS_2DIFF";
+    TsFileGeneratorForTest.generateFile(1000, 16 * 1024 * 1024, 10000);
+    String file = TsFileGeneratorForTest.outputDataFile;
+
+    List<String> expected = query(new TsFileSequenceReader(file));
+    List<String> actual = query(
+        new TsFileSequenceReader(file, MmapTsFileInput.open(Paths.get(file))));
+    Assert.assertFalse(expected.isEmpty());
+    Assert.assertEquals(expected, actual);
+  }
+
+  private List<String> query(TsFileSequenceReader reader) throws IOException {
+    ReadOnlyTsFile tsFile = new ReadOnlyTsFile(reader);
+    List<String> rows = new ArrayList<>();
+    try {
+      QueryExpression queryExpression = QueryExpression.create()
+          .addSelectedPath(new Path("d1.s1")).addSelectedPath(new Path("d1.s2"))
+          .addSelectedPath(new Path("d1.s4"))
+          .setExpression(new SingleSeriesExpression(new Path("d1.s1"), ValueFilter.gt(100)));
+      QueryDataSet dataSet = tsFile.query(queryExpression);
+      while (dataSet.hasNext()) {
+        rows.add(dataSet.next().toString());
+      }
+    } finally {
+      tsFile.close();
+    }
+    return rows;
+  }
+}
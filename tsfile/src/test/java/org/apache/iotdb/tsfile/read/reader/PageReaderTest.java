@@ -37,6 +37,9 @@ import org.apache.iotdb.tsfile.encoding.encoder.PlainEncoder;
 import org.apache.iotdb.tsfile.encoding.encoder.SinglePrecisionEncoder;
 import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
 import org.apache.iotdb.tsfile.read.common.BatchData;
+import org.apache.iotdb.tsfile.read.filter.TimeFilter;
+import org.apache.iotdb.tsfile.read.filter.basic.Filter;
+import org.apache.iotdb.tsfile.read.filter.factory.FilterFactory;
 import org.apache.iotdb.tsfile.read.reader.page.PageReader;
 import org.apache.iotdb.tsfile.utils.Binary;
 import org.apache.iotdb.tsfile.write.page.PageWriter;
@@ -142,6 +145,71 @@ public class PageReaderTest {
     test.test();
   }
 
+  @Test
+  public void testTimeFilter() throws IOException {
+    Filter filter = FilterFactory.or(TimeFilter.lt(100L),
+        FilterFactory.and(TimeFilter.gtEq(5000L), TimeFilter.notEq(5050L)));
+    for (TSDataType dataType : new TSDataType[]{TSDataType.INT32, TSDataType.TEXT}) {
+      PageReader pageReader = new PageReader(writeSparsePage(dataType), dataType,
+          createValueDecoder(dataType), new DeltaBinaryDecoder.LongDeltaDecoder(), filter);
+      BatchData data = pageReader.nextBatch();
+      for (int i = 0; i < 10000; i++) {
+        if (filter.satisfy(i, null)) {
+          Assert.assertTrue(data.hasNext());
+          Assert.assertEquals(i, data.currentTime());
+          Assert.assertEquals(sparsePageValue(dataType, i), data.currentValue());
+          data.next();
+        }
+      }
+      Assert.assertFalse(data.hasNext());
+    }
+  }
+
+  @Test
+  public void testGetValue() throws IOException {
+    for (TSDataType dataType : new TSDataType[]{TSDataType.INT32, TSDataType.TEXT}) {
+      PageReader pageReader = new PageReader(writeSparsePage(dataType), dataType,
+          createValueDecoder(dataType), new DeltaBinaryDecoder.LongDeltaDecoder());
+      long[] times = pageReader.readTimes();
+      Assert.assertEquals(10000, pageReader.getTimeCount());
+      for (int index : new int[]{0, 3, 3, 8, 1000, 1001, 9999}) {
+        Assert.assertEquals(index, times[index]);
+        Assert.assertEquals(sparsePageValue(dataType, index), pageReader.getValue(index));
+      }
+    }
+  }
+
+  private static ByteBuffer writeSparsePage(TSDataType dataType) throws IOException {
+    PageWriter pageWriter = new PageWriter();
+    pageWriter.setTimeEncoder(new DeltaBinaryEncoder.LongDeltaEncoder());
+    if (dataType == TSDataType.INT32) {
+      pageWriter.setValueEncoder(new IntRleEncoder(EndianType.LITTLE_ENDIAN));
+    } else {
+      pageWriter.setValueEncoder(new PlainEncoder(EndianType.LITTLE_ENDIAN, dataType, 1000));
+    }
+    for (int i = 0; i < 10000; i++) {
+      if (dataType == TSDataType.INT32) {
+        pageWriter.write(i, (int) sparsePageValue(dataType, i));
+      } else {
+        pageWriter.write(i, (Binary) sparsePageValue(dataType, i));
+      }
+    }
+    return ByteBuffer.wrap(pageWriter.getUncompressedBytes().array());
+  }
+
+  private static Decoder createValueDecoder(TSDataType dataType) {
+    return dataType == TSDataType.INT32 ? new IntRleDecoder(EndianType.LITTLE_ENDIAN)
+        : new PlainDecoder(EndianType.LITTLE_ENDIAN);
+  }
+
+  /**
+   * runs of repeated values and jumps, so that RLE writes both runs and bit-packed groups.
+   */
+  private static Object sparsePageValue(TSDataType dataType, int i) {
+    int value = i % 37 < 20 ? i / 37 : i * 7;
+    return dataType == TSDataType.INT32 ? (Object) value : new Binary("v" + value);
+  }
+
   private abstract static class LoopWriteReadTest {
 
     private Encoder encoder;
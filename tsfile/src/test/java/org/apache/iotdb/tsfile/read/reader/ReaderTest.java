@@ -100,6 +100,27 @@ public class ReaderTest {
     }
   }
 
+  @Test
+  public void advanceToTest() throws IOException {
+    ChunkLoaderImpl seriesChunkLoader = new ChunkLoaderImpl(fileReader);
+    List<ChunkMetaData> chunkMetaDataList = metadataQuerierByFile
+        .getChunkMetaDataList(new Path("d1.s1"));
+    FileSeriesReader seriesReader = new FileSeriesReaderWithoutFilter(seriesChunkLoader,
+        chunkMetaDataList);
+    long targetTime = TsFileGeneratorForTest.START_TIMESTAMP + rowCount / 2;
+
+    Assert.assertTrue(seriesReader.hasNextBatch());
+    seriesReader.nextBatch();
+    seriesReader.advanceTo(targetTime);
+    // the chunks and pages ending before the target time are skipped
+    Assert.assertTrue(seriesReader.hasNextBatch());
+    BatchData data = seriesReader.nextBatch();
+    Assert.assertTrue(data.currentTime() <= targetTime);
+    Assert.assertTrue(data.getTimeByIndex(data.length() - 1) >= targetTime);
+    data.skipTo(targetTime);
+    Assert.assertEquals(targetTime, data.currentTime());
+  }
+
   @Test
   public void readWithFilterTest() throws IOException {
     ChunkLoaderImpl seriesChunkLoader = new ChunkLoaderImpl(fileReader);